@@ -1214,6 +1214,7 @@ suite = {
       "dependencies" : [
         "org.graalvm.compiler.core.test",
         "org.graalvm.compiler.replacements.amd64",
+        "org.graalvm.compiler.replacements.aarch64",
       ],
       "annotationProcessors" : [
         "GRAAL_NODEINFO_PROCESSOR",
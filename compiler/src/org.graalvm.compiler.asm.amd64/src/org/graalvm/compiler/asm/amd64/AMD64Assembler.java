@@ -3015,6 +3015,14 @@ public class AMD64Assembler extends AMD64BaseAssembler {
         emitModRM(dst, src);
     }
 
+    public final void pmulld(Register dst, Register src) {
+        assert supports(CPUFeature.SSE4_1);
+        assert inRC(XMM, dst) && inRC(XMM, src);
+        simdPrefix(dst, dst, src, PD, P_0F38, false);
+        emitByte(0x40);
+        emitModRM(dst, src);
+    }
+
     public final void push(Register src) {
         prefix(src);
         emitByte(0x50 + encode(src));
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.amd64.test;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static jdk.vm.ci.code.ValueUtil.isRegister;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.function.Predicate;
+
+import org.graalvm.compiler.core.common.cfg.AbstractBlockBase;
+import org.graalvm.compiler.core.test.MatchRuleTest;
+import org.graalvm.compiler.lir.LIR;
+import org.graalvm.compiler.lir.LIRInstruction;
+import org.graalvm.compiler.lir.amd64.AMD64ControlFlow.TestBranchOp;
+import org.graalvm.compiler.lir.amd64.phases.AMD64PeepholeOptimizationPhase;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Before;
+import org.junit.Test;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+public class AMD64PeepholeOptimizationTest extends MatchRuleTest {
+
+    @Before
+    public void checkAMD64() {
+        assumeTrue("skipping AMD64 specific test", getTarget().arch instanceof AMD64);
+    }
+
+    private static OptionValues peepholeOptions() {
+        return new OptionValues(getInitialOptions(), AMD64PeepholeOptimizationPhase.Options.LIROptAMD64Peephole, true);
+    }
+
+    private int countInstructions(String methodName, Predicate<LIRInstruction> predicate) {
+        OptionValues options = peepholeOptions();
+        ResolvedJavaMethod method = getResolvedJavaMethod(methodName);
+        StructuredGraph graph = parseEager(method, AllowAssumptions.YES, options);
+        compile(method, graph, options);
+        LIR lir = getLIR();
+        int count = 0;
+        for (AbstractBlockBase<?> block : lir.codeEmittingOrder()) {
+            if (block == null) {
+                continue;
+            }
+            for (LIRInstruction ins : lir.getLIRforBlock(block)) {
+                if (predicate.test(ins)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static boolean isSelfTest(LIRInstruction ins) {
+        if (ins instanceof TestBranchOp) {
+            TestBranchOp test = (TestBranchOp) ins;
+            return isRegister(test.getX()) && isRegister(test.getY()) && asRegister(test.getX()).equals(asRegister(test.getY()));
+        }
+        return false;
+    }
+
+    public static int orTestSnippet(int a, int b) {
+        int x = a | b;
+        if (x < 0) {
+            return 1;
+        }
+        return x;
+    }
+
+    @Test
+    public void testRedundantTestAfterLogic() {
+        assertDeepEquals(0, countInstructions("orTestSnippet", AMD64PeepholeOptimizationTest::isSelfTest));
+        test(peepholeOptions(), "orTestSnippet", 5, 7);
+        test(peepholeOptions(), "orTestSnippet", -5, 7);
+        test(peepholeOptions(), "orTestSnippet", 0, 0);
+    }
+
+    public static int addTestSnippet(int a, int b) {
+        int x = a + b;
+        if (x == 0) {
+            return 1;
+        }
+        if (x < 0) {
+            return 2;
+        }
+        return x;
+    }
+
+    @Test
+    public void testTestAfterAdd() {
+        test(peepholeOptions(), "addTestSnippet", 5, -5);
+        test(peepholeOptions(), "addTestSnippet", 5, -7);
+        test(peepholeOptions(), "addTestSnippet", Integer.MAX_VALUE, 1);
+        test(peepholeOptions(), "addTestSnippet", 3, 4);
+    }
+
+    public static int leaSnippet(int a) {
+        int x = a + 5;
+        return x ^ a;
+    }
+
+    public static long leaLongSnippet(long a, long b) {
+        long x = a - 12;
+        long y = a + b;
+        return (x ^ y) ^ a ^ b;
+    }
+
+    @Test
+    public void testMoveAndAddToLea() {
+        test(peepholeOptions(), "leaSnippet", 17);
+        test(peepholeOptions(), "leaSnippet", Integer.MAX_VALUE);
+        test(peepholeOptions(), "leaLongSnippet", 17L, 25L);
+        test(peepholeOptions(), "leaLongSnippet", Long.MIN_VALUE, -1L);
+    }
+
+    public static long zeroExtendSnippet(int a, int b) {
+        return Integer.toUnsignedLong(a + b) + a;
+    }
+
+    @Test
+    public void testZeroExtend() {
+        test(peepholeOptions(), "zeroExtendSnippet", 17, 25);
+        test(peepholeOptions(), "zeroExtendSnippet", -1, -1);
+        test(peepholeOptions(), "zeroExtendSnippet", Integer.MIN_VALUE, -1);
+    }
+}
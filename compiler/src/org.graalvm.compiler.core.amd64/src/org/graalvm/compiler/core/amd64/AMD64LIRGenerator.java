@@ -55,6 +55,7 @@ import org.graalvm.compiler.asm.amd64.AVXKind.AVXSize;
 import org.graalvm.compiler.core.common.LIRKind;
 import org.graalvm.compiler.core.common.NumUtil;
 import org.graalvm.compiler.core.common.calc.Condition;
+import org.graalvm.compiler.core.common.calc.ElementwiseOperation;
 import org.graalvm.compiler.core.common.spi.ForeignCallLinkage;
 import org.graalvm.compiler.core.common.spi.LIRKindTool;
 import org.graalvm.compiler.debug.GraalError;
@@ -70,7 +71,9 @@ import org.graalvm.compiler.lir.Variable;
 import org.graalvm.compiler.lir.amd64.AMD64AddressValue;
 import org.graalvm.compiler.lir.amd64.AMD64ArithmeticLIRGeneratorTool;
 import org.graalvm.compiler.lir.amd64.AMD64ArrayCompareToOp;
+import org.graalvm.compiler.lir.amd64.AMD64ArrayElementwiseOp;
 import org.graalvm.compiler.lir.amd64.AMD64ArrayEqualsOp;
+import org.graalvm.compiler.lir.amd64.AMD64ArrayHashCodeOp;
 import org.graalvm.compiler.lir.amd64.AMD64ArrayIndexOfOp;
 import org.graalvm.compiler.lir.amd64.AMD64Binary;
 import org.graalvm.compiler.lir.amd64.AMD64BinaryConsumer;
@@ -93,6 +96,7 @@ import org.graalvm.compiler.lir.amd64.AMD64ControlFlow.TableSwitchOp;
 import org.graalvm.compiler.lir.amd64.AMD64ControlFlow.TestBranchOp;
 import org.graalvm.compiler.lir.amd64.AMD64ControlFlow.TestByteBranchOp;
 import org.graalvm.compiler.lir.amd64.AMD64ControlFlow.TestConstBranchOp;
+import org.graalvm.compiler.lir.amd64.AMD64EncodeArrayOp;
 import org.graalvm.compiler.lir.amd64.AMD64LFenceOp;
 import org.graalvm.compiler.lir.amd64.AMD64Move;
 import org.graalvm.compiler.lir.amd64.AMD64Move.CompareAndSwapOp;
@@ -603,6 +607,21 @@ public abstract class AMD64LIRGenerator extends LIRGenerator {
         return result;
     }
 
+    @Override
+    public Variable emitArrayElementwiseOp(JavaKind kind, ElementwiseOperation operation, int arrayLengthOffset, Value dst, Value src1, Value src2, boolean scalarOperand, Value fromIndex,
+                    Value toIndex) {
+        Variable result = newVariable(LIRKind.value(AMD64Kind.DWORD));
+        int maxVectorSize = getMaxVectorSize();
+        if (maxVectorSize >= 0 && maxVectorSize < 32) {
+            // 256-bit vectors are disabled, leave all elements to the scalar loop
+            emitMove(result, fromIndex);
+            return result;
+        }
+        append(new AMD64ArrayElementwiseOp(this, kind, operation, arrayLengthOffset, result, asAllocatable(dst), asAllocatable(src1), asAllocatable(src2), scalarOperand,
+                        asAllocatable(fromIndex), asAllocatable(toIndex)));
+        return result;
+    }
+
     /**
      * Return the maximum size of vector registers used in SSE/AVX instructions.
      */
@@ -659,6 +678,20 @@ public abstract class AMD64LIRGenerator extends LIRGenerator {
         return res;
     }
 
+    @Override
+    public Variable emitEncodeArray(Value src, Value dst, Value len, boolean ascii) {
+        Variable result = newVariable(LIRKind.value(AMD64Kind.DWORD));
+        append(new AMD64EncodeArrayOp(this, ascii, result, asAllocatable(src), asAllocatable(dst), asAllocatable(len)));
+        return result;
+    }
+
+    @Override
+    public Variable emitArrayHashCode(JavaKind arrayKind, JavaKind valueKind, boolean unsigned, Value array, Value length, Value initialValue) {
+        Variable result = newVariable(LIRKind.value(AMD64Kind.DWORD));
+        append(new AMD64ArrayHashCodeOp(this, arrayKind, valueKind, unsigned, result, asAllocatable(array), asAllocatable(length), asAllocatable(initialValue)));
+        return result;
+    }
+
     @Override
     public void emitReturn(JavaKind kind, Value input) {
         AllocatableValue operand = Value.ILLEGAL;
@@ -25,10 +25,17 @@
 
 package org.graalvm.compiler.core.amd64;
 
+import org.graalvm.compiler.core.common.calc.ElementwiseOperation;
+import org.graalvm.compiler.lir.amd64.AMD64ArrayElementwiseOp;
 import org.graalvm.compiler.nodes.spi.LoweringProvider;
 
+import jdk.vm.ci.code.TargetDescription;
+import jdk.vm.ci.meta.JavaKind;
+
 public interface AMD64LoweringProviderMixin extends LoweringProvider {
 
+    TargetDescription getTarget();
+
     @Override
     default Integer smallestCompareWidth() {
         return 8;
@@ -38,4 +45,9 @@ public interface AMD64LoweringProviderMixin extends LoweringProvider {
     default boolean supportsBulkZeroing() {
         return true;
     }
+
+    @Override
+    default int arrayElementwiseOpVectorLength(JavaKind elementKind, ElementwiseOperation operation) {
+        return AMD64ArrayElementwiseOp.elementsPerVector(getTarget(), elementKind, operation);
+    }
 }
@@ -25,6 +25,7 @@
 package org.graalvm.compiler.core.amd64;
 
 import org.graalvm.compiler.java.DefaultSuitesCreator;
+import org.graalvm.compiler.lir.amd64.phases.AMD64PeepholeOptimizationPhase;
 import org.graalvm.compiler.lir.amd64.phases.StackMoveOptimizationPhase;
 import org.graalvm.compiler.lir.phases.LIRSuites;
 import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderConfiguration.Plugins;
@@ -48,6 +49,9 @@ public class AMD64SuitesCreator extends DefaultSuitesCreator {
             /* Note: this phase must be inserted <b>after</b> RedundantMoveElimination */
             lirSuites.getPostAllocationOptimizationStage().appendPhase(new StackMoveOptimizationPhase());
         }
+        if (AMD64PeepholeOptimizationPhase.Options.LIROptAMD64Peephole.getValue(options)) {
+            lirSuites.getPostAllocationOptimizationStage().appendPhase(new AMD64PeepholeOptimizationPhase());
+        }
         return lirSuites;
     }
 }
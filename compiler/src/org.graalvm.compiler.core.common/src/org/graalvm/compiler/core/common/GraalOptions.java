@@ -105,6 +105,15 @@ public final class GraalOptions {
     @Option(help = "", type = OptionType.Debug)
     public static final OptionKey<Boolean> PartialUnroll = new OptionKey<>(true);
 
+    @Option(help = "Replace the main iterations of simple element-wise array loops with a vectorized array operation.", type = OptionType.Expert)
+    public static final OptionKey<Boolean> LoopVectorization = new OptionKey<>(false);
+
+    @Option(help = "Hoist loop-invariant guards and bounds checks of induction variables out of counted loops as speculative loop predicates.", type = OptionType.Expert)
+    public static final OptionKey<Boolean> LoopPredication = new OptionKey<>(false);
+
+    @Option(help = "Duplicate counted loops that access arrays into a copy without bounds checks, selected by a runtime test in front of the loop.", type = OptionType.Expert)
+    public static final OptionKey<Boolean> LoopVersioning = new OptionKey<>(false);
+
     @Option(help = "", type = OptionType.Expert)
     public static final OptionKey<Float> MinimumPeelFrequency = new OptionKey<>(0.35f);
 
@@ -271,6 +280,12 @@ public final class GraalOptions {
     @Option(help = "Alignment in bytes for loop header blocks.", type = OptionType.Expert)
     public static final OptionKey<Integer> LoopHeaderAlignment = new OptionKey<>(16);
 
+    @Option(help = "Emit rarely executed blocks in a cold region after all frequently executed blocks of a method.", type = OptionType.Expert)
+    public static final OptionKey<Boolean> HotColdSplitting = new OptionKey<>(false);
+
+    @Option(help = "Blocks with a relative frequency below this value are considered cold by HotColdSplitting.", type = OptionType.Expert)
+    public static final OptionKey<Double> HotColdSplittingFrequency = new OptionKey<>(0.001);
+
     @Option(help = "Do not include membars for volatile accesses until the end of optimizations.", type = OptionType.Expert)
     public static final OptionKey<Boolean> LateMembars = new OptionKey<>(true);
 }
@@ -53,6 +53,11 @@ import org.graalvm.compiler.core.common.cfg.Loop;
  * together in the schedule thus decreasing the probability for inserted phi moves. Also, the
  * algorithm sets the linear scan order number of the block that corresponds to its index in the
  * linear scan order.
+ *
+ * The code emission order can optionally be split into a hot and a cold region. Blocks whose
+ * relative frequency is below a threshold (typically exception paths, deoptimization paths and
+ * rarely taken branches) are moved behind all other blocks. This keeps the frequently executed
+ * code of a method dense and improves instruction cache and iTLB utilization.
  */
 public final class ComputeBlockOrder {
 
@@ -88,14 +93,50 @@ public final class ComputeBlockOrder {
      * @return sorted list of blocks
      */
     public static <T extends AbstractBlockBase<T>> AbstractBlockBase<?>[] computeCodeEmittingOrder(int blockCount, T startBlock) {
+        return computeCodeEmittingOrder(blockCount, startBlock, 0.0);
+    }
+
+    /**
+     * Computes the block order used for code emission. Blocks with a relative frequency below
+     * {@code coldFrequency} are moved to a cold region at the end of the order.
+     *
+     * @param coldFrequency relative frequency below which a block is considered cold, a value of
+     *            {@code 0.0} disables hot/cold splitting
+     * @return sorted list of blocks
+     */
+    public static <T extends AbstractBlockBase<T>> AbstractBlockBase<?>[] computeCodeEmittingOrder(int blockCount, T startBlock, double coldFrequency) {
         List<T> order = new ArrayList<>();
         BitSet visitedBlocks = new BitSet(blockCount);
         PriorityQueue<T> worklist = initializeWorklist(startBlock, visitedBlocks);
         computeCodeEmittingOrder(order, worklist, visitedBlocks);
         assert checkOrder(order, blockCount);
+        if (coldFrequency > 0.0) {
+            order = splitHotAndCold(order, startBlock, coldFrequency);
+            assert checkOrder(order, blockCount);
+        }
         return order.toArray(new AbstractBlockBase<?>[0]);
     }
 
+    /**
+     * Moves all blocks with a relative frequency below {@code coldFrequency} behind the other
+     * blocks while preserving the relative order within the hot and within the cold blocks. Cold
+     * blocks are never aligned since their alignment padding would only increase the code size.
+     */
+    private static <T extends AbstractBlockBase<T>> List<T> splitHotAndCold(List<T> order, T startBlock, double coldFrequency) {
+        List<T> hot = new ArrayList<>(order.size());
+        List<T> cold = new ArrayList<>();
+        for (T block : order) {
+            if (block != startBlock && block.getRelativeFrequency() < coldFrequency) {
+                block.setAlign(false);
+                cold.add(block);
+            } else {
+                hot.add(block);
+            }
+        }
+        hot.addAll(cold);
+        return hot;
+    }
+
     /**
      * Iteratively adds paths to the code emission block order.
      */
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.common.calc;
+
+/**
+ * Binary arithmetic operations that a backend can apply to all elements of primitive arrays with
+ * vector instructions. The result of each operation wraps around to the width of the array
+ * element, which makes it independent of the lane width for integer elements.
+ */
+public enum ElementwiseOperation {
+    ADD(true),
+    SUB(false),
+    MUL(true),
+    AND(true),
+    OR(true),
+    XOR(true);
+
+    private final boolean commutative;
+
+    ElementwiseOperation(boolean commutative) {
+        this.commutative = commutative;
+    }
+
+    public boolean isCommutative() {
+        return commutative;
+    }
+
+    /**
+     * Returns true if this operation is defined for floating point elements.
+     */
+    public boolean isFloatingPointOperation() {
+        return this == ADD || this == SUB || this == MUL;
+    }
+}
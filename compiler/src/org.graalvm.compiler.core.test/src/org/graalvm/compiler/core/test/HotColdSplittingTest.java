@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graalvm.compiler.api.directives.GraalDirectives;
+import org.graalvm.compiler.core.common.GraalOptions;
+import org.graalvm.compiler.core.common.alloc.ComputeBlockOrder;
+import org.graalvm.compiler.core.common.cfg.AbstractBlockBase;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.nodes.cfg.ControlFlowGraph;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HotColdSplittingTest extends GraalCompilerTest {
+
+    private static final double COLD_FREQUENCY = GraalOptions.HotColdSplittingFrequency.getDefaultValue();
+
+    public static int coldBranchSnippet(int x) {
+        if (GraalDirectives.injectBranchProbability(0.0001, x == 42)) {
+            return Integer.toString(x).length() * 31 + x;
+        }
+        return x + 1;
+    }
+
+    public static int hotBranchesSnippet(int x) {
+        if (GraalDirectives.injectBranchProbability(0.5, x > 0)) {
+            return x * 3;
+        }
+        return x - 7;
+    }
+
+    private AbstractBlockBase<?>[] computeCodeEmittingOrder(String name, double coldFrequency) {
+        StructuredGraph graph = parseEager(name, AllowAssumptions.YES);
+        createCanonicalizerPhase().apply(graph, getProviders());
+        ControlFlowGraph cfg = ControlFlowGraph.compute(graph, true, true, true, false);
+        AbstractBlockBase<?>[] order = ComputeBlockOrder.computeCodeEmittingOrder(cfg.getBlocks().length, cfg.getStartBlock(), coldFrequency);
+        Assert.assertEquals("every block must be emitted", cfg.getBlocks().length, order.length);
+        Assert.assertSame(cfg.getStartBlock(), order[0]);
+        return order;
+    }
+
+    /**
+     * Counts the blocks below {@code coldFrequency} and checks that they form the cold region at
+     * the end of the order.
+     */
+    private static int countColdBlocks(AbstractBlockBase<?>[] order, double coldFrequency) {
+        int coldBlocks = 0;
+        for (AbstractBlockBase<?> block : order) {
+            if (block != order[0] && block.getRelativeFrequency() < coldFrequency) {
+                Assert.assertFalse("cold blocks must not be aligned", block.isAligned());
+                coldBlocks++;
+            } else {
+                Assert.assertEquals("all cold blocks must follow the hot blocks", 0, coldBlocks);
+            }
+        }
+        return coldBlocks;
+    }
+
+    @Test
+    public void testColdBranch() {
+        AbstractBlockBase<?>[] order = computeCodeEmittingOrder("coldBranchSnippet", COLD_FREQUENCY);
+        Assert.assertTrue("cold blocks expected", countColdBlocks(order, COLD_FREQUENCY) > 0);
+
+        OptionValues options = new OptionValues(getInitialOptions(), GraalOptions.HotColdSplitting, true);
+        test(options, "coldBranchSnippet", 1);
+        test(options, "coldBranchSnippet", 42);
+    }
+
+    @Test
+    public void testSplittingPreservesOrder() {
+        AbstractBlockBase<?>[] unsplit = computeCodeEmittingOrder("coldBranchSnippet", 0.0);
+        AbstractBlockBase<?>[] split = computeCodeEmittingOrder("coldBranchSnippet", COLD_FREQUENCY);
+        /* Splitting only moves the cold blocks behind the hot blocks, in their original order. */
+        List<Integer> hot = new ArrayList<>();
+        List<Integer> cold = new ArrayList<>();
+        for (AbstractBlockBase<?> block : unsplit) {
+            if (block != unsplit[0] && block.getRelativeFrequency() < COLD_FREQUENCY) {
+                cold.add(block.getId());
+            } else {
+                hot.add(block.getId());
+            }
+        }
+        Assert.assertFalse("cold blocks expected", cold.isEmpty());
+        hot.addAll(cold);
+        List<Integer> actual = new ArrayList<>();
+        for (AbstractBlockBase<?> block : split) {
+            actual.add(block.getId());
+        }
+        Assert.assertEquals(hot, actual);
+    }
+
+    @Test
+    public void testHotBranches() {
+        AbstractBlockBase<?>[] order = computeCodeEmittingOrder("hotBranchesSnippet", COLD_FREQUENCY);
+        Assert.assertEquals(0, countColdBlocks(order, COLD_FREQUENCY));
+
+        OptionValues options = new OptionValues(getInitialOptions(), GraalOptions.HotColdSplitting, true);
+        test(options, "hotBranchesSnippet", 5);
+        test(options, "hotBranchesSnippet", -5);
+    }
+}
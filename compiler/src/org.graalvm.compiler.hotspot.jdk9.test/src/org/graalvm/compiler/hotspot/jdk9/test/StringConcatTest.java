@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.hotspot.jdk9.test;
+
+import org.graalvm.compiler.core.common.GraalOptions;
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.nodes.Invoke;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.nodes.java.NewArrayNode;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.replacements.StringConcatPlugin;
+import org.junit.Test;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.ResolvedJavaType;
+
+/**
+ * Tests that {@link StringConcatPlugin} inlines the method handle tree of an
+ * {@code invokedynamic} string concatenation and that the buffer is allocated without zeroing, and
+ * that it stops inlining when the graph exceeds the size budget.
+ */
+public class StringConcatTest extends GraalCompilerTest {
+
+    public static String concat2(String a, String b) {
+        return a + b;
+    }
+
+    public static String concat4(String a, char b, String c, String d) {
+        return "(" + a + b + c + ", " + d + ")";
+    }
+
+    public static String concat8(String a, String b, String c, String d, String e, String f, String g, String h) {
+        return "<" + a + "," + b + "," + c + "," + d + "," + e + "," + f + "," + g + "," + h + ">";
+    }
+
+    public static String concatMixed(String a, int b, long c, boolean d, char e, Object f) {
+        return a + ':' + b + ':' + c + ':' + d + ':' + e + ':' + f;
+    }
+
+    private void checkGraph(String name) {
+        StructuredGraph graph = parseEager(name, AllowAssumptions.YES);
+        for (Invoke invoke : graph.getInvokes()) {
+            ResolvedJavaType declaringClass = invoke.callTarget().targetMethod().getDeclaringClass();
+            assertFalse(declaringClass.getName().startsWith("Ljava/lang/invoke/"), "invoke of %s left in method handle tree", invoke.callTarget().targetMethod());
+            assertFalse(declaringClass.getName().equals("Ljava/lang/StringConcatHelper;"), "invoke of %s left in method handle tree", invoke.callTarget().targetMethod());
+        }
+        createCanonicalizerPhase().apply(graph, getProviders());
+        boolean uninitializedBuffer = false;
+        for (NewArrayNode newArray : graph.getNodes().filter(NewArrayNode.class)) {
+            if (newArray.elementType().getJavaKind() == JavaKind.Byte && !newArray.fillContents()) {
+                uninitializedBuffer = true;
+            }
+        }
+        assertTrue(uninitializedBuffer, "expected the concatenation buffer to be allocated without zeroing");
+    }
+
+    @Test
+    public void testConcat2() {
+        checkGraph("concat2");
+        test("concat2", "abc", "def");
+        test("concat2", "", "");
+        test("concat2", "abc", "\u03b1\u03b2\u03b3");
+        test("concat2", null, "def");
+    }
+
+    @Test
+    public void testConcat4() {
+        checkGraph("concat4");
+        test("concat4", "a", 'b', "c", "d");
+        test("concat4", "a", '\u20ac', "c", "d");
+        test("concat4", "\u00e9t\u00e9", 'b', null, "");
+    }
+
+    @Test
+    public void testConcat8() {
+        checkGraph("concat8");
+        test("concat8", "a", "b", "c", "d", "e", "f", "g", "h");
+        test("concat8", "a", "b", "c", "\u4e2d", "e", "f", "g", "h");
+        test("concat8", "", null, "", null, "", null, "", null);
+    }
+
+    @Test
+    public void testConcatMixed() {
+        checkGraph("concatMixed");
+        test("concatMixed", "x", 42, Long.MIN_VALUE, true, 'y', "z");
+        test("concatMixed", "\u03b1", Integer.MIN_VALUE, 0L, false, '\u03b2', null);
+        test("concatMixed", null, -1, 1L << 40, true, 'c', 3.5d);
+    }
+
+    @Test
+    public void testSizeBudget() {
+        OptionValues options = new OptionValues(getInitialOptions(), GraalOptions.MaximumDesiredSize, 50);
+        StructuredGraph graph = parseEager("concat8", AllowAssumptions.YES, options);
+        boolean treeInvokeLeft = false;
+        for (Invoke invoke : graph.getInvokes()) {
+            String declaringClass = invoke.callTarget().targetMethod().getDeclaringClass().getName();
+            if (declaringClass.startsWith("Ljava/lang/invoke/") || declaringClass.equals("Ljava/lang/StringConcatHelper;")) {
+                treeInvokeLeft = true;
+            }
+        }
+        assertTrue(treeInvokeLeft, "expected the method handle tree to be cut off by MaximumDesiredSize");
+        test(options, "concat8", "a", "b", "c", "d", "e", "f", "g", "h");
+    }
+}
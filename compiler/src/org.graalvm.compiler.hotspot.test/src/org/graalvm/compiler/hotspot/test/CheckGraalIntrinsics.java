@@ -261,8 +261,6 @@ public class CheckGraalIntrinsics extends GraalTest {
                         // Can share most implementation parts with with
                         // Unsafe.allocateUninitializedArray0
                         "java/lang/reflect/Array.newArray(Ljava/lang/Class;I)Ljava/lang/Object;",
-                        // HotSpot MacroAssembler-based intrinsic
-                        "sun/nio/cs/ISO_8859_1$Encoder.encodeISOArray([CI[BII)I",
                         // We have implemented implCompressMultiBlock0 on JDK9+. Does it worth
                         // backporting as corresponding HotSpot stubs are only generated on SPARC?
                         "sun/security/provider/DigestBase.implCompressMultiBlock([BII)I");
@@ -282,17 +280,9 @@ public class CheckGraalIntrinsics extends GraalTest {
                             "java/lang/invoke/MethodHandleImpl.isCompileConstant(Ljava/lang/Object;)Z",
                             // Only used as a marker for vectorization?
                             "java/util/stream/Streams$RangeIntSpliterator.forEachRemaining(Ljava/util/function/IntConsumer;)V",
-                            // Only implemented on non-AMD64 platforms (some logic and runtime call)
-                            "java/util/zip/Adler32.updateByteBuffer(IJII)I",
-                            // Only implemented on non-AMD64 platforms (some logic and runtime call)
-                            "java/util/zip/Adler32.updateBytes(I[BII)I",
-                            // Emits a slow and a fast path and some dispatching logic
-                            "jdk/internal/misc/Unsafe.allocateUninitializedArray0(Ljava/lang/Class;I)Ljava/lang/Object;",
 
                             // Control flow, deopts, and a cast
-                            "jdk/internal/util/Preconditions.checkIndex(IILjava/util/function/BiFunction;)I",
-                            // HotSpot MacroAssembler-based intrinsic
-                            "sun/nio/cs/ISO_8859_1$Encoder.implEncodeISOArray([CI[BII)I");
+                            "jdk/internal/util/Preconditions.checkIndex(IILjava/util/function/BiFunction;)I");
 
             /*
              * Per default, all these operations are mapped to some generic method for which we
@@ -338,8 +328,7 @@ public class CheckGraalIntrinsics extends GraalTest {
 
             // Compact string support - HotSpot MacroAssembler-based intrinsic or complex C2 logic.
             add(toBeInvestigated,
-                            "java/lang/StringCoding.hasNegatives([BII)Z",
-                            "java/lang/StringCoding.implEncodeISOArray([BI[BII)I");
+                            "java/lang/StringCoding.hasNegatives([BII)Z");
             add(ignore,
                             // handled through an intrinsic for String.equals itself
                             "java/lang/StringLatin1.equals([B[B)Z",
@@ -429,18 +418,20 @@ public class CheckGraalIntrinsics extends GraalTest {
         }
 
         if (!(arch instanceof AMD64)) {
+            // HotSpot MacroAssembler-based intrinsics
+            if (isJDK9OrHigher()) {
+                add(toBeInvestigated,
+                                "java/lang/StringCoding.implEncodeISOArray([BI[BII)I",
+                                "sun/nio/cs/ISO_8859_1$Encoder.implEncodeISOArray([CI[BII)I");
+            } else {
+                add(toBeInvestigated,
+                                "sun/nio/cs/ISO_8859_1$Encoder.encodeISOArray([CI[BII)I");
+            }
+
             // Can we implement these on non-AMD64 platforms? C2 seems to.
             add(toBeInvestigated,
                             "com/sun/crypto/provider/CounterMode.implCrypt([BII[BI)I",
                             "java/lang/String.compareTo(Ljava/lang/String;)I",
-                            "java/lang/StringLatin1.indexOf([B[B)I",
-                            "java/lang/StringLatin1.inflate([BI[BII)V",
-                            "java/lang/StringLatin1.inflate([BI[CII)V",
-                            "java/lang/StringUTF16.compress([BI[BII)I",
-                            "java/lang/StringUTF16.compress([CI[BII)I",
-                            "java/lang/StringUTF16.indexOf([BI[BII)I",
-                            "java/lang/StringUTF16.indexOf([B[B)I",
-                            "java/lang/StringUTF16.indexOfChar([BIII)I",
                             "java/lang/StringUTF16.indexOfLatin1([BI[BII)I",
                             "java/lang/StringUTF16.indexOfLatin1([B[B)I",
                             "jdk/internal/misc/Unsafe.compareAndExchangeByte(Ljava/lang/Object;JBB)B",
@@ -461,6 +452,14 @@ public class CheckGraalIntrinsics extends GraalTest {
                 if (!(arch instanceof AArch64)) {
                     add(toBeInvestigated,
                                     "java/lang/StringLatin1.compareTo([B[B)I",
+                                    "java/lang/StringLatin1.indexOf([B[B)I",
+                                    "java/lang/StringLatin1.inflate([BI[BII)V",
+                                    "java/lang/StringLatin1.inflate([BI[CII)V",
+                                    "java/lang/StringUTF16.compress([BI[BII)I",
+                                    "java/lang/StringUTF16.compress([CI[BII)I",
+                                    "java/lang/StringUTF16.indexOf([BI[BII)I",
+                                    "java/lang/StringUTF16.indexOf([B[B)I",
+                                    "java/lang/StringUTF16.indexOfChar([BIII)I",
                                     "java/lang/StringLatin1.compareToUTF16([B[B)I",
                                     "java/lang/StringUTF16.compareTo([B[B)I",
                                     "java/lang/StringUTF16.compareToLatin1([B[B)I",
@@ -515,6 +514,13 @@ public class CheckGraalIntrinsics extends GraalTest {
                             "java/util/zip/CRC32C.updateDirectByteBuffer(IJII)I");
         }
 
+        // Adler32 intrinsics
+        if (isJDK9OrHigher() && !config.useAdler32Intrinsics()) {
+            add(ignore,
+                            "java/util/zip/Adler32.updateByteBuffer(IJII)I",
+                            "java/util/zip/Adler32.updateBytes(I[BII)I");
+        }
+
         String cbcEncryptName = HotSpotGraphBuilderPlugins.lookupIntrinsicName(config, "com/sun/crypto/provider/CipherBlockChaining", "implEncrypt", "encrypt");
         String cbcDecryptName = HotSpotGraphBuilderPlugins.lookupIntrinsicName(config, "com/sun/crypto/provider/CipherBlockChaining", "implDecrypt", "decrypt");
         String aesEncryptName = HotSpotGraphBuilderPlugins.lookupIntrinsicName(config, "com/sun/crypto/provider/AESCrypt", "implEncryptBlock", "encryptBlock");
@@ -37,6 +37,7 @@ import java.lang.invoke.VolatileCallSite;
 import java.lang.reflect.Array;
 import java.lang.reflect.Type;
 import java.math.BigInteger;
+import java.util.zip.Adler32;
 import java.util.zip.CRC32;
 
 import org.graalvm.collections.Pair;
@@ -50,6 +51,7 @@ import org.graalvm.compiler.hotspot.GraalHotSpotVMConfig;
 import org.graalvm.compiler.hotspot.HotSpotGraalRuntimeProvider;
 import org.graalvm.compiler.hotspot.nodes.CurrentJavaThreadNode;
 import org.graalvm.compiler.hotspot.replacements.AESCryptSubstitutions;
+import org.graalvm.compiler.hotspot.replacements.Adler32Substitutions;
 import org.graalvm.compiler.hotspot.replacements.ArraysSupportSubstitutions;
 import org.graalvm.compiler.hotspot.replacements.BigIntegerSubstitutions;
 import org.graalvm.compiler.hotspot.replacements.CRC32CSubstitutions;
@@ -102,6 +104,7 @@ import org.graalvm.compiler.replacements.MethodHandlePlugin;
 import org.graalvm.compiler.replacements.NodeIntrinsificationProvider;
 import org.graalvm.compiler.replacements.ReplacementsImpl;
 import org.graalvm.compiler.replacements.StandardGraphBuilderPlugins;
+import org.graalvm.compiler.replacements.StringConcatPlugin;
 import org.graalvm.compiler.replacements.arraycopy.ArrayCopyNode;
 import org.graalvm.compiler.serviceprovider.GraalServices;
 import org.graalvm.compiler.serviceprovider.JavaVersionUtil;
@@ -158,6 +161,9 @@ public class HotSpotGraphBuilderPlugins {
         }
         plugins.appendInlineInvokePlugin(replacements);
         if (InlineDuringParsing.getValue(options)) {
+            if (JavaVersionUtil.JAVA_SPEC > 8 && !GeneratePIC.getValue(options)) {
+                plugins.appendInlineInvokePlugin(new StringConcatPlugin());
+            }
             plugins.appendInlineInvokePlugin(new InlineDuringParsingPlugin());
         }
 
@@ -188,6 +194,7 @@ public class HotSpotGraphBuilderPlugins {
                 registerAESPlugins(invocationPlugins, config, replacements);
                 registerCRC32Plugins(invocationPlugins, config, replacements);
                 registerCRC32CPlugins(invocationPlugins, config, replacements);
+                registerAdler32Plugins(invocationPlugins, config, replacements);
                 registerBigIntegerPlugins(invocationPlugins, config, replacements);
                 registerSHAPlugins(invocationPlugins, config, replacements);
                 registerGHASHPlugins(invocationPlugins, config, metaAccess, foreignCalls);
@@ -725,6 +732,14 @@ public class HotSpotGraphBuilderPlugins {
         }
     }
 
+    private static void registerAdler32Plugins(InvocationPlugins plugins, GraalHotSpotVMConfig config, Replacements replacements) {
+        if (JavaVersionUtil.JAVA_SPEC > 8) {
+            Registration r = new Registration(plugins, Adler32.class, replacements);
+            r.registerConditionalMethodSubstitution(config.useAdler32Intrinsics(), Adler32Substitutions.class, "updateBytes", int.class, byte[].class, int.class, int.class);
+            r.registerConditionalMethodSubstitution(config.useAdler32Intrinsics(), Adler32Substitutions.class, "updateByteBuffer", int.class, long.class, int.class, int.class);
+        }
+    }
+
     private static void registerArraysSupportPlugins(InvocationPlugins plugins, GraalHotSpotVMConfig config, Replacements replacements) {
         if (JavaVersionUtil.JAVA_SPEC > 8) {
             Registration r = new Registration(plugins, "jdk.internal.util.ArraysSupport", replacements);
@@ -63,5 +63,9 @@ public class BytecodeParserOptions {
 
     @Option(help = "Maximum depth when inlining during bytecode parsing.", type = OptionType.Debug)
     public static final OptionKey<Integer> InlineDuringParsingMaxDepth = new OptionKey<>(10);
+
+    @Option(help = "Maximum depth, relative to the call site, when inlining the method handle tree " +
+                   "of an invokedynamic string concatenation during bytecode parsing.", type = OptionType.Debug)
+    public static final OptionKey<Integer> InlineStringConcatDuringParsingMaxDepth = new OptionKey<>(100);
     // @formatter:on
 }
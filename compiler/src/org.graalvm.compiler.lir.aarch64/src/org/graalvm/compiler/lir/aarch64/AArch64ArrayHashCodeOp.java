@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.aarch64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.aarch64.AArch64Address;
+import org.graalvm.compiler.asm.aarch64.AArch64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.aarch64.AArch64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.debug.GraalError;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Computes {@code h = 31 * h + a[i]} over the elements of an array, as done by
+ * {@code java.util.Arrays.hashCode} and {@code String.hashCode}.
+ *
+ * Four elements are hashed per iteration as
+ * {@code h = 31^4 * h + (31^3 * a[i] + 31^2 * a[i + 1]) + (31 * a[i + 2] + a[i + 3])}, so only a
+ * single multiply-add depends on the hash of the previous iteration.
+ */
+@Opcode("ARRAY_HASHCODE")
+public final class AArch64ArrayHashCodeOp extends AArch64LIRInstruction {
+    public static final LIRInstructionClass<AArch64ArrayHashCodeOp> TYPE = LIRInstructionClass.create(AArch64ArrayHashCodeOp.class);
+
+    private static final int ELEMENTS_PER_LOOP = 4;
+
+    private final JavaKind valueKind;
+    private final boolean unsigned;
+    private final int arrayBaseOffset;
+    private final int valueSize;
+
+    @Def({REG}) protected Value resultValue;
+    @Alive({REG}) protected Value arrayValue;
+    @Alive({REG}) protected Value lengthValue;
+    @Use({REG}) protected Value initialValue;
+    @Temp({REG}) protected Value temp1;
+    @Temp({REG}) protected Value temp2;
+    @Temp({REG}) protected Value temp3;
+    @Temp({REG}) protected Value temp4;
+    @Temp({REG}) protected Value temp5;
+    @Temp({REG}) protected Value temp6;
+    @Temp({REG}) protected Value temp7;
+    @Temp({REG}) protected Value temp8;
+    @Temp({REG}) protected Value temp9;
+    @Temp({REG}) protected Value temp10;
+
+    public AArch64ArrayHashCodeOp(LIRGeneratorTool tool, JavaKind arrayKind, JavaKind valueKind, boolean unsigned, Value result, Value array, Value length, Value initial) {
+        super(TYPE);
+        GraalError.guarantee(valueKind == JavaKind.Byte || valueKind == JavaKind.Char || valueKind == JavaKind.Short || valueKind == JavaKind.Int, "unsupported value kind %s", valueKind);
+        this.valueKind = valueKind;
+        this.unsigned = unsigned;
+        this.arrayBaseOffset = tool.getProviders().getMetaAccess().getArrayBaseOffset(arrayKind);
+        this.valueSize = tool.getProviders().getMetaAccess().getArrayIndexScale(valueKind);
+
+        this.resultValue = result;
+        this.arrayValue = array;
+        this.lengthValue = length;
+        this.initialValue = initial;
+
+        this.temp1 = tool.newVariable(LIRKind.unknownReference(tool.target().arch.getWordKind()));
+        this.temp2 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp3 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp4 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp5 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp6 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp7 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp8 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp9 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp10 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AArch64MacroAssembler masm) {
+        Register result = asRegister(resultValue);
+        Register address = asRegister(temp1);
+        Register remaining = asRegister(temp2);
+        Register pow1 = asRegister(temp3);
+        Register pow2 = asRegister(temp4);
+        Register pow3 = asRegister(temp5);
+        Register pow4 = asRegister(temp6);
+        Register value1 = asRegister(temp7);
+        Register value2 = asRegister(temp8);
+        Register value3 = asRegister(temp9);
+        Register value4 = asRegister(temp10);
+
+        Label vectorLoop = new Label();
+        Label tailLoop = new Label();
+        Label done = new Label();
+
+        masm.mov(32, result, asRegister(initialValue));
+        masm.add(64, address, asRegister(arrayValue), arrayBaseOffset);
+        masm.mov(32, remaining, asRegister(lengthValue));
+        masm.mov(pow1, 31);
+        masm.mov(pow2, 31 * 31);
+        masm.mov(pow3, 31 * 31 * 31);
+        masm.mov(pow4, 31 * 31 * 31 * 31);
+
+        masm.align(crb.target.wordSize * 2);
+        masm.bind(vectorLoop);
+        masm.cmp(32, remaining, ELEMENTS_PER_LOOP);
+        masm.branchConditionally(ConditionFlag.LT, tailLoop);
+        emitLoad(masm, value1, address);
+        emitLoad(masm, value2, address);
+        emitLoad(masm, value3, address);
+        emitLoad(masm, value4, address);
+        masm.mul(32, value1, value1, pow3);
+        masm.madd(32, value1, value2, pow2, value1);
+        masm.madd(32, value3, value3, pow1, value4);
+        masm.add(32, value1, value1, value3);
+        masm.madd(32, result, result, pow4, value1);
+        masm.sub(32, remaining, remaining, ELEMENTS_PER_LOOP);
+        masm.jmp(vectorLoop);
+
+        masm.bind(tailLoop);
+        masm.cbz(32, remaining, done);
+        emitLoad(masm, value1, address);
+        masm.madd(32, result, result, pow1, value1);
+        masm.sub(32, remaining, remaining, 1);
+        masm.jmp(tailLoop);
+
+        masm.bind(done);
+    }
+
+    private void emitLoad(AArch64MacroAssembler masm, Register dst, Register address) {
+        AArch64Address next = AArch64Address.createPostIndexedImmediateAddress(address, valueSize);
+        int bits = valueSize * Byte.SIZE;
+        if (valueKind == JavaKind.Char || valueKind == JavaKind.Int || unsigned) {
+            masm.ldr(bits, dst, next);
+        } else {
+            masm.ldrs(32, bits, dst, next);
+        }
+    }
+}
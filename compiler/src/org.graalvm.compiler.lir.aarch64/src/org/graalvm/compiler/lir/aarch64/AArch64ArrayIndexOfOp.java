@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.aarch64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.aarch64.AArch64Address;
+import org.graalvm.compiler.asm.aarch64.AArch64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.aarch64.AArch64Assembler.ShiftType;
+import org.graalvm.compiler.asm.aarch64.AArch64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.code.CodeUtil;
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code which searches an array for the first occurrence of a single byte or char value.
+ * The bulk of the array is scanned 8 bytes at a time: the search value is replicated into every
+ * lane of a 64-bit register and a lane equal to it is detected with the usual
+ * {@code (x - 0x01..01) & ~x & 0x80..80} zero-lane test on the XOR of both words.
+ */
+@Opcode("ARRAY_INDEX_OF")
+public final class AArch64ArrayIndexOfOp extends AArch64LIRInstruction {
+    public static final LIRInstructionClass<AArch64ArrayIndexOfOp> TYPE = LIRInstructionClass.create(AArch64ArrayIndexOfOp.class);
+
+    private static final int VECTOR_SIZE = 8;
+
+    private final int arrayBaseOffset;
+    private final int elementSize;
+
+    @Def({REG}) protected Value resultValue;
+    @Alive({REG}) protected Value arrayValue;
+    @Alive({REG}) protected Value lengthValue;
+    @Alive({REG}) protected Value fromIndexValue;
+    @Alive({REG}) protected Value searchValue;
+    @Temp({REG}) protected Value temp1;
+    @Temp({REG}) protected Value temp2;
+    @Temp({REG}) protected Value temp3;
+    @Temp({REG}) protected Value temp4;
+    @Temp({REG}) protected Value temp5;
+    @Temp({REG}) protected Value temp6;
+    @Temp({REG}) protected Value temp7;
+    @Temp({REG}) protected Value temp8;
+
+    public AArch64ArrayIndexOfOp(LIRGeneratorTool tool, JavaKind arrayKind, JavaKind valueKind, Value result, Value array, Value length, Value fromIndex, Value search) {
+        super(TYPE);
+        assert valueKind == JavaKind.Byte || valueKind == JavaKind.Char : valueKind;
+        assert arrayKind == JavaKind.Byte || arrayKind == valueKind : arrayKind;
+        this.arrayBaseOffset = tool.getProviders().getMetaAccess().getArrayBaseOffset(arrayKind);
+        this.elementSize = tool.getProviders().getMetaAccess().getArrayIndexScale(valueKind);
+
+        this.resultValue = result;
+        this.arrayValue = array;
+        this.lengthValue = length;
+        this.fromIndexValue = fromIndex;
+        this.searchValue = search;
+
+        this.temp1 = tool.newVariable(LIRKind.unknownReference(tool.target().arch.getWordKind()));
+        this.temp2 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp3 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp4 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp5 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp6 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp7 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp8 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AArch64MacroAssembler masm) {
+        Register result = asRegister(resultValue);
+        Register length = asRegister(lengthValue);
+        Register base = asRegister(temp1);
+        Register index = asRegister(temp2);
+        Register value = asRegister(temp3);
+        Register pattern = asRegister(temp4);
+        Register ones = asRegister(temp5);
+        Register highs = asRegister(temp6);
+        Register word = asRegister(temp7);
+        Register tmp = asRegister(temp8);
+
+        int elementShift = CodeUtil.log2(elementSize);
+        int elementsPerVector = VECTOR_SIZE / elementSize;
+        long laneOnes = elementSize == 1 ? 0x0101010101010101L : 0x0001000100010001L;
+        long laneHighs = elementSize == 1 ? 0x8080808080808080L : 0x8000800080008000L;
+
+        Label vectorLoop = new Label();
+        Label vectorFound = new Label();
+        Label tailLoop = new Label();
+        Label found = new Label();
+        Label notFound = new Label();
+        Label done = new Label();
+
+        masm.lea(base, AArch64Address.createUnscaledImmediateAddress(asRegister(arrayValue), arrayBaseOffset));
+        masm.mov(32, index, asRegister(fromIndexValue));
+
+        // Replicate the search value into every lane.
+        masm.and(64, value, asRegister(searchValue), elementSize == 1 ? 0xFFL : 0xFFFFL);
+        masm.mov(ones, laneOnes);
+        masm.mov(highs, laneHighs);
+        masm.mul(64, pattern, value, ones);
+
+        masm.align(crb.target.wordSize * 2);
+        masm.bind(vectorLoop);
+        masm.sub(32, tmp, length, index);
+        masm.cmp(32, tmp, elementsPerVector);
+        masm.branchConditionally(ConditionFlag.LT, tailLoop);
+        masm.add(64, tmp, base, index, ShiftType.LSL, elementShift);
+        masm.ldr(64, word, AArch64Address.createBaseRegisterOnlyAddress(tmp));
+        // Lanes equal to the search value become zero, and zero lanes get their high bit set.
+        masm.eor(64, word, word, pattern);
+        masm.sub(64, tmp, word, ones);
+        masm.bic(64, tmp, tmp, word);
+        masm.and(64, tmp, tmp, highs);
+        masm.cbnz(64, tmp, vectorFound);
+        masm.add(32, index, index, elementsPerVector);
+        masm.jmp(vectorLoop);
+
+        // The lowest marked lane is the first match since the array is read little-endian.
+        masm.bind(vectorFound);
+        masm.rbit(64, tmp, tmp);
+        masm.clz(64, tmp, tmp);
+        masm.lshr(64, tmp, tmp, 3 + elementShift);
+        masm.add(32, index, index, tmp);
+        masm.jmp(found);
+
+        masm.bind(tailLoop);
+        masm.cmp(32, index, length);
+        masm.branchConditionally(ConditionFlag.GE, notFound);
+        masm.ldr(elementSize * Byte.SIZE, word, AArch64Address.createRegisterOffsetAddress(base, index, elementSize > 1));
+        masm.cmp(32, word, value);
+        masm.branchConditionally(ConditionFlag.EQ, found);
+        masm.add(32, index, index, 1);
+        masm.jmp(tailLoop);
+
+        masm.bind(notFound);
+        masm.mov(result, -1);
+        masm.jmp(done);
+
+        masm.bind(found);
+        masm.mov(32, result, index);
+        masm.bind(done);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.aarch64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.aarch64.AArch64Address;
+import org.graalvm.compiler.asm.aarch64.AArch64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.aarch64.AArch64Assembler.ShiftType;
+import org.graalvm.compiler.asm.aarch64.AArch64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code which inflates {@code len} Latin-1 bytes at {@code src} into UTF-16 chars at
+ * {@code dst}. Eight bytes are loaded at once and widened in two halves by spreading them across
+ * the lanes of a 64-bit register.
+ */
+@Opcode("STRING_LATIN1_INFLATE")
+public final class AArch64StringLatin1InflateOp extends AArch64LIRInstruction {
+    public static final LIRInstructionClass<AArch64StringLatin1InflateOp> TYPE = LIRInstructionClass.create(AArch64StringLatin1InflateOp.class);
+
+    private static final int VECTOR_SIZE = 8;
+
+    @Alive({REG}) protected Value srcValue;
+    @Alive({REG}) protected Value dstValue;
+    @Alive({REG}) protected Value lenValue;
+    @Temp({REG}) protected Value temp1;
+    @Temp({REG}) protected Value temp2;
+    @Temp({REG}) protected Value temp3;
+    @Temp({REG}) protected Value temp4;
+    @Temp({REG}) protected Value temp5;
+
+    public AArch64StringLatin1InflateOp(LIRGeneratorTool tool, Value src, Value dst, Value len) {
+        super(TYPE);
+        this.srcValue = src;
+        this.dstValue = dst;
+        this.lenValue = len;
+
+        this.temp1 = tool.newVariable(LIRKind.unknownReference(tool.target().arch.getWordKind()));
+        this.temp2 = tool.newVariable(LIRKind.unknownReference(tool.target().arch.getWordKind()));
+        this.temp3 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp4 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp5 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AArch64MacroAssembler masm) {
+        Register src = asRegister(temp1);
+        Register dst = asRegister(temp2);
+        Register len = asRegister(temp3);
+        Register word = asRegister(temp4);
+        Register half = asRegister(temp5);
+
+        Label vectorLoop = new Label();
+        Label tailLoop = new Label();
+        Label done = new Label();
+
+        masm.mov(64, src, asRegister(srcValue));
+        masm.mov(64, dst, asRegister(dstValue));
+        masm.mov(32, len, asRegister(lenValue));
+
+        masm.align(crb.target.wordSize * 2);
+        masm.bind(vectorLoop);
+        masm.cmp(32, len, VECTOR_SIZE);
+        masm.branchConditionally(ConditionFlag.LT, tailLoop);
+        masm.ldr(64, word, AArch64Address.createPostIndexedImmediateAddress(src, VECTOR_SIZE));
+        masm.mov(32, half, word);
+        emitInflate4(masm, half);
+        masm.str(64, half, AArch64Address.createPostIndexedImmediateAddress(dst, VECTOR_SIZE));
+        masm.lshr(64, half, word, 32);
+        emitInflate4(masm, half);
+        masm.str(64, half, AArch64Address.createPostIndexedImmediateAddress(dst, VECTOR_SIZE));
+        masm.sub(32, len, len, VECTOR_SIZE);
+        masm.jmp(vectorLoop);
+
+        masm.bind(tailLoop);
+        masm.cbz(32, len, done);
+        masm.ldr(8, word, AArch64Address.createPostIndexedImmediateAddress(src, 1));
+        masm.str(16, word, AArch64Address.createPostIndexedImmediateAddress(dst, 2));
+        masm.sub(32, len, len, 1);
+        masm.jmp(tailLoop);
+
+        masm.bind(done);
+    }
+
+    /**
+     * Widens the four bytes in the low half of {@code reg} to four 16-bit lanes, i.e.
+     * {@code b3b2b1b0} becomes {@code 0b30b20b10b0}.
+     */
+    private static void emitInflate4(AArch64MacroAssembler masm, Register reg) {
+        masm.or(64, reg, reg, reg, ShiftType.LSL, 16);
+        masm.and(64, reg, reg, 0x0000FFFF0000FFFFL);
+        masm.or(64, reg, reg, reg, ShiftType.LSL, 8);
+        masm.and(64, reg, reg, 0x00FF00FF00FF00FFL);
+    }
+}
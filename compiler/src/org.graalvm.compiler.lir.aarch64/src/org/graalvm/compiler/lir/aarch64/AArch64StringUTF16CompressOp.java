@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.aarch64;
+
+import static jdk.vm.ci.aarch64.AArch64.zr;
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.aarch64.AArch64Address;
+import org.graalvm.compiler.asm.aarch64.AArch64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.aarch64.AArch64Assembler.ShiftType;
+import org.graalvm.compiler.asm.aarch64.AArch64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code which compresses {@code len} UTF-16 chars at {@code src} into Latin-1 bytes at
+ * {@code dst}. The result is {@code len} if every char fits into a byte and 0 otherwise, which
+ * matches {@code java.lang.StringUTF16.compress}. Four chars are checked and packed at a time.
+ */
+@Opcode("STRING_UTF16_COMPRESS")
+public final class AArch64StringUTF16CompressOp extends AArch64LIRInstruction {
+    public static final LIRInstructionClass<AArch64StringUTF16CompressOp> TYPE = LIRInstructionClass.create(AArch64StringUTF16CompressOp.class);
+
+    private static final int VECTOR_SIZE = 8;
+    private static final int CHARS_PER_VECTOR = VECTOR_SIZE / 2;
+
+    @Def({REG}) protected Value resultValue;
+    @Alive({REG}) protected Value srcValue;
+    @Alive({REG}) protected Value dstValue;
+    @Alive({REG}) protected Value lenValue;
+    @Temp({REG}) protected Value temp1;
+    @Temp({REG}) protected Value temp2;
+    @Temp({REG}) protected Value temp3;
+    @Temp({REG}) protected Value temp4;
+
+    public AArch64StringUTF16CompressOp(LIRGeneratorTool tool, Value result, Value src, Value dst, Value len) {
+        super(TYPE);
+        this.resultValue = result;
+        this.srcValue = src;
+        this.dstValue = dst;
+        this.lenValue = len;
+
+        this.temp1 = tool.newVariable(LIRKind.unknownReference(tool.target().arch.getWordKind()));
+        this.temp2 = tool.newVariable(LIRKind.unknownReference(tool.target().arch.getWordKind()));
+        this.temp3 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp4 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AArch64MacroAssembler masm) {
+        Register result = asRegister(resultValue);
+        Register src = asRegister(temp1);
+        Register dst = asRegister(temp2);
+        Register len = asRegister(temp3);
+        Register word = asRegister(temp4);
+
+        Label vectorLoop = new Label();
+        Label tailLoop = new Label();
+        Label success = new Label();
+        Label fail = new Label();
+        Label done = new Label();
+
+        masm.mov(64, src, asRegister(srcValue));
+        masm.mov(64, dst, asRegister(dstValue));
+        masm.mov(32, len, asRegister(lenValue));
+
+        masm.align(crb.target.wordSize * 2);
+        masm.bind(vectorLoop);
+        masm.cmp(32, len, CHARS_PER_VECTOR);
+        masm.branchConditionally(ConditionFlag.LT, tailLoop);
+        masm.ldr(64, word, AArch64Address.createPostIndexedImmediateAddress(src, VECTOR_SIZE));
+        masm.ands(64, zr, word, 0xFF00FF00FF00FF00L);
+        masm.branchConditionally(ConditionFlag.NE, fail);
+        // Pack 0c30c20c10c0 into c3c2c1c0.
+        masm.or(64, word, word, word, ShiftType.LSR, 8);
+        masm.and(64, word, word, 0x0000FFFF0000FFFFL);
+        masm.or(64, word, word, word, ShiftType.LSR, 16);
+        masm.str(32, word, AArch64Address.createPostIndexedImmediateAddress(dst, CHARS_PER_VECTOR));
+        masm.sub(32, len, len, CHARS_PER_VECTOR);
+        masm.jmp(vectorLoop);
+
+        masm.bind(tailLoop);
+        masm.cbz(32, len, success);
+        masm.ldr(16, word, AArch64Address.createPostIndexedImmediateAddress(src, 2));
+        masm.cmp(32, word, 0xFF);
+        masm.branchConditionally(ConditionFlag.HI, fail);
+        masm.str(8, word, AArch64Address.createPostIndexedImmediateAddress(dst, 1));
+        masm.sub(32, len, len, 1);
+        masm.jmp(tailLoop);
+
+        masm.bind(fail);
+        masm.mov(32, result, zr);
+        masm.jmp(done);
+
+        masm.bind(success);
+        masm.mov(32, result, asRegister(lenValue));
+        masm.bind(done);
+    }
+}
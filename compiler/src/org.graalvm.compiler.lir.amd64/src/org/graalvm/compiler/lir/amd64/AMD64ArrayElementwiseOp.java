@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.ILLEGAL;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import java.util.Objects;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Address.Scale;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.VexMoveOp;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRMOp;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.VexRVMOp;
+import org.graalvm.compiler.asm.amd64.AMD64MacroAssembler;
+import org.graalvm.compiler.asm.amd64.AVXKind.AVXSize;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.core.common.calc.ElementwiseOperation;
+import org.graalvm.compiler.debug.GraalError;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.amd64.AMD64.CPUFeature;
+import jdk.vm.ci.amd64.AMD64Kind;
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.code.TargetDescription;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits an AVX2 loop computing {@code dst[i] = src1[i] op src2[i]} (or {@code src1[i] op scalar})
+ * for the largest multiple of the vector length starting at {@code fromIndex} and not exceeding
+ * {@code toIndex}. The result is the index of the first element that was not processed, which
+ * callers hand to a scalar loop for the remaining elements.
+ *
+ * No exceptions are thrown: if one of the arrays is {@code null} or the range is not within the
+ * bounds of all arrays, nothing is processed and the result is {@code fromIndex}, so that the
+ * scalar loop raises the exception at the right element.
+ */
+@Opcode("ARRAY_ELEMENTWISE")
+public final class AMD64ArrayElementwiseOp extends AMD64LIRInstruction {
+    public static final LIRInstructionClass<AMD64ArrayElementwiseOp> TYPE = LIRInstructionClass.create(AMD64ArrayElementwiseOp.class);
+
+    private static final AVXSize VECTOR_SIZE = AVXSize.YMM;
+
+    private final JavaKind kind;
+    private final boolean scalarOperand;
+    private final VexRVMOp opcode;
+    private final int elementsPerVector;
+    private final int arrayBaseOffset;
+    private final int arrayLengthOffset;
+    private final Scale arrayIndexScale;
+
+    @Def({REG}) private Value resultValue;
+    @Alive({REG}) private Value dstValue;
+    @Alive({REG}) private Value src1Value;
+    @Alive({REG}) private Value src2Value;
+    @Alive({REG}) private Value fromValue;
+    @Alive({REG}) private Value toValue;
+    @Temp({REG}) private Value indexTemp;
+    @Temp({REG}) private Value endTemp;
+    @Temp({REG}) private Value vectorTemp1;
+    @Temp({REG, ILLEGAL}) private Value vectorTemp2;
+
+    public AMD64ArrayElementwiseOp(LIRGeneratorTool tool, JavaKind kind, ElementwiseOperation operation, int arrayLengthOffset, Value result, Value dst, Value src1, Value src2,
+                    boolean scalarOperand, Value fromIndex, Value toIndex) {
+        super(TYPE);
+        this.kind = kind;
+        this.scalarOperand = scalarOperand;
+        this.opcode = Objects.requireNonNull(getOpcode(kind, operation));
+        this.elementsPerVector = elementsPerVector(tool.target(), kind, operation);
+        assert elementsPerVector > 0 : "unsupported element-wise operation " + operation + " on " + kind;
+        this.arrayBaseOffset = tool.getProviders().getMetaAccess().getArrayBaseOffset(kind);
+        this.arrayLengthOffset = arrayLengthOffset;
+        this.arrayIndexScale = Objects.requireNonNull(Scale.fromInt(tool.getProviders().getMetaAccess().getArrayIndexScale(kind)));
+
+        this.resultValue = result;
+        this.dstValue = dst;
+        this.src1Value = src1;
+        this.src2Value = src2;
+        this.fromValue = fromIndex;
+        this.toValue = toIndex;
+
+        this.indexTemp = tool.newVariable(LIRKind.value(AMD64Kind.QWORD));
+        this.endTemp = tool.newVariable(LIRKind.value(AMD64Kind.QWORD));
+        this.vectorTemp1 = tool.newVariable(LIRKind.value(AMD64Kind.V256_BYTE));
+        this.vectorTemp2 = scalarOperand ? tool.newVariable(LIRKind.value(AMD64Kind.V256_BYTE)) : Value.ILLEGAL;
+    }
+
+    /**
+     * Returns the number of array elements processed per loop iteration for the given element kind
+     * and operation, or 0 if the operation cannot be vectorized on the given target.
+     */
+    public static int elementsPerVector(TargetDescription target, JavaKind kind, ElementwiseOperation operation) {
+        if (!(target.arch instanceof AMD64) || !((AMD64) target.arch).getFeatures().contains(CPUFeature.AVX2) || getOpcode(kind, operation) == null) {
+            return 0;
+        }
+        return VECTOR_SIZE.getBytes() / kind.getByteCount();
+    }
+
+    private static VexRVMOp getOpcode(JavaKind kind, ElementwiseOperation operation) {
+        switch (operation) {
+            case ADD:
+                return select(kind, VexRVMOp.VPADDB, VexRVMOp.VPADDW, VexRVMOp.VPADDD, VexRVMOp.VPADDQ, VexRVMOp.VADDPS, VexRVMOp.VADDPD);
+            case SUB:
+                return select(kind, VexRVMOp.VPSUBB, VexRVMOp.VPSUBW, VexRVMOp.VPSUBD, VexRVMOp.VPSUBQ, VexRVMOp.VSUBPS, VexRVMOp.VSUBPD);
+            case MUL:
+                // there is no byte or 64-bit integer multiplication in AVX2
+                return select(kind, null, VexRVMOp.VPMULLW, VexRVMOp.VPMULLD, null, VexRVMOp.VMULPS, VexRVMOp.VMULPD);
+            case AND:
+                return kind.isNumericInteger() ? VexRVMOp.VPAND : null;
+            case OR:
+                return kind.isNumericInteger() ? VexRVMOp.VPOR : null;
+            case XOR:
+                return kind.isNumericInteger() ? VexRVMOp.VPXOR : null;
+            default:
+                return null;
+        }
+    }
+
+    private static VexRVMOp select(JavaKind kind, VexRVMOp byteOp, VexRVMOp shortOp, VexRVMOp intOp, VexRVMOp longOp, VexRVMOp floatOp, VexRVMOp doubleOp) {
+        switch (kind) {
+            case Byte:
+                return byteOp;
+            case Short:
+            case Char:
+                return shortOp;
+            case Int:
+                return intOp;
+            case Long:
+                return longOp;
+            case Float:
+                return floatOp;
+            case Double:
+                return doubleOp;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
+        Register result = asRegister(resultValue);
+        Register dst = asRegister(dstValue);
+        Register src1 = asRegister(src1Value);
+        Register src2 = asRegister(src2Value);
+        Register to = asRegister(toValue);
+        Register index = asRegister(indexTemp);
+        Register end = asRegister(endTemp);
+        Register vector = asRegister(vectorTemp1);
+
+        Label loop = new Label();
+        Label done = new Label();
+
+        masm.movl(result, asRegister(fromValue));
+
+        // Leave null arrays and out-of-bounds ranges to the scalar loop.
+        emitNullCheck(masm, dst, done);
+        emitNullCheck(masm, src1, done);
+        if (!scalarOperand) {
+            emitNullCheck(masm, src2, done);
+        }
+        masm.testl(result, result);
+        masm.jcc(ConditionFlag.Less, done);
+        emitBoundsCheck(masm, dst, to, done);
+        emitBoundsCheck(masm, src1, to, done);
+        if (!scalarOperand) {
+            emitBoundsCheck(masm, src2, to, done);
+        }
+
+        // end = from + ((to - from) & -elementsPerVector)
+        masm.movl(end, to);
+        masm.subl(end, result);
+        masm.jcc(ConditionFlag.LessEqual, done);
+        masm.andl(end, -elementsPerVector);
+        masm.jcc(ConditionFlag.Zero, done);
+        masm.addl(end, result);
+        masm.movslq(end, end);
+        masm.movslq(index, result);
+
+        if (scalarOperand) {
+            emitBroadcast(masm, asRegister(vectorTemp2), src2);
+        }
+
+        masm.align(crb.target.wordSize * 2);
+        masm.bind(loop);
+        VexMoveOp.VMOVDQU32.emit(masm, VECTOR_SIZE, vector, elementAddress(src1, index));
+        if (scalarOperand) {
+            opcode.emit(masm, VECTOR_SIZE, vector, vector, asRegister(vectorTemp2));
+        } else {
+            opcode.emit(masm, VECTOR_SIZE, vector, vector, elementAddress(src2, index));
+        }
+        VexMoveOp.VMOVDQU32.emit(masm, VECTOR_SIZE, elementAddress(dst, index), vector);
+        masm.addq(index, elementsPerVector);
+        masm.cmpq(index, end);
+        masm.jcc(ConditionFlag.Less, loop);
+
+        masm.movl(result, end);
+        masm.bind(done);
+    }
+
+    private AMD64Address elementAddress(Register array, Register index) {
+        return new AMD64Address(array, index, arrayIndexScale, arrayBaseOffset);
+    }
+
+    private static void emitNullCheck(AMD64MacroAssembler masm, Register array, Label bailout) {
+        masm.testq(array, array);
+        masm.jcc(ConditionFlag.Zero, bailout);
+    }
+
+    private void emitBoundsCheck(AMD64MacroAssembler masm, Register array, Register to, Label bailout) {
+        masm.cmpl(to, new AMD64Address(array, arrayLengthOffset));
+        masm.jcc(ConditionFlag.Greater, bailout);
+    }
+
+    private void emitBroadcast(AMD64MacroAssembler masm, Register dst, Register scalar) {
+        switch (kind) {
+            case Byte:
+                masm.movdl(dst, scalar);
+                VexRMOp.VPBROADCASTB.emit(masm, VECTOR_SIZE, dst, dst);
+                break;
+            case Short:
+            case Char:
+                masm.movdl(dst, scalar);
+                VexRMOp.VPBROADCASTW.emit(masm, VECTOR_SIZE, dst, dst);
+                break;
+            case Int:
+                masm.movdl(dst, scalar);
+                VexRMOp.VPBROADCASTD.emit(masm, VECTOR_SIZE, dst, dst);
+                break;
+            case Long:
+                masm.movdq(dst, scalar);
+                VexRMOp.VPBROADCASTQ.emit(masm, VECTOR_SIZE, dst, dst);
+                break;
+            case Float:
+                VexRMOp.VBROADCASTSS.emit(masm, VECTOR_SIZE, dst, scalar);
+                break;
+            case Double:
+                VexRMOp.VBROADCASTSD.emit(masm, VECTOR_SIZE, dst, scalar);
+                break;
+            default:
+                throw GraalError.shouldNotReachHere();
+        }
+    }
+}
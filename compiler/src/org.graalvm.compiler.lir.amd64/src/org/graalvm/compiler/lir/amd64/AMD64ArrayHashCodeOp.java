@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import java.util.Arrays;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Address.Scale;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.debug.GraalError;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.ArrayDataPointerConstant;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.amd64.AMD64Kind;
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Computes {@code h = 31 * h + a[i]} over the elements of an array, as done by
+ * {@code java.util.Arrays.hashCode} and {@code String.hashCode}.
+ *
+ * With SSE4.1 the bulk of the array is processed 16 elements per iteration in four vectors of
+ * 32-bit lanes. Each lane accumulates every 16th element and is multiplied by 31<sup>16</sup> per
+ * iteration, while the incoming hash is scaled by the same factor in a general purpose register.
+ * After the loop, lane {@code i} is weighted by 31<sup>15-i</sup> and the lanes are summed into
+ * the hash. The remaining elements are hashed one at a time.
+ */
+@Opcode("AMD64_ARRAY_HASHCODE")
+public final class AMD64ArrayHashCodeOp extends AMD64LIRInstruction {
+    public static final LIRInstructionClass<AMD64ArrayHashCodeOp> TYPE = LIRInstructionClass.create(AMD64ArrayHashCodeOp.class);
+
+    private static final int VECTOR_LANES = 4;
+    private static final int VECTORS_PER_LOOP = 4;
+    private static final int ELEMENTS_PER_LOOP = VECTOR_LANES * VECTORS_PER_LOOP;
+
+    /** {@code POWERS_OF_31[i] == 31^(ELEMENTS_PER_LOOP - 1 - i)}, with 32-bit overflow. */
+    private static final int[] POWERS_OF_31 = new int[ELEMENTS_PER_LOOP];
+    private static final int POWER_OF_31_PER_LOOP;
+
+    static {
+        int power = 1;
+        for (int i = ELEMENTS_PER_LOOP - 1; i >= 0; i--) {
+            POWERS_OF_31[i] = power;
+            power *= 31;
+        }
+        POWER_OF_31_PER_LOOP = power;
+    }
+
+    private final JavaKind valueKind;
+    private final boolean unsigned;
+    private final int arrayBaseOffset;
+    private final Scale scale;
+
+    @Def({REG}) private Value resultValue;
+    @Alive({REG}) private Value arrayValue;
+    @Alive({REG}) private Value lengthValue;
+    @Use({REG}) private Value initialValue;
+
+    @Temp({REG}) private Value indexValue;
+    @Temp({REG}) private Value tempValue;
+    @Temp({REG}) private Value vectorLimitValue;
+    @Temp({REG}) private Value vectorValue1;
+    @Temp({REG}) private Value vectorValue2;
+    @Temp({REG}) private Value vectorValue3;
+    @Temp({REG}) private Value vectorValue4;
+    @Temp({REG}) private Value vectorValue5;
+    @Temp({REG}) private Value vectorValue6;
+
+    public AMD64ArrayHashCodeOp(LIRGeneratorTool tool, JavaKind arrayKind, JavaKind valueKind, boolean unsigned, Value result, Value array, Value length, Value initial) {
+        super(TYPE);
+        GraalError.guarantee(valueKind == JavaKind.Byte || valueKind == JavaKind.Char || valueKind == JavaKind.Short || valueKind == JavaKind.Int, "unsupported value kind %s", valueKind);
+        this.valueKind = valueKind;
+        this.unsigned = unsigned;
+        this.arrayBaseOffset = tool.getProviders().getMetaAccess().getArrayBaseOffset(arrayKind);
+        this.scale = Scale.fromInt(tool.getProviders().getMetaAccess().getArrayIndexScale(valueKind));
+
+        this.resultValue = result;
+        this.arrayValue = array;
+        this.lengthValue = length;
+        this.initialValue = initial;
+
+        this.indexValue = tool.newVariable(LIRKind.value(AMD64Kind.QWORD));
+        this.tempValue = tool.newVariable(LIRKind.value(AMD64Kind.DWORD));
+        this.vectorLimitValue = tool.newVariable(LIRKind.value(AMD64Kind.DWORD));
+
+        LIRKind vectorKind = LIRKind.value(AMD64Kind.V128_DWORD);
+        this.vectorValue1 = tool.newVariable(vectorKind);
+        this.vectorValue2 = tool.newVariable(vectorKind);
+        this.vectorValue3 = tool.newVariable(vectorKind);
+        this.vectorValue4 = tool.newVariable(vectorKind);
+        this.vectorValue5 = tool.newVariable(vectorKind);
+        this.vectorValue6 = tool.newVariable(vectorKind);
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
+        Register result = asRegister(resultValue);
+        Register array = asRegister(arrayValue);
+        Register length = asRegister(lengthValue);
+        Register index = asRegister(indexValue);
+        Register temp = asRegister(tempValue);
+
+        Label scalarLoop = new Label();
+        Label done = new Label();
+
+        masm.movl(result, asRegister(initialValue));
+        masm.xorl(index, index);
+
+        if (masm.supports(AMD64.CPUFeature.SSE4_1)) {
+            Register vectorLimit = asRegister(vectorLimitValue);
+            Register[] accumulators = {asRegister(vectorValue1), asRegister(vectorValue2), asRegister(vectorValue3), asRegister(vectorValue4)};
+            Register multiplier = asRegister(vectorValue5);
+            Register vector = asRegister(vectorValue6);
+
+            Label vectorLoop = new Label();
+
+            masm.movl(vectorLimit, length);
+            masm.andl(vectorLimit, -ELEMENTS_PER_LOOP);
+            masm.jcc(ConditionFlag.Zero, scalarLoop);
+
+            for (Register accumulator : accumulators) {
+                masm.pxor(accumulator, accumulator);
+            }
+            masm.movl(temp, POWER_OF_31_PER_LOOP);
+            masm.movdl(multiplier, temp);
+            masm.pshufd(multiplier, multiplier, 0);
+
+            masm.align(crb.target.wordSize * 2);
+            masm.bind(vectorLoop);
+            masm.imull(result, result, POWER_OF_31_PER_LOOP);
+            for (int i = 0; i < VECTORS_PER_LOOP; i++) {
+                emitVectorLoad(masm, vector, new AMD64Address(array, index, scale, arrayBaseOffset + i * VECTOR_LANES * scale.value));
+                masm.pmulld(accumulators[i], multiplier);
+                masm.paddd(accumulators[i], vector);
+            }
+            masm.addl(index, ELEMENTS_PER_LOOP);
+            masm.cmplAndJcc(index, vectorLimit, ConditionFlag.Less, vectorLoop, false);
+
+            // Weight the lanes by their distance to the end of the vectorized region and sum them.
+            for (int i = 0; i < VECTORS_PER_LOOP; i++) {
+                int[] powers = Arrays.copyOfRange(POWERS_OF_31, i * VECTOR_LANES, (i + 1) * VECTOR_LANES);
+                masm.movdqu(vector, (AMD64Address) crb.recordDataReferenceInCode(new ArrayDataPointerConstant(powers, 16)));
+                masm.pmulld(accumulators[i], vector);
+            }
+            masm.paddd(accumulators[0], accumulators[1]);
+            masm.paddd(accumulators[2], accumulators[3]);
+            masm.paddd(accumulators[0], accumulators[2]);
+            masm.pshufd(vector, accumulators[0], 0x4E);
+            masm.paddd(accumulators[0], vector);
+            masm.pshufd(vector, accumulators[0], 0xB1);
+            masm.paddd(accumulators[0], vector);
+            masm.movdl(temp, accumulators[0]);
+            masm.addl(result, temp);
+        }
+
+        // Hash the remaining elements one at a time.
+        masm.bind(scalarLoop);
+        masm.cmplAndJcc(index, length, ConditionFlag.GreaterEqual, done, true);
+        masm.imull(result, result, 31);
+        emitScalarLoad(masm, temp, new AMD64Address(array, index, scale, arrayBaseOffset));
+        masm.addl(result, temp);
+        masm.incl(index);
+        masm.jmpb(scalarLoop);
+
+        masm.bind(done);
+    }
+
+    private void emitVectorLoad(AMD64MacroAssembler masm, Register dst, AMD64Address src) {
+        switch (valueKind) {
+            case Byte:
+                if (unsigned) {
+                    masm.pmovzxbd(dst, src);
+                } else {
+                    masm.pmovsxbd(dst, src);
+                }
+                break;
+            case Char:
+                masm.pmovzxwd(dst, src);
+                break;
+            case Short:
+                masm.pmovsxwd(dst, src);
+                break;
+            case Int:
+                masm.movdqu(dst, src);
+                break;
+            default:
+                throw GraalError.shouldNotReachHere();
+        }
+    }
+
+    private void emitScalarLoad(AMD64MacroAssembler masm, Register dst, AMD64Address src) {
+        switch (valueKind) {
+            case Byte:
+                if (unsigned) {
+                    masm.movzbl(dst, src);
+                } else {
+                    masm.movsbl(dst, src);
+                }
+                break;
+            case Char:
+                masm.movzwl(dst, src);
+                break;
+            case Short:
+                masm.movswl(dst, src);
+                break;
+            case Int:
+                masm.movl(dst, src);
+                break;
+            default:
+                throw GraalError.shouldNotReachHere();
+        }
+    }
+
+    @Override
+    public boolean needsClearUpperVectorRegisters() {
+        return true;
+    }
+}
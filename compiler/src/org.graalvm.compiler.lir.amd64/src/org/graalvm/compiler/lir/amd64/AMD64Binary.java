@@ -85,6 +85,26 @@ public class AMD64Binary {
             this.y = y;
         }
 
+        public AMD64RMOp getOpcode() {
+            return opcode;
+        }
+
+        public OperandSize getSize() {
+            return size;
+        }
+
+        public AllocatableValue getResult() {
+            return result;
+        }
+
+        public AllocatableValue getX() {
+            return x;
+        }
+
+        public AllocatableValue getY() {
+            return y;
+        }
+
         @Override
         public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
             AMD64Move.move(crb, masm, result, x);
@@ -120,6 +140,22 @@ public class AMD64Binary {
             this.y = y;
         }
 
+        public OperandSize getSize() {
+            return size;
+        }
+
+        public AllocatableValue getResult() {
+            return result;
+        }
+
+        public AllocatableValue getX() {
+            return x;
+        }
+
+        public AllocatableValue getY() {
+            return y;
+        }
+
         @Override
         public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
             AllocatableValue input;
@@ -171,6 +207,26 @@ public class AMD64Binary {
             this.y = y;
         }
 
+        public AMD64MIOp getOpcode() {
+            return opcode;
+        }
+
+        public OperandSize getSize() {
+            return size;
+        }
+
+        public AllocatableValue getResult() {
+            return result;
+        }
+
+        public AllocatableValue getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
         @Override
         public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
             AMD64Move.move(crb, masm, result, x);
@@ -78,6 +78,22 @@ public class AMD64BinaryConsumer {
             this.y = y;
         }
 
+        public AMD64RMOp getOpcode() {
+            return opcode;
+        }
+
+        public OperandSize getSize() {
+            return size;
+        }
+
+        public AllocatableValue getX() {
+            return x;
+        }
+
+        public AllocatableValue getY() {
+            return y;
+        }
+
         @Override
         public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
             if (isRegister(y)) {
@@ -148,6 +148,22 @@ public class AMD64ControlFlow {
         protected void jcc(AMD64MacroAssembler masm, boolean negate, LabelRef target) {
             masm.jcc(negate ? condition.negate() : condition, target.label());
         }
+
+        public ConditionFlag getCondition() {
+            return condition;
+        }
+
+        public LabelRef getTrueDestination() {
+            return trueDestination;
+        }
+
+        public LabelRef getFalseDestination() {
+            return falseDestination;
+        }
+
+        public double getTrueDestinationProbability() {
+            return trueDestinationProbability;
+        }
     }
 
     public static class TestByteBranchOp extends BranchOp {
@@ -218,6 +234,18 @@ public class AMD64ControlFlow {
             this.state = state;
         }
 
+        public OperandSize getSize() {
+            return size;
+        }
+
+        public AllocatableValue getX() {
+            return x;
+        }
+
+        public Value getY() {
+            return y;
+        }
+
         @Override
         public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
             if (isRegister(y)) {
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.amd64.AMD64Kind;
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Encodes {@code len} UTF-16 chars at {@code src} into ISO-8859-1 or ASCII bytes at {@code dst},
+ * stopping at the first char that cannot be encoded. The result is the number of chars encoded,
+ * which matches {@code ISO_8859_1.Encoder.implEncodeISOArray} and
+ * {@code StringCoding.implEncodeAsciiArray}.
+ */
+@Opcode("AMD64_ENCODE_ARRAY")
+public final class AMD64EncodeArrayOp extends AMD64LIRInstruction {
+    public static final LIRInstructionClass<AMD64EncodeArrayOp> TYPE = LIRInstructionClass.create(AMD64EncodeArrayOp.class);
+
+    private final boolean ascii;
+
+    @Def({REG}) private Value resultValue;
+    @Alive({REG}) private Value srcValue;
+    @Alive({REG}) private Value dstValue;
+    @Alive({REG}) private Value lenValue;
+
+    @Temp({REG}) private Value vtmp1;
+    @Temp({REG}) private Value vtmp2;
+    @Temp({REG}) private Value vtmp3;
+    @Temp({REG}) private Value vtmp4;
+    @Temp({REG}) private Value rtmp5;
+    @Temp({REG}) private Value rtmp6;
+
+    public AMD64EncodeArrayOp(LIRGeneratorTool tool, boolean ascii, Value result, Value src, Value dst, Value len) {
+        super(TYPE);
+        this.ascii = ascii;
+
+        resultValue = result;
+        srcValue = src;
+        dstValue = dst;
+        lenValue = len;
+
+        LIRKind vkind = LIRKind.value(AMD64Kind.V128_BYTE);
+        vtmp1 = tool.newVariable(vkind);
+        vtmp2 = tool.newVariable(vkind);
+        vtmp3 = tool.newVariable(vkind);
+        vtmp4 = tool.newVariable(vkind);
+
+        rtmp5 = tool.newVariable(LIRKind.value(AMD64Kind.DWORD));
+        rtmp6 = tool.newVariable(LIRKind.value(AMD64Kind.DWORD));
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
+        Register result = asRegister(resultValue);
+        Register src = asRegister(srcValue);
+        Register dst = asRegister(dstValue);
+        Register len = asRegister(lenValue);
+
+        Register mask = asRegister(vtmp1);
+        Register chars1 = asRegister(vtmp2);
+        Register chars2 = asRegister(vtmp3);
+        Register combined = asRegister(vtmp4);
+        Register tmp = asRegister(rtmp5);
+        Register vectorLimit = asRegister(rtmp6);
+
+        Label labelCopy16Loop = new Label();
+        Label labelCopyCharsLoop = new Label();
+        Label labelDone = new Label();
+
+        // The result doubles as the index of the next char to encode.
+        masm.xorl(result, result);
+
+        if (masm.supports(AMD64.CPUFeature.SSE4_2)) {
+            // Create mask to test for unencodable chars in vectors.
+            masm.movl(tmp, ascii ? 0xff80ff80 : 0xff00ff00);
+            masm.movdl(mask, tmp);
+            masm.pshufd(mask, mask, 0);
+
+            masm.movl(vectorLimit, len);
+            masm.andl(vectorLimit, 0xfffffff0); // vector count (in chars)
+
+            // Test and encode 16 chars per iteration, reading 128-bit vectors and writing
+            // 64-bit ditto. A vector with an unencodable char is handled by the scalar loop
+            // below, which stops exactly at that char.
+            masm.bind(labelCopy16Loop);
+            masm.cmplAndJcc(result, vectorLimit, ConditionFlag.GreaterEqual, labelCopyCharsLoop, true);
+            masm.movdqu(chars1, new AMD64Address(src, result, AMD64Address.Scale.Times2));
+            masm.movdqu(chars2, new AMD64Address(src, result, AMD64Address.Scale.Times2, 16));
+            masm.movdqu(combined, chars1);
+            masm.por(combined, chars2);
+            masm.ptest(combined, mask);
+            masm.jccb(ConditionFlag.NotZero, labelCopyCharsLoop);
+            masm.packuswb(chars1, chars2);
+            masm.movdqu(new AMD64Address(dst, result, AMD64Address.Scale.Times1), chars1);
+            masm.addl(result, 16);
+            masm.jmpb(labelCopy16Loop);
+        }
+
+        // Encode a single char per iteration.
+        masm.bind(labelCopyCharsLoop);
+        masm.cmplAndJcc(result, len, ConditionFlag.GreaterEqual, labelDone, true);
+        masm.movzwl(tmp, new AMD64Address(src, result, AMD64Address.Scale.Times2));
+        masm.testlAndJcc(tmp, ascii ? 0xff80 : 0xff00, ConditionFlag.NotZero, labelDone, true);
+        masm.movb(new AMD64Address(dst, result, AMD64Address.Scale.Times1), tmp);
+        masm.incl(result);
+        masm.jmpb(labelCopyCharsLoop);
+
+        masm.bind(labelDone);
+    }
+
+    @Override
+    public boolean needsClearUpperVectorRegisters() {
+        return true;
+    }
+}
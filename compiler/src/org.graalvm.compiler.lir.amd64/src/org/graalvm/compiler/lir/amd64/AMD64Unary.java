@@ -73,6 +73,22 @@ public class AMD64Unary {
             this.value = value;
         }
 
+        public AMD64MOp getOpcode() {
+            return opcode;
+        }
+
+        public OperandSize getSize() {
+            return size;
+        }
+
+        public AllocatableValue getResult() {
+            return result;
+        }
+
+        public AllocatableValue getValue() {
+            return value;
+        }
+
         @Override
         public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
             AMD64Move.move(crb, masm, result, value);
@@ -101,6 +117,22 @@ public class AMD64Unary {
             this.value = value;
         }
 
+        public AMD64RMOp getOpcode() {
+            return opcode;
+        }
+
+        public OperandSize getSize() {
+            return size;
+        }
+
+        public AllocatableValue getResult() {
+            return result;
+        }
+
+        public AllocatableValue getValue() {
+            return value;
+        }
+
         @Override
         public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
             if (isRegister(value)) {
@@ -0,0 +1,464 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64.phases;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static jdk.vm.ci.code.ValueUtil.isRegister;
+import static org.graalvm.compiler.asm.amd64.AMD64BaseAssembler.OperandSize.DWORD;
+import static org.graalvm.compiler.asm.amd64.AMD64BaseAssembler.OperandSize.QWORD;
+import static org.graalvm.compiler.lir.phases.LIRPhase.Options.LIROptimization;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.AMD64BinaryArithmetic;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.AMD64MIOp;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.AMD64RMOp;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64BaseAssembler.OperandSize;
+import org.graalvm.compiler.core.common.cfg.AbstractBlockBase;
+import org.graalvm.compiler.debug.CounterKey;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.lir.LIR;
+import org.graalvm.compiler.lir.LIRInstruction;
+import org.graalvm.compiler.lir.StandardOp.JumpOp;
+import org.graalvm.compiler.lir.StandardOp.MoveOp;
+import org.graalvm.compiler.lir.amd64.AMD64AddressValue;
+import org.graalvm.compiler.lir.amd64.AMD64Binary;
+import org.graalvm.compiler.lir.amd64.AMD64BinaryConsumer;
+import org.graalvm.compiler.lir.amd64.AMD64Call;
+import org.graalvm.compiler.lir.amd64.AMD64ControlFlow.BranchOp;
+import org.graalvm.compiler.lir.amd64.AMD64ControlFlow.FloatBranchOp;
+import org.graalvm.compiler.lir.amd64.AMD64ControlFlow.TestBranchOp;
+import org.graalvm.compiler.lir.amd64.AMD64LIRInstruction;
+import org.graalvm.compiler.lir.amd64.AMD64Move.LeaOp;
+import org.graalvm.compiler.lir.amd64.AMD64Unary;
+import org.graalvm.compiler.lir.gen.LIRGenerationResult;
+import org.graalvm.compiler.lir.phases.PostAllocationOptimizationPhase;
+import org.graalvm.compiler.options.NestedBooleanOptionKey;
+import org.graalvm.compiler.options.Option;
+import org.graalvm.compiler.options.OptionType;
+
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.code.TargetDescription;
+import jdk.vm.ci.meta.AllocatableValue;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Late peephole optimizations over {@link AMD64LIRInstruction}s. The phase runs after register
+ * allocation, so patterns can reason about physical registers, e.g. whether a two-address
+ * instruction needs an extra {@code mov} because its result and input were assigned different
+ * registers.
+ *
+ * Each {@link Peephole} looks at one instruction and its direct neighbours within a block. A
+ * pattern replaces instructions in place and deletes instructions by setting them to {@code null};
+ * the deleted instructions are removed from the block after all patterns have been applied. Every
+ * pattern has a counter that records how often it fired.
+ */
+public class AMD64PeepholeOptimizationPhase extends PostAllocationOptimizationPhase {
+
+    public static class Options {
+        // @formatter:off
+        @Option(help = "Enable AMD64 specific peephole optimizations after register allocation.", type = OptionType.Debug)
+        public static final NestedBooleanOptionKey LIROptAMD64Peephole = new NestedBooleanOptionKey(LIROptimization, false);
+        // @formatter:on
+    }
+
+    /**
+     * A single peephole pattern.
+     */
+    public abstract static class Peephole {
+
+        private final CounterKey counter;
+
+        protected Peephole(String name) {
+            this.counter = DebugContext.counter("AMD64Peephole[%s]", name);
+        }
+
+        /**
+         * Tries to apply this pattern to the instruction at {@code index}, which is never
+         * {@code null}.
+         *
+         * @return {@code true} if the pattern changed {@code instructions}
+         */
+        protected abstract boolean apply(TargetDescription target, List<LIRInstruction> instructions, int index);
+    }
+
+    private final Peephole[] peepholes;
+
+    public AMD64PeepholeOptimizationPhase() {
+        this(new RedundantTestElimination(), new MoveAndAddToLea(), new RedundantZeroExtendElimination());
+    }
+
+    public AMD64PeepholeOptimizationPhase(Peephole... peepholes) {
+        this.peepholes = peepholes;
+    }
+
+    @Override
+    protected void run(TargetDescription target, LIRGenerationResult lirGenRes, PostAllocationOptimizationContext context) {
+        LIR lir = lirGenRes.getLIR();
+        DebugContext debug = lir.getDebug();
+        for (AbstractBlockBase<?> block : lir.getControlFlowGraph().getBlocks()) {
+            ArrayList<LIRInstruction> instructions = lir.getLIRforBlock(block);
+            boolean changed = false;
+            for (int i = 0; i < instructions.size(); i++) {
+                if (instructions.get(i) instanceof AMD64LIRInstruction) {
+                    for (Peephole peephole : peepholes) {
+                        if (peephole.apply(target, instructions, i)) {
+                            peephole.counter.increment(debug);
+                            changed = true;
+                            break;
+                        }
+                    }
+                }
+            }
+            if (changed) {
+                instructions.removeAll(Collections.singleton(null));
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the closest non-deleted instruction before {@code index} or -1.
+     */
+    protected static int previous(List<LIRInstruction> instructions, int index) {
+        for (int i = index - 1; i >= 0; i--) {
+            if (instructions.get(i) != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the closest non-deleted instruction after {@code index} or -1.
+     */
+    protected static int next(List<LIRInstruction> instructions, int index) {
+        for (int i = index + 1; i < instructions.size(); i++) {
+            if (instructions.get(i) != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    protected static boolean sameRegister(Value a, Value b) {
+        return isRegister(a) && isRegister(b) && asRegister(a).equals(asRegister(b));
+    }
+
+    /**
+     * Determines if {@code op} is the register-register or register-memory form of
+     * {@code arithmetic}.
+     */
+    protected static boolean isArithmetic(AMD64RMOp op, OperandSize size, AMD64BinaryArithmetic arithmetic) {
+        return op == arithmetic.getRMOpcode(size);
+    }
+
+    /**
+     * Determines if {@code op} is one of the register-immediate forms of {@code arithmetic}.
+     */
+    protected static boolean isArithmetic(AMD64MIOp op, OperandSize size, AMD64BinaryArithmetic arithmetic) {
+        return op == arithmetic.getMIOpcode(size, true) || op == arithmetic.getMIOpcode(size, false);
+    }
+
+    /**
+     * Determines if {@code op} overwrites the condition flags without reading them first, so that
+     * the flags of preceding instructions are dead afterwards.
+     */
+    protected static boolean killsFlags(LIRInstruction op) {
+        if (op instanceof BranchOp) {
+            // Fused compare-and-branch instructions compute their own flags.
+            return op.getClass() != BranchOp.class && !(op instanceof FloatBranchOp);
+        }
+        if (op instanceof JumpOp || op instanceof AMD64Call.CallOp || op instanceof AMD64BinaryConsumer.Op || op instanceof AMD64BinaryConsumer.ConstOp) {
+            return true;
+        }
+        if (op instanceof AMD64Binary.TwoOp) {
+            AMD64Binary.TwoOp binary = (AMD64Binary.TwoOp) op;
+            return isFlagSettingArithmetic(binary.getOpcode(), binary.getSize());
+        }
+        if (op instanceof AMD64Binary.CommutativeTwoOp) {
+            AMD64Binary.CommutativeTwoOp binary = (AMD64Binary.CommutativeTwoOp) op;
+            return isFlagSettingArithmetic(binary.getOpcode(), binary.getSize());
+        }
+        if (op instanceof AMD64Binary.ConstOp) {
+            AMD64Binary.ConstOp binary = (AMD64Binary.ConstOp) op;
+            return isFlagSettingArithmetic(binary.getOpcode(), binary.getSize());
+        }
+        return false;
+    }
+
+    private static boolean isFlagSettingArithmetic(AMD64RMOp op, OperandSize size) {
+        return isArithmetic(op, size, AMD64BinaryArithmetic.ADD) || isArithmetic(op, size, AMD64BinaryArithmetic.SUB) || isLogic(op, size);
+    }
+
+    private static boolean isFlagSettingArithmetic(AMD64MIOp op, OperandSize size) {
+        return isArithmetic(op, size, AMD64BinaryArithmetic.ADD) || isArithmetic(op, size, AMD64BinaryArithmetic.SUB) || isLogic(op, size);
+    }
+
+    private static boolean isLogic(AMD64RMOp op, OperandSize size) {
+        return isArithmetic(op, size, AMD64BinaryArithmetic.AND) || isArithmetic(op, size, AMD64BinaryArithmetic.OR) || isArithmetic(op, size, AMD64BinaryArithmetic.XOR);
+    }
+
+    private static boolean isLogic(AMD64MIOp op, OperandSize size) {
+        return isArithmetic(op, size, AMD64BinaryArithmetic.AND) || isArithmetic(op, size, AMD64BinaryArithmetic.OR) || isArithmetic(op, size, AMD64BinaryArithmetic.XOR);
+    }
+
+    /**
+     * Determines if the condition flags set by the instruction at {@code index} are not read by
+     * any later instruction. Moves do not change the flags and are skipped. Any other instruction
+     * that is not known to overwrite the flags is conservatively treated as a use.
+     */
+    protected static boolean flagsDeadAfter(List<LIRInstruction> instructions, int index) {
+        for (int i = next(instructions, index); i != -1; i = next(instructions, i)) {
+            LIRInstruction op = instructions.get(i);
+            if (op instanceof MoveOp) {
+                continue;
+            }
+            return killsFlags(op);
+        }
+        // The flags are never live across blocks.
+        return true;
+    }
+
+    /**
+     * Removes a {@code test r, r} that directly follows an arithmetic instruction which wrote
+     * {@code r} with the same operand size. {@code and}, {@code or} and {@code xor} set the flags
+     * exactly like {@code test}. {@code add} and {@code sub} only set the zero and sign flags the
+     * same way, so the {@code test} is only removed if the branch that consumes it tests one of
+     * those. Both a separate {@code test} and a fused {@link TestBranchOp} are handled; the latter
+     * is replaced by a plain {@link BranchOp}.
+     */
+    public static class RedundantTestElimination extends Peephole {
+
+        public RedundantTestElimination() {
+            super("RedundantTest");
+        }
+
+        @Override
+        protected boolean apply(TargetDescription target, List<LIRInstruction> instructions, int index) {
+            LIRInstruction op = instructions.get(index);
+            OperandSize size;
+            Value x;
+            Value y;
+            if (op instanceof AMD64BinaryConsumer.Op && ((AMD64BinaryConsumer.Op) op).getOpcode() == AMD64RMOp.TEST) {
+                AMD64BinaryConsumer.Op test = (AMD64BinaryConsumer.Op) op;
+                size = test.getSize();
+                x = test.getX();
+                y = test.getY();
+            } else if (op instanceof TestBranchOp) {
+                TestBranchOp test = (TestBranchOp) op;
+                size = test.getSize();
+                x = test.getX();
+                y = test.getY();
+            } else {
+                return false;
+            }
+            if (!sameRegister(x, y)) {
+                return false;
+            }
+            int prevIndex = previous(instructions, index);
+            if (prevIndex == -1) {
+                return false;
+            }
+            Boolean logic = setsFlagsFor(instructions.get(prevIndex), asRegister(x), size);
+            if (logic == null) {
+                return false;
+            }
+            if (op instanceof TestBranchOp) {
+                TestBranchOp test = (TestBranchOp) op;
+                if (!logic && !isZeroOrSignCondition(test.getCondition())) {
+                    return false;
+                }
+                BranchOp branch = new BranchOp(test.getCondition(), test.getTrueDestination(), test.getFalseDestination(), test.getTrueDestinationProbability());
+                branch.setPosition(test.getPosition());
+                instructions.set(index, branch);
+                return true;
+            }
+            if (!logic) {
+                int nextIndex = next(instructions, index);
+                if (nextIndex == -1 || instructions.get(nextIndex).getClass() != BranchOp.class || !isZeroOrSignCondition(((BranchOp) instructions.get(nextIndex)).getCondition())) {
+                    return false;
+                }
+            }
+            instructions.set(index, null);
+            return true;
+        }
+
+        /**
+         * Determines if {@code op} sets the flags according to the value it writes to
+         * {@code register} with the operand size {@code size}.
+         *
+         * @return {@code null} if it does not, {@code true} if the flags are identical to the ones
+         *         of a {@code test} of the result and {@code false} if only the zero and sign flag
+         *         are
+         */
+        private static Boolean setsFlagsFor(LIRInstruction op, Register register, OperandSize size) {
+            if (op instanceof AMD64Binary.TwoOp) {
+                AMD64Binary.TwoOp binary = (AMD64Binary.TwoOp) op;
+                if (binary.getSize() == size && inRegister(binary.getResult(), register) && isFlagSettingArithmetic(binary.getOpcode(), size)) {
+                    return isLogic(binary.getOpcode(), size);
+                }
+            } else if (op instanceof AMD64Binary.CommutativeTwoOp) {
+                AMD64Binary.CommutativeTwoOp binary = (AMD64Binary.CommutativeTwoOp) op;
+                if (binary.getSize() == size && inRegister(binary.getResult(), register) && isFlagSettingArithmetic(binary.getOpcode(), size)) {
+                    return isLogic(binary.getOpcode(), size);
+                }
+            } else if (op instanceof AMD64Binary.ConstOp) {
+                AMD64Binary.ConstOp binary = (AMD64Binary.ConstOp) op;
+                if (binary.getSize() == size && inRegister(binary.getResult(), register) && isFlagSettingArithmetic(binary.getOpcode(), size)) {
+                    return isLogic(binary.getOpcode(), size);
+                }
+            }
+            return null;
+        }
+
+        private static boolean inRegister(Value value, Register register) {
+            return isRegister(value) && asRegister(value).equals(register);
+        }
+
+        private static boolean isZeroOrSignCondition(ConditionFlag condition) {
+            return condition == ConditionFlag.Equal || condition == ConditionFlag.NotEqual || condition == ConditionFlag.Negative || condition == ConditionFlag.Positive;
+        }
+    }
+
+    /**
+     * Replaces a two-address {@code add} or {@code sub} whose result was allocated to a different
+     * register than its first input, which is emitted as {@code mov} followed by the arithmetic
+     * instruction, with a single {@code lea}. {@code lea} does not set the flags, so the pattern
+     * only applies if the flags of the arithmetic instruction are dead.
+     */
+    public static class MoveAndAddToLea extends Peephole {
+
+        public MoveAndAddToLea() {
+            super("MoveAndAddToLea");
+        }
+
+        @Override
+        protected boolean apply(TargetDescription target, List<LIRInstruction> instructions, int index) {
+            LIRInstruction op = instructions.get(index);
+            AllocatableValue result;
+            AllocatableValue base;
+            AllocatableValue indexValue = Value.ILLEGAL;
+            int displacement = 0;
+            OperandSize size;
+            if (op instanceof AMD64Binary.ConstOp) {
+                AMD64Binary.ConstOp binary = (AMD64Binary.ConstOp) op;
+                size = binary.getSize();
+                if (isArithmetic(binary.getOpcode(), size, AMD64BinaryArithmetic.ADD)) {
+                    displacement = binary.getY();
+                } else if (isArithmetic(binary.getOpcode(), size, AMD64BinaryArithmetic.SUB) && binary.getY() != Integer.MIN_VALUE) {
+                    displacement = -binary.getY();
+                } else {
+                    return false;
+                }
+                result = binary.getResult();
+                base = binary.getX();
+            } else if (op instanceof AMD64Binary.CommutativeTwoOp) {
+                AMD64Binary.CommutativeTwoOp binary = (AMD64Binary.CommutativeTwoOp) op;
+                size = binary.getSize();
+                if (!isArithmetic(binary.getOpcode(), size, AMD64BinaryArithmetic.ADD) || !isRegister(binary.getY()) || sameRegister(binary.getResult(), binary.getY())) {
+                    return false;
+                }
+                result = binary.getResult();
+                base = binary.getX();
+                indexValue = binary.getY();
+            } else {
+                return false;
+            }
+            if ((size != DWORD && size != QWORD) || !isRegister(result) || !isRegister(base) || sameRegister(result, base)) {
+                return false;
+            }
+            if (!flagsDeadAfter(instructions, index)) {
+                return false;
+            }
+            AMD64AddressValue address = new AMD64AddressValue(base.getValueKind(), base, indexValue, AMD64Address.Scale.Times1, displacement);
+            LeaOp lea = new LeaOp(result, address, size);
+            lea.setPosition(op.getPosition());
+            instructions.set(index, lea);
+            return true;
+        }
+    }
+
+    /**
+     * Removes a {@code movl r, r} zero extension if the directly preceding instruction is a 32-bit
+     * operation that wrote {@code r}. On AMD64, every 32-bit operation on a general purpose
+     * register already clears the upper half of the register.
+     */
+    public static class RedundantZeroExtendElimination extends Peephole {
+
+        public RedundantZeroExtendElimination() {
+            super("RedundantZeroExtend");
+        }
+
+        @Override
+        protected boolean apply(TargetDescription target, List<LIRInstruction> instructions, int index) {
+            LIRInstruction op = instructions.get(index);
+            if (!(op instanceof AMD64Unary.RMOp)) {
+                return false;
+            }
+            AMD64Unary.RMOp move = (AMD64Unary.RMOp) op;
+            if (move.getOpcode() != AMD64RMOp.MOV || move.getSize() != DWORD || !sameRegister(move.getResult(), move.getValue())) {
+                return false;
+            }
+            int prevIndex = previous(instructions, index);
+            if (prevIndex == -1) {
+                return false;
+            }
+            Register register = asRegister(move.getResult());
+            if (!writes32BitRegister(instructions.get(prevIndex), register)) {
+                return false;
+            }
+            instructions.set(index, null);
+            return true;
+        }
+
+        private static boolean writes32BitRegister(LIRInstruction op, Register register) {
+            AllocatableValue result;
+            OperandSize size;
+            if (op instanceof AMD64Binary.TwoOp) {
+                result = ((AMD64Binary.TwoOp) op).getResult();
+                size = ((AMD64Binary.TwoOp) op).getSize();
+            } else if (op instanceof AMD64Binary.CommutativeTwoOp) {
+                result = ((AMD64Binary.CommutativeTwoOp) op).getResult();
+                size = ((AMD64Binary.CommutativeTwoOp) op).getSize();
+            } else if (op instanceof AMD64Binary.ConstOp) {
+                result = ((AMD64Binary.ConstOp) op).getResult();
+                size = ((AMD64Binary.ConstOp) op).getSize();
+            } else if (op instanceof AMD64Unary.MOp) {
+                result = ((AMD64Unary.MOp) op).getResult();
+                size = ((AMD64Unary.MOp) op).getSize();
+            } else if (op instanceof AMD64Unary.RMOp) {
+                result = ((AMD64Unary.RMOp) op).getResult();
+                size = ((AMD64Unary.RMOp) op).getSize();
+            } else {
+                return false;
+            }
+            return size == DWORD && isRegister(result) && asRegister(result).equals(register);
+        }
+    }
+}
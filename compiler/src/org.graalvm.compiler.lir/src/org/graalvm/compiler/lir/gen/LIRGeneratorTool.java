@@ -27,6 +27,7 @@ package org.graalvm.compiler.lir.gen;
 import org.graalvm.compiler.core.common.CompressEncoding;
 import org.graalvm.compiler.core.common.LIRKind;
 import org.graalvm.compiler.core.common.calc.Condition;
+import org.graalvm.compiler.core.common.calc.ElementwiseOperation;
 import org.graalvm.compiler.core.common.cfg.AbstractBlockBase;
 import org.graalvm.compiler.core.common.spi.CodeGenProviders;
 import org.graalvm.compiler.core.common.spi.ForeignCallLinkage;
@@ -289,6 +290,19 @@ public interface LIRGeneratorTool extends DiagnosticLIRGeneratorTool, ValueKindF
         throw GraalError.unimplemented("Array.equals with different types substitution is not implemented on this architecture");
     }
 
+    /**
+     * Emits a loop computing {@code dst[i] = src1[i] op src2[i]} (or {@code src1[i] op src2} if
+     * {@code scalarOperand} is set) for a vector-aligned prefix of the range
+     * {@code [fromIndex, toIndex)}.
+     *
+     * @return the index of the first element that was not processed
+     */
+    @SuppressWarnings("unused")
+    default Variable emitArrayElementwiseOp(JavaKind kind, ElementwiseOperation operation, int arrayLengthOffset, Value dst, Value src1, Value src2, boolean scalarOperand, Value fromIndex,
+                    Value toIndex) {
+        throw GraalError.unimplemented("Element-wise array operations are not implemented on this architecture");
+    }
+
     @SuppressWarnings("unused")
     default Variable emitArrayIndexOf(JavaKind arrayKind, JavaKind valueKind, boolean findTwoConsecutive, Value sourcePointer, Value sourceCount, Value fromIndex, Value... searchValues) {
         throw GraalError.unimplemented("String.indexOf substitution is not implemented on this architecture");
@@ -314,6 +328,27 @@ public interface LIRGeneratorTool extends DiagnosticLIRGeneratorTool, ValueKindF
         throw GraalError.unimplemented("StringUTF16.compress substitution is not implemented on this architecture");
     }
 
+    /**
+     * Encodes {@code len} chars at {@code src} into bytes at {@code dst} until the first char that
+     * is not ISO-8859-1 (or ASCII if {@code ascii} is true) and returns the number of chars
+     * encoded.
+     */
+    @SuppressWarnings("unused")
+    default Variable emitEncodeArray(Value src, Value dst, Value len, boolean ascii) {
+        throw GraalError.unimplemented("encodeISOArray/encodeAsciiArray substitution is not implemented on this architecture");
+    }
+
+    /**
+     * Computes the polynomial hash {@code h = 31 * h + a[i]} over {@code length} elements of
+     * {@code array}, starting with {@code h = initialValue}. The elements are read as
+     * {@code valueKind} values from an array whose base offset is that of {@code arrayKind}, and
+     * {@link JavaKind#Byte} values are zero-extended if {@code unsigned} is true.
+     */
+    @SuppressWarnings("unused")
+    default Variable emitArrayHashCode(JavaKind arrayKind, JavaKind valueKind, boolean unsigned, Value array, Value length, Value initialValue) {
+        throw GraalError.unimplemented("Array hashCode substitution is not implemented on this architecture");
+    }
+
     void emitBlackhole(Value operand);
 
     LIRKind getLIRKind(Stamp stamp);
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.phases;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graalvm.collections.EconomicMap;
+import org.graalvm.collections.Equivalence;
+import org.graalvm.collections.MapCursor;
+import org.graalvm.compiler.core.common.cfg.AbstractControlFlowGraph;
+import org.graalvm.compiler.debug.CounterKey;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.loop.CountedLoopInfo;
+import org.graalvm.compiler.loop.InductionVariable;
+import org.graalvm.compiler.loop.LoopEx;
+import org.graalvm.compiler.loop.LoopsData;
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.GuardNode;
+import org.graalvm.compiler.nodes.LogicNode;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopEndNode;
+import org.graalvm.compiler.nodes.ShortCircuitOrNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.calc.IntegerBelowNode;
+import org.graalvm.compiler.nodes.cfg.Block;
+import org.graalvm.compiler.nodes.cfg.ControlFlowGraph;
+import org.graalvm.compiler.nodes.extended.BranchProbabilityNode;
+import org.graalvm.compiler.nodes.extended.GuardingNode;
+import org.graalvm.compiler.nodes.util.GraphUtil;
+import org.graalvm.compiler.phases.Phase;
+import org.graalvm.compiler.serviceprovider.SpeculationReasonGroup;
+
+import jdk.vm.ci.meta.DeoptimizationAction;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import jdk.vm.ci.meta.SpeculationLog;
+import jdk.vm.ci.meta.SpeculationLog.Speculation;
+import jdk.vm.ci.meta.SpeculationLog.SpeculationReason;
+
+/**
+ * Hoists guards out of innermost counted loops by replacing them with loop predicates, i.e.,
+ * guards in front of the loop that imply the original guard for every iteration.
+ *
+ * Two kinds of guards are predicated:
+ * <ul>
+ * <li>Guards whose condition only depends on loop-invariant values, such as null checks and type
+ * checks of values defined before the loop. The predicate is the condition itself.</li>
+ * <li>Bounds checks of the form {@code iv |<| length} where {@code iv} is an induction variable
+ * with a constant stride and {@code length} is loop invariant. Since the induction variable is
+ * linear in the iteration number, it is enough to check its first and its last value in the loop
+ * body, see {@link CountedLoopInfo#createInBoundsCheck}.</li>
+ * </ul>
+ *
+ * Every predicate is only checked if the loop is entered at all. Only guards that are executed in
+ * every iteration of the loop are considered, but the loop may still be left through another exit
+ * before the guard would have failed. Predicates therefore deoptimize with a speculation that
+ * disables predication of the loop in the next compilation of the method.
+ */
+public class LoopPredicationPhase extends Phase {
+
+    private static final CounterKey PREDICATED_GUARDS = DebugContext.counter("PredicatedGuards");
+
+    private static final SpeculationReasonGroup LOOP_PREDICATION_SPECULATIONS = new SpeculationReasonGroup("LoopPredication", ResolvedJavaMethod.class, int.class);
+
+    @Override
+    protected void run(StructuredGraph graph) {
+        if (!graph.hasLoops() || !graph.getGuardsStage().allowsFloatingGuards() || graph.getSpeculationLog() == null) {
+            return;
+        }
+        LoopsData data = new LoopsData(graph);
+        data.detectedCountedLoops();
+        EconomicMap<LoopEx, List<GuardNode>> candidates = EconomicMap.create(Equivalence.IDENTITY);
+        for (GuardNode guard : graph.getNodes(GuardNode.TYPE)) {
+            LoopEx loop = predicableLoop(data, guard);
+            if (loop != null) {
+                List<GuardNode> guards = candidates.get(loop);
+                if (guards == null) {
+                    guards = new ArrayList<>();
+                    candidates.put(loop, guards);
+                }
+                guards.add(guard);
+            }
+        }
+        MapCursor<LoopEx, List<GuardNode>> cursor = candidates.getEntries();
+        while (cursor.advance()) {
+            predicateGuards(cursor.getKey(), cursor.getValue());
+        }
+        data.deleteUnusedNodes();
+    }
+
+    /**
+     * Returns the loop out of which {@code guard} may be hoisted, or {@code null} if the guard is
+     * not executed in every iteration of an innermost counted loop.
+     */
+    private static LoopEx predicableLoop(LoopsData data, GuardNode guard) {
+        if (guard.getAnchor() == null || !(guard.getAnchor().asNode() instanceof FixedNode) || guard.getSpeculation() != SpeculationLog.NO_SPECULATION) {
+            return null;
+        }
+        ControlFlowGraph cfg = data.getCFG();
+        Block anchorBlock = cfg.blockFor(guard.getAnchor().asNode());
+        if (anchorBlock == null || anchorBlock.getLoop() == null) {
+            return null;
+        }
+        LoopEx loop = data.loop(anchorBlock.getLoop());
+        if (!loop.isCounted() || !loop.loop().getChildren().isEmpty() || loop.loopBegin().stateAfter() == null) {
+            return null;
+        }
+        CountedLoopInfo counted = loop.counted();
+        // the guard must be below the limit test and reached by every iteration that continues
+        if (!AbstractControlFlowGraph.dominates(cfg.blockFor(counted.getBody()), anchorBlock)) {
+            return null;
+        }
+        for (LoopEndNode loopEnd : loop.loopBegin().loopEnds()) {
+            if (!AbstractControlFlowGraph.dominates(anchorBlock, cfg.blockFor(loopEnd))) {
+                return null;
+            }
+        }
+        return loop;
+    }
+
+    private static void predicateGuards(LoopEx loop, List<GuardNode> guards) {
+        LoopBeginNode loopBegin = loop.loopBegin();
+        StructuredGraph graph = loopBegin.graph();
+        FrameState state = loopBegin.stateAfter();
+        SpeculationReason reason = LOOP_PREDICATION_SPECULATIONS.createSpeculationReason(state.getMethod(), state.bci);
+        if (!graph.getSpeculationLog().maySpeculate(reason)) {
+            return;
+        }
+        Speculation speculation = null;
+        LogicNode loopEntered = null;
+        AbstractBeginNode anchor = AbstractBeginNode.prevBegin(loop.entryPoint());
+        for (GuardNode guard : guards) {
+            LogicNode condition = guard.getCondition();
+            boolean invariant = isLoopInvariant(loop, condition);
+            InductionVariable iv = invariant ? null : predicableBoundsCheck(loop, guard);
+            if (!invariant && iv == null) {
+                continue;
+            }
+            if (speculation == null) {
+                speculation = graph.getSpeculationLog().speculate(reason);
+                loopEntered = loop.counted().createLoopEnteredCheck();
+            }
+            GuardingNode predicate;
+            if (invariant) {
+                predicate = createPredicate(guard, anchor, loopEntered, condition, guard.isNegated(), speculation);
+            } else {
+                LogicNode inBounds = loop.counted().createInBoundsCheck(iv, ((IntegerBelowNode) condition).getY());
+                predicate = createPredicate(guard, anchor, loopEntered, inBounds, false, speculation);
+            }
+            guard.replaceAtUsagesAndDelete(predicate.asNode());
+            GraphUtil.tryKillUnused(condition);
+            PREDICATED_GUARDS.increment(graph.getDebug());
+        }
+        if (speculation != null) {
+            graph.getDebug().dump(DebugContext.DETAILED_LEVEL, graph, "After predicating guards of %s", loopBegin);
+        }
+    }
+
+    private static boolean isLoopInvariant(LoopEx loop, LogicNode condition) {
+        for (Node input : condition.inputs()) {
+            if (!loop.isOutsideLoop(input)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the induction variable checked by {@code guard} if it is a bounds check of an int
+     * induction variable with a constant stride against a loop-invariant length.
+     */
+    private static InductionVariable predicableBoundsCheck(LoopEx loop, GuardNode guard) {
+        if (guard.isNegated() || !(guard.getCondition() instanceof IntegerBelowNode)) {
+            return null;
+        }
+        IntegerBelowNode below = (IntegerBelowNode) guard.getCondition();
+        if (!loop.isOutsideLoop(below.getY())) {
+            return null;
+        }
+        InductionVariable iv = loop.getInductionVariables().get(below.getX());
+        if (iv == null || !loop.counted().supportsInBoundsCheck(iv)) {
+            return null;
+        }
+        return iv;
+    }
+
+    /**
+     * Creates a guard in front of the loop that checks {@code condition} if the loop is entered.
+     */
+    private static GuardingNode createPredicate(GuardNode guard, AbstractBeginNode anchor, LogicNode loopEntered, LogicNode condition, boolean negated, Speculation speculation) {
+        StructuredGraph graph = guard.graph();
+        LogicNode predicate = graph.addOrUniqueWithInputs(ShortCircuitOrNode.create(loopEntered, true, condition, negated, BranchProbabilityNode.NOT_FREQUENT_PROBABILITY));
+        return graph.unique(new GuardNode(predicate, anchor, guard.getReason(), DeoptimizationAction.InvalidateRecompile, false, speculation, null));
+    }
+}
@@ -24,6 +24,7 @@
  */
 package org.graalvm.compiler.loop.phases;
 
+import org.graalvm.compiler.loop.CountedLoopInfo;
 import org.graalvm.compiler.loop.LoopEx;
 import org.graalvm.compiler.loop.LoopsData;
 import org.graalvm.compiler.nodes.FixedNode;
@@ -32,15 +33,30 @@ import org.graalvm.compiler.nodes.LoopEndNode;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.cfg.Block;
 import org.graalvm.compiler.nodes.extended.ForeignCallNode;
+import org.graalvm.compiler.options.Option;
+import org.graalvm.compiler.options.OptionKey;
+import org.graalvm.compiler.options.OptionType;
 import org.graalvm.compiler.phases.BasePhase;
 import org.graalvm.compiler.phases.tiers.MidTierContext;
 
 public class LoopSafepointEliminationPhase extends BasePhase<MidTierContext> {
 
+    public static class Options {
+        // @formatter:off
+        @Option(help = "Instead of removing the safepoint poll from long counted loops, split them into an outer loop that polls " +
+                       "and an inner loop that runs a bounded number of iterations without polling.", type = OptionType.Expert)
+        public static final OptionKey<Boolean> LoopStripMining = new OptionKey<>(false);
+        @Option(help = "Maximum number of iterations the inner loop of a strip-mined loop runs without a safepoint poll.", type = OptionType.Expert)
+        public static final OptionKey<Integer> LoopStripMiningIterations = new OptionKey<>(1000);
+        // @formatter:on
+    }
+
     @Override
     protected void run(StructuredGraph graph, MidTierContext context) {
         LoopsData loops = new LoopsData(graph);
         loops.detectedCountedLoops();
+        int stripMiningIterations = Options.LoopStripMining.getValue(graph.getOptions()) ? Options.LoopStripMiningIterations.getValue(graph.getOptions()) : 0;
+        boolean stripMined = false;
         for (LoopEx loop : loops.countedLoops()) {
             if (loop.loop().getChildren().isEmpty() && loop.counted().getStamp().getBits() <= 32) {
                 boolean hasSafepoint = false;
@@ -57,10 +73,20 @@ public class LoopSafepointEliminationPhase extends BasePhase<MidTierContext> {
                             continue;
                         }
                     }
-                    loop.loopBegin().disableSafepoint();
+                    if (shouldStripMine(loop, stripMiningIterations)) {
+                        LoopTransformations.stripMine(loop, stripMiningIterations);
+                        stripMined = true;
+                    } else {
+                        loop.loopBegin().disableSafepoint();
+                    }
                 }
             }
         }
+        if (stripMined) {
+            // the control flow graph no longer matches the loop nests
+            loops.deleteUnusedNodes();
+            loops = new LoopsData(graph);
+        }
         for (LoopEx loop : loops.loops()) {
             for (LoopEndNode loopEnd : loop.loopBegin().loopEnds()) {
                 Block b = loops.getCFG().blockFor(loopEnd);
@@ -78,4 +104,19 @@ public class LoopSafepointEliminationPhase extends BasePhase<MidTierContext> {
         }
         loops.deleteUnusedNodes();
     }
+
+    /**
+     * Loops that are known to run only a few iterations do not need a safepoint poll at all, so
+     * only long or unbounded loops are strip mined.
+     */
+    private static boolean shouldStripMine(LoopEx loop, int iterations) {
+        if (iterations <= 0) {
+            return false;
+        }
+        CountedLoopInfo counted = loop.counted();
+        if (counted.isConstantMaxTripCount() && counted.constantMaxTripCount().isLessOrEqualTo(iterations)) {
+            return false;
+        }
+        return LoopTransformations.isStripMinableLoop(loop, iterations);
+    }
 }
@@ -31,6 +31,7 @@ import java.util.Iterator;
 import java.util.List;
 
 import org.graalvm.collections.EconomicMap;
+import org.graalvm.compiler.core.common.NumUtil;
 import org.graalvm.compiler.core.common.RetryableBailoutException;
 import org.graalvm.compiler.core.common.calc.CanonicalCondition;
 import org.graalvm.compiler.debug.DebugContext;
@@ -40,8 +41,10 @@ import org.graalvm.compiler.graph.Node;
 import org.graalvm.compiler.graph.Position;
 import org.graalvm.compiler.graph.spi.Simplifiable;
 import org.graalvm.compiler.graph.spi.SimplifierTool;
+import org.graalvm.compiler.loop.BasicInductionVariable;
 import org.graalvm.compiler.loop.CountedLoopInfo;
 import org.graalvm.compiler.loop.DefaultLoopPolicies;
+import org.graalvm.compiler.loop.InductionVariable;
 import org.graalvm.compiler.loop.InductionVariable.Direction;
 import org.graalvm.compiler.loop.LoopEx;
 import org.graalvm.compiler.loop.LoopFragmentInside;
@@ -56,24 +59,34 @@ import org.graalvm.compiler.nodes.EndNode;
 import org.graalvm.compiler.nodes.FixedGuardNode;
 import org.graalvm.compiler.nodes.FixedNode;
 import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.GuardProxyNode;
 import org.graalvm.compiler.nodes.IfNode;
 import org.graalvm.compiler.nodes.LogicNode;
 import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopEndNode;
+import org.graalvm.compiler.nodes.LoopExitNode;
+import org.graalvm.compiler.nodes.MemoryProxyNode;
 import org.graalvm.compiler.nodes.NodeView;
 import org.graalvm.compiler.nodes.PhiNode;
+import org.graalvm.compiler.nodes.ProxyNode;
 import org.graalvm.compiler.nodes.SafepointNode;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
 import org.graalvm.compiler.nodes.calc.AddNode;
 import org.graalvm.compiler.nodes.calc.CompareNode;
 import org.graalvm.compiler.nodes.calc.ConditionalNode;
+import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
 import org.graalvm.compiler.nodes.extended.OpaqueNode;
 import org.graalvm.compiler.nodes.extended.SwitchNode;
+import org.graalvm.compiler.nodes.memory.MemoryPhiNode;
 import org.graalvm.compiler.nodes.spi.CoreProviders;
 import org.graalvm.compiler.nodes.util.GraphUtil;
 import org.graalvm.compiler.nodes.util.IntegerHelper;
 import org.graalvm.compiler.phases.common.CanonicalizerPhase;
 import org.graalvm.compiler.phases.common.util.EconomicSetNodeEventListener;
+import org.graalvm.word.LocationIdentity;
 
 public abstract class LoopTransformations {
 
@@ -194,6 +207,24 @@ public abstract class LoopTransformations {
         // TODO (gd) probabilities need some amount of fixup.. (probably also in other transforms)
     }
 
+    /**
+     * Versions {@code loop} on {@code condition}: the loop is duplicated, the copy is executed if
+     * {@code condition} holds and the original loop otherwise. The caller is responsible for
+     * specializing the copy, which is returned.
+     */
+    public static LoopFragmentWhole version(LoopEx loop, LogicNode condition, double copyProbability) {
+        LoopFragmentWhole originalLoop = loop.whole();
+        StructuredGraph graph = loop.loopBegin().graph();
+
+        IfNode versionSplit = graph.add(new IfNode(condition, (AbstractBeginNode) null, (AbstractBeginNode) null, copyProbability));
+        originalLoop.entryPoint().replaceAtPredecessor(versionSplit);
+        versionSplit.setFalseSuccessor(BeginNode.begin(originalLoop.entryPoint()));
+
+        LoopFragmentWhole duplicateLoop = originalLoop.duplicate();
+        versionSplit.setTrueSuccessor(BeginNode.begin(duplicateLoop.entryPoint()));
+        return duplicateLoop;
+    }
+
     public static void partialUnroll(LoopEx loop, EconomicMap<LoopBeginNode, OpaqueNode> opaqueUnrolledStrides) {
         assert loop.loopBegin().isMainLoop();
         loop.loopBegin().graph().getDebug().log("LoopPartialUnroll %s", loop);
@@ -456,6 +487,155 @@ public abstract class LoopTransformations {
         return controls;
     }
 
+    /**
+     * Splits a counted loop into an outer loop that polls for safepoints and an inner loop without
+     * safepoint polls that runs at most {@code iterations} iterations per outer iteration:
+     *
+     * <pre>
+     * for (int i = start; i &lt; limit;) {          // outer loop, polls at its loop end
+     *     int innerLimit = limit - i &gt; iterations * stride ? i + iterations * stride : limit;
+     *     for (; i &lt; innerLimit; i += stride) {   // original loop, no safepoint poll
+     *         body;
+     *     }
+     * }
+     * </pre>
+     *
+     * The loop must satisfy {@link #isStripMinableLoop}.
+     */
+    public static LoopBeginNode stripMine(LoopEx loop, int iterations) {
+        assert isStripMinableLoop(loop, iterations);
+        LoopBeginNode innerBegin = loop.loopBegin();
+        StructuredGraph graph = innerBegin.graph();
+        CountedLoopInfo counted = loop.counted();
+        PhiNode counter = (PhiNode) counted.getCounter().valueNode();
+        IfNode limitTest = counted.getLimitTest();
+        AbstractBeginNode body = counted.getBody();
+        LoopExitNode innerExit = (LoopExitNode) counted.getCountedExit();
+        IntegerLessThanNode condition = (IntegerLessThanNode) limitTest.condition();
+        double innerFrequency = innerBegin.loopFrequency();
+
+        // Insert the outer loop header in front of the loop.
+        EndNode innerEntry = (EndNode) innerBegin.forwardEnd();
+        FixedWithNextNode entryPredecessor = (FixedWithNextNode) innerEntry.predecessor();
+        EndNode outerEntry = graph.add(new EndNode());
+        LoopBeginNode outerBegin = graph.add(new LoopBeginNode());
+        entryPredecessor.setNext(outerEntry);
+        outerBegin.addForwardEnd(outerEntry);
+        outerBegin.setNext(innerEntry);
+        LoopEndNode outerEnd = graph.add(new LoopEndNode(outerBegin));
+        LoopExitNode outerExit = graph.add(new LoopExitNode(outerBegin));
+
+        // Values leaving the inner loop now also leave the outer loop.
+        for (ProxyNode proxy : innerExit.proxies().snapshot()) {
+            ProxyNode outerProxy;
+            if (proxy instanceof MemoryProxyNode) {
+                outerProxy = ProxyNode.forMemory((MemoryProxyNode) proxy, outerExit, ((MemoryProxyNode) proxy).getLocationIdentity());
+            } else if (proxy instanceof GuardProxyNode) {
+                outerProxy = ProxyNode.forGuard((GuardProxyNode) proxy, outerExit);
+            } else {
+                outerProxy = ProxyNode.forValue(proxy, outerExit);
+            }
+            proxy.replaceAtMatchingUsages(outerProxy, usage -> usage != outerProxy);
+        }
+        FixedNode continuation = innerExit.next();
+        innerExit.setNext(null);
+        outerExit.setNext(continuation);
+        FrameState exitState = innerExit.stateAfter();
+        innerExit.setStateAfter(null);
+        outerExit.setStateAfter(exitState);
+
+        // Every loop phi is carried around the outer loop.
+        FrameState outerState = innerBegin.stateAfter().duplicate();
+        FrameState innerExitState = innerBegin.stateAfter().duplicate();
+        ValueNode outerCounter = null;
+        ValueNode exitCounter = null;
+        for (PhiNode innerPhi : innerBegin.phis().snapshot()) {
+            PhiNode outerPhi;
+            ValueNode exitValue;
+            if (innerPhi instanceof MemoryPhiNode) {
+                LocationIdentity location = ((MemoryPhiNode) innerPhi).getLocationIdentity();
+                outerPhi = graph.addWithoutUnique(new MemoryPhiNode(outerBegin, location));
+                exitValue = ProxyNode.forMemory((MemoryPhiNode) innerPhi, innerExit, location);
+            } else {
+                outerPhi = graph.addWithoutUnique(new ValuePhiNode(innerPhi.stamp(NodeView.DEFAULT), outerBegin));
+                exitValue = ProxyNode.forValue(innerPhi, innerExit);
+            }
+            outerPhi.addInput(innerPhi.valueAt(innerEntry));
+            outerPhi.addInput(exitValue);
+            innerPhi.setValueAt(innerEntry, outerPhi);
+            outerState.replaceAllInputs(innerPhi, outerPhi);
+            innerExitState.replaceAllInputs(innerPhi, exitValue);
+            if (innerPhi == counter) {
+                outerCounter = outerPhi;
+                exitCounter = exitValue;
+            }
+        }
+        outerBegin.setStateAfter(outerState);
+        innerExit.setStateAfter(innerExitState);
+
+        // The outer loop continues as long as the original limit test passes.
+        ValueNode limit = condition.getX() == counter ? condition.getY() : condition.getX();
+        LogicNode outerCondition = graph.unique(new IntegerLessThanNode(condition.getX() == counter ? exitCounter : limit, condition.getY() == counter ? exitCounter : limit));
+        double outerFrequency = Math.max(1.0, innerFrequency / iterations);
+        double continueProbability = 1.0 - 1.0 / outerFrequency;
+        BeginNode continueBegin = graph.add(new BeginNode());
+        continueBegin.setNext(outerEnd);
+        boolean continueOnTrue = limitTest.trueSuccessor() == body;
+        IfNode outerTest = graph.add(new IfNode(outerCondition, continueOnTrue ? continueBegin : outerExit, continueOnTrue ? outerExit : continueBegin,
+                        continueOnTrue ? continueProbability : 1.0 - continueProbability));
+        innerExit.setNext(outerTest);
+
+        // The inner loop stops after at most the given number of iterations.
+        ValueNode innerLimit = counted.createStripMinedLimit(outerCounter, iterations);
+        LogicNode innerCondition = graph.unique(new IntegerLessThanNode(condition.getX() == counter ? counter : innerLimit, condition.getY() == counter ? counter : innerLimit));
+        limitTest.setCondition(innerCondition);
+        GraphUtil.tryKillUnused(condition);
+
+        innerBegin.disableSafepoint();
+        innerBegin.setStripMinedInner();
+        innerBegin.setLoopFrequency(Math.min(innerFrequency, iterations));
+        outerBegin.setStripMinedOuter();
+        outerBegin.setLoopFrequency(outerFrequency);
+        graph.getDebug().dump(DebugContext.DETAILED_LEVEL, graph, "After strip mining %s", innerBegin);
+        return outerBegin;
+    }
+
+    /**
+     * Determines whether {@link #stripMine} can split the given loop: it must be an innermost
+     * counted loop with a constant stride, a signed {@code <} limit test at the loop header as its
+     * only exit and a 32-bit counter that cannot overflow within {@code iterations} strides.
+     */
+    public static boolean isStripMinableLoop(LoopEx loop, int iterations) {
+        LoopBeginNode loopBegin = loop.loopBegin();
+        if (!loop.isCounted() || !loop.loop().getChildren().isEmpty() || loopBegin.isStripMinedInner() || loopBegin.isOsrLoop() || loopBegin.forwardEndCount() != 1 ||
+                        loopBegin.loopExits().count() != 1) {
+            return false;
+        }
+        FrameState loopState = loopBegin.stateAfter();
+        if (loopState == null || loopState.virtualObjectMappingCount() > 0) {
+            return false;
+        }
+        CountedLoopInfo counted = loop.counted();
+        if (counted.isUnsignedCheck() || counted.isLimitIncluded() || counted.getLimitTest().predecessor() != loopBegin || !(counted.getCountedExit() instanceof LoopExitNode)) {
+            return false;
+        }
+        InductionVariable counter = counted.getCounter();
+        if (!(counter instanceof BasicInductionVariable) || !counter.isConstantStride() || counted.getStamp().getBits() > 32 ||
+                        iterations * Math.abs(counter.constantStride()) > NumUtil.maxValue(counted.getStamp().getBits())) {
+            return false;
+        }
+        LogicNode condition = counted.getLimitTest().condition();
+        if (!(condition instanceof IntegerLessThanNode) || (((IntegerLessThanNode) condition).getX() != counter.valueNode() && ((IntegerLessThanNode) condition).getY() != counter.valueNode())) {
+            return false;
+        }
+        for (PhiNode phi : loopBegin.phis()) {
+            if (!(phi instanceof ValuePhiNode) && !(phi instanceof MemoryPhiNode)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static boolean isUnrollableLoop(LoopEx loop) {
         if (!loop.isCounted() || !loop.counted().getCounter().isConstantStride() || !loop.loop().getChildren().isEmpty()) {
             return false;
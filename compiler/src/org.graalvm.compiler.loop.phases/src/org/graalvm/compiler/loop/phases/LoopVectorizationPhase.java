@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.phases;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graalvm.compiler.core.common.calc.ElementwiseOperation;
+import org.graalvm.compiler.debug.CounterKey;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.loop.BasicInductionVariable;
+import org.graalvm.compiler.loop.CountedLoopInfo;
+import org.graalvm.compiler.loop.InductionVariable;
+import org.graalvm.compiler.loop.InductionVariable.Direction;
+import org.graalvm.compiler.loop.LoopEx;
+import org.graalvm.compiler.loop.LoopPolicies;
+import org.graalvm.compiler.loop.LoopsData;
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.BeginNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.LogicNode;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopEndNode;
+import org.graalvm.compiler.nodes.LoopExitNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.AndNode;
+import org.graalvm.compiler.nodes.calc.BinaryNode;
+import org.graalvm.compiler.nodes.calc.IntegerConvertNode;
+import org.graalvm.compiler.nodes.calc.IntegerBelowNode;
+import org.graalvm.compiler.nodes.calc.IsNullNode;
+import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.calc.NarrowNode;
+import org.graalvm.compiler.nodes.calc.OrNode;
+import org.graalvm.compiler.nodes.calc.SignExtendNode;
+import org.graalvm.compiler.nodes.calc.SubNode;
+import org.graalvm.compiler.nodes.calc.XorNode;
+import org.graalvm.compiler.nodes.calc.ZeroExtendNode;
+import org.graalvm.compiler.nodes.cfg.Block;
+import org.graalvm.compiler.nodes.java.ArrayElementwiseOpNode;
+import org.graalvm.compiler.nodes.java.ArrayLengthNode;
+import org.graalvm.compiler.nodes.java.LoadIndexedNode;
+import org.graalvm.compiler.nodes.java.StoreIndexedNode;
+import org.graalvm.compiler.nodes.spi.CoreProviders;
+import org.graalvm.compiler.nodes.type.StampTool;
+import org.graalvm.compiler.nodes.util.GraphUtil;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.ResolvedJavaType;
+
+/**
+ * Vectorizes innermost counted loops of the form
+ *
+ * <pre>
+ * for (int i = start; i &lt; limit; i++) {
+ *     dst[i] = src1[i] op src2[i]; // or: dst[i] = src1[i] op scalar
+ * }
+ * </pre>
+ *
+ * where {@code op} is one of the {@link ElementwiseOperation element-wise operations}. An
+ * {@link ArrayElementwiseOpNode} is inserted in front of the loop to process the largest prefix
+ * of the iteration space that is a multiple of the target's vector length, and the start value
+ * of the induction variable is replaced with the index it stops at. The original loop thereby
+ * becomes the scalar post loop handling the remaining iterations, as well as all iterations in
+ * which an exception is thrown.
+ */
+public class LoopVectorizationPhase extends LoopPhase<LoopPolicies> {
+
+    private static final CounterKey VECTORIZED_LOOPS = DebugContext.counter("VectorizedLoops");
+
+    public LoopVectorizationPhase(LoopPolicies policies) {
+        super(policies);
+    }
+
+    @Override
+    protected void run(StructuredGraph graph, CoreProviders context) {
+        if (graph.hasLoops()) {
+            LoopsData data = new LoopsData(graph);
+            data.detectedCountedLoops();
+            for (LoopEx loop : data.countedLoops()) {
+                ElementwiseLoop candidate = ElementwiseLoop.match(loop);
+                if (candidate == null) {
+                    continue;
+                }
+                int elementsPerVector = context.getLowerer().arrayElementwiseOpVectorLength(candidate.kind, candidate.operation);
+                if (getPolicies().shouldVectorize(loop, elementsPerVector)) {
+                    candidate.vectorize(context.getLowerer().arrayLengthOffset());
+                    VECTORIZED_LOOPS.increment(graph.getDebug());
+                    graph.getDebug().dump(DebugContext.DETAILED_LEVEL, graph, "After vectorizing %s", loop.loopBegin());
+                }
+            }
+            data.deleteUnusedNodes();
+        }
+    }
+
+    @Override
+    public boolean checkContract() {
+        return false;
+    }
+
+    /**
+     * An innermost counted loop whose only side effect is an element-wise array operation.
+     */
+    private static final class ElementwiseLoop {
+
+        final LoopEx loop;
+        final ValuePhiNode iv;
+        final StoreIndexedNode store;
+        final JavaKind kind;
+        final ElementwiseOperation operation;
+        final ValueNode src1;
+        final ValueNode src2;
+        final boolean scalarOperand;
+
+        private ElementwiseLoop(LoopEx loop, ValuePhiNode iv, StoreIndexedNode store, ElementwiseOperation operation, ValueNode src1, ValueNode src2, boolean scalarOperand) {
+            this.loop = loop;
+            this.iv = iv;
+            this.store = store;
+            this.kind = store.elementKind();
+            this.operation = operation;
+            this.src1 = src1;
+            this.src2 = src2;
+            this.scalarOperand = scalarOperand;
+        }
+
+        void vectorize(int arrayLengthOffset) {
+            LoopBeginNode loopBegin = loop.loopBegin();
+            StructuredGraph graph = loopBegin.graph();
+            ValueNode start = iv.valueAt(loopBegin.forwardEnd());
+            ArrayElementwiseOpNode vectorOp = graph.add(new ArrayElementwiseOpNode(kind, operation, arrayLengthOffset, store.array(), src1, src2, scalarOperand, start,
+                            loop.counted().getLimit()));
+            // Deoptimizing after the vector operation resumes the loop where the vector
+            // operation stopped.
+            FrameState stateAfter = loopBegin.stateAfter().duplicate();
+            stateAfter.replaceAllInputs(iv, vectorOp);
+            vectorOp.setStateAfter(stateAfter);
+            graph.addBeforeFixed(loopBegin.forwardEnd(), vectorOp);
+            iv.setValueAt(loopBegin.forwardEnd(), vectorOp);
+        }
+
+        static ElementwiseLoop match(LoopEx loop) {
+            LoopBeginNode loopBegin = loop.loopBegin();
+            if (!loop.loop().getChildren().isEmpty() || loopBegin.forwardEndCount() != 1 || loopBegin.loopEnds().count() != 1 || loopBegin.phis().count() != 1) {
+                return null;
+            }
+            FrameState loopState = loopBegin.stateAfter();
+            if (loopState == null || loopState.virtualObjectMappingCount() > 0) {
+                return null;
+            }
+            CountedLoopInfo counted = loop.counted();
+            if (counted.isUnsignedCheck() || counted.isLimitIncluded() || counted.getDirection() != Direction.Up || counted.getLimitTest().predecessor() != loopBegin) {
+                return null;
+            }
+            InductionVariable counter = counted.getCounter();
+            if (!(counter instanceof BasicInductionVariable) || !counter.isConstantStride() || counter.constantStride() != 1) {
+                return null;
+            }
+            ValuePhiNode iv = ((BasicInductionVariable) counter).valueNode();
+            if (iv.getStackKind() != JavaKind.Int || iv.valueAt(loopBegin.forwardEnd()) instanceof ArrayElementwiseOpNode) {
+                return null;
+            }
+
+            StoreIndexedNode store = null;
+            List<LoadIndexedNode> loads = new ArrayList<>();
+            List<ArrayLengthNode> lengths = new ArrayList<>();
+            List<IfNode> checks = new ArrayList<>();
+            for (Block block : loop.loop().getBlocks()) {
+                for (FixedNode node : block.getNodes()) {
+                    if (node == loopBegin || node == counted.getLimitTest() || node instanceof BeginNode || node instanceof LoopEndNode) {
+                        continue;
+                    } else if (node instanceof StoreIndexedNode && store == null) {
+                        store = (StoreIndexedNode) node;
+                    } else if (node instanceof LoadIndexedNode) {
+                        loads.add((LoadIndexedNode) node);
+                    } else if (node instanceof ArrayLengthNode) {
+                        lengths.add((ArrayLengthNode) node);
+                    } else if (node instanceof IfNode) {
+                        checks.add((IfNode) node);
+                    } else {
+                        return null;
+                    }
+                }
+            }
+            if (store == null || store.index() != iv || !isElementArray(loop, store.array(), store.elementKind())) {
+                return null;
+            }
+
+            JavaKind kind = store.elementKind();
+            ValueNode value = skipNarrowing(store.value(), kind);
+            ElementwiseOperation operation = operationOf(value);
+            if (operation == null || !(operation.isFloatingPointOperation() || kind.isNumericInteger())) {
+                return null;
+            }
+            ValueNode x = ((BinaryNode) value).getX();
+            ValueNode y = ((BinaryNode) value).getY();
+            boolean scalarOperand = false;
+            if (!isElementLoad(loop, x, iv, kind)) {
+                if (!operation.isCommutative() || !isElementLoad(loop, y, iv, kind)) {
+                    return null;
+                }
+                ValueNode tmp = x;
+                x = y;
+                y = tmp;
+            }
+            if (!isElementLoad(loop, y, iv, kind)) {
+                if (!loop.isOutsideLoop(y) || y.getStackKind() != kind.getStackKind()) {
+                    return null;
+                }
+                scalarOperand = true;
+            }
+            ValueNode src1 = ((LoadIndexedNode) x).array();
+            ValueNode src2 = scalarOperand ? y : ((LoadIndexedNode) y).array();
+
+            // Any other load could throw in an iteration that the vector operation skips.
+            for (LoadIndexedNode load : loads) {
+                if (load != x && load != y) {
+                    return null;
+                }
+            }
+            List<ValueNode> arrays = new ArrayList<>();
+            arrays.add(GraphUtil.skipPi(store.array()));
+            arrays.add(GraphUtil.skipPi(src1));
+            if (!scalarOperand) {
+                arrays.add(GraphUtil.skipPi(src2));
+            }
+            for (ArrayLengthNode length : lengths) {
+                if (!arrays.contains(GraphUtil.skipPi(length.array()))) {
+                    return null;
+                }
+            }
+            // Explicit exception checks only leave the loop in iterations the vector operation
+            // does not process.
+            for (IfNode check : checks) {
+                if (!isExceptionCheck(check, iv, arrays)) {
+                    return null;
+                }
+            }
+            return new ElementwiseLoop(loop, iv, store, operation, src1, src2, scalarOperand);
+        }
+
+        private static boolean isExceptionCheck(IfNode check, ValuePhiNode iv, List<ValueNode> arrays) {
+            LogicNode condition = check.condition();
+            AbstractBeginNode exceptionSuccessor;
+            if (condition instanceof IsNullNode && arrays.contains(GraphUtil.skipPi(((IsNullNode) condition).getValue()))) {
+                exceptionSuccessor = check.trueSuccessor();
+            } else if (condition instanceof IntegerBelowNode) {
+                IntegerBelowNode below = (IntegerBelowNode) condition;
+                if (below.getX() != iv || !(below.getY() instanceof ArrayLengthNode) || !arrays.contains(GraphUtil.skipPi(((ArrayLengthNode) below.getY()).array()))) {
+                    return false;
+                }
+                exceptionSuccessor = check.falseSuccessor();
+            } else {
+                return false;
+            }
+            return exceptionSuccessor instanceof LoopExitNode;
+        }
+
+        private static boolean isElementLoad(LoopEx loop, ValueNode value, ValuePhiNode iv, JavaKind kind) {
+            if (value instanceof LoadIndexedNode) {
+                LoadIndexedNode load = (LoadIndexedNode) value;
+                return load.index() == iv && load.elementKind() == kind && isElementArray(loop, load.array(), kind);
+            }
+            return false;
+        }
+
+        private static boolean isElementArray(LoopEx loop, ValueNode array, JavaKind kind) {
+            if (!loop.isOutsideLoop(array) || !(kind.isNumericInteger() || kind.isNumericFloat())) {
+                return false;
+            }
+            // byte accesses are also used for boolean arrays, which must not be vectorized
+            ResolvedJavaType type = StampTool.typeOrNull(array);
+            return type != null && type.isArray() && type.getComponentType().getJavaKind() == kind;
+        }
+
+        /**
+         * Removes the conversions of an explicit cast to the element type, which are implied by
+         * the store.
+         */
+        private static ValueNode skipNarrowing(ValueNode value, JavaKind kind) {
+            ValueNode result = value;
+            if (kind.getBitCount() < 32) {
+                if ((result instanceof SignExtendNode || result instanceof ZeroExtendNode) && ((IntegerConvertNode<?, ?>) result).getValue() instanceof NarrowNode) {
+                    result = ((IntegerConvertNode<?, ?>) result).getValue();
+                }
+                if (result instanceof NarrowNode && ((NarrowNode) result).getResultBits() >= kind.getBitCount()) {
+                    result = ((NarrowNode) result).getValue();
+                }
+            }
+            return result;
+        }
+
+        private static ElementwiseOperation operationOf(ValueNode value) {
+            if (value instanceof AddNode) {
+                return ElementwiseOperation.ADD;
+            } else if (value instanceof SubNode) {
+                return ElementwiseOperation.SUB;
+            } else if (value instanceof MulNode) {
+                return ElementwiseOperation.MUL;
+            } else if (value instanceof AndNode) {
+                return ElementwiseOperation.AND;
+            } else if (value instanceof OrNode) {
+                return ElementwiseOperation.OR;
+            } else if (value instanceof XorNode) {
+                return ElementwiseOperation.XOR;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.phases;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graalvm.collections.EconomicMap;
+import org.graalvm.collections.Equivalence;
+import org.graalvm.compiler.debug.CounterKey;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.loop.CountedLoopInfo;
+import org.graalvm.compiler.loop.InductionVariable;
+import org.graalvm.compiler.loop.LoopEx;
+import org.graalvm.compiler.loop.LoopFragmentWhole;
+import org.graalvm.compiler.loop.LoopPolicies;
+import org.graalvm.compiler.loop.LoopsData;
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.FixedGuardNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.LogicNode;
+import org.graalvm.compiler.nodes.PiNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.calc.IsNullNode;
+import org.graalvm.compiler.nodes.extended.BranchProbabilityNode;
+import org.graalvm.compiler.nodes.java.AccessIndexedNode;
+import org.graalvm.compiler.nodes.java.ArrayLengthNode;
+import org.graalvm.compiler.nodes.type.StampTool;
+import org.graalvm.compiler.serviceprovider.SpeculationReasonGroup;
+
+import jdk.vm.ci.meta.DeoptimizationAction;
+import jdk.vm.ci.meta.DeoptimizationReason;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import jdk.vm.ci.meta.SpeculationLog;
+import jdk.vm.ci.meta.SpeculationLog.Speculation;
+import jdk.vm.ci.meta.SpeculationLog.SpeculationReason;
+
+/**
+ * Versions innermost counted loops that access loop-invariant arrays with induction variables as
+ * indices. A single runtime test in front of the loop checks that all these indices are within
+ * the bounds of their arrays in every iteration, see {@link CountedLoopInfo#createInBoundsCheck}.
+ * If it holds, a copy of the loop is executed whose array accesses do not check their bounds
+ * anymore; otherwise the original loop is executed.
+ *
+ * Reading the array lengths for the test requires the arrays to be non-null. Arrays that may be
+ * null are checked by a guard in front of the test, which deoptimizes with a speculation so that
+ * a method passing {@code null} to a loop that does not access the array is not versioned again.
+ *
+ * Graal's memory graph uses a single location per array element kind, so a test for
+ * non-overlapping arrays would not allow any further optimization of the copy and is not done.
+ */
+public class LoopVersioningPhase extends ContextlessLoopPhase<LoopPolicies> {
+
+    private static final CounterKey VERSIONED_LOOPS = DebugContext.counter("VersionedLoops");
+    private static final CounterKey VERSIONED_ACCESSES = DebugContext.counter("VersionedArrayAccesses");
+
+    private static final SpeculationReasonGroup LOOP_VERSIONING_SPECULATIONS = new SpeculationReasonGroup("LoopVersioning", ResolvedJavaMethod.class, int.class);
+
+    public LoopVersioningPhase(LoopPolicies policies) {
+        super(policies);
+    }
+
+    @Override
+    protected void run(StructuredGraph graph) {
+        if (graph.hasLoops()) {
+            boolean versioned;
+            do {
+                versioned = false;
+                LoopsData data = new LoopsData(graph);
+                data.detectedCountedLoops();
+                for (LoopEx loop : data.countedLoops()) {
+                    if (loop.loop().getChildren().isEmpty() && getPolicies().shouldVersion(loop)) {
+                        List<AccessIndexedNode> accesses = findVersionableAccesses(loop);
+                        if (!accesses.isEmpty() && version(loop, accesses)) {
+                            VERSIONED_LOOPS.increment(graph.getDebug());
+                            graph.getDebug().dump(DebugContext.DETAILED_LEVEL, graph, "After versioning %s", loop.loopBegin());
+                            versioned = true;
+                            break;
+                        }
+                    }
+                }
+                data.deleteUnusedNodes();
+            } while (versioned);
+        }
+    }
+
+    private static List<AccessIndexedNode> findVersionableAccesses(LoopEx loop) {
+        List<AccessIndexedNode> accesses = new ArrayList<>();
+        CountedLoopInfo counted = loop.counted();
+        for (Node node : loop.whole().nodes()) {
+            if (node instanceof AccessIndexedNode) {
+                AccessIndexedNode access = (AccessIndexedNode) node;
+                if (access.getBoundsCheck() != null || !loop.isOutsideLoop(access.array())) {
+                    continue;
+                }
+                InductionVariable iv = loop.getInductionVariables().get(access.index());
+                if (iv != null && counted.supportsInBoundsCheck(iv)) {
+                    accesses.add(access);
+                }
+            }
+        }
+        return accesses;
+    }
+
+    private static boolean version(LoopEx loop, List<AccessIndexedNode> accesses) {
+        StructuredGraph graph = loop.loopBegin().graph();
+        CountedLoopInfo counted = loop.counted();
+        FixedNode entry = loop.entryPoint();
+        EconomicMap<ValueNode, ValueNode> nonNullArrays = EconomicMap.create(Equivalence.IDENTITY);
+        EconomicMap<ValueNode, ValueNode> lengths = EconomicMap.create(Equivalence.IDENTITY);
+        Speculation speculation = null;
+        boolean maySpeculate = true;
+        LogicNode condition = null;
+        List<AccessIndexedNode> versionedAccesses = new ArrayList<>();
+        for (AccessIndexedNode access : accesses) {
+            ValueNode array = access.array();
+            if (!lengths.containsKey(array)) {
+                ValueNode nonNullArray = array;
+                if (!StampTool.isPointerNonNull(array)) {
+                    if (speculation == null && maySpeculate) {
+                        speculation = speculate(loop);
+                        maySpeculate = speculation != null;
+                    }
+                    if (speculation == null) {
+                        continue;
+                    }
+                    LogicNode isNull = graph.addOrUniqueWithInputs(IsNullNode.create(array));
+                    FixedGuardNode nullCheck = graph.add(new FixedGuardNode(isNull, DeoptimizationReason.NullCheckException, DeoptimizationAction.InvalidateRecompile, speculation, true));
+                    graph.addBeforeFixed(entry, nullCheck);
+                    nonNullArray = graph.addOrUniqueWithInputs(PiNode.create(array, nullCheck));
+                }
+                ArrayLengthNode length = graph.add(new ArrayLengthNode(nonNullArray));
+                graph.addBeforeFixed(entry, length);
+                nonNullArrays.put(array, nonNullArray);
+                lengths.put(array, length);
+            }
+            LogicNode inBounds = counted.createInBoundsCheck(loop.getInductionVariables().get(access.index()), lengths.get(array));
+            condition = condition == null ? inBounds : LogicNode.and(condition, inBounds, BranchProbabilityNode.NOT_FREQUENT_PROBABILITY);
+            versionedAccesses.add(access);
+        }
+        if (condition == null) {
+            return false;
+        }
+
+        loop.loopBegin().setVersioned();
+        LoopFragmentWhole fastLoop = LoopTransformations.version(loop, condition, BranchProbabilityNode.FAST_PATH_PROBABILITY);
+        AbstractBeginNode fastBegin = AbstractBeginNode.prevBegin(fastLoop.entryPoint());
+        for (AccessIndexedNode access : versionedAccesses) {
+            AccessIndexedNode fastAccess = fastLoop.getDuplicatedNode(access);
+            fastAccess.setArray(nonNullArrays.get(access.array()));
+            fastAccess.setBoundsCheck(fastBegin);
+            VERSIONED_ACCESSES.increment(graph.getDebug());
+        }
+        return true;
+    }
+
+    private static Speculation speculate(LoopEx loop) {
+        StructuredGraph graph = loop.loopBegin().graph();
+        FrameState state = loop.loopBegin().stateAfter();
+        if (graph.getSpeculationLog() == null || state == null) {
+            return null;
+        }
+        SpeculationReason reason = LOOP_VERSIONING_SPECULATIONS.createSpeculationReason(state.getMethod(), state.bci);
+        if (!graph.getSpeculationLog().maySpeculate(reason)) {
+            return null;
+        }
+        Speculation speculation = graph.getSpeculationLog().speculate(reason);
+        assert speculation != SpeculationLog.NO_SPECULATION;
+        return speculation;
+    }
+
+    @Override
+    public float codeSizeIncrease() {
+        return 2.0f;
+    }
+}
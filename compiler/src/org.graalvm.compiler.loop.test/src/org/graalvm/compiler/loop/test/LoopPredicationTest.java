@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.test;
+
+import org.graalvm.compiler.core.common.GraalOptions;
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.nodes.AbstractFixedGuardNode;
+import org.graalvm.compiler.nodes.DeoptimizeNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Test;
+
+import jdk.vm.ci.meta.SpeculationLog;
+
+public class LoopPredicationTest extends GraalCompilerTest {
+
+    private static final int[] LENGTHS = {0, 1, 2, 7, 100};
+
+    private boolean expectPredicated;
+
+    @Override
+    protected SpeculationLog getSpeculationLog() {
+        return getCodeCache().createSpeculationLog();
+    }
+
+    @Override
+    protected void checkMidTierGraph(StructuredGraph graph) {
+        if (expectPredicated) {
+            boolean found = false;
+            for (DeoptimizeNode deopt : graph.getNodes().filter(DeoptimizeNode.class)) {
+                found |= deopt.getSpeculation() != SpeculationLog.NO_SPECULATION;
+            }
+            for (AbstractFixedGuardNode guard : graph.getNodes().filter(AbstractFixedGuardNode.class)) {
+                found |= guard.getSpeculation() != SpeculationLog.NO_SPECULATION;
+            }
+            assertTrue("expected a loop predicate", found);
+        }
+    }
+
+    private void runTest(String name, Object... args) {
+        test(new OptionValues(getInitialOptions(), GraalOptions.LoopPredication, true), name, args);
+    }
+
+    private void testPredicated(String name, Object... args) {
+        expectPredicated = true;
+        try {
+            runTest(name, args);
+        } finally {
+            expectPredicated = false;
+        }
+    }
+
+    private static int[] ints(int length) {
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i * 31 + 7;
+        }
+        return result;
+    }
+
+    public static int sumSnippet(int[] a) {
+        int sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    public static int sumWithOffsetSnippet(int[] a, int offset, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += a[i + offset];
+        }
+        return sum;
+    }
+
+    public static int sumRangeSnippet(int[] a, int from, int to) {
+        int sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    public static int sumDownSnippet(int[] a, int from) {
+        int sum = 0;
+        for (int i = from; i >= 0; i -= 2) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    public static int sumScaledSnippet(int[] a, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += a[2 * i + 1];
+        }
+        return sum;
+    }
+
+    public static int copySnippet(int[] src, int[] dst, int srcPos, int dstPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dst[dstPos + i] = src[srcPos + i];
+        }
+        return dst[dstPos];
+    }
+
+    public static int earlyExitSnippet(int[] a, int length, int stop) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            if (i == stop) {
+                break;
+            }
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    public static int invariantSnippet(int[] a, Object o, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += a[i] + ((String) o).length();
+        }
+        return sum;
+    }
+
+    @Test
+    public void testSum() {
+        for (int length : LENGTHS) {
+            runTest("sumSnippet", ints(length));
+        }
+        runTest("sumSnippet", (Object) null);
+    }
+
+    @Test
+    public void testSumWithOffset() {
+        testPredicated("sumWithOffsetSnippet", ints(100), 10, 50);
+        for (int length : LENGTHS) {
+            runTest("sumWithOffsetSnippet", ints(100), 3, length);
+            runTest("sumWithOffsetSnippet", ints(100), 100 - length, length);
+            runTest("sumWithOffsetSnippet", ints(100), 101 - length, length);
+            runTest("sumWithOffsetSnippet", ints(100), -1, length);
+        }
+        runTest("sumWithOffsetSnippet", ints(100), Integer.MAX_VALUE, 2);
+        runTest("sumWithOffsetSnippet", ints(100), Integer.MIN_VALUE, 2);
+    }
+
+    @Test
+    public void testSumRange() {
+        for (int length : LENGTHS) {
+            runTest("sumRangeSnippet", ints(length), 0, length);
+            runTest("sumRangeSnippet", ints(length), 1, length);
+            runTest("sumRangeSnippet", ints(length), -1, length);
+            runTest("sumRangeSnippet", ints(length), 0, length + 1);
+            runTest("sumRangeSnippet", ints(length), length, 0);
+        }
+    }
+
+    @Test
+    public void testSumDown() {
+        for (int length : LENGTHS) {
+            runTest("sumDownSnippet", ints(length), length - 1);
+            runTest("sumDownSnippet", ints(length), length);
+        }
+    }
+
+    @Test
+    public void testSumScaled() {
+        for (int length : LENGTHS) {
+            runTest("sumScaledSnippet", ints(2 * length + 1), length);
+            runTest("sumScaledSnippet", ints(2 * length), length);
+        }
+        runTest("sumScaledSnippet", ints(10), 0x40000001);
+    }
+
+    @Test
+    public void testCopy() {
+        testPredicated("copySnippet", ints(100), new int[100], 10, 20, 50);
+        runTest("copySnippet", ints(100), new int[100], 60, 20, 50);
+        runTest("copySnippet", ints(100), new int[100], 10, 60, 50);
+        runTest("copySnippet", ints(100), new int[100], -1, 20, 50);
+    }
+
+    @Test
+    public void testEarlyExit() {
+        runTest("earlyExitSnippet", ints(10), 20, 5);
+        runTest("earlyExitSnippet", ints(10), 20, 15);
+        runTest("earlyExitSnippet", ints(10), 10, 20);
+    }
+
+    @Test
+    public void testInvariant() {
+        runTest("invariantSnippet", ints(10), "abc", 10);
+        runTest("invariantSnippet", ints(10), "abc", 0);
+        runTest("invariantSnippet", ints(10), null, 0);
+        runTest("invariantSnippet", ints(10), null, 10);
+        runTest("invariantSnippet", ints(10), 42, 0);
+        runTest("invariantSnippet", ints(10), 42, 10);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.test;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.loop.phases.LoopSafepointEliminationPhase;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Test;
+
+public class LoopStripMiningTest extends GraalCompilerTest {
+
+    private static final int ITERATIONS = 16;
+
+    private boolean expectStripMined;
+
+    @Override
+    protected void checkMidTierGraph(StructuredGraph graph) {
+        if (expectStripMined) {
+            boolean found = false;
+            for (LoopBeginNode loopBegin : graph.getNodes(LoopBeginNode.TYPE)) {
+                if (loopBegin.isStripMinedOuter()) {
+                    found = true;
+                }
+            }
+            assertTrue("expected a strip-mined loop", found);
+        }
+    }
+
+    private OptionValues stripMiningOptions() {
+        return new OptionValues(getInitialOptions(), LoopSafepointEliminationPhase.Options.LoopStripMining, true, LoopSafepointEliminationPhase.Options.LoopStripMiningIterations, ITERATIONS);
+    }
+
+    private void runTest(String name, Object... args) {
+        test(stripMiningOptions(), name, args);
+    }
+
+    private void testStripMined(String name, Object... args) {
+        expectStripMined = true;
+        try {
+            runTest(name, args);
+        } finally {
+            expectStripMined = false;
+        }
+    }
+
+    public static long sumUpSnippet(int[] a) {
+        long sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    public static int sumRangeSnippet(int start, int end) {
+        int sum = 0;
+        for (int i = start; i < end; i++) {
+            sum += i * 31;
+        }
+        return sum;
+    }
+
+    public static int sumDownSnippet(int start, int end) {
+        int sum = 0;
+        for (int i = start; i > end; i--) {
+            sum ^= i + (sum << 1);
+        }
+        return sum;
+    }
+
+    public static int sumStrideSnippet(int start, int end) {
+        int sum = 0;
+        for (int i = start; i < end; i += 2) {
+            sum += i;
+        }
+        return sum;
+    }
+
+    public static int storeSnippet(int[] a, int value) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] = value + i;
+        }
+        return a[a.length - 1];
+    }
+
+    @Test
+    public void testSumRange() {
+        testStripMined("sumRangeSnippet", 0, 10000);
+        for (int end : new int[]{-1, 0, 1, ITERATIONS - 1, ITERATIONS, ITERATIONS + 1, 3 * ITERATIONS, 3 * ITERATIONS + 5}) {
+            runTest("sumRangeSnippet", 0, end);
+            runTest("sumRangeSnippet", -7, end);
+        }
+    }
+
+    @Test
+    public void testSumRangeNearLimit() {
+        runTest("sumRangeSnippet", Integer.MAX_VALUE - 100, Integer.MAX_VALUE);
+        runTest("sumRangeSnippet", Integer.MIN_VALUE, Integer.MIN_VALUE + 100);
+    }
+
+    @Test
+    public void testSumDown() {
+        for (int start : new int[]{-1, 0, 1, ITERATIONS, ITERATIONS + 1, 3 * ITERATIONS + 5, 10000}) {
+            runTest("sumDownSnippet", start, 0);
+        }
+        runTest("sumDownSnippet", Integer.MIN_VALUE + 100, Integer.MIN_VALUE);
+    }
+
+    @Test
+    public void testSumStride() {
+        for (int end : new int[]{0, 1, 2, 2 * ITERATIONS - 1, 2 * ITERATIONS, 2 * ITERATIONS + 1, 10001}) {
+            runTest("sumStrideSnippet", 0, end);
+        }
+        runTest("sumStrideSnippet", Integer.MAX_VALUE - 101, Integer.MAX_VALUE - 1);
+    }
+
+    @Test
+    public void testArrays() {
+        for (int length : new int[]{0, 1, ITERATIONS, ITERATIONS + 1, 1000}) {
+            runTest("sumUpSnippet", new int[length]);
+            if (length > 0) {
+                runTest("storeSnippet", new int[length], 42);
+            }
+        }
+    }
+}
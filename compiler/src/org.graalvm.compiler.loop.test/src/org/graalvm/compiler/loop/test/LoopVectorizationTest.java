@@ -0,0 +1,616 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.test;
+
+import java.util.Locale;
+
+import org.graalvm.compiler.core.common.GraalOptions;
+import org.graalvm.compiler.core.common.calc.ElementwiseOperation;
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.loop.DefaultLoopPolicies;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.java.ArrayElementwiseOpNode;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Test;
+
+import jdk.vm.ci.meta.JavaKind;
+
+public class LoopVectorizationTest extends GraalCompilerTest {
+
+    private static final int[] LENGTHS = {0, 1, 7, 8, 15, 16, 17, 31, 32, 33, 64, 100, 1000};
+
+    private Boolean expectVectorized;
+
+    @Override
+    protected void checkHighTierGraph(StructuredGraph graph) {
+        if (expectVectorized != null) {
+            boolean vectorized = graph.getNodes().filter(ArrayElementwiseOpNode.class).isNotEmpty();
+            if (expectVectorized) {
+                assertTrue("expected a vectorized loop", vectorized);
+            } else {
+                assertFalse("loop must not be vectorized", vectorized);
+            }
+        }
+    }
+
+    private OptionValues vectorizationOptions() {
+        return new OptionValues(getInitialOptions(), GraalOptions.LoopVectorization, true);
+    }
+
+    /**
+     * Snippets are compiled without a profile, so their loop frequency is not known. These options
+     * lower the minimum number of vector iterations so that the cost model accepts any counted
+     * loop and only the pattern matching decides.
+     */
+    private OptionValues forcedVectorizationOptions() {
+        return new OptionValues(vectorizationOptions(), DefaultLoopPolicies.Options.VectorizationMinVectors, 0);
+    }
+
+    private void testVectorization(OptionValues options, boolean vectorized, String name, Object... args) {
+        expectVectorized = vectorized;
+        try {
+            test(options, name, args);
+        } finally {
+            expectVectorized = null;
+        }
+    }
+
+    /**
+     * Checks that the loop in the snippet is vectorized if and only if the target supports the
+     * operation on the element kind.
+     */
+    private void testVectorized(OptionValues options, JavaKind kind, ElementwiseOperation operation, String name, Object... args) {
+        testVectorization(options, getProviders().getLowerer().arrayElementwiseOpVectorLength(kind, operation) > 0, name, args);
+    }
+
+    private void testVectorized(JavaKind kind, ElementwiseOperation operation, String name, Object... args) {
+        testVectorized(forcedVectorizationOptions(), kind, operation, name, args);
+    }
+
+    private void testNotVectorized(String name, Object... args) {
+        testVectorization(forcedVectorizationOptions(), false, name, args);
+    }
+
+    private static int[] ints(int length, int seed) {
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = (i + seed) * 0x9E3779B1;
+        }
+        return result;
+    }
+
+    private static byte[] bytes(int length, int seed) {
+        byte[] result = new byte[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = (byte) ((i + seed) * 37);
+        }
+        return result;
+    }
+
+    private static short[] shorts(int length, int seed) {
+        short[] result = new short[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = (short) ((i + seed) * 1031);
+        }
+        return result;
+    }
+
+    private static char[] chars(int length, int seed) {
+        char[] result = new char[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = (char) ((i + seed) * 4099);
+        }
+        return result;
+    }
+
+    private static long[] longs(int length, int seed) {
+        long[] result = new long[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = (i + seed) * 0x9E3779B97F4A7C15L;
+        }
+        return result;
+    }
+
+    private static float[] floats(int length, int seed) {
+        float[] result = new float[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = (i + seed) * 0.37f;
+        }
+        return result;
+    }
+
+    private static double[] doubles(int length, int seed) {
+        double[] result = new double[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = (i + seed) * 0.37;
+        }
+        return result;
+    }
+
+    public static int[] addIntsSnippet(int[] a, int[] b) {
+        int[] dst = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] + b[i];
+        }
+        return dst;
+    }
+
+    @Test
+    public void testAddInts() {
+        for (int length : LENGTHS) {
+            testVectorized(JavaKind.Int, ElementwiseOperation.ADD, "addIntsSnippet", ints(length, 1), ints(length, 2));
+        }
+    }
+
+    public static int[] addIntsConstantLengthSnippet(int[] a, int[] b) {
+        int[] dst = new int[1000];
+        for (int i = 0; i < 1000; i++) {
+            dst[i] = a[i] + b[i];
+        }
+        return dst;
+    }
+
+    @Test
+    public void testAddIntsConstantLength() {
+        // the constant trip count satisfies the cost model without lowering the minimum
+        testVectorized(vectorizationOptions(), JavaKind.Int, ElementwiseOperation.ADD, "addIntsConstantLengthSnippet", ints(1000, 1), ints(1000, 2));
+        testVectorized(vectorizationOptions(), JavaKind.Int, ElementwiseOperation.ADD, "addIntsConstantLengthSnippet", ints(1000, 1), ints(999, 2));
+    }
+
+    @Test
+    public void testAddIntsOutOfBounds() {
+        testVectorized(JavaKind.Int, ElementwiseOperation.ADD, "addIntsSnippet", ints(100, 1), ints(50, 2));
+        testVectorized(JavaKind.Int, ElementwiseOperation.ADD, "addIntsSnippet", ints(100, 1), null);
+    }
+
+    public static int[] mulIntsInPlaceSnippet(int[] src, int[] b, int from, int to) {
+        int[] a = src.clone();
+        for (int i = from; i < to; i++) {
+            a[i] = a[i] * b[i];
+        }
+        return a;
+    }
+
+    @Test
+    public void testMulIntsInPlace() {
+        for (int length : LENGTHS) {
+            testVectorized(JavaKind.Int, ElementwiseOperation.MUL, "mulIntsInPlaceSnippet", ints(length, 3), ints(length, 4), length / 3, length);
+            testVectorized(JavaKind.Int, ElementwiseOperation.MUL, "mulIntsInPlaceSnippet", ints(length, 3), ints(length, 4), 0, length + 1);
+            testVectorized(JavaKind.Int, ElementwiseOperation.MUL, "mulIntsInPlaceSnippet", ints(length, 3), ints(length, 4), -1, length);
+        }
+    }
+
+    public static byte[] xorBytesSnippet(byte[] a, byte[] b) {
+        byte[] dst = new byte[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (byte) (a[i] ^ b[i]);
+        }
+        return dst;
+    }
+
+    public static char[] subCharsScalarSnippet(char[] a, int value) {
+        char[] dst = new char[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (char) (a[i] - value);
+        }
+        return dst;
+    }
+
+    @Test
+    public void testSubCharsScalar() {
+        for (int length : LENGTHS) {
+            testVectorized(JavaKind.Char, ElementwiseOperation.SUB, "subCharsScalarSnippet", chars(length, 7), 0x12345);
+        }
+    }
+
+    public static long[] andLongsScalarSnippet(long[] a, long mask) {
+        long[] dst = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = mask & a[i];
+        }
+        return dst;
+    }
+
+    @Test
+    public void testAndLongsScalar() {
+        for (int length : LENGTHS) {
+            testVectorized(JavaKind.Long, ElementwiseOperation.AND, "andLongsScalarSnippet", longs(length, 8), 0x0F0F0F0F0F0F0F0FL);
+        }
+    }
+
+    public static double[] mulDoublesSnippet(double[] a, double[] b) {
+        double[] dst = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] * b[i];
+        }
+        return dst;
+    }
+
+    public static byte[] addBytesSnippet(byte[] a, byte[] b) {
+        byte[] dst = new byte[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (byte) (a[i] + b[i]);
+        }
+        return dst;
+    }
+
+    public static byte[] subBytesSnippet(byte[] a, byte[] b) {
+        byte[] dst = new byte[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (byte) (a[i] - b[i]);
+        }
+        return dst;
+    }
+
+    public static byte[] mulBytesSnippet(byte[] a, byte[] b) {
+        byte[] dst = new byte[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (byte) (a[i] * b[i]);
+        }
+        return dst;
+    }
+
+    public static byte[] andBytesSnippet(byte[] a, byte[] b) {
+        byte[] dst = new byte[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (byte) (a[i] & b[i]);
+        }
+        return dst;
+    }
+
+    public static byte[] orBytesSnippet(byte[] a, byte[] b) {
+        byte[] dst = new byte[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (byte) (a[i] | b[i]);
+        }
+        return dst;
+    }
+
+    public static short[] addShortsSnippet(short[] a, short[] b) {
+        short[] dst = new short[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (short) (a[i] + b[i]);
+        }
+        return dst;
+    }
+
+    public static short[] subShortsSnippet(short[] a, short[] b) {
+        short[] dst = new short[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (short) (a[i] - b[i]);
+        }
+        return dst;
+    }
+
+    public static short[] mulShortsSnippet(short[] a, short[] b) {
+        short[] dst = new short[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (short) (a[i] * b[i]);
+        }
+        return dst;
+    }
+
+    public static short[] andShortsSnippet(short[] a, short[] b) {
+        short[] dst = new short[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (short) (a[i] & b[i]);
+        }
+        return dst;
+    }
+
+    public static short[] orShortsSnippet(short[] a, short[] b) {
+        short[] dst = new short[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (short) (a[i] | b[i]);
+        }
+        return dst;
+    }
+
+    public static short[] xorShortsSnippet(short[] a, short[] b) {
+        short[] dst = new short[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (short) (a[i] ^ b[i]);
+        }
+        return dst;
+    }
+
+    public static char[] addCharsSnippet(char[] a, char[] b) {
+        char[] dst = new char[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (char) (a[i] + b[i]);
+        }
+        return dst;
+    }
+
+    public static char[] subCharsSnippet(char[] a, char[] b) {
+        char[] dst = new char[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (char) (a[i] - b[i]);
+        }
+        return dst;
+    }
+
+    public static char[] mulCharsSnippet(char[] a, char[] b) {
+        char[] dst = new char[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (char) (a[i] * b[i]);
+        }
+        return dst;
+    }
+
+    public static char[] andCharsSnippet(char[] a, char[] b) {
+        char[] dst = new char[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (char) (a[i] & b[i]);
+        }
+        return dst;
+    }
+
+    public static char[] orCharsSnippet(char[] a, char[] b) {
+        char[] dst = new char[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (char) (a[i] | b[i]);
+        }
+        return dst;
+    }
+
+    public static char[] xorCharsSnippet(char[] a, char[] b) {
+        char[] dst = new char[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = (char) (a[i] ^ b[i]);
+        }
+        return dst;
+    }
+
+    public static int[] subIntsSnippet(int[] a, int[] b) {
+        int[] dst = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] - b[i];
+        }
+        return dst;
+    }
+
+    public static int[] mulIntsSnippet(int[] a, int[] b) {
+        int[] dst = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] * b[i];
+        }
+        return dst;
+    }
+
+    public static int[] andIntsSnippet(int[] a, int[] b) {
+        int[] dst = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] & b[i];
+        }
+        return dst;
+    }
+
+    public static int[] orIntsSnippet(int[] a, int[] b) {
+        int[] dst = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] | b[i];
+        }
+        return dst;
+    }
+
+    public static int[] xorIntsSnippet(int[] a, int[] b) {
+        int[] dst = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] ^ b[i];
+        }
+        return dst;
+    }
+
+    public static long[] addLongsSnippet(long[] a, long[] b) {
+        long[] dst = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] + b[i];
+        }
+        return dst;
+    }
+
+    public static long[] subLongsSnippet(long[] a, long[] b) {
+        long[] dst = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] - b[i];
+        }
+        return dst;
+    }
+
+    public static long[] mulLongsSnippet(long[] a, long[] b) {
+        long[] dst = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] * b[i];
+        }
+        return dst;
+    }
+
+    public static long[] andLongsSnippet(long[] a, long[] b) {
+        long[] dst = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] & b[i];
+        }
+        return dst;
+    }
+
+    public static long[] orLongsSnippet(long[] a, long[] b) {
+        long[] dst = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] | b[i];
+        }
+        return dst;
+    }
+
+    public static long[] xorLongsSnippet(long[] a, long[] b) {
+        long[] dst = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] ^ b[i];
+        }
+        return dst;
+    }
+
+    public static float[] addFloatsSnippet(float[] a, float[] b) {
+        float[] dst = new float[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] + b[i];
+        }
+        return dst;
+    }
+
+    public static float[] subFloatsSnippet(float[] a, float[] b) {
+        float[] dst = new float[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] - b[i];
+        }
+        return dst;
+    }
+
+    public static float[] mulFloatsSnippet(float[] a, float[] b) {
+        float[] dst = new float[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] * b[i];
+        }
+        return dst;
+    }
+
+    public static double[] addDoublesSnippet(double[] a, double[] b) {
+        double[] dst = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] + b[i];
+        }
+        return dst;
+    }
+
+    public static double[] subDoublesSnippet(double[] a, double[] b) {
+        double[] dst = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] - b[i];
+        }
+        return dst;
+    }
+
+    private static final ElementwiseOperation[] FLOATING_POINT_OPERATIONS = {ElementwiseOperation.ADD, ElementwiseOperation.SUB, ElementwiseOperation.MUL};
+
+    private static String snippetName(ElementwiseOperation operation, String elements) {
+        return operation.name().toLowerCase(Locale.ROOT) + elements + "Snippet";
+    }
+
+    @Test
+    public void testAllByteOperations() {
+        for (ElementwiseOperation operation : ElementwiseOperation.values()) {
+            for (int length : LENGTHS) {
+                testVectorized(JavaKind.Byte, operation, snippetName(operation, "Bytes"), bytes(length, 5), bytes(length, 6));
+            }
+        }
+    }
+
+    @Test
+    public void testAllShortOperations() {
+        for (ElementwiseOperation operation : ElementwiseOperation.values()) {
+            for (int length : LENGTHS) {
+                testVectorized(JavaKind.Short, operation, snippetName(operation, "Shorts"), shorts(length, 5), shorts(length, 6));
+            }
+        }
+    }
+
+    @Test
+    public void testAllCharOperations() {
+        for (ElementwiseOperation operation : ElementwiseOperation.values()) {
+            for (int length : LENGTHS) {
+                testVectorized(JavaKind.Char, operation, snippetName(operation, "Chars"), chars(length, 5), chars(length, 6));
+            }
+        }
+    }
+
+    @Test
+    public void testAllIntOperations() {
+        for (ElementwiseOperation operation : ElementwiseOperation.values()) {
+            for (int length : LENGTHS) {
+                testVectorized(JavaKind.Int, operation, snippetName(operation, "Ints"), ints(length, 5), ints(length, 6));
+            }
+        }
+    }
+
+    @Test
+    public void testAllLongOperations() {
+        for (ElementwiseOperation operation : ElementwiseOperation.values()) {
+            for (int length : LENGTHS) {
+                testVectorized(JavaKind.Long, operation, snippetName(operation, "Longs"), longs(length, 5), longs(length, 6));
+            }
+        }
+    }
+
+    @Test
+    public void testAllFloatOperations() {
+        for (ElementwiseOperation operation : FLOATING_POINT_OPERATIONS) {
+            for (int length : LENGTHS) {
+                testVectorized(JavaKind.Float, operation, snippetName(operation, "Floats"), floats(length, 9), floats(length, 10));
+            }
+        }
+    }
+
+    @Test
+    public void testAllDoubleOperations() {
+        for (ElementwiseOperation operation : FLOATING_POINT_OPERATIONS) {
+            for (int length : LENGTHS) {
+                testVectorized(JavaKind.Double, operation, snippetName(operation, "Doubles"), doubles(length, 9), doubles(length, 10));
+            }
+        }
+    }
+
+    public static int[] addIntsWithIndexSnippet(int[] a) {
+        int[] dst = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] + i;
+        }
+        return dst;
+    }
+
+    public static int[] addIntsShiftedSnippet(int[] a, int[] b) {
+        int[] dst = new int[a.length];
+        for (int i = 0; i < a.length - 1; i++) {
+            dst[i] = a[i] + b[i + 1];
+        }
+        return dst;
+    }
+
+    public static boolean[] xorBooleansSnippet(boolean[] a, boolean[] b) {
+        boolean[] dst = new boolean[a.length];
+        for (int i = 0; i < a.length; i++) {
+            dst[i] = a[i] ^ b[i];
+        }
+        return dst;
+    }
+
+    @Test
+    public void testUnsupportedPatterns() {
+        for (int length : LENGTHS) {
+            testNotVectorized("addIntsWithIndexSnippet", ints(length, 11));
+            testNotVectorized("addIntsShiftedSnippet", ints(length, 12), ints(length, 13));
+            testNotVectorized("xorBooleansSnippet", new boolean[length], new boolean[length]);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.test;
+
+import org.graalvm.compiler.core.common.GraalOptions;
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Test;
+
+import jdk.vm.ci.meta.SpeculationLog;
+
+public class LoopVersioningTest extends GraalCompilerTest {
+
+    private boolean expectVersioned;
+
+    @Override
+    protected SpeculationLog getSpeculationLog() {
+        return getCodeCache().createSpeculationLog();
+    }
+
+    @Override
+    protected void checkHighTierGraph(StructuredGraph graph) {
+        if (expectVersioned) {
+            boolean versionedLoop = false;
+            for (LoopBeginNode loopBegin : graph.getNodes(LoopBeginNode.TYPE)) {
+                versionedLoop |= loopBegin.isVersioned();
+            }
+            assertTrue("expected a versioned loop", versionedLoop);
+        }
+    }
+
+    private void runTest(String name, Object... args) {
+        test(new OptionValues(getInitialOptions(), GraalOptions.LoopVersioning, true), name, args);
+    }
+
+    private void testVersioned(String name, Object... args) {
+        expectVersioned = true;
+        try {
+            runTest(name, args);
+        } finally {
+            expectVersioned = false;
+        }
+    }
+
+    private static int[] ints(int length) {
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i * 31 + 7;
+        }
+        return result;
+    }
+
+    public static int[] copySnippet(int[] src, int[] dst, int srcPos, int dstPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dst[dstPos + i] = src[srcPos + i] * 3;
+        }
+        return dst;
+    }
+
+    @Test
+    public void testCopy() {
+        testVersioned("copySnippet", ints(100), new int[100], 10, 20, 50);
+        for (int length : new int[]{0, 1, 50, 80}) {
+            runTest("copySnippet", ints(100), new int[100], 10, 20, length);
+            runTest("copySnippet", ints(100), new int[100], -1, 20, length);
+            runTest("copySnippet", ints(100), new int[100], 10, Integer.MAX_VALUE, length);
+        }
+    }
+
+    @Test
+    public void testCopyOverlapping() {
+        int[] array = ints(100);
+        runTest("copySnippet", array, array, 0, 1, 99);
+        runTest("copySnippet", array, array, 1, 0, 99);
+    }
+
+    @Test
+    public void testCopyNull() {
+        runTest("copySnippet", null, new int[100], 10, 20, 50);
+        runTest("copySnippet", ints(100), null, 10, 20, 50);
+        runTest("copySnippet", null, null, 10, 20, 0);
+    }
+
+    public static long sumPairsSnippet(int[] a, long[] b, int from, int to) {
+        long sum = 0;
+        for (int i = from; i < to; i += 2) {
+            sum += a[i] * b[i + 1];
+        }
+        return sum;
+    }
+
+    @Test
+    public void testSumPairs() {
+        for (int to : new int[]{0, 1, 2, 9, 10, 11}) {
+            runTest("sumPairsSnippet", ints(10), new long[10], 0, to);
+            runTest("sumPairsSnippet", ints(10), new long[10], -2, to);
+            runTest("sumPairsSnippet", ints(10), new long[11], 1, to);
+        }
+    }
+
+    public static int reverseSnippet(int[] a, int[] b) {
+        int sum = 0;
+        for (int i = a.length - 1; i >= 0; i--) {
+            sum += a[i] ^ b[a.length - 1 - i];
+        }
+        return sum;
+    }
+
+    @Test
+    public void testReverse() {
+        for (int length : new int[]{0, 1, 7, 100}) {
+            runTest("reverseSnippet", ints(length), ints(length));
+            runTest("reverseSnippet", ints(length), ints(length / 2));
+        }
+    }
+
+    public static int earlyExitSnippet(int[] a, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            if (a[i] < 0) {
+                break;
+            }
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    @Test
+    public void testEarlyExit() {
+        int[] array = ints(10);
+        array[5] = -1;
+        runTest("earlyExitSnippet", array, 20);
+        runTest("earlyExitSnippet", ints(10), 10);
+        runTest("earlyExitSnippet", ints(10), 11);
+    }
+}
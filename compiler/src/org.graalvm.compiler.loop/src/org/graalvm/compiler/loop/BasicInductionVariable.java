@@ -154,7 +154,8 @@ public class BasicInductionVariable extends InductionVariable {
         }
         ValueNode maxTripCount = loop.counted().maxTripCountNode(assumeLoopEntered);
         if (!maxTripCount.stamp(NodeView.DEFAULT).isCompatible(stamp)) {
-            maxTripCount = IntegerConvertNode.convert(maxTripCount, stamp, graph(), NodeView.DEFAULT);
+            // the trip count is unsigned
+            maxTripCount = IntegerConvertNode.convertUnsigned(maxTripCount, stamp, graph(), NodeView.DEFAULT);
         }
         return add(graph, mul(graph, stride, sub(graph, maxTripCount, ConstantNode.forIntegerStamp(stamp, 1, graph))), initNode);
     }
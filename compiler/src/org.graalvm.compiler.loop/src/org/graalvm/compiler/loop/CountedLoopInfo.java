@@ -27,10 +27,13 @@ package org.graalvm.compiler.loop;
 import static java.lang.Math.abs;
 import static org.graalvm.compiler.loop.MathUtil.unsignedDivBefore;
 import static org.graalvm.compiler.nodes.calc.BinaryArithmeticNode.add;
+import static org.graalvm.compiler.nodes.calc.BinaryArithmeticNode.mul;
 import static org.graalvm.compiler.nodes.calc.BinaryArithmeticNode.sub;
 
+import org.graalvm.compiler.core.common.NumUtil;
 import org.graalvm.compiler.core.common.type.IntegerStamp;
 import org.graalvm.compiler.core.common.type.Stamp;
+import org.graalvm.compiler.core.common.type.StampFactory;
 import org.graalvm.compiler.core.common.util.UnsignedLong;
 import org.graalvm.compiler.debug.DebugCloseable;
 import org.graalvm.compiler.loop.InductionVariable.Direction;
@@ -38,12 +41,19 @@ import org.graalvm.compiler.nodes.AbstractBeginNode;
 import org.graalvm.compiler.nodes.ConstantNode;
 import org.graalvm.compiler.nodes.GuardNode;
 import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.LogicNegationNode;
 import org.graalvm.compiler.nodes.LogicNode;
 import org.graalvm.compiler.nodes.NodeView;
 import org.graalvm.compiler.nodes.StructuredGraph;
 import org.graalvm.compiler.nodes.ValueNode;
 import org.graalvm.compiler.nodes.calc.ConditionalNode;
+import org.graalvm.compiler.nodes.calc.IntegerBelowNode;
+import org.graalvm.compiler.nodes.calc.IntegerConvertNode;
+import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
 import org.graalvm.compiler.nodes.calc.NegateNode;
+import org.graalvm.compiler.nodes.calc.SignExtendNode;
+import org.graalvm.compiler.nodes.calc.ZeroExtendNode;
+import org.graalvm.compiler.nodes.extended.BranchProbabilityNode;
 import org.graalvm.compiler.nodes.extended.GuardingNode;
 import org.graalvm.compiler.nodes.util.GraphUtil;
 import org.graalvm.compiler.nodes.util.IntegerHelper;
@@ -175,6 +185,62 @@ public class CountedLoopInfo {
         }
     }
 
+    /**
+     * Creates a condition that holds if the body of this loop is executed at least once, i.e., if
+     * the initial value of the counter passes the {@linkplain #getLimitTest() limit test}.
+     */
+    public LogicNode createLoopEnteredCheck() {
+        StructuredGraph graph = iv.valueNode().graph();
+        ValueNode max;
+        ValueNode min;
+        if (iv.direction() == Direction.Up) {
+            max = end;
+            min = iv.initNode();
+        } else {
+            assert iv.direction() == Direction.Down;
+            max = iv.initNode();
+            min = end;
+        }
+        IntegerHelper helper = getCounterIntegerHelper();
+        if (oneOff) {
+            // min <= max
+            return graph.addOrUniqueWithInputs(LogicNegationNode.create(helper.createCompareNode(max, min, NodeView.DEFAULT)));
+        }
+        return graph.addOrUniqueWithInputs(helper.createCompareNode(min, max, NodeView.DEFAULT));
+    }
+
+    /**
+     * Determines if {@link #createInBoundsCheck} can be used for {@code indexIv}, which requires an
+     * int induction variable with a constant stride in a loop with a signed int counter.
+     */
+    public boolean supportsInBoundsCheck(InductionVariable indexIv) {
+        if (isUnsignedCheck() || getStamp().getBits() != 32 || ((IntegerStamp) indexIv.valueNode().stamp(NodeView.DEFAULT)).getBits() != 32) {
+            return false;
+        }
+        return indexIv.isConstantStride() && indexIv.constantStride() != 0 && NumUtil.isInt(indexIv.constantStride());
+    }
+
+    /**
+     * Creates a condition that holds if every value {@code indexIv} takes in the body of this loop
+     * is in the range {@code [0, length)}, assuming that the loop is entered. The induction
+     * variable must have a constant stride. Its first and last value are computed in 64 bits from
+     * the {@linkplain InductionVariable#extremumNode extremum} and are therefore exact, so the
+     * condition does not hold if the index would overflow in the loop.
+     */
+    public LogicNode createInBoundsCheck(InductionVariable indexIv, ValueNode length) {
+        assert supportsInBoundsCheck(indexIv);
+        StructuredGraph graph = iv.valueNode().graph();
+        IntegerStamp stamp = StampFactory.forInteger(64);
+        ValueNode extendedLength = graph.addOrUniqueWithInputs(ZeroExtendNode.create(length, 64, NodeView.DEFAULT));
+        ValueNode last = indexIv.extremumNode(true, stamp);
+        ValueNode tripCount = IntegerConvertNode.convertUnsigned(maxTripCountNode(true), stamp, graph, NodeView.DEFAULT);
+        ValueNode distance = mul(graph, ConstantNode.forLong(indexIv.constantStride(), graph), sub(graph, tripCount, ConstantNode.forLong(1, graph), NodeView.DEFAULT), NodeView.DEFAULT);
+        ValueNode first = sub(graph, last, distance, NodeView.DEFAULT);
+        LogicNode firstInBounds = graph.addOrUniqueWithInputs(IntegerBelowNode.create(first, extendedLength, NodeView.DEFAULT));
+        LogicNode lastInBounds = graph.addOrUniqueWithInputs(IntegerBelowNode.create(last, extendedLength, NodeView.DEFAULT));
+        return LogicNode.and(firstInBounds, lastInBounds, BranchProbabilityNode.NOT_FREQUENT_PROBABILITY);
+    }
+
     /**
      * @return true if the loop has constant bounds.
      */
@@ -351,6 +417,33 @@ public class CountedLoopInfo {
         }
     }
 
+    /**
+     * Creates the limit of the inner loop of a strip-mined loop nest, i.e., the value at which the
+     * counter has to stop so that the inner loop starting at {@code innerStart} runs at most
+     * {@code iterations} iterations and never goes past the limit of this loop. The computation is
+     * done in 64 bits so that it cannot overflow for counters of up to 32 bits.
+     */
+    public ValueNode createStripMinedLimit(ValueNode innerStart, int iterations) {
+        assert getStamp().getBits() <= 32 && iv.isConstantStride() && !oneOff && !isUnsignedCheck();
+        StructuredGraph graph = innerStart.graph();
+        IntegerStamp stamp = getStamp();
+        long chunk = iterations * abs(iv.constantStride());
+        ValueNode wideStart = SignExtendNode.create(innerStart, 64, NodeView.DEFAULT);
+        ValueNode wideEnd = SignExtendNode.create(end, 64, NodeView.DEFAULT);
+        ValueNode distance;
+        ValueNode chunkEnd;
+        if (iv.direction() == Direction.Up) {
+            distance = sub(wideEnd, wideStart);
+            chunkEnd = add(innerStart, ConstantNode.forIntegerStamp(stamp, chunk, graph));
+        } else {
+            assert iv.direction() == Direction.Down;
+            distance = sub(wideStart, wideEnd);
+            chunkEnd = sub(innerStart, ConstantNode.forIntegerStamp(stamp, chunk, graph));
+        }
+        LogicNode farFromEnd = IntegerLessThanNode.create(ConstantNode.forLong(chunk, graph), distance, NodeView.DEFAULT);
+        return graph.addOrUniqueWithInputs(ConditionalNode.create(farFromEnd, chunkEnd, end, NodeView.DEFAULT));
+    }
+
     public IntegerStamp getStamp() {
         return (IntegerStamp) iv.valueNode().stamp(NodeView.DEFAULT);
     }
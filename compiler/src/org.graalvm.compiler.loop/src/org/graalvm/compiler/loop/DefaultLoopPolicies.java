@@ -69,6 +69,11 @@ public class DefaultLoopPolicies implements LoopPolicies {
         @Option(help = "", type = OptionType.Expert) public static final OptionKey<Integer> ExactPartialUnrollMaxNodes = new OptionKey<>(200);
 
         @Option(help = "", type = OptionType.Expert) public static final OptionKey<Integer> UnrollMaxIterations = new OptionKey<>(16);
+
+        @Option(help = "Minimum number of vector iterations a loop is expected to run before it is vectorized.", type = OptionType.Expert) public static final OptionKey<Integer> VectorizationMinVectors = new OptionKey<>(2);
+
+        @Option(help = "Maximum size in nodes of a loop that is duplicated by loop versioning.", type = OptionType.Expert) public static final OptionKey<Integer> LoopVersioningMaxNodes = new OptionKey<>(300);
+        @Option(help = "Minimum frequency of a loop that is duplicated by loop versioning.", type = OptionType.Expert) public static final OptionKey<Double> LoopVersioningMinFrequency = new OptionKey<>(5.0);
     }
 
     @Override
@@ -196,6 +201,50 @@ public class DefaultLoopPolicies implements LoopPolicies {
         }
     }
 
+    @Override
+    public boolean shouldVectorize(LoopEx loop, int elementsPerVector) {
+        LoopBeginNode loopBegin = loop.loopBegin();
+        if (!loop.isCounted() || elementsPerVector <= 0) {
+            return false;
+        }
+        OptionValues options = loopBegin.getOptions();
+        long minTrips = (long) Options.VectorizationMinVectors.getValue(options) * elementsPerVector;
+        CountedLoopInfo counted = loop.counted();
+        if (counted.isConstantMaxTripCount()) {
+            if (counted.constantMaxTripCount().isLessThan(minTrips)) {
+                loopBegin.getDebug().log(DebugContext.VERBOSE_LEVEL, "shouldVectorize %s trip count too low", loopBegin);
+                return false;
+            }
+            return true;
+        }
+        double loopFrequency = loopBegin.loopFrequency();
+        if (loopFrequency < minTrips) {
+            loopBegin.getDebug().log(DebugContext.VERBOSE_LEVEL, "shouldVectorize %s frequency too low %s ", loopBegin, loopFrequency);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean shouldVersion(LoopEx loop) {
+        LoopBeginNode loopBegin = loop.loopBegin();
+        if (loopBegin.isVersioned()) {
+            return false;
+        }
+        OptionValues options = loopBegin.getOptions();
+        double loopFrequency = loopBegin.loopFrequency();
+        if (loopFrequency < Options.LoopVersioningMinFrequency.getValue(options)) {
+            loopBegin.getDebug().log(DebugContext.VERBOSE_LEVEL, "shouldVersion %s frequency too low %s ", loopBegin, loopFrequency);
+            return false;
+        }
+        int maxNodes = Math.min(Options.LoopVersioningMaxNodes.getValue(options), MaximumDesiredSize.getValue(options) - loopBegin.graph().getNodeCount());
+        if (loop.size() > maxNodes) {
+            loopBegin.getDebug().log(DebugContext.VERBOSE_LEVEL, "shouldVersion %s loop is too large %s ", loopBegin, loop.size());
+            return false;
+        }
+        return loop.canDuplicateLoop();
+    }
+
     @Override
     public boolean shouldTryUnswitch(LoopEx loop) {
         LoopBeginNode loopBegin = loop.loopBegin();
@@ -49,4 +49,16 @@ public interface LoopPolicies {
     boolean shouldTryUnswitch(LoopEx loop);
 
     boolean shouldUnswitch(LoopEx loop, List<ControlSplitNode> controlSplits);
+
+    /**
+     * Decides whether the main iterations of an element-wise counted loop should be replaced by a
+     * vector operation processing {@code elementsPerVector} elements at once.
+     */
+    boolean shouldVectorize(LoopEx loop, int elementsPerVector);
+
+    /**
+     * Decides whether {@code loop} should be duplicated into a fast copy without per-iteration
+     * array bounds checks and the original loop, selected by a runtime test in front of the loop.
+     */
+    boolean shouldVersion(LoopEx loop);
 }
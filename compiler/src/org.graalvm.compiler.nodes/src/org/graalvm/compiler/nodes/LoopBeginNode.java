@@ -54,6 +54,9 @@ public final class LoopBeginNode extends AbstractMergeNode implements IterableNo
     protected LoopType loopType;
     protected int unrollFactor;
     protected boolean osrLoop;
+    protected boolean stripMinedInner;
+    protected boolean stripMinedOuter;
+    protected boolean versioned;
 
     public enum LoopType {
         SIMPLE_LOOP,
@@ -109,6 +112,41 @@ public final class LoopBeginNode extends AbstractMergeNode implements IterableNo
         return (loopType == LoopType.POST_LOOP);
     }
 
+    /**
+     * Returns true if this is the inner loop of a strip-mined loop nest, which runs a bounded number
+     * of iterations without safepoint polls.
+     */
+    public boolean isStripMinedInner() {
+        return stripMinedInner;
+    }
+
+    public void setStripMinedInner() {
+        stripMinedInner = true;
+    }
+
+    /**
+     * Returns true if this is the outer loop of a strip-mined loop nest, which polls for
+     * safepoints between executions of the inner loop.
+     */
+    public boolean isStripMinedOuter() {
+        return stripMinedOuter;
+    }
+
+    public void setStripMinedOuter() {
+        stripMinedOuter = true;
+    }
+
+    /**
+     * Returns true if this loop is one of the two copies created by loop versioning.
+     */
+    public boolean isVersioned() {
+        return versioned;
+    }
+
+    public void setVersioned() {
+        versioned = true;
+    }
+
     public int getUnrollFactor() {
         return unrollFactor;
     }
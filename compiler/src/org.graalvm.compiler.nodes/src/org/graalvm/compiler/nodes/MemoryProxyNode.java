@@ -45,6 +45,10 @@ public final class MemoryProxyNode extends ProxyNode implements MemoryNode {
         this.locationIdentity = locationIdentity;
     }
 
+    public LocationIdentity getLocationIdentity() {
+        return locationIdentity;
+    }
+
     public void setValue(MemoryNode newValue) {
         this.updateUsages(value.asNode(), newValue.asNode());
         this.value = newValue;
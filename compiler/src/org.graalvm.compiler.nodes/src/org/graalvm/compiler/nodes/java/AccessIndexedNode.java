@@ -72,6 +72,11 @@ public abstract class AccessIndexedNode extends AccessArrayNode implements Lower
         return boundsCheck;
     }
 
+    public void setBoundsCheck(GuardingNode boundsCheck) {
+        updateUsagesInterface(this.boundsCheck, boundsCheck);
+        this.boundsCheck = boundsCheck;
+    }
+
     /**
      * Gets the element type of the array.
      *
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.nodes.java;
+
+import org.graalvm.compiler.core.common.calc.ElementwiseOperation;
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.nodeinfo.NodeCycles;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodeinfo.NodeSize;
+import org.graalvm.compiler.nodes.AbstractStateSplit;
+import org.graalvm.compiler.nodes.NamedLocationIdentity;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.memory.MemoryCheckpoint;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import org.graalvm.word.LocationIdentity;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+// JaCoCo Exclude
+
+/**
+ * Computes {@code dst[i] = src1[i] op src2[i]} (or {@code dst[i] = src1[i] op src2} for a scalar
+ * {@code src2}) with vector instructions for a prefix of the index range
+ * {@code [fromIndex, toIndex)} whose length is a multiple of the vector length. The value of this
+ * node is the index of the first element that was not processed. It is used as the main loop of a
+ * vectorized counted loop whose scalar iterations handle the remaining elements.
+ *
+ * This node never throws: if any array is {@code null} or the range is out of bounds for any
+ * array, no element is processed and the value is {@code fromIndex}.
+ */
+@NodeInfo(cycles = NodeCycles.CYCLES_UNKNOWN, size = NodeSize.SIZE_64)
+public final class ArrayElementwiseOpNode extends AbstractStateSplit implements LIRLowerable, MemoryCheckpoint.Single {
+
+    public static final NodeClass<ArrayElementwiseOpNode> TYPE = NodeClass.create(ArrayElementwiseOpNode.class);
+
+    protected final JavaKind elementKind;
+    protected final ElementwiseOperation operation;
+    protected final boolean scalarOperand;
+    protected final int arrayLengthOffset;
+
+    @Input ValueNode dst;
+    @Input ValueNode src1;
+    @Input ValueNode src2;
+    @Input ValueNode fromIndex;
+    @Input ValueNode toIndex;
+
+    public ArrayElementwiseOpNode(JavaKind elementKind, ElementwiseOperation operation, int arrayLengthOffset, ValueNode dst, ValueNode src1, ValueNode src2, boolean scalarOperand,
+                    ValueNode fromIndex, ValueNode toIndex) {
+        super(TYPE, StampFactory.forKind(JavaKind.Int));
+        assert elementKind.isNumericInteger() || elementKind.isNumericFloat();
+        assert fromIndex.getStackKind() == JavaKind.Int && toIndex.getStackKind() == JavaKind.Int;
+        this.elementKind = elementKind;
+        this.operation = operation;
+        this.arrayLengthOffset = arrayLengthOffset;
+        this.scalarOperand = scalarOperand;
+        this.dst = dst;
+        this.src1 = src1;
+        this.src2 = src2;
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+    }
+
+    public JavaKind getElementKind() {
+        return elementKind;
+    }
+
+    public ElementwiseOperation getOperation() {
+        return operation;
+    }
+
+    public boolean isScalarOperand() {
+        return scalarOperand;
+    }
+
+    public ValueNode getDestination() {
+        return dst;
+    }
+
+    public ValueNode getSource1() {
+        return src1;
+    }
+
+    public ValueNode getSource2() {
+        return src2;
+    }
+
+    public ValueNode getFromIndex() {
+        return fromIndex;
+    }
+
+    public ValueNode getToIndex() {
+        return toIndex;
+    }
+
+    @Override
+    public LocationIdentity getKilledLocationIdentity() {
+        return NamedLocationIdentity.getArrayLocation(elementKind);
+    }
+
+    @Override
+    public void generate(NodeLIRBuilderTool gen) {
+        Value result = gen.getLIRGeneratorTool().emitArrayElementwiseOp(elementKind, operation, arrayLengthOffset, gen.operand(dst), gen.operand(src1), gen.operand(src2), scalarOperand,
+                        gen.operand(fromIndex), gen.operand(toIndex));
+        gen.setResult(this, result);
+    }
+}
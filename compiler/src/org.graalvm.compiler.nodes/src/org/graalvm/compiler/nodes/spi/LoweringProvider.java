@@ -24,8 +24,10 @@
  */
 package org.graalvm.compiler.nodes.spi;
 
+import org.graalvm.compiler.core.common.calc.ElementwiseOperation;
 import org.graalvm.compiler.graph.Node;
 import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.java.ArrayElementwiseOpNode;
 import org.graalvm.compiler.nodes.memory.address.AddressNode;
 
 import jdk.vm.ci.meta.JavaKind;
@@ -56,4 +58,17 @@ public interface LoweringProvider {
      * Indicates whether this target platform supports bulk zeroing of arbitrary size.
      */
     boolean supportsBulkZeroing();
+
+    /**
+     * Returns the offset of the length field in array objects.
+     */
+    int arrayLengthOffset();
+
+    /**
+     * Returns the number of elements an {@link ArrayElementwiseOpNode} processes at once for the
+     * given element kind and operation, or 0 if the target cannot vectorize the operation.
+     */
+    default int arrayElementwiseOpVectorLength(@SuppressWarnings("unused") JavaKind elementKind, @SuppressWarnings("unused") ElementwiseOperation operation) {
+        return 0;
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.aarch64;
+
+import static org.graalvm.compiler.nodeinfo.NodeSize.SIZE_128;
+
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.nodeinfo.InputType;
+import org.graalvm.compiler.nodeinfo.NodeCycles;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.NamedLocationIdentity;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValueNodeUtil;
+import org.graalvm.compiler.nodes.memory.MemoryAccess;
+import org.graalvm.compiler.nodes.memory.MemoryNode;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import org.graalvm.word.LocationIdentity;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Searches {@code array} from {@code fromIndex} up to {@code arrayLength} for the first element
+ * equal to {@code searchValue}. The result is the index of that element or -1.
+ */
+@NodeInfo(size = SIZE_128, cycles = NodeCycles.CYCLES_UNKNOWN)
+public final class AArch64ArrayIndexOfNode extends FixedWithNextNode implements LIRLowerable, MemoryAccess {
+
+    public static final NodeClass<AArch64ArrayIndexOfNode> TYPE = NodeClass.create(AArch64ArrayIndexOfNode.class);
+
+    private final JavaKind arrayKind;
+    private final JavaKind valueKind;
+
+    @Input private ValueNode array;
+    @Input private ValueNode arrayLength;
+    @Input private ValueNode fromIndex;
+    @Input private ValueNode searchValue;
+
+    @OptionalInput(InputType.Memory) private MemoryNode lastLocationAccess;
+
+    public AArch64ArrayIndexOfNode(@ConstantNodeParameter JavaKind arrayKind, @ConstantNodeParameter JavaKind valueKind, ValueNode array, ValueNode arrayLength, ValueNode fromIndex,
+                    ValueNode searchValue) {
+        super(TYPE, StampFactory.forKind(JavaKind.Int));
+        this.arrayKind = arrayKind;
+        this.valueKind = valueKind;
+        this.array = array;
+        this.arrayLength = arrayLength;
+        this.fromIndex = fromIndex;
+        this.searchValue = searchValue;
+    }
+
+    @Override
+    public LocationIdentity getLocationIdentity() {
+        return NamedLocationIdentity.getArrayLocation(arrayKind);
+    }
+
+    @Override
+    public void generate(NodeLIRBuilderTool gen) {
+        Value result = gen.getLIRGeneratorTool().emitArrayIndexOf(arrayKind, valueKind, false, gen.operand(array), gen.operand(arrayLength), gen.operand(fromIndex),
+                        gen.operand(searchValue));
+        gen.setResult(this, result);
+    }
+
+    @Override
+    public MemoryNode getLastLocationAccess() {
+        return lastLocationAccess;
+    }
+
+    @Override
+    public void setLastLocationAccess(MemoryNode lla) {
+        updateUsages(ValueNodeUtil.asNode(lastLocationAccess), ValueNodeUtil.asNode(lla));
+        lastLocationAccess = lla;
+    }
+
+    @NodeIntrinsic
+    public static native int indexOf(@ConstantNodeParameter JavaKind arrayKind, @ConstantNodeParameter JavaKind valueKind, Object array, int arrayLength, int fromIndex, int searchValue);
+}
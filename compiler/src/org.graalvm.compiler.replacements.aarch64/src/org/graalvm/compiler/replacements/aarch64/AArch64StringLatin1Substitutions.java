@@ -25,10 +25,20 @@
 package org.graalvm.compiler.replacements.aarch64;
 
 import org.graalvm.compiler.api.replacements.ClassSubstitution;
+import org.graalvm.compiler.api.replacements.Fold;
+import org.graalvm.compiler.api.replacements.Fold.InjectedParameter;
 import org.graalvm.compiler.api.replacements.MethodSubstitution;
+import org.graalvm.compiler.nodes.DeoptimizeNode;
 import org.graalvm.compiler.replacements.nodes.ArrayCompareToNode;
+import org.graalvm.compiler.replacements.nodes.ArrayHashCodeNode;
+import org.graalvm.compiler.replacements.nodes.ArrayRegionEqualsNode;
+import org.graalvm.compiler.word.Word;
+import org.graalvm.word.Pointer;
 
+import jdk.vm.ci.meta.DeoptimizationAction;
+import jdk.vm.ci.meta.DeoptimizationReason;
 import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.MetaAccessProvider;
 
 // JaCoCo Exclude
 
@@ -40,6 +50,29 @@ import jdk.vm.ci.meta.JavaKind;
 @ClassSubstitution(className = "java.lang.StringLatin1", optional = true)
 public class AArch64StringLatin1Substitutions {
 
+    @Fold
+    static int byteArrayBaseOffset(@InjectedParameter MetaAccessProvider metaAccess) {
+        return metaAccess.getArrayBaseOffset(JavaKind.Byte);
+    }
+
+    @Fold
+    static int byteArrayIndexScale(@InjectedParameter MetaAccessProvider metaAccess) {
+        return metaAccess.getArrayIndexScale(JavaKind.Byte);
+    }
+
+    @Fold
+    static int charArrayBaseOffset(@InjectedParameter MetaAccessProvider metaAccess) {
+        return metaAccess.getArrayBaseOffset(JavaKind.Char);
+    }
+
+    @Fold
+    static int charArrayIndexScale(@InjectedParameter MetaAccessProvider metaAccess) {
+        return metaAccess.getArrayIndexScale(JavaKind.Char);
+    }
+
+    /** Marker value for the {@link InjectedParameter} injected parameter. */
+    static final MetaAccessProvider INJECTED = null;
+
     /**
      * @param value is byte[]
      * @param other is char[]
@@ -58,4 +91,113 @@ public class AArch64StringLatin1Substitutions {
         return ArrayCompareToNode.compareTo(value, other, value.length, other.length, JavaKind.Byte, JavaKind.Char);
     }
 
+    private static Word pointer(byte[] target) {
+        return Word.objectToTrackedPointer(target).add(byteArrayBaseOffset(INJECTED));
+    }
+
+    private static Word byteOffsetPointer(byte[] source, int offset) {
+        return pointer(source).add(offset * byteArrayIndexScale(INJECTED));
+    }
+
+    @MethodSubstitution
+    public static int hashCode(byte[] value) {
+        return ArrayHashCodeNode.hashCode(value, value.length, 0, JavaKind.Byte, JavaKind.Byte, true);
+    }
+
+    @MethodSubstitution
+    public static int indexOf(byte[] value, int ch, int origFromIndex) {
+        int fromIndex = origFromIndex;
+        if (ch >>> 8 != 0) {
+            // search value must be a byte value
+            return -1;
+        }
+        int length = value.length;
+        if (fromIndex < 0) {
+            fromIndex = 0;
+        } else if (fromIndex >= length) {
+            // Note: fromIndex might be near -1>>>1.
+            return -1;
+        }
+        return AArch64ArrayIndexOfNode.indexOf(JavaKind.Byte, JavaKind.Byte, value, length, fromIndex, ch);
+    }
+
+    @MethodSubstitution
+    public static int indexOf(byte[] source, int sourceCount, byte[] target, int targetCount, int origFromIndex) {
+        int fromIndex = origFromIndex;
+        if (fromIndex >= sourceCount) {
+            return (targetCount == 0 ? sourceCount : -1);
+        }
+        if (fromIndex < 0) {
+            fromIndex = 0;
+        }
+        if (targetCount == 0) {
+            // The empty string is in every string.
+            return fromIndex;
+        }
+        if (sourceCount - fromIndex < targetCount) {
+            // The empty string contains nothing except the empty string.
+            return -1;
+        }
+        // Search for the first byte and compare the rest of the target at each candidate.
+        int haystackLength = sourceCount - (targetCount - 1);
+        int offset = fromIndex;
+        while (offset < haystackLength) {
+            int indexOfResult = AArch64ArrayIndexOfNode.indexOf(JavaKind.Byte, JavaKind.Byte, source, haystackLength, offset, target[0]);
+            if (indexOfResult < 0) {
+                return -1;
+            }
+            offset = indexOfResult;
+            Pointer cmpSourcePointer = byteOffsetPointer(source, offset);
+            Pointer targetPointer = pointer(target);
+            if (targetCount == 1 || ArrayRegionEqualsNode.regionEquals(cmpSourcePointer, targetPointer, targetCount, JavaKind.Byte)) {
+                return offset;
+            }
+            offset++;
+        }
+        return -1;
+    }
+
+    /**
+     * Intrinsic for {@code java.lang.StringLatin1.inflate([BI[CII)V}.
+     *
+     * <pre>
+     * &#64;HotSpotIntrinsicCandidate
+     * public static void inflate(byte[] src, int src_indx, char[] dst, int dst_indx, int len)
+     * </pre>
+     */
+    @MethodSubstitution
+    public static void inflate(byte[] src, int srcIndex, char[] dest, int destIndex, int len) {
+        if (len < 0 || srcIndex < 0 || (srcIndex + len > src.length) || destIndex < 0 || (destIndex + len > dest.length)) {
+            DeoptimizeNode.deopt(DeoptimizationAction.None, DeoptimizationReason.BoundsCheckException);
+        }
+
+        // Offset calc. outside of the actual intrinsic.
+        Pointer srcPointer = Word.objectToTrackedPointer(src).add(byteArrayBaseOffset(INJECTED)).add(srcIndex * byteArrayIndexScale(INJECTED));
+        Pointer destPointer = Word.objectToTrackedPointer(dest).add(charArrayBaseOffset(INJECTED)).add(destIndex * charArrayIndexScale(INJECTED));
+        AArch64StringLatin1InflateNode.inflate(srcPointer, destPointer, len, JavaKind.Char);
+    }
+
+    /**
+     * Intrinsic for {@code }java.lang.StringLatin1.inflate([BI[BII)V}.
+     *
+     * <pre>
+     * &#64;HotSpotIntrinsicCandidate
+     * public static void inflate(byte[] src, int src_indx, byte[] dst, int dst_indx, int len)
+     * </pre>
+     *
+     * In this variant {@code dest} refers to a byte array containing 2 byte per char so
+     * {@code destIndex} and {@code len} are in terms of char elements and have to be scaled by 2
+     * when referring to {@code dest}
+     */
+    @MethodSubstitution
+    public static void inflate(byte[] src, int srcIndex, byte[] dest, int destIndex, int len) {
+        if (len < 0 || srcIndex < 0 || (srcIndex + len > src.length) || destIndex < 0 || (destIndex * 2 + len * 2 > dest.length)) {
+            DeoptimizeNode.deopt(DeoptimizationAction.None, DeoptimizationReason.BoundsCheckException);
+        }
+
+        // Offset calc. outside of the actual intrinsic.
+        Pointer srcPointer = Word.objectToTrackedPointer(src).add(byteArrayBaseOffset(INJECTED)).add(srcIndex * byteArrayIndexScale(INJECTED));
+        Pointer destPointer = Word.objectToTrackedPointer(dest).add(byteArrayBaseOffset(INJECTED)).add(destIndex * 2 * byteArrayIndexScale(INJECTED));
+        AArch64StringLatin1InflateNode.inflate(srcPointer, destPointer, len, JavaKind.Byte);
+    }
 }
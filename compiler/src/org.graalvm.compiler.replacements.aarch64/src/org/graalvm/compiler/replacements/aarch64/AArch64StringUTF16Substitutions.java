@@ -25,10 +25,22 @@
 package org.graalvm.compiler.replacements.aarch64;
 
 import org.graalvm.compiler.api.replacements.ClassSubstitution;
+import org.graalvm.compiler.api.replacements.Fold;
+import org.graalvm.compiler.api.replacements.Fold.InjectedParameter;
 import org.graalvm.compiler.api.replacements.MethodSubstitution;
+import org.graalvm.compiler.nodes.DeoptimizeNode;
+import org.graalvm.compiler.replacements.ReplacementsUtil;
+import org.graalvm.compiler.replacements.StringUTF16Substitutions;
 import org.graalvm.compiler.replacements.nodes.ArrayCompareToNode;
+import org.graalvm.compiler.replacements.nodes.ArrayHashCodeNode;
+import org.graalvm.compiler.replacements.nodes.ArrayRegionEqualsNode;
+import org.graalvm.compiler.word.Word;
+import org.graalvm.word.Pointer;
 
+import jdk.vm.ci.meta.DeoptimizationAction;
+import jdk.vm.ci.meta.DeoptimizationReason;
 import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.MetaAccessProvider;
 
 // JaCoCo Exclude
 
@@ -40,6 +52,35 @@ import jdk.vm.ci.meta.JavaKind;
 @ClassSubstitution(className = "java.lang.StringUTF16", optional = true)
 public class AArch64StringUTF16Substitutions {
 
+    @Fold
+    static int byteArrayBaseOffset(@InjectedParameter MetaAccessProvider metaAccess) {
+        return metaAccess.getArrayBaseOffset(JavaKind.Byte);
+    }
+
+    @Fold
+    static int byteArrayIndexScale(@InjectedParameter MetaAccessProvider metaAccess) {
+        return metaAccess.getArrayIndexScale(JavaKind.Byte);
+    }
+
+    @Fold
+    static int charArrayBaseOffset(@InjectedParameter MetaAccessProvider metaAccess) {
+        return metaAccess.getArrayBaseOffset(JavaKind.Char);
+    }
+
+    @Fold
+    static int charArrayIndexScale(@InjectedParameter MetaAccessProvider metaAccess) {
+        return metaAccess.getArrayIndexScale(JavaKind.Char);
+    }
+
+    /**
+     * Marker value for the {@link InjectedParameter} injected parameter.
+     */
+    static final MetaAccessProvider INJECTED = null;
+
+    public static int length(byte[] value) {
+        return value.length >> 1;
+    }
+
     /**
      * @param value is char[]
      * @param other is char[]
@@ -62,4 +103,90 @@ public class AArch64StringUTF16Substitutions {
         return ArrayCompareToNode.compareTo(other, value, other.length, value.length, JavaKind.Char, JavaKind.Byte);
     }
 
+    @MethodSubstitution
+    public static int hashCode(byte[] value) {
+        return ArrayHashCodeNode.hashCode(value, length(value), 0, JavaKind.Byte, JavaKind.Char, false);
+    }
+
+    @MethodSubstitution
+    public static int indexOfCharUnsafe(byte[] value, int ch, int fromIndex, int max) {
+        return AArch64ArrayIndexOfNode.indexOf(JavaKind.Byte, JavaKind.Char, value, max, fromIndex, (char) ch);
+    }
+
+    private static Word pointer(byte[] target) {
+        return Word.objectToTrackedPointer(target).add(byteArrayBaseOffset(INJECTED));
+    }
+
+    private static Word charOffsetPointer(byte[] value, int offset) {
+        return pointer(value).add(offset * charArrayIndexScale(INJECTED));
+    }
+
+    @MethodSubstitution
+    public static int indexOfUnsafe(byte[] source, int sourceCount, byte[] target, int targetCount, int fromIndex) {
+        ReplacementsUtil.runtimeAssert(fromIndex >= 0, "StringUTF16.indexOfUnsafe invalid args: fromIndex negative");
+        ReplacementsUtil.runtimeAssert(targetCount > 0, "StringUTF16.indexOfUnsafe invalid args: targetCount <= 0");
+        ReplacementsUtil.runtimeAssert(targetCount <= length(target), "StringUTF16.indexOfUnsafe invalid args: targetCount > length(target)");
+        ReplacementsUtil.runtimeAssert(sourceCount >= targetCount, "StringUTF16.indexOfUnsafe invalid args: sourceCount < targetCount");
+        // Search for the first char and compare the rest of the target at each candidate.
+        int haystackLength = sourceCount - (targetCount - 1);
+        int offset = fromIndex;
+        while (offset < haystackLength) {
+            int indexOfResult = AArch64ArrayIndexOfNode.indexOf(JavaKind.Byte, JavaKind.Char, source, haystackLength, offset, StringUTF16Substitutions.getChar(target, 0));
+            if (indexOfResult < 0) {
+                return -1;
+            }
+            offset = indexOfResult;
+            Pointer cmpSourcePointer = charOffsetPointer(source, offset);
+            Pointer targetPointer = pointer(target);
+            if (targetCount == 1 || ArrayRegionEqualsNode.regionEquals(cmpSourcePointer, targetPointer, targetCount, JavaKind.Char)) {
+                return offset;
+            }
+            offset++;
+        }
+        return -1;
+    }
+
+    /**
+     * Intrinsic for {@code java.lang.StringUTF16.compress([CI[BII)I}.
+     *
+     * <pre>
+     * &#64;HotSpotIntrinsicCandidate
+     * public static int compress(char[] src, int src_indx, byte[] dst, int dst_indx, int len)
+     * </pre>
+     */
+    @MethodSubstitution
+    public static int compress(char[] src, int srcIndex, byte[] dest, int destIndex, int len) {
+        checkLimits(src.length, srcIndex, dest.length, destIndex, len);
+
+        Pointer srcPointer = Word.objectToTrackedPointer(src).add(charArrayBaseOffset(INJECTED)).add(srcIndex * charArrayIndexScale(INJECTED));
+        Pointer destPointer = Word.objectToTrackedPointer(dest).add(byteArrayBaseOffset(INJECTED)).add(destIndex * byteArrayIndexScale(INJECTED));
+        return AArch64StringUTF16CompressNode.compress(srcPointer, destPointer, len, JavaKind.Char);
+    }
+
+    /**
+     * Intrinsic for {@code }java.lang.StringUTF16.compress([BI[BII)I}.
+     *
+     * <pre>
+     * &#64;HotSpotIntrinsicCandidate
+     * public static int compress(byte[] src, int src_indx, byte[] dst, int dst_indx, int len)
+     * </pre>
+     * <p>
+     * In this variant {@code dest} refers to a byte array containing 2 byte per char so
+     * {@code srcIndex} and {@code len} are in terms of char elements and have to be scaled by 2
+     * when referring to {@code src}.
+     */
+    @MethodSubstitution
+    public static int compress(byte[] src, int srcIndex, byte[] dest, int destIndex, int len) {
+        checkLimits(src.length >> 1, srcIndex, dest.length, destIndex, len);
+
+        Pointer srcPointer = Word.objectToTrackedPointer(src).add(byteArrayBaseOffset(INJECTED)).add(srcIndex * 2 * byteArrayIndexScale(INJECTED));
+        Pointer destPointer = Word.objectToTrackedPointer(dest).add(byteArrayBaseOffset(INJECTED)).add(destIndex * byteArrayIndexScale(INJECTED));
+        return AArch64StringUTF16CompressNode.compress(srcPointer, destPointer, len, JavaKind.Byte);
+    }
+
+    private static void checkLimits(int srcLen, int srcIndex, int destLen, int destIndex, int len) {
+        if (len < 0 || srcIndex < 0 || (srcIndex + len > srcLen) || destIndex < 0 || (destIndex + len > destLen)) {
+            DeoptimizeNode.deopt(DeoptimizationAction.None, DeoptimizationReason.BoundsCheckException);
+        }
+    }
 }
@@ -93,8 +93,10 @@ public class AMD64GraphBuilderPlugins implements TargetGraphBuilderPlugins {
                     registerStringLatin1Plugins(invocationPlugins, replacements);
                     registerStringUTF16Plugins(invocationPlugins, replacements);
                 }
+                registerEncodeArrayPlugins(invocationPlugins, replacements);
                 registerMathPlugins(invocationPlugins, useFMAIntrinsics, arch, replacements);
                 registerArraysEqualsPlugins(invocationPlugins, replacements);
+                registerArraysHashCodePlugins(invocationPlugins, replacements);
             }
         });
     }
@@ -233,6 +235,7 @@ public class AMD64GraphBuilderPlugins implements TargetGraphBuilderPlugins {
         r.setAllowOverwrite(true);
         r.registerMethodSubstitution(AMD64StringLatin1Substitutions.class, "compareTo", byte[].class, byte[].class);
         r.registerMethodSubstitution(AMD64StringLatin1Substitutions.class, "compareToUTF16", byte[].class, byte[].class);
+        r.registerMethodSubstitution(AMD64StringLatin1Substitutions.class, "hashCode", byte[].class);
         r.registerMethodSubstitution(AMD64StringLatin1Substitutions.class, "inflate", byte[].class, int.class, char[].class, int.class, int.class);
         r.registerMethodSubstitution(AMD64StringLatin1Substitutions.class, "inflate", byte[].class, int.class, byte[].class, int.class, int.class);
         r.registerMethodSubstitution(AMD64StringLatin1Substitutions.class, "indexOf", byte[].class, int.class, int.class);
@@ -244,6 +247,7 @@ public class AMD64GraphBuilderPlugins implements TargetGraphBuilderPlugins {
         r.setAllowOverwrite(true);
         r.registerMethodSubstitution(AMD64StringUTF16Substitutions.class, "compareTo", byte[].class, byte[].class);
         r.registerMethodSubstitution(AMD64StringUTF16Substitutions.class, "compareToLatin1", byte[].class, byte[].class);
+        r.registerMethodSubstitution(AMD64StringUTF16Substitutions.class, "hashCode", byte[].class);
         r.registerMethodSubstitution(AMD64StringUTF16Substitutions.class, "compress", char[].class, int.class, byte[].class, int.class, int.class);
         r.registerMethodSubstitution(AMD64StringUTF16Substitutions.class, "compress", byte[].class, int.class, byte[].class, int.class, int.class);
         r.registerMethodSubstitution(AMD64StringUTF16Substitutions.class, "indexOfCharUnsafe", byte[].class, int.class, int.class, int.class);
@@ -251,6 +255,23 @@ public class AMD64GraphBuilderPlugins implements TargetGraphBuilderPlugins {
         r.registerMethodSubstitution(AMD64StringUTF16Substitutions.class, "indexOfLatin1Unsafe", byte[].class, int.class, byte[].class, int.class, int.class);
     }
 
+    private static void registerEncodeArrayPlugins(InvocationPlugins plugins, Replacements replacements) {
+        Registration r = new Registration(plugins, "sun.nio.cs.ISO_8859_1$Encoder", replacements);
+        r.setAllowOverwrite(true);
+        if (JavaVersionUtil.JAVA_SPEC <= 8) {
+            r.registerMethodSubstitution(AMD64ISOEncoderSubstitutions.class, "encodeISOArray", char[].class, int.class, byte[].class, int.class, int.class);
+        } else {
+            r.registerMethodSubstitution(AMD64ISOEncoderSubstitutions.class, "implEncodeISOArray", char[].class, int.class, byte[].class, int.class, int.class);
+
+            r = new Registration(plugins, "java.lang.StringCoding", replacements);
+            r.setAllowOverwrite(true);
+            r.registerMethodSubstitution(AMD64StringCodingSubstitutions.class, "implEncodeISOArray", byte[].class, int.class, byte[].class, int.class, int.class);
+            if (JavaVersionUtil.JAVA_SPEC >= 17) {
+                r.registerMethodSubstitution(AMD64StringCodingSubstitutions.class, "implEncodeAsciiArray", char[].class, int.class, byte[].class, int.class, int.class);
+            }
+        }
+    }
+
     private static void registerUnsafePlugins(InvocationPlugins plugins, Replacements replacements, boolean explicitUnsafeNullChecks) {
         registerUnsafePlugins(new Registration(plugins, Unsafe.class), explicitUnsafeNullChecks, new JavaKind[]{JavaKind.Int, JavaKind.Long, JavaKind.Object}, true);
         if (JavaVersionUtil.JAVA_SPEC > 8) {
@@ -298,4 +319,12 @@ public class AMD64GraphBuilderPlugins implements TargetGraphBuilderPlugins {
         r.registerMethodSubstitution(ArraysSubstitutions.class, "equals", float[].class, float[].class);
         r.registerMethodSubstitution(ArraysSubstitutions.class, "equals", double[].class, double[].class);
     }
+
+    private static void registerArraysHashCodePlugins(InvocationPlugins plugins, Replacements replacements) {
+        Registration r = new Registration(plugins, Arrays.class, replacements);
+        r.registerMethodSubstitution(ArraysSubstitutions.class, "hashCode", byte[].class);
+        r.registerMethodSubstitution(ArraysSubstitutions.class, "hashCode", char[].class);
+        r.registerMethodSubstitution(ArraysSubstitutions.class, "hashCode", short[].class);
+        r.registerMethodSubstitution(ArraysSubstitutions.class, "hashCode", int[].class);
+    }
 }
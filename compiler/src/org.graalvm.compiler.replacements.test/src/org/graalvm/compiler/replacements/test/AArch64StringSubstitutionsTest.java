@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.test;
+
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+import org.graalvm.compiler.core.common.CompilationIdentifier;
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.replacements.aarch64.AArch64ArrayIndexOfNode;
+import org.graalvm.compiler.replacements.aarch64.AArch64StringLatin1InflateNode;
+import org.graalvm.compiler.replacements.aarch64.AArch64StringUTF16CompressNode;
+import org.graalvm.compiler.serviceprovider.JavaVersionUtil;
+import org.graalvm.compiler.test.AddExports;
+import org.junit.Before;
+import org.junit.Test;
+
+import jdk.vm.ci.aarch64.AArch64;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+/**
+ * Tests the AArch64 substitutions for {@code StringLatin1.indexOf}, {@code StringLatin1.inflate},
+ * {@code StringUTF16.indexOf} and {@code StringUTF16.compress}. The lengths cover the word-sized
+ * main loops of the generated code as well as their scalar tails.
+ */
+@AddExports({"java.base/java.lang"})
+public class AArch64StringSubstitutionsTest extends GraalCompilerTest {
+
+    private static final int[] LENGTHS = {0, 1, 3, 4, 7, 8, 9, 15, 16, 17, 31, 32, 33, 100};
+
+    @Before
+    public void checkAArch64() {
+        assumeFalse(JavaVersionUtil.JAVA_SPEC <= 8);
+        assumeTrue(getTarget().arch instanceof AArch64);
+    }
+
+    private void assertIntrinsified(String className, String methodName, Class<? extends Node> nodeClass, Class<?>... parameterTypes) throws ClassNotFoundException {
+        ResolvedJavaMethod method = getResolvedJavaMethod(Class.forName(className), methodName, parameterTypes);
+        StructuredGraph graph = getReplacements().getIntrinsicGraph(method, CompilationIdentifier.INVALID_COMPILATION_ID, getDebugContext(), null);
+        assertTrue(graph != null && graph.getNodes().filter(nodeClass).isNotEmpty());
+    }
+
+    @Test
+    public void testIntrinsicGraphs() throws ClassNotFoundException {
+        assertIntrinsified("java.lang.StringLatin1", "indexOf", AArch64ArrayIndexOfNode.class, byte[].class, int.class, int.class);
+        assertIntrinsified("java.lang.StringUTF16", "indexOfCharUnsafe", AArch64ArrayIndexOfNode.class, byte[].class, int.class, int.class, int.class);
+        assertIntrinsified("java.lang.StringLatin1", "inflate", AArch64StringLatin1InflateNode.class, byte[].class, int.class, char[].class, int.class, int.class);
+        assertIntrinsified("java.lang.StringUTF16", "compress", AArch64StringUTF16CompressNode.class, char[].class, int.class, byte[].class, int.class, int.class);
+    }
+
+    private static String latin1(int length, char last) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(i == length - 1 ? last : (char) ('a' + i % 16));
+        }
+        return sb.toString();
+    }
+
+    public static int indexOfCharSnippet(String s, int ch, int fromIndex) {
+        return s.indexOf(ch, fromIndex);
+    }
+
+    public static int indexOfStringSnippet(String s, String target, int fromIndex) {
+        return s.indexOf(target, fromIndex);
+    }
+
+    @Test
+    public void testIndexOf() {
+        for (int length : LENGTHS) {
+            String s = latin1(length, 'z');
+            String u = latin1(length, '\u03bb');
+            for (int fromIndex = -1; fromIndex < 10; fromIndex++) {
+                test("indexOfCharSnippet", s, (int) 'z', fromIndex);
+                test("indexOfCharSnippet", s, (int) 'q', fromIndex);
+                test("indexOfCharSnippet", s, 0xE9, fromIndex);
+                test("indexOfCharSnippet", u, 0x3bb, fromIndex);
+                test("indexOfCharSnippet", u, (int) 'c', fromIndex);
+                test("indexOfStringSnippet", s, "bcd", fromIndex);
+                test("indexOfStringSnippet", s, "opz", fromIndex);
+                test("indexOfStringSnippet", u, "op\u03bb", fromIndex);
+            }
+        }
+    }
+
+    public static char[] inflateSnippet(String s) {
+        return s.toCharArray();
+    }
+
+    public static String compressSnippet(char[] chars) {
+        return new String(chars);
+    }
+
+    @Test
+    public void testInflateAndCompress() {
+        for (int length : LENGTHS) {
+            test("inflateSnippet", latin1(length, '\u00ff'));
+            test("compressSnippet", latin1(length, '\u00ff').toCharArray());
+            test("compressSnippet", latin1(length, '\u0100').toCharArray());
+        }
+    }
+}
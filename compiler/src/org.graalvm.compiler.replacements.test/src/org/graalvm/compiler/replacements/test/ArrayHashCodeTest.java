@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.test;
+
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Arrays;
+
+import org.graalvm.compiler.core.common.CompilationIdentifier;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.replacements.nodes.ArrayHashCodeNode;
+import org.graalvm.compiler.serviceprovider.JavaVersionUtil;
+import org.graalvm.compiler.test.AddExports;
+import org.junit.Before;
+import org.junit.Test;
+
+import jdk.vm.ci.aarch64.AArch64;
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+/**
+ * Tests the {@link ArrayHashCodeNode} based substitutions for {@link Arrays#hashCode} and
+ * {@link String#hashCode}.
+ */
+@AddExports({"java.base/java.lang"})
+public class ArrayHashCodeTest extends MethodSubstitutionTest {
+
+    private static final int[] LENGTHS = {0, 1, 3, 4, 7, 15, 16, 17, 31, 32, 33, 63, 64, 65, 100};
+
+    @Before
+    public void checkArchitecture() {
+        assumeTrue(getTarget().arch instanceof AMD64 || getTarget().arch instanceof AArch64);
+    }
+
+    @Test
+    public void testIntrinsicGraph() {
+        for (Class<?> type : new Class<?>[]{byte[].class, char[].class, short[].class, int[].class}) {
+            ResolvedJavaMethod method = getResolvedJavaMethod(Arrays.class, "hashCode", type);
+            StructuredGraph graph = getReplacements().getIntrinsicGraph(method, CompilationIdentifier.INVALID_COMPILATION_ID, getDebugContext(), null);
+            assertInGraph(graph, ArrayHashCodeNode.class);
+        }
+    }
+
+    @Test
+    public void testStringIntrinsicGraph() throws ClassNotFoundException {
+        assumeTrue(JavaVersionUtil.JAVA_SPEC > 8);
+        for (String className : new String[]{"java.lang.StringLatin1", "java.lang.StringUTF16"}) {
+            ResolvedJavaMethod method = getResolvedJavaMethod(Class.forName(className), "hashCode", byte[].class);
+            StructuredGraph graph = getReplacements().getIntrinsicGraph(method, CompilationIdentifier.INVALID_COMPILATION_ID, getDebugContext(), null);
+            assertInGraph(graph, ArrayHashCodeNode.class);
+        }
+    }
+
+    public static int byteArraySnippet(byte[] a) {
+        return Arrays.hashCode(a);
+    }
+
+    public static int charArraySnippet(char[] a) {
+        return Arrays.hashCode(a);
+    }
+
+    public static int shortArraySnippet(short[] a) {
+        return Arrays.hashCode(a);
+    }
+
+    public static int intArraySnippet(int[] a) {
+        return Arrays.hashCode(a);
+    }
+
+    public static int stringSnippet(char[] chars) {
+        // Create a fresh string so that the hash is not cached.
+        return new String(chars).hashCode();
+    }
+
+    @Test
+    public void testByteArray() {
+        test("byteArraySnippet", (Object) null);
+        for (int length : LENGTHS) {
+            byte[] a = new byte[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = (byte) (i * 37 - 100);
+            }
+            test("byteArraySnippet", a);
+        }
+    }
+
+    @Test
+    public void testCharArray() {
+        test("charArraySnippet", (Object) null);
+        for (int length : LENGTHS) {
+            char[] a = new char[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = (char) (0xfff0 - i * 1031);
+            }
+            test("charArraySnippet", a);
+        }
+    }
+
+    @Test
+    public void testShortArray() {
+        test("shortArraySnippet", (Object) null);
+        for (int length : LENGTHS) {
+            short[] a = new short[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = (short) (i * 1031 - 30000);
+            }
+            test("shortArraySnippet", a);
+        }
+    }
+
+    @Test
+    public void testIntArray() {
+        test("intArraySnippet", (Object) null);
+        for (int length : LENGTHS) {
+            int[] a = new int[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = i * 0x9E3779B9;
+            }
+            test("intArraySnippet", a);
+        }
+    }
+
+    @Test
+    public void testString() {
+        for (int length : LENGTHS) {
+            char[] latin1 = new char[length];
+            char[] utf16 = new char[length];
+            for (int i = 0; i < length; i++) {
+                latin1[i] = (char) (0x20 + (i * 7) % 0xe0);
+                utf16[i] = (char) (0x3b1 + i);
+            }
+            test("stringSnippet", latin1);
+            test("stringSnippet", utf16);
+        }
+    }
+}
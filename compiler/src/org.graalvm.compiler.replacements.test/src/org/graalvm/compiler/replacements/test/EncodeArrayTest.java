@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.test;
+
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+
+import org.graalvm.compiler.core.common.CompilationIdentifier;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.replacements.amd64.AMD64EncodeArrayNode;
+import org.graalvm.compiler.serviceprovider.JavaVersionUtil;
+import org.graalvm.compiler.test.AddExports;
+import org.junit.Before;
+import org.junit.Test;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+/**
+ * Tests the {@link AMD64EncodeArrayNode} based substitutions for ISO-8859-1 encoding.
+ */
+@AddExports({"java.base/java.lang"})
+public class EncodeArrayTest extends MethodSubstitutionTest {
+
+    private static final int[] LENGTHS = {0, 1, 7, 8, 15, 16, 17, 31, 32, 33, 100};
+
+    @Before
+    public void checkAMD64() {
+        assumeFalse(JavaVersionUtil.JAVA_SPEC <= 8);
+        assumeTrue(getTarget().arch instanceof AMD64);
+    }
+
+    @Test
+    public void testIntrinsicGraph() throws ClassNotFoundException {
+        ResolvedJavaMethod method = getResolvedJavaMethod(Class.forName("java.lang.StringCoding"), "implEncodeISOArray", byte[].class, int.class, byte[].class, int.class, int.class);
+        StructuredGraph graph = getReplacements().getIntrinsicGraph(method, CompilationIdentifier.INVALID_COMPILATION_ID, getDebugContext(), null);
+        assertInGraph(graph, AMD64EncodeArrayNode.class);
+    }
+
+    public static byte[] getBytesSnippet(String s) {
+        return s.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    public static int encodeSnippet(char[] chars, byte[] out) {
+        CharsetEncoder encoder = StandardCharsets.ISO_8859_1.newEncoder();
+        ByteBuffer dst = ByteBuffer.wrap(out);
+        encoder.encode(CharBuffer.wrap(chars), dst, true);
+        return dst.position();
+    }
+
+    private static String string(int length, int unencodableIndex) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(i == unencodableIndex ? '\u03bb' : (char) (0x20 + (i * 7) % 0xe0));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testGetBytes() {
+        for (int length : LENGTHS) {
+            for (int unencodableIndex : new int[]{0, length / 2, length - 1}) {
+                test("getBytesSnippet", string(length, unencodableIndex));
+            }
+        }
+    }
+
+    @Test
+    public void testEncoder() {
+        for (int length : LENGTHS) {
+            for (int unencodableIndex : new int[]{-1, 0, length / 2, length - 1}) {
+                test("encodeSnippet", string(length, unencodableIndex).toCharArray(), new byte[length]);
+            }
+        }
+    }
+}
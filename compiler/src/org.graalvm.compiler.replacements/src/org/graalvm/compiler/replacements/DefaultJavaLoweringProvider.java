@@ -1047,6 +1047,7 @@ public abstract class DefaultJavaLoweringProvider implements LoweringProvider {
 
     public abstract ValueNode staticFieldBase(StructuredGraph graph, ResolvedJavaField field);
 
+    @Override
     public abstract int arrayLengthOffset();
 
     public Stamp loadStamp(Stamp stamp, JavaKind kind) {
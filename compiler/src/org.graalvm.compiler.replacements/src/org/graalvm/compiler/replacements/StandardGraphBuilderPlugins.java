@@ -460,6 +460,22 @@ public class StandardGraphBuilderPlugins {
 
         });
 
+        if (!sunMiscUnsafe) {
+            r.register3("allocateUninitializedArray0", Receiver.class, Class.class, int.class, new InvocationPlugin() {
+
+                @Override
+                public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver unsafe, ValueNode componentType, ValueNode length) {
+                    // Emits a null-check for the otherwise unused receiver
+                    unsafe.get();
+                    // The caller has already checked that componentType is a primitive type
+                    // and that length is not negative.
+                    b.addPush(JavaKind.Object, new DynamicNewArrayNode(componentType, length, false));
+                    return true;
+                }
+
+            });
+        }
+
         r.register1("loadFence", Receiver.class, new UnsafeFencePlugin(LOAD_LOAD | LOAD_STORE));
         r.register1("storeFence", Receiver.class, new UnsafeFencePlugin(STORE_STORE | LOAD_STORE));
         r.register1("fullFence", Receiver.class, new UnsafeFencePlugin(LOAD_LOAD | STORE_STORE | LOAD_STORE | STORE_LOAD));
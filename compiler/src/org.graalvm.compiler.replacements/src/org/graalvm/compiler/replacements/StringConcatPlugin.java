@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements;
+
+import static org.graalvm.compiler.bytecode.Bytecodes.INVOKEDYNAMIC;
+import static org.graalvm.compiler.core.common.GraalOptions.MaximumDesiredSize;
+import static org.graalvm.compiler.core.common.GraalOptions.MaximumInliningSize;
+import static org.graalvm.compiler.java.BytecodeParserOptions.InlineStringConcatDuringParsingMaxDepth;
+import static org.graalvm.compiler.nodes.graphbuilderconf.InlineInvokePlugin.InlineInfo.createStandardInlineInfo;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+import org.graalvm.compiler.bytecode.Bytecode;
+import org.graalvm.compiler.bytecode.Bytes;
+import org.graalvm.compiler.java.BytecodeParserOptions;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderContext;
+import org.graalvm.compiler.nodes.graphbuilderconf.InlineInvokePlugin;
+
+import jdk.vm.ci.meta.JavaConstant;
+import jdk.vm.ci.meta.ResolvedJavaField;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import jdk.vm.ci.meta.ResolvedJavaType;
+
+/**
+ * Inlines the method handle tree an {@code invokedynamic} string concatenation is linked to in its
+ * entirety during bytecode parsing.
+ *
+ * On JDK 9 and later, javac compiles string concatenation to an {@code invokedynamic} bootstrapped
+ * by {@code java.lang.invoke.StringConcatFactory}. The default strategy of the factory encodes the
+ * concatenation recipe as a tree of method handles over the {@code java.lang.StringConcatHelper}
+ * building blocks: a length and coder computation over all arguments, a single allocation of the
+ * exact size and direct Latin-1 or UTF-16 copies of each argument into that buffer. For all but
+ * the shortest recipes this tree is deeper than
+ * {@link BytecodeParserOptions#InlineDuringParsingMaxDepth}, so {@link InlineDuringParsingPlugin}
+ * leaves calls in the middle of it and the buffer escapes into them. This plugin recognizes a
+ * concatenation call site by the return type of the method handle it is bound to and inlines the
+ * rest of its tree, including the methods called directly by {@code StringConcatHelper}, up to
+ * {@link BytecodeParserOptions#InlineStringConcatDuringParsingMaxDepth} levels below the call
+ * site. The buffer and the arguments are then visible to escape analysis in the compilation unit
+ * of the call site.
+ *
+ * Like other inlining, each inlined method must not be larger than
+ * {@link org.graalvm.compiler.core.common.GraalOptions#MaximumInliningSize} bytes, and inlining
+ * stops once the graph has reached
+ * {@link org.graalvm.compiler.core.common.GraalOptions#MaximumDesiredSize} nodes.
+ */
+public final class StringConcatPlugin implements InlineInvokePlugin {
+
+    private static final String INVOKE_PACKAGE_PREFIX = "Ljava/lang/invoke/";
+    private static final String STRING_CONCAT_HELPER = "Ljava/lang/StringConcatHelper;";
+
+    /**
+     * The name of the lambda form that links an {@code invokedynamic} to the target of a constant
+     * call site, which is passed to it as the appendix.
+     */
+    private static final String LINK_TO_TARGET_METHOD = "linkToTargetMethod";
+
+    @Override
+    public InlineInfo shouldInlineInvoke(GraphBuilderContext b, ResolvedJavaMethod method, ValueNode[] args) {
+        // @formatter:off
+        if (!method.hasBytecodes() ||
+            !method.getDeclaringClass().isLinked() ||
+            !method.canBeInlined() ||
+            method.isSynchronized()) {
+            return null;
+        }
+        // @formatter:on
+        if (isCallSiteLinker(method)) {
+            return isStringConcatCallSite(b) ? createStandardInlineInfo(method) : null;
+        }
+        GraphBuilderContext linker = getStringConcatLinker(b);
+        if (linker == null || b.getDepth() - linker.getDepth() >= InlineStringConcatDuringParsingMaxDepth.getValue(b.getOptions())) {
+            return null;
+        }
+        if (method.getCodeSize() > MaximumInliningSize.getValue(b.getOptions()) || b.getGraph().getNodeCount() >= MaximumDesiredSize.getValue(b.getOptions())) {
+            return null;
+        }
+        if (isConcatTreeType(method.getDeclaringClass()) || isStringConcatHelper(b.getMethod().getDeclaringClass())) {
+            return createStandardInlineInfo(method);
+        }
+        return null;
+    }
+
+    private static boolean isCallSiteLinker(ResolvedJavaMethod method) {
+        return method.getName().equals(LINK_TO_TARGET_METHOD) && method.getDeclaringClass().getName().startsWith(INVOKE_PACKAGE_PREFIX);
+    }
+
+    private static boolean isStringConcatHelper(ResolvedJavaType type) {
+        return type.getName().equals(STRING_CONCAT_HELPER);
+    }
+
+    private static boolean isConcatTreeType(ResolvedJavaType type) {
+        return type.getName().startsWith(INVOKE_PACKAGE_PREFIX) || isStringConcatHelper(type);
+    }
+
+    /**
+     * Gets the context parsing the {@linkplain #isCallSiteLinker linker} of the string
+     * concatenation call site whose method handle tree {@code b} is part of.
+     *
+     * @return {@code null} if {@code b} is not parsing a method in the method handle tree of a
+     *         string concatenation
+     */
+    private static GraphBuilderContext getStringConcatLinker(GraphBuilderContext b) {
+        for (GraphBuilderContext c = b; c != null; c = c.getParent()) {
+            ResolvedJavaMethod method = c.getMethod();
+            if (isCallSiteLinker(method)) {
+                GraphBuilderContext callSite = c.getParent();
+                return callSite != null && isStringConcatCallSite(callSite) ? c : null;
+            }
+            if (!isConcatTreeType(method.getDeclaringClass())) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Determines if {@code b} is positioned at an {@code invokedynamic} that is linked to a
+     * constant method handle returning a {@link String}.
+     *
+     * JVMCI does not expose the bootstrap method or its static arguments, so the call site cannot
+     * be matched against {@code StringConcatFactory} directly. The type of the bound method handle
+     * is the next best thing: it excludes lambda and other non-concatenation call sites, and any
+     * remaining call site producing a {@link String} from a method handle tree is one that
+     * benefits from being inlined in full.
+     */
+    private static boolean isStringConcatCallSite(GraphBuilderContext b) {
+        Bytecode code = b.getCode();
+        int bci = b.bci();
+        byte[] bytecodes = code.getCode();
+        if (bci < 0 || bci + 4 >= bytecodes.length || Bytes.beU1(bytecodes, bci) != INVOKEDYNAMIC) {
+            return false;
+        }
+        JavaConstant appendix = code.getConstantPool().lookupAppendix(Bytes.beS4(bytecodes, bci + 1), INVOKEDYNAMIC);
+        if (appendix == null || appendix.isNull()) {
+            return false;
+        }
+        JavaConstant methodType = readField(b, MethodHandle.class, "type", appendix);
+        if (methodType == null || methodType.isNull()) {
+            return false;
+        }
+        JavaConstant returnType = readField(b, MethodType.class, "rtype", methodType);
+        if (returnType == null || returnType.isNull()) {
+            return false;
+        }
+        ResolvedJavaType type = b.getConstantReflection().asJavaType(returnType);
+        return type != null && type.equals(b.getMetaAccess().lookupJavaType(String.class));
+    }
+
+    private static JavaConstant readField(GraphBuilderContext b, Class<?> declaringClass, String name, JavaConstant receiver) {
+        for (ResolvedJavaField field : b.getMetaAccess().lookupJavaType(declaringClass).getInstanceFields(false)) {
+            if (field.getName().equals(name)) {
+                return b.getConstantReflection().readFieldValue(field, receiver);
+            }
+        }
+        return null;
+    }
+}
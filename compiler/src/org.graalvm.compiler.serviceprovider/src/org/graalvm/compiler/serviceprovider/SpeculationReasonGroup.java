@@ -49,7 +49,7 @@ public final class SpeculationReasonGroup {
      * Creates speculation group whose context will always match {@code signature}.
      */
     public SpeculationReasonGroup(String name, Class<?>... signature) {
-        this.id = nextId.get();
+        this.id = nextId.getAndIncrement();
         this.name = name;
         this.signature = signature;
         for (Class<?> c : signature) {
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks element-wise array loops, which are vectorized with {@code -Dgraal.LoopVectorization=true}.
+ */
+public class ArrayElementwiseBenchmark extends BenchmarkBase {
+
+    @State(Scope.Benchmark)
+    public static class ThreadState {
+        @Param({"15", "64", "1000", "100000"}) int size;
+
+        byte[] bytes1;
+        byte[] bytes2;
+        byte[] bytesResult;
+        int[] ints1;
+        int[] ints2;
+        int[] intsResult;
+        float[] floats1;
+        float[] floats2;
+        float[] floatsResult;
+
+        @Setup
+        public void setup() {
+            Random random = new Random(17);
+            bytes1 = new byte[size];
+            bytes2 = new byte[size];
+            bytesResult = new byte[size];
+            random.nextBytes(bytes1);
+            random.nextBytes(bytes2);
+            ints1 = new int[size];
+            ints2 = new int[size];
+            intsResult = new int[size];
+            floats1 = new float[size];
+            floats2 = new float[size];
+            floatsResult = new float[size];
+            for (int i = 0; i < size; i++) {
+                ints1[i] = random.nextInt();
+                ints2[i] = random.nextInt();
+                floats1[i] = random.nextFloat();
+                floats2[i] = random.nextFloat();
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] xorBytes(ThreadState state) {
+        byte[] a = state.bytes1;
+        byte[] b = state.bytes2;
+        byte[] result = state.bytesResult;
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (byte) (a[i] ^ b[i]);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int[] addInts(ThreadState state) {
+        int[] a = state.ints1;
+        int[] b = state.ints2;
+        int[] result = state.intsResult;
+        for (int i = 0; i < result.length; i++) {
+            result[i] = a[i] + b[i];
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int[] mulIntsScalar(ThreadState state) {
+        int[] a = state.ints1;
+        int[] result = state.intsResult;
+        for (int i = 0; i < result.length; i++) {
+            result[i] = a[i] * 31;
+        }
+        return result;
+    }
+
+    @Benchmark
+    public float[] mulFloats(ThreadState state) {
+        float[] a = state.floats1;
+        float[] b = state.floats2;
+        float[] result = state.floatsResult;
+        for (int i = 0; i < result.length; i++) {
+            result[i] = a[i] * b[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import java.util.Arrays;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the polynomial hash of {@link Arrays#hashCode} and {@link String#hashCode} across
+ * lengths. The strings are created per invocation since {@link String#hashCode} caches its result.
+ */
+public class ArrayHashCodeBenchmark extends BenchmarkBase {
+
+    @State(Scope.Benchmark)
+    public static class ThreadState {
+        @Param({"1", "7", "16", "64", "256", "1024", "8192"}) int length;
+
+        byte[] bytes;
+        char[] chars;
+        int[] ints;
+        char[] latin1Chars;
+        char[] utf16Chars;
+
+        @Setup
+        public void setup() {
+            bytes = new byte[length];
+            chars = new char[length];
+            ints = new int[length];
+            latin1Chars = new char[length];
+            utf16Chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) i;
+                chars[i] = (char) (i * 31);
+                ints[i] = i * 0x9E3779B9;
+                latin1Chars[i] = (char) ('a' + i % 26);
+                utf16Chars[i] = (char) ('\u03b1' + i % 24);
+            }
+        }
+    }
+
+    @Benchmark
+    public int byteArray(ThreadState state) {
+        return Arrays.hashCode(state.bytes);
+    }
+
+    @Benchmark
+    public int charArray(ThreadState state) {
+        return Arrays.hashCode(state.chars);
+    }
+
+    @Benchmark
+    public int intArray(ThreadState state) {
+        return Arrays.hashCode(state.ints);
+    }
+
+    @Benchmark
+    public int stringLatin1(ThreadState state) {
+        return new String(state.latin1Chars).hashCode();
+    }
+
+    @Benchmark
+    public int stringUTF16(ThreadState state) {
+        return new String(state.utf16Chars).hashCode();
+    }
+}
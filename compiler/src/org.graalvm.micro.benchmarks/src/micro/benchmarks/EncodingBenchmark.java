@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import java.util.zip.Adler32;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the checksum and encoding operations backed by intrinsics: {@link Base64},
+ * {@link Adler32} and ISO-8859-1 encoding of {@code char} data. Run with the HotSpot C2 compiler
+ * to compare against its stubs.
+ */
+public class EncodingBenchmark extends BenchmarkBase {
+
+    @State(Scope.Benchmark)
+    public static class ThreadState {
+        @Param({"16", "256", "4096"}) int length;
+
+        byte[] bytes;
+        byte[] base64;
+        String utf16;
+        char[] chars;
+        ByteBuffer isoOut;
+        CharsetEncoder isoEncoder;
+
+        @Setup
+        public void setup() {
+            Random random = new Random(17);
+            bytes = new byte[length];
+            random.nextBytes(bytes);
+            base64 = Base64.getEncoder().encode(bytes);
+            chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) (0x20 + random.nextInt(0xe0));
+            }
+            // The leading char keeps the string in its UTF-16 representation.
+            utf16 = '\u03bb' + new String(chars);
+            isoOut = ByteBuffer.allocate(length);
+            isoEncoder = StandardCharsets.ISO_8859_1.newEncoder();
+        }
+    }
+
+    @Benchmark
+    public byte[] base64Encode(ThreadState state) {
+        return Base64.getEncoder().encode(state.bytes);
+    }
+
+    @Benchmark
+    public byte[] base64Decode(ThreadState state) {
+        return Base64.getDecoder().decode(state.base64);
+    }
+
+    @Benchmark
+    public long adler32(ThreadState state) {
+        Adler32 adler = new Adler32();
+        adler.update(state.bytes, 0, state.bytes.length);
+        return adler.getValue();
+    }
+
+    @Benchmark
+    public byte[] isoGetBytes(ThreadState state) {
+        return state.utf16.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    @Benchmark
+    public int isoEncode(ThreadState state) {
+        ByteBuffer out = state.isoOut;
+        out.clear();
+        state.isoEncoder.reset();
+        state.isoEncoder.encode(CharBuffer.wrap(state.chars), out, true);
+        return out.position();
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks a large method with many rarely taken error paths interleaved with the hot code, whose
+ * cold blocks are moved behind the hot code with {@code -Dgraal.HotColdSplitting=true}.
+ */
+public class HotColdSplittingBenchmark extends BenchmarkBase {
+
+    static final int OP_PUSH = 0;
+    static final int OP_ADD = 1;
+    static final int OP_SUB = 2;
+    static final int OP_MUL = 3;
+    static final int OP_DIV = 4;
+    static final int OP_REM = 5;
+    static final int OP_AND = 6;
+    static final int OP_OR = 7;
+    static final int OP_XOR = 8;
+    static final int OP_SHL = 9;
+    static final int OP_SHR = 10;
+    static final int OP_NEG = 11;
+    static final int OP_DUP = 12;
+    static final int OP_SWAP = 13;
+    static final int OP_POP = 14;
+    static final int OP_LOAD = 15;
+    static final int OP_COUNT = 16;
+
+    @State(Scope.Benchmark)
+    public static class ThreadState {
+        @Param({"1000", "100000"}) int size;
+
+        int[] code;
+        int[] memory;
+
+        @Setup
+        public void setup() {
+            Random random = new Random(17);
+            code = new int[size * 2];
+            memory = new int[256];
+            for (int i = 0; i < memory.length; i++) {
+                memory[i] = random.nextInt() | 1;
+            }
+            int depth = 0;
+            for (int i = 0; i < code.length; i += 2) {
+                int op;
+                if (depth < 2) {
+                    op = random.nextBoolean() ? OP_PUSH : OP_LOAD;
+                } else if (depth > 32) {
+                    op = OP_ADD + random.nextInt(OP_SHR - OP_ADD + 1);
+                } else {
+                    op = random.nextInt(OP_COUNT);
+                }
+                code[i] = op;
+                code[i + 1] = random.nextInt(memory.length);
+                switch (op) {
+                    case OP_PUSH:
+                    case OP_LOAD:
+                    case OP_DUP:
+                        depth++;
+                        break;
+                    case OP_NEG:
+                    case OP_SWAP:
+                        break;
+                    default:
+                        depth--;
+                        break;
+                }
+            }
+        }
+    }
+
+    private static RuntimeException error(String message, int pc) {
+        return new IllegalStateException(message + " at " + pc);
+    }
+
+    static int interpret(int[] code, int[] memory) {
+        int[] stack = new int[64];
+        int sp = 0;
+        int result = 0;
+        for (int pc = 0; pc < code.length; pc += 2) {
+            int op = code[pc];
+            int arg = code[pc + 1];
+            switch (op) {
+                case OP_PUSH:
+                    if (sp >= stack.length) {
+                        throw error("stack overflow", pc);
+                    }
+                    stack[sp++] = arg;
+                    break;
+                case OP_LOAD:
+                    if (sp >= stack.length) {
+                        throw error("stack overflow", pc);
+                    }
+                    if (arg < 0 || arg >= memory.length) {
+                        throw error("invalid address " + arg, pc);
+                    }
+                    stack[sp++] = memory[arg];
+                    break;
+                case OP_DUP:
+                    if (sp == 0 || sp >= stack.length) {
+                        throw error("invalid stack depth for dup", pc);
+                    }
+                    stack[sp] = stack[sp - 1];
+                    sp++;
+                    break;
+                case OP_NEG:
+                    if (sp == 0) {
+                        throw error("stack underflow", pc);
+                    }
+                    stack[sp - 1] = -stack[sp - 1];
+                    break;
+                case OP_SWAP: {
+                    if (sp < 2) {
+                        throw error("stack underflow", pc);
+                    }
+                    int tmp = stack[sp - 1];
+                    stack[sp - 1] = stack[sp - 2];
+                    stack[sp - 2] = tmp;
+                    break;
+                }
+                case OP_POP:
+                    if (sp == 0) {
+                        throw error("stack underflow", pc);
+                    }
+                    result ^= stack[--sp];
+                    break;
+                default: {
+                    if (op < OP_ADD || op > OP_SHR) {
+                        throw error("invalid opcode " + op, pc);
+                    }
+                    if (sp < 2) {
+                        throw error("stack underflow", pc);
+                    }
+                    int y = stack[--sp];
+                    int x = stack[sp - 1];
+                    int value;
+                    switch (op) {
+                        case OP_ADD:
+                            value = x + y;
+                            break;
+                        case OP_SUB:
+                            value = x - y;
+                            break;
+                        case OP_MUL:
+                            value = x * y;
+                            break;
+                        case OP_DIV:
+                            value = x / (y | 1);
+                            break;
+                        case OP_REM:
+                            value = x % (y | 1);
+                            break;
+                        case OP_AND:
+                            value = x & y;
+                            break;
+                        case OP_OR:
+                            value = x | y | 1;
+                            break;
+                        case OP_XOR:
+                            value = (x ^ y) | 1;
+                            break;
+                        case OP_SHL:
+                            value = (x << (y & 7)) | 1;
+                            break;
+                        default:
+                            value = (x >> (y & 7)) | 1;
+                            break;
+                    }
+                    stack[sp - 1] = value;
+                    break;
+                }
+            }
+        }
+        while (sp > 0) {
+            result ^= stack[--sp];
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int interpreter(ThreadState state) {
+        return interpret(state.code, state.memory);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks array loops whose bounds checks cannot be proven redundant by stamps, which are
+ * hoisted out of the loop with {@code -Dgraal.LoopPredication=true}.
+ */
+public class LoopPredicationBenchmark extends BenchmarkBase {
+
+    @State(Scope.Benchmark)
+    public static class ThreadState {
+        @Param({"64", "1000", "100000"}) int size;
+
+        int[] src;
+        int[] dst;
+        int offset;
+        int length;
+
+        @Setup
+        public void setup() {
+            Random random = new Random(17);
+            src = new int[size + 16];
+            dst = new int[size + 16];
+            for (int i = 0; i < src.length; i++) {
+                src[i] = random.nextInt();
+            }
+            offset = 7;
+            length = size;
+        }
+    }
+
+    @Benchmark
+    public int sumWithOffset(ThreadState state) {
+        int[] a = state.src;
+        int offset = state.offset;
+        int sum = 0;
+        for (int i = 0; i < state.length; i++) {
+            sum += a[i + offset];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int sumRange(ThreadState state) {
+        int[] a = state.src;
+        int to = state.offset + state.length;
+        int sum = 0;
+        for (int i = state.offset; i < to; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int sumStrided(ThreadState state) {
+        int[] a = state.src;
+        int sum = 0;
+        for (int i = 0; i < state.length / 2; i++) {
+            sum += a[2 * i + 1];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int[] copyWithOffsets(ThreadState state) {
+        int[] src = state.src;
+        int[] dst = state.dst;
+        int srcPos = state.offset;
+        int dstPos = state.offset + 1;
+        for (int i = 0; i < state.length; i++) {
+            dst[dstPos + i] = src[srcPos + i];
+        }
+        return dst;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the compact string operations that are intrinsified on AMD64 and AArch64: searching
+ * Latin-1 and UTF-16 strings for a char, inflating Latin-1 strings to {@code char[]} and
+ * compressing {@code char[]} to Latin-1 strings.
+ */
+public class StringIntrinsicsBenchmark extends BenchmarkBase {
+
+    @State(Scope.Benchmark)
+    public static class ThreadState {
+        @Param({"7", "64", "1024"}) int length;
+
+        String latin1;
+        String utf16;
+        char[] latin1Chars;
+        char[] utf16Chars;
+
+        @Setup
+        public void setup() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < length - 1; i++) {
+                sb.append((char) ('a' + i % 26));
+            }
+            latin1 = sb.toString() + '!';
+            utf16 = '\u03bb' + sb.toString();
+            latin1Chars = latin1.toCharArray();
+            utf16Chars = utf16.toCharArray();
+        }
+    }
+
+    @Benchmark
+    public int indexOfLatin1(ThreadState state) {
+        return state.latin1.indexOf('!');
+    }
+
+    @Benchmark
+    public int indexOfLatin1String(ThreadState state) {
+        return state.latin1.indexOf("!");
+    }
+
+    @Benchmark
+    public int indexOfUTF16(ThreadState state) {
+        return state.utf16.indexOf('!');
+    }
+
+    @Benchmark
+    public char[] inflate(ThreadState state) {
+        return state.latin1.toCharArray();
+    }
+
+    @Benchmark
+    public String compress(ThreadState state) {
+        return new String(state.latin1Chars);
+    }
+
+    @Benchmark
+    public String compressFailing(ThreadState state) {
+        return new String(state.utf16Chars);
+    }
+}
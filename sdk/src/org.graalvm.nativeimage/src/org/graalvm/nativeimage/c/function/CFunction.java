@@ -63,6 +63,11 @@ import org.graalvm.word.WordBase;
  * corresponds to {@code true} if non-zero, and to {@code false} if zero. If a Word value is passed
  * that points to a Java object, no guarantees are taken regarding its integrity as a pointer.
  * <p>
+ * As an exception, methods with {@link Transition#NO_TRANSITION} can also have parameters of
+ * primitive array types. The C function receives a pointer to the first array element, or a null
+ * pointer if the array is {@code null}. Since no safepoint can occur during such a call, the array
+ * does not need to be pinned, but the C function must not retain the pointer after it returns.
+ * <p>
  * The class containing the annotated method must be annotated with {@link CContext}.
  *
  * @since 19.0
@@ -88,6 +93,10 @@ public @interface CFunction {
          * No prologue and epilogue is emitted. The C code must not block and must not call back to
          * Java. Also, long running C code delays safepoints (and therefore garbage collection) of
          * other threads until the call returns.
+         * <p>
+         * This transition is meant for short, non-blocking leaf functions. Calling back to Java
+         * cannot be detected in the C code, but function pointer parameters are rejected at image
+         * build time.
          *
          * @since 19.0
          */
@@ -441,6 +441,14 @@ def native_image_context(common_args=None, hosted_assertions=True, native_image_
 native_image_context.hosted_assertions = ['-J-ea', '-J-esa']
 _native_unittest_features = '--features=com.oracle.svm.test.ImageInfoTest$TestFeature,com.oracle.svm.test.ServiceLoaderTest$TestFeature,com.oracle.svm.test.SecurityServiceTest$TestFeature'
 
+# Tests that need a non-default image configuration, with the build arguments for it. Each of them
+# is run in an image of its own, so that the other tests keep running in the default configuration.
+_native_unittest_configurations = [
+    ('com.oracle.svm.test.ContinuationTest', ['-H:+SupportContinuations']),
+    ('com.oracle.svm.test.ReflectionInvokeTest', ['--features=com.oracle.svm.test.ReflectionInvokeTest$TestFeature', '-H:+InlineConstantReflectiveCalls']),
+    ('com.oracle.svm.test.ReservedAddressSpaceTest', ['-H:ReservedAddressSpaceSize=8589934592']),  # 8 GB
+]
+
 
 def svm_gate_body(args, tasks):
     build_native_image_image()
@@ -461,16 +469,21 @@ def svm_gate_body(args, tasks):
         with Task('native unittests', tasks, tags=[GraalTags.test]) as t:
             if t:
                 with tempfile.NamedTemporaryFile(mode='w') as blacklist:
-                    if svm_java8():
-                        blacklist_args = []
-                    else:
+                    for test, _ in _native_unittest_configurations:
+                        blacklist.write(test + '\n')
+                    if not svm_java8():
                         # Currently not working on Java > 8
-                        blacklist.write('com.oracle.svm.test.ServiceLoaderTest')
-                        blacklist.flush()
-                        blacklist_args = ['--blacklist', blacklist.name]
+                        blacklist.write('com.oracle.svm.test.ServiceLoaderTest\n')
+                    blacklist.flush()
 
                     # We need the -H:+EnableAllSecurityServices for com.oracle.svm.test.SecurityServiceTest
-                    native_unittest(['--build-args', _native_unittest_features, '-H:+EnableAllSecurityServices'] + blacklist_args)
+                    native_unittest(['--build-args', _native_unittest_features, '-H:+EnableAllSecurityServices', '--blacklist', blacklist.name])
+                for test, build_args in _native_unittest_configurations:
+                    native_unittest([test, '--build-args'] + build_args)
+
+        with Task('image builder, configuration tool and native-image-agent unittests', tasks, tags=[GraalTags.test]) as t:
+            if t:
+                mx_unittest.unittest(['com.oracle.graal.pointsto.test', 'com.oracle.svm.core.genscavenge.test', 'com.oracle.svm.configure.test', 'com.oracle.svm.agent.test'])
 
         with Task('Run Truffle NFI unittests with SVM image', tasks, tags=["svmjunit"]) as t:
             if t:
@@ -736,6 +749,32 @@ def _cinterfacetutorial(native_image, args=None):
     # Start the C executable
     mx.run([join(build_dir, 'cinterfacetutorial')])
 
+def _polyglot_array_benchmark(native_image, args=None):
+    """Build the Polyglot Native API as a shared library and run the array access benchmark against it"""
+
+    args = [] if args is None else args
+    nativeapi_proj = mx.dependency('org.graalvm.polyglot.nativeapi')
+    c_source_dir = join(nativeapi_proj.dir, 'native')
+    build_dir = join(svmbuild_dir(), nativeapi_proj.name, 'benchmark')
+
+    # clean / create output directory
+    if exists(build_dir):
+        remove_tree(build_dir)
+    mkpath(build_dir)
+
+    # Build the shared library from Java code
+    native_image(['--shared', '--macro:truffle', '-H:Path=' + build_dir, '-H:Name=libpolyglot',
+                  '-H:Features=org.graalvm.polyglot.nativeapi.PolyglotNativeAPIFeature', '-H:CStandard=C11',
+                  '-Dorg.graalvm.polyglot.nativeapi.libraryPath=' + join(nativeapi_proj.dir, 'resources'),
+                  '-cp', mx.distribution('POLYGLOT_NATIVE_API').path] + args)
+
+    # Build and start the C executable
+    mx.run(['cc', '-O2', '-std=c11', '-D_POSIX_C_SOURCE=199309L', join(c_source_dir, 'polyglot_array_benchmark.c'),
+            '-I.', '-L.', '-lpolyglot', '-Wl,-rpath,' + build_dir,
+            '-o', 'polyglot_array_benchmark'],
+           cwd=build_dir)
+    mx.run([join(build_dir, 'polyglot_array_benchmark')])
+
 def gen_fallbacks():
     native_project_dir = join(mx.dependency('substratevm:com.oracle.svm.native.jvm.' + ('windows' if mx.is_windows() else 'posix')).dir, 'src')
 
@@ -1252,6 +1291,16 @@ def cinterfacetutorial(args):
     native_image_context_run(_cinterfacetutorial, args, build_if_missing=True)
 
 
+@mx.command(suite.name, 'polyglot-array-benchmark')
+def polyglot_array_benchmark(args):
+    """
+    compares reading polyglot array elements one by one with the bulk array functions of the Polyglot Native API.
+    """
+    if mx.is_windows():
+        mx.abort('polyglot-array-benchmark is not supported on Windows')
+    native_image_context_run(_polyglot_array_benchmark, args, build_if_missing=True)
+
+
 @mx.command(suite.name, 'clinittest', 'Runs the ')
 def clinittest(args):
     def build_and_test_clinittest_image(native_image, args=None):
@@ -182,6 +182,20 @@ suite = {
             "workingSets": "SVM",
         },
 
+        "com.oracle.svm.core.genscavenge.test": {
+            "subDir": "src",
+            "sourceDirs": ["src"],
+            "dependencies": [
+                "mx:JUNIT",
+                "com.oracle.svm.core.genscavenge",
+            ],
+            "checkstyle": "com.oracle.svm.core",
+            "javaCompliance": "8+",
+            "workingSets": "SVM",
+            "spotbugs": "false",
+            "testProject": True,
+        },
+
         "com.oracle.svm.core.graal": {
             "subDir": "src",
             "sourceDirs": ["src"],
@@ -334,6 +348,18 @@ suite = {
             ],
             "workingSets": "SVM",
         },
+        "com.oracle.graal.pointsto.test": {
+            "subDir": "src",
+            "sourceDirs": ["src"],
+            "dependencies": [
+                "mx:JUNIT",
+                "com.oracle.graal.pointsto",
+            ],
+            "checkstyle": "com.oracle.graal.pointsto",
+            "javaCompliance": "8+",
+            "workingSets": "SVM",
+            "testProject": True,
+        },
         "com.oracle.svm.hosted": {
             "subDir": "src",
             "sourceDirs": ["src"],
@@ -556,6 +582,7 @@ suite = {
             "dependencies": [
                 "mx:JUNIT_TOOL",
                 "sdk:GRAAL_SDK",
+                "com.oracle.svm.core",
             ],
             "checkstyle": "com.oracle.svm.core",
             "workingSets": "SVM",
@@ -792,6 +819,19 @@ suite = {
             "javaCompliance": "8+",
             "spotbugs": "false",
         },
+        "com.oracle.svm.configure.test": {
+            "subDir": "src",
+            "sourceDirs": ["src"],
+            "dependencies": [
+                "mx:JUNIT",
+                "com.oracle.svm.configure",
+            ],
+            "checkstyle": "com.oracle.svm.driver",
+            "workingSets": "SVM",
+            "javaCompliance": "8+",
+            "spotbugs": "false",
+            "testProject": True,
+        },
         "com.oracle.svm.configure.jdk11": {
             "subDir": "src",
             "sourceDirs": [
@@ -831,6 +871,19 @@ suite = {
             "javaCompliance": "8+",
             "spotbugs": "false",
         },
+        "com.oracle.svm.agent.test": {
+            "subDir": "src",
+            "sourceDirs": ["src"],
+            "dependencies": [
+                "mx:JUNIT",
+                "com.oracle.svm.agent",
+            ],
+            "checkstyle": "com.oracle.svm.driver",
+            "workingSets": "SVM",
+            "javaCompliance": "8+",
+            "spotbugs": "false",
+            "testProject": True,
+        },
         "com.oracle.svm.truffle.tck" : {
             "subDir": "src",
             "sourceDirs": ["src"],
@@ -1062,6 +1115,59 @@ suite = {
           "distDependencies": [
             "mx:JUNIT_TOOL",
             "sdk:GRAAL_SDK",
+            "SVM",
+          ],
+          "testDistribution" : True,
+        },
+
+        "POINTSTO_TESTS" : {
+          "subDir": "src",
+          "relpath" : True,
+          "dependencies" : [
+            "com.oracle.graal.pointsto.test",
+          ],
+          "distDependencies": [
+            "mx:JUNIT_TOOL",
+            "POINTSTO",
+          ],
+          "testDistribution" : True,
+        },
+
+        "SVM_GENSCAVENGE_TESTS" : {
+          "subDir": "src",
+          "relpath" : True,
+          "dependencies" : [
+            "com.oracle.svm.core.genscavenge.test",
+          ],
+          "distDependencies": [
+            "mx:JUNIT_TOOL",
+            "SVM",
+          ],
+          "testDistribution" : True,
+        },
+
+        "SVM_CONFIGURE_TESTS" : {
+          "subDir": "src",
+          "relpath" : True,
+          "dependencies" : [
+            "com.oracle.svm.configure.test",
+          ],
+          "distDependencies": [
+            "mx:JUNIT_TOOL",
+            "SVM_CONFIGURE",
+          ],
+          "testDistribution" : True,
+        },
+
+        "SVM_AGENT_TESTS" : {
+          "subDir": "src",
+          "relpath" : True,
+          "dependencies" : [
+            "com.oracle.svm.agent.test",
+          ],
+          "distDependencies": [
+            "mx:JUNIT_TOOL",
+            "SVM_AGENT",
           ],
           "testDistribution" : True,
         },
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.graal.pointsto.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MemoryGovernorTest {
+
+    private static final long TIMEOUT_SECONDS = 30;
+
+    private static MemoryGovernor createGovernor(int parallelism) {
+        MemoryGovernor governor = new MemoryGovernor();
+        governor.setMaxParallelism(parallelism);
+        return governor;
+    }
+
+    @Test
+    public void testThrottleAndRecover() {
+        MemoryGovernor governor = createGovernor(8);
+        Assert.assertEquals(8, governor.getAllowed());
+
+        Assert.assertFalse(governor.isMemoryTight());
+
+        governor.update(0.9);
+        Assert.assertEquals(4, governor.getAllowed());
+        Assert.assertTrue(governor.isMemoryTight());
+        governor.update(0.95);
+        Assert.assertEquals(2, governor.getAllowed());
+        governor.update(0.99);
+        governor.update(0.99);
+        Assert.assertEquals("at least one task must always be allowed", 1, governor.getAllowed());
+
+        governor.update(0.75);
+        Assert.assertEquals("usage between the thresholds must not change the limit", 1, governor.getAllowed());
+        Assert.assertTrue("usage between the thresholds must not end the memory pressure", governor.isMemoryTight());
+
+        for (int i = 2; i <= 8; i++) {
+            governor.update(0.3);
+            Assert.assertEquals(i, governor.getAllowed());
+            Assert.assertFalse(governor.isMemoryTight());
+        }
+        governor.update(0.3);
+        Assert.assertEquals("limit must not exceed the parallelism", 8, governor.getAllowed());
+    }
+
+    @Test
+    public void testReleaseUnblocksWaitingTask() throws InterruptedException {
+        MemoryGovernor governor = createGovernor(4);
+        for (int i = 0; i < 4; i++) {
+            governor.acquire();
+        }
+        governor.update(0.9);
+        Assert.assertEquals(2, governor.getAllowed());
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread task = new Thread(() -> {
+            started.countDown();
+            try {
+                governor.acquire();
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        task.start();
+        started.await();
+
+        governor.release();
+        governor.release();
+        Assert.assertFalse("task must wait while the number of running tasks is at the limit", acquired.await(100, TimeUnit.MILLISECONDS));
+
+        governor.release();
+        Assert.assertTrue("task must run once fewer tasks than the limit are running", acquired.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        task.join();
+        Assert.assertEquals(2, governor.getActive());
+    }
+
+    @Test
+    public void testRecoveryUnblocksWaitingTask() throws InterruptedException {
+        MemoryGovernor governor = createGovernor(2);
+        governor.update(0.9);
+        Assert.assertEquals(1, governor.getAllowed());
+        governor.acquire();
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread task = new Thread(() -> {
+            try {
+                governor.acquire();
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        task.start();
+        Assert.assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+
+        governor.update(0.3);
+        Assert.assertTrue("task must run once the limit is raised", acquired.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        task.join();
+        Assert.assertEquals(2, governor.getActive());
+    }
+}
@@ -98,6 +98,9 @@ public class PointstoOptions {
     @Option(help = "Path to the contents of the Inspect web server.")//
     public static final OptionKey<String> InspectServerContentPath = new OptionKey<>("inspect");
 
+    @Option(help = "Reduce the number of analysis and compilation tasks running in parallel when the heap of the image builder is almost full.")//
+    public static final OptionKey<Boolean> MemoryGovernor = new OptionKey<>(false);
+
     @Option(help = "Object scanning in parallel")//
     public static final OptionKey<Boolean> ScanObjectsParallel = new OptionKey<>(true);
 
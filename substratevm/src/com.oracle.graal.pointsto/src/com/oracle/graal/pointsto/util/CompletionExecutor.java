@@ -44,6 +44,7 @@ import org.graalvm.compiler.debug.DebugHandlersFactory;
 import org.graalvm.compiler.options.OptionValues;
 
 import com.oracle.graal.pointsto.BigBang;
+import com.oracle.graal.pointsto.api.PointstoOptions;
 
 import jdk.vm.ci.common.JVMCIError;
 
@@ -69,6 +70,7 @@ public final class CompletionExecutor {
 
     private BigBang bb;
     private Timing timing;
+    private MemoryGovernor governor;
     private Object vmConfig;
 
     public interface Timing {
@@ -105,6 +107,9 @@ public final class CompletionExecutor {
         completedOperations.reset();
         postedBeforeStart.clear();
         vmConfig = bb.getHostVM().getConfiguration();
+        if (!isSequential() && PointstoOptions.MemoryGovernor.getValue(bb.getOptions())) {
+            governor = MemoryGovernor.install(executorService.getParallelism());
+        }
     }
 
     /**
@@ -165,13 +170,23 @@ public final class CompletionExecutor {
                             startTime = System.nanoTime();
                         }
                         Throwable thrown = null;
-                        try (DebugContext debug = command.getDebug(bb.getOptions(), bb.getDebugHandlerFactories());
-                                        Scope s = debug.scope("Operation");
-                                        Activation a = debug.activate()) {
-                            command.run(debug);
+                        boolean acquired = false;
+                        try {
+                            if (governor != null) {
+                                governor.acquire();
+                                acquired = true;
+                            }
+                            try (DebugContext debug = command.getDebug(bb.getOptions(), bb.getDebugHandlerFactories());
+                                            Scope s = debug.scope("Operation");
+                                            Activation a = debug.activate()) {
+                                command.run(debug);
+                            }
                         } catch (Throwable x) {
                             thrown = x;
                         } finally {
+                            if (acquired) {
+                                governor.release();
+                            }
                             bb.getHostVM().clearInThread();
                             if (timing != null) {
                                 long taskTime = System.nanoTime() - startTime;
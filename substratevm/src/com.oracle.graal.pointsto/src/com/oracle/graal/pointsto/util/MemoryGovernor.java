@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.graal.pointsto.util;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Limits the number of tasks of a {@link CompletionExecutor} that run at the same time when the
+ * heap of the image builder is almost full. Every task allocates its own temporary data
+ * structures, so running fewer tasks at the same time lets the garbage collector keep up instead
+ * of spending all its time in full collections or failing with an {@link OutOfMemoryError}.
+ *
+ * The heap usage is sampled after each garbage collection. Above {@link #HIGH_USAGE} of the
+ * maximum heap size, the number of allowed tasks is halved. Below {@link #LOW_USAGE}, it grows
+ * again by one task per collection until it reaches the parallelism of the executor.
+ *
+ * Tasks that are not allowed to run block their worker thread, which reduces the throughput of the
+ * executor even when the collector would have kept up, so tasks are only throttled when enabled
+ * with {@link com.oracle.graal.pointsto.api.PointstoOptions#MemoryGovernor}. Other consumers can
+ * always query {@link #isMemoryTight()} to release memory that they do not need right away.
+ */
+public final class MemoryGovernor implements NotificationListener {
+
+    static final double HIGH_USAGE = 0.85;
+    static final double LOW_USAGE = 0.65;
+
+    private static MemoryGovernor singleton;
+
+    /**
+     * Returns the governor of this process, installing it on first use. The governor allows at
+     * least {@code parallelism} tasks to run at the same time while memory is not tight.
+     */
+    public static synchronized MemoryGovernor install(int parallelism) {
+        install().setMaxParallelism(parallelism);
+        return singleton;
+    }
+
+    /** Returns the governor of this process, installing it on first use. */
+    public static synchronized MemoryGovernor install() {
+        if (singleton == null) {
+            singleton = new MemoryGovernor();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    singleton.heapPoolNames.add(pool.getName());
+                }
+            }
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (gc instanceof NotificationEmitter) {
+                    ((NotificationEmitter) gc).addNotificationListener(singleton, null, null);
+                }
+            }
+        }
+        return singleton;
+    }
+
+    /** The memory pools that make up the Java heap, to ignore metaspace and the code cache. */
+    private final Set<String> heapPoolNames = new HashSet<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private volatile int maxParallelism;
+    private volatile int allowed;
+    private volatile boolean memoryTight;
+
+    MemoryGovernor() {
+        maxParallelism = 1;
+        allowed = 1;
+    }
+
+    synchronized void setMaxParallelism(int parallelism) {
+        if (parallelism > maxParallelism) {
+            if (allowed == maxParallelism) {
+                allowed = parallelism;
+            }
+            maxParallelism = parallelism;
+            notifyAll();
+        }
+    }
+
+    int getAllowed() {
+        return allowed;
+    }
+
+    int getActive() {
+        return active.get();
+    }
+
+    /**
+     * Returns true if the heap usage after the last garbage collection was above
+     * {@link #HIGH_USAGE}, and has not dropped below {@link #LOW_USAGE} since.
+     */
+    public boolean isMemoryTight() {
+        return memoryTight;
+    }
+
+    /** Blocks until the task of the calling thread is allowed to run. */
+    public void acquire() throws InterruptedException {
+        while (true) {
+            int current = active.get();
+            if (current < allowed) {
+                if (active.compareAndSet(current, current + 1)) {
+                    return;
+                }
+            } else {
+                synchronized (this) {
+                    waiting.incrementAndGet();
+                    try {
+                        while (active.get() >= allowed) {
+                            wait();
+                        }
+                    } finally {
+                        waiting.decrementAndGet();
+                    }
+                }
+            }
+        }
+    }
+
+    /** Signals that a task which was allowed to run by {@link #acquire()} has finished. */
+    public void release() {
+        active.decrementAndGet();
+        if (waiting.get() > 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        long used = 0;
+        for (Map.Entry<String, MemoryUsage> entry : info.getGcInfo().getMemoryUsageAfterGc().entrySet()) {
+            if (heapPoolNames.contains(entry.getKey())) {
+                used += entry.getValue().getUsed();
+            }
+        }
+        update((double) used / Runtime.getRuntime().maxMemory());
+    }
+
+    synchronized void update(double usage) {
+        if (usage > HIGH_USAGE) {
+            memoryTight = true;
+            allowed = Math.max(1, allowed / 2);
+        } else if (usage < LOW_USAGE) {
+            memoryTight = false;
+            if (allowed < maxParallelism) {
+                allowed++;
+                notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.agent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DeduplicatingTraceWriterTest {
+
+    static class RecordingTraceWriter extends TraceWriter {
+        final List<Map<String, Object>> entries = new ArrayList<>();
+
+        @Override
+        synchronized void traceEntry(Map<String, Object> entry) {
+            entries.add(entry);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static void traceForName(TraceWriter writer, String className) {
+        writer.traceCall("reflect", "forName", null, null, "com.example.Caller", true, className);
+    }
+
+    private static List<String> describe(List<Map<String, Object>> entries) {
+        List<String> result = new ArrayList<>();
+        for (Map<String, Object> entry : entries) {
+            if ("meta".equals(entry.get("tracer"))) {
+                result.add(entry.get("event") + ":" + entry.get("phase"));
+            } else {
+                result.add(entry.get("function") + ":" + ((Object[]) entry.get("args"))[0]);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testDuplicatesDropped() {
+        RecordingTraceWriter recorder = new RecordingTraceWriter();
+        DeduplicatingTraceWriter writer = new DeduplicatingTraceWriter(recorder);
+        traceForName(writer, "A");
+        traceForName(writer, "B");
+        traceForName(writer, "A");
+        traceForName(writer, "B");
+        writer.close();
+
+        Assert.assertEquals(Arrays.asList("forName:A", "forName:B"), describe(recorder.entries));
+    }
+
+    /**
+     * Calls made before the "live" phase are ignored when heuristics are enabled, so a call that
+     * is repeated in the "live" phase must be traced again.
+     */
+    @Test
+    public void testCallRepeatedAfterPhaseChange() {
+        RecordingTraceWriter recorder = new RecordingTraceWriter();
+        DeduplicatingTraceWriter writer = new DeduplicatingTraceWriter(recorder);
+        traceForName(writer, "A");
+        traceForName(writer, "A");
+        writer.tracePhaseChange("live");
+        traceForName(writer, "A");
+        traceForName(writer, "A");
+        traceForName(writer, "B");
+        writer.close();
+
+        Assert.assertEquals(Arrays.asList("forName:A", "phase_change:live", "forName:A", "forName:B"), describe(recorder.entries));
+    }
+
+    @Test
+    public void testPhaseChangeSeenByOtherThreads() throws Exception {
+        RecordingTraceWriter recorder = new RecordingTraceWriter();
+        DeduplicatingTraceWriter writer = new DeduplicatingTraceWriter(recorder);
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        try {
+            worker.submit(() -> traceForName(writer, "A")).get();
+            writer.tracePhaseChange("live");
+            worker.submit(() -> traceForName(writer, "A")).get();
+            worker.submit(() -> traceForName(writer, "A")).get();
+        } finally {
+            worker.shutdown();
+        }
+        writer.close();
+
+        Assert.assertEquals(Arrays.asList("forName:A", "phase_change:live", "forName:A"), describe(recorder.entries));
+    }
+
+    @Test
+    public void testSameFingerprintDifferentCalls() {
+        DeduplicatingTraceWriter.FingerprintSet set = new DeduplicatingTraceWriter.FingerprintSet();
+        long fingerprint = 42;
+        Object[] argsA = {"A"};
+        Object[] argsB = {"B"};
+        Assert.assertTrue(set.add(fingerprint, "reflect", "forName", null, null, null, null, argsA));
+        Assert.assertTrue("a different call with the same fingerprint must not be dropped", set.add(fingerprint, "reflect", "forName", null, null, null, null, argsB));
+        Assert.assertFalse(set.add(fingerprint, "reflect", "forName", null, null, null, null, new Object[]{"A"}));
+        Assert.assertFalse(set.add(fingerprint, "reflect", "forName", null, null, null, null, new Object[]{"B"}));
+    }
+
+    @Test
+    public void testValuesComparedByJsonForm() {
+        RecordingTraceWriter recorder = new RecordingTraceWriter();
+        DeduplicatingTraceWriter writer = new DeduplicatingTraceWriter(recorder);
+        writer.traceCall("reflect", "getField", "C", null, null, Boolean.TRUE, "f");
+        writer.traceCall("reflect", "getField", "C", null, null, "true", "f");
+        writer.traceCall("reflect", "getField", "C", null, null, new StringBuilder("true"), "f");
+        writer.traceCall("reflect", "getField", TraceWriter.EXPLICIT_NULL, null, null, Boolean.TRUE, "f");
+        writer.traceCall("reflect", "getField", "null", null, null, Boolean.TRUE, "f");
+        writer.traceCall("reflect", "getField", null, null, null, Boolean.TRUE, "f");
+        writer.close();
+
+        Assert.assertEquals("boolean and string results, and null, explicit null and \"null\" classes are different", 5, recorder.entries.size());
+    }
+
+    @Test
+    public void testFingerprintUsesJsonForm() {
+        Assert.assertEquals(DeduplicatingTraceWriter.fingerprint("t", "f", "C", null, null, "5", new Object[]{"x", null}),
+                        DeduplicatingTraceWriter.fingerprint("t", "f", new StringBuilder("C"), null, null, 5, new Object[]{"x", TraceWriter.EXPLICIT_NULL}));
+    }
+}
@@ -138,6 +138,7 @@ public final class Agent {
         List<String> callerFilterFiles = new ArrayList<>();
         boolean experimentalClassLoaderSupport = false;
         boolean build = false;
+        boolean deduplicateTrace = false;
         if (options.isNonNull()) {
             String[] optionTokens = fromCString(options).split(",");
             if (optionTokens.length == 0) {
@@ -185,6 +186,10 @@ public final class Agent {
                     callerFilterFiles.add(getTokenValue(token));
                 } else if (token.equals("experimental-class-loader-support")) {
                     experimentalClassLoaderSupport = true;
+                } else if (token.equals("trace-deduplication")) {
+                    deduplicateTrace = true;
+                } else if (token.startsWith("trace-deduplication=")) {
+                    deduplicateTrace = Boolean.parseBoolean(getTokenValue(token));
                 } else if (token.equals("build")) {
                     build = true;
                 } else if (token.startsWith("build=")) {
@@ -260,6 +265,10 @@ public final class Agent {
             }
         }
 
+        if (deduplicateTrace && traceWriter != null) {
+            traceWriter = new DeduplicatingTraceWriter(traceWriter);
+        }
+
         WordPointer jvmtiPtr = StackValue.get(WordPointer.class);
         checkJni(vm.getFunctions().getGetEnv().invoke(vm, jvmtiPtr, JvmtiInterface.JVMTI_VERSION_1_2));
         JvmtiEnv jvmti = jvmtiPtr.read();
@@ -297,7 +306,8 @@ public final class Agent {
             if (!restrictConfigs.getResourceConfigPaths().isEmpty()) {
                 resourceVerifier = new ResourceAccessVerifier(restrictConfigs.loadResourceConfig(ConfigurationSet.FAIL_ON_EXCEPTION), accessAdvisor);
             }
-            BreakpointInterceptor.onLoad(jvmti, callbacks, traceWriter, verifier, proxyVerifier, resourceVerifier, experimentalClassLoaderSupport);
+            BreakpointInterceptor.onLoad(jvmti, callbacks, traceWriter, verifier, proxyVerifier, resourceVerifier, experimentalClassLoaderSupport,
+                            traceWriter instanceof DeduplicatingTraceWriter);
         } catch (Throwable t) {
             System.err.println(MESSAGE_PREFIX + t);
             return 3;
@@ -503,8 +513,13 @@ public final class Agent {
             traceWriter.tracePhaseChange("unload");
             traceWriter.close();
 
+            TraceWriter processorWriter = traceWriter;
+            if (processorWriter instanceof DeduplicatingTraceWriter) {
+                ((DeduplicatingTraceWriter) processorWriter).printStatistics(System.err, BreakpointInterceptor.getBreakpointNanos());
+                processorWriter = ((DeduplicatingTraceWriter) processorWriter).getDelegate();
+            }
             if (configOutputDirPath != null) {
-                TraceProcessor p = ((TraceProcessorWriterAdapter) traceWriter).getProcessor();
+                TraceProcessor p = ((TraceProcessorWriterAdapter) processorWriter).getProcessor();
                 try {
                     try (JsonWriter writer = new JsonWriter(configOutputDirPath.resolve(ConfigurationFiles.REFLECTION_NAME))) {
                         p.getReflectionConfiguration().printJson(writer);
@@ -59,6 +59,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
@@ -156,6 +157,10 @@ final class BreakpointInterceptor {
     /** Enables experimental support for instrumenting class lookups via {@code ClassLoader}. */
     private static boolean experimentalClassLoaderSupport = false;
 
+    /** Enables measuring the time spent in breakpoint handlers, see {@link #breakpointNanos}. */
+    private static boolean measureOverhead = false;
+    private static final LongAdder breakpointNanos = new LongAdder();
+
     /**
      * Locations in methods where explicit calls to {@code ClassLoader.loadClass} have been found.
      */
@@ -920,6 +925,7 @@ final class BreakpointInterceptor {
             return;
         }
         recursive.set(true);
+        long start = measureOverhead ? System.nanoTime() : 0;
         try {
             Breakpoint bp = installedBreakpoints.get(method.rawValue());
             if (bp.specification.handler.dispatch(jni, bp)) {
@@ -928,10 +934,17 @@ final class BreakpointInterceptor {
         } catch (Throwable t) {
             VMError.shouldNotReachHere(t);
         } finally {
+            if (measureOverhead) {
+                breakpointNanos.add(System.nanoTime() - start);
+            }
             recursive.set(false);
         }
     }
 
+    static long getBreakpointNanos() {
+        return breakpointNanos.sum();
+    }
+
     @CEntryPoint
     @CEntryPointOptions(prologue = AgentIsolate.Prologue.class, epilogue = AgentIsolate.Epilogue.class)
     private static void onNativeMethodBind(@SuppressWarnings("unused") JvmtiEnv jvmti, JNIEnvironment jni,
@@ -989,13 +1002,14 @@ final class BreakpointInterceptor {
                     JvmtiEnv.class, JNIEnvironment.class, JNIObjectHandle.class, JNIObjectHandle.class);
 
     public static void onLoad(JvmtiEnv jvmti, JvmtiEventCallbacks callbacks, TraceWriter writer, ReflectAccessVerifier verifier,
-                    ProxyAccessVerifier prverifier, ResourceAccessVerifier resverifier, boolean exptlClassLoaderSupport) {
+                    ProxyAccessVerifier prverifier, ResourceAccessVerifier resverifier, boolean exptlClassLoaderSupport, boolean measureBreakpointOverhead) {
 
         BreakpointInterceptor.traceWriter = writer;
         BreakpointInterceptor.accessVerifier = verifier;
         BreakpointInterceptor.proxyVerifier = prverifier;
         BreakpointInterceptor.resourceVerifier = resverifier;
         BreakpointInterceptor.experimentalClassLoaderSupport = exptlClassLoaderSupport;
+        BreakpointInterceptor.measureOverhead = measureBreakpointOverhead;
 
         JvmtiCapabilities capabilities = UnmanagedMemory.calloc(SizeOf.get(JvmtiCapabilities.class));
         check(jvmti.getFunctions().GetCapabilities().invoke(jvmti, capabilities));
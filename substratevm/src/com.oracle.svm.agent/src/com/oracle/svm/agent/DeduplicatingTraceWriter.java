@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.agent;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Low-overhead tracing mode: drops calls that the current thread has already traced before they
+ * are converted to trace entries, and hands the remaining entries to a background thread that
+ * passes them to the delegate writer in batches.
+ *
+ * Calls are looked up by a 64-bit fingerprint of the JSON form of all their values in a per-thread
+ * open-addressing table, which also keeps the values of the first occurrence of each call. A call
+ * is only dropped if its values have the same JSON form as those of a call in the table, so calls
+ * with the same fingerprint are never lost. Checking a call whose values are strings for a
+ * duplicate does not allocate.
+ *
+ * A phase change invalidates all sets, so that the first occurrence of a call in each phase is
+ * traced: the configuration tools treat calls differently depending on the phase they were made in
+ * and must see the same calls as without deduplication.
+ */
+class DeduplicatingTraceWriter extends TraceWriter {
+    private static final int BATCH_SIZE = 512;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final TraceWriter delegate;
+    private final ThreadLocal<FingerprintSet> seenCalls = ThreadLocal.withInitial(FingerprintSet::new);
+    private volatile int phase;
+    private final Queue<Map<String, Object>> pendingEntries = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Object flushLock = new Object();
+    private final Thread flushThread;
+    private volatile boolean closed;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder uniqueCalls = new LongAdder();
+    private final LongAdder tracingNanos = new LongAdder();
+    private final LongAdder flushingNanos = new LongAdder();
+
+    DeduplicatingTraceWriter(TraceWriter delegate) {
+        this.delegate = delegate;
+        this.flushThread = new Thread(this::flushLoop, "native-image-agent trace flusher");
+        this.flushThread.setDaemon(true);
+        this.flushThread.start();
+    }
+
+    TraceWriter getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void traceCall(String tracer, String function, Object clazz, Object declaringClass, Object callerClass, Object result, Object... args) {
+        long start = System.nanoTime();
+        calls.increment();
+        long fingerprint = fingerprint(tracer, function, clazz, declaringClass, callerClass, result, args);
+        FingerprintSet seen = seenCalls.get();
+        int currentPhase = phase;
+        if (seen.phase != currentPhase) {
+            seen.clear(currentPhase);
+        }
+        if (seen.add(fingerprint, tracer, function, clazz, declaringClass, callerClass, result, args)) {
+            uniqueCalls.increment();
+            super.traceCall(tracer, function, clazz, declaringClass, callerClass, result, args);
+        }
+        tracingNanos.add(System.nanoTime() - start);
+    }
+
+    @Override
+    public void tracePhaseChange(String newPhase) {
+        super.tracePhaseChange(newPhase);
+        phase++;
+    }
+
+    @Override
+    void traceEntry(Map<String, Object> entry) {
+        pendingEntries.add(entry);
+        if (pendingCount.incrementAndGet() >= BATCH_SIZE) {
+            LockSupport.unpark(flushThread);
+        }
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            LockSupport.parkNanos(FLUSH_INTERVAL_NANOS);
+            flush();
+        }
+    }
+
+    private void flush() {
+        synchronized (flushLock) {
+            long start = System.nanoTime();
+            Map<String, Object> entry;
+            while ((entry = pendingEntries.poll()) != null) {
+                pendingCount.decrementAndGet();
+                delegate.traceEntry(entry);
+            }
+            flushingNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(flushThread);
+        try {
+            flushThread.join();
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        delegate.close();
+    }
+
+    void printStatistics(PrintStream out, long breakpointNanos) {
+        long total = calls.sum();
+        long unique = uniqueCalls.sum();
+        double deduplicated = (total == 0) ? 0 : 100.0 * (total - unique) / total;
+        out.printf("%soverhead: %d ms handling breakpoints, %d ms tracing %d calls (%d unique, %.1f%% deduplicated), %d ms writing entries in the background%n",
+                        Agent.MESSAGE_PREFIX, TimeUnit.NANOSECONDS.toMillis(breakpointNanos), TimeUnit.NANOSECONDS.toMillis(tracingNanos.sum()), total, unique, deduplicated,
+                        TimeUnit.NANOSECONDS.toMillis(flushingNanos.sum()));
+    }
+
+    static long fingerprint(String tracer, String function, Object clazz, Object declaringClass, Object callerClass, Object result, Object[] args) {
+        long h = 0;
+        h = mixField(h, tracer);
+        h = mixField(h, function);
+        h = mixField(h, clazz);
+        h = mixField(h, declaringClass);
+        h = mixField(h, callerClass);
+        h = mixField(h, result);
+        h = mixField(h, args);
+        return h;
+    }
+
+    /** Combines the hash with that of a field of an entry, which is omitted if it is null. */
+    private static long mixField(long h, Object value) {
+        return (value == null) ? mix(h, 0x165667B19E3779F9L) : mix(h, hashValue(value));
+    }
+
+    /**
+     * Hashes the JSON form of a value, as written by {@link TraceFileWriter}, without allocating
+     * for strings: {@link #EXPLICIT_NULL} and null elements are {@code null}, {@link Boolean}s are
+     * literals, arrays are arrays, and everything else is the string of {@link Object#toString()}.
+     */
+    private static long hashValue(Object value) {
+        if (value == null || value == EXPLICIT_NULL) {
+            return 0x9E3779B97F4A7C15L;
+        } else if (value instanceof Boolean) {
+            return ((Boolean) value) ? 0xC2B2AE3D27D4EB4FL : 0x27D4EB2F165667C5L;
+        } else if (value instanceof Object[]) {
+            Object[] array = (Object[]) value;
+            long h = array.length;
+            for (Object element : array) {
+                h = mix(h, hashValue(element));
+            }
+            return h;
+        } else {
+            String s = value.toString();
+            int fnv = 0x811C9DC5;
+            for (int i = 0; i < s.length(); i++) {
+                fnv = (fnv ^ s.charAt(i)) * 0x01000193;
+            }
+            return ((long) s.hashCode() << 32) | (fnv & 0xFFFFFFFFL);
+        }
+    }
+
+    private static long mix(long h, long valueHash) {
+        return (h ^ valueHash) * 0x9E3779B97F4A7C15L + 0x632BE59BD9B4E019L;
+    }
+
+    /** Returns whether two fields of an entry have the same JSON form, see {@link #hashValue}. */
+    private static boolean sameField(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return sameValue(a, b);
+    }
+
+    private static boolean sameValue(Object a, Object b) {
+        if (a == b) {
+            return true;
+        }
+        boolean aNull = (a == null || a == EXPLICIT_NULL);
+        boolean bNull = (b == null || b == EXPLICIT_NULL);
+        if (aNull || bNull) {
+            return aNull && bNull;
+        }
+        if (a instanceof Boolean || b instanceof Boolean) {
+            return a.equals(b);
+        }
+        if (a instanceof Object[] || b instanceof Object[]) {
+            if (!(a instanceof Object[]) || !(b instanceof Object[])) {
+                return false;
+            }
+            Object[] arrayA = (Object[]) a;
+            Object[] arrayB = (Object[]) b;
+            if (arrayA.length != arrayB.length) {
+                return false;
+            }
+            for (int i = 0; i < arrayA.length; i++) {
+                if (!sameValue(arrayA[i], arrayB[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return a.toString().equals(b.toString());
+    }
+
+    /**
+     * An open-addressing hash table of the calls that have been traced, keyed by their fingerprint.
+     * Only allocates when a call is added or the table grows.
+     */
+    static final class FingerprintSet {
+        private static final int CALL_FIELDS = 7;
+
+        private long[] fingerprints = new long[256];
+        private Object[][] calls = new Object[256][];
+        private int size;
+        private int phase;
+
+        /**
+         * Returns {@code true} if no call with the same JSON form as the given call was in the
+         * table yet, and adds the call.
+         */
+        boolean add(long fingerprint, String tracer, String function, Object clazz, Object declaringClass, Object callerClass, Object result, Object[] args) {
+            int mask = fingerprints.length - 1;
+            int i = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+            while (calls[i] != null) {
+                if (fingerprints[i] == fingerprint && sameCall(calls[i], tracer, function, clazz, declaringClass, callerClass, result, args)) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            fingerprints[i] = fingerprint;
+            calls[i] = new Object[]{tracer, function, clazz, declaringClass, callerClass, result, args};
+            size++;
+            if (size * 2 > fingerprints.length) {
+                grow();
+            }
+            return true;
+        }
+
+        private static boolean sameCall(Object[] call, String tracer, String function, Object clazz, Object declaringClass, Object callerClass, Object result, Object[] args) {
+            assert call.length == CALL_FIELDS;
+            return sameField(call[0], tracer) && sameField(call[1], function) && sameField(call[2], clazz) && sameField(call[3], declaringClass) && sameField(call[4], callerClass) &&
+                            sameField(call[5], result) && sameField(call[6], args);
+        }
+
+        void clear(int newPhase) {
+            Arrays.fill(fingerprints, 0);
+            Arrays.fill(calls, null);
+            size = 0;
+            phase = newPhase;
+        }
+
+        private void grow() {
+            long[] oldFingerprints = fingerprints;
+            Object[][] oldCalls = calls;
+            fingerprints = new long[oldFingerprints.length * 2];
+            calls = new Object[oldCalls.length * 2][];
+            int mask = fingerprints.length - 1;
+            for (int j = 0; j < oldCalls.length; j++) {
+                if (oldCalls[j] != null) {
+                    long fingerprint = oldFingerprints[j];
+                    int i = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+                    while (calls[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    fingerprints[i] = fingerprint;
+                    calls[i] = oldCalls[j];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.configure.trace;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.svm.configure.config.ConfigurationType;
+import com.oracle.svm.configure.config.ProxyConfiguration;
+import com.oracle.svm.configure.config.ResourceConfiguration;
+import com.oracle.svm.configure.config.TypeConfiguration;
+
+public class TraceProcessorTest {
+
+    private static TraceProcessor newProcessor() {
+        TraceProcessor processor = new TraceProcessor(new TypeConfiguration(), new TypeConfiguration(), new ProxyConfiguration(), new ResourceConfiguration());
+        processor.setHeuristicsEnabled(false);
+        return processor;
+    }
+
+    private static String reflect(String function, String clazz, String args) {
+        return "{\"tracer\":\"reflect\",\"function\":\"" + function + "\",\"class\":\"" + clazz + "\",\"caller_class\":\"app.Main\",\"result\":true,\"args\":" + args + "}";
+    }
+
+    private static TraceProcessor process(String... entries) throws IOException {
+        TraceProcessor processor = newProcessor();
+        processor.process(new StringReader("[\n" + String.join(",\n", entries) + "\n]"));
+        return processor;
+    }
+
+    @Test
+    public void testTruncatedTrace() throws IOException {
+        TraceProcessor processor = newProcessor();
+        String trace = "[\n" + reflect("getDeclaredMethods", "app.A", "[]") + ",\n" + reflect("getDeclaredMethods", "app.B", "[]").substring(0, 40);
+        processor.process(new StringReader(trace));
+        Assert.assertTrue("entries before the truncation must be processed", processor.getReflectionConfiguration().get("app.A").haveAllDeclaredMethods());
+        Assert.assertNull("the truncated entry must be ignored", processor.getReflectionConfiguration().get("app.B"));
+    }
+
+    /**
+     * Shard with flags: all declared methods of Foo and all public fields of Bar. Shard with
+     * individual members: a declared method of Foo and a public field and method of Bar.
+     */
+    private static TraceProcessor[] createShards() throws IOException {
+        TraceProcessor withFlags = process(
+                        reflect("getDeclaredMethods", "app.Foo", "[]"),
+                        reflect("getFields", "app.Bar", "[]"),
+                        reflect("getResource", "java.lang.ClassLoader", "[\"a.txt\"]"));
+        TraceProcessor withMembers = process(
+                        reflect("getDeclaredMethod", "app.Foo", "[\"x\",[]]"),
+                        reflect("getField", "app.Bar", "[\"f\"]"),
+                        reflect("getMethod", "app.Bar", "[\"m\",[\"int\"]]"),
+                        reflect("getResource", "java.lang.ClassLoader", "[\"b.txt\"]"));
+        return new TraceProcessor[]{withFlags, withMembers};
+    }
+
+    private static void checkMerged(TraceProcessor merged) {
+        TypeConfiguration reflection = merged.getReflectionConfiguration();
+        ConfigurationType foo = reflection.get("app.Foo");
+        Assert.assertTrue(foo.haveAllDeclaredMethods());
+        Assert.assertFalse("flag of one shard must cover the member of the other shard", foo.hasIndividualMethod("x", "()V"));
+
+        ConfigurationType bar = reflection.get("app.Bar");
+        Assert.assertTrue(bar.haveAllPublicFields());
+        Assert.assertFalse("flag of one shard must cover the member of the other shard", bar.hasIndividualField("f"));
+        Assert.assertFalse("flags must only be set by the shard that set them", bar.haveAllPublicMethods());
+        Assert.assertTrue("members that no flag covers must be kept", bar.hasIndividualMethod("m", "(I)V"));
+
+        Assert.assertTrue(merged.getResourceConfiguration().anyResourceMatches("a.txt"));
+        Assert.assertTrue(merged.getResourceConfiguration().anyResourceMatches("b.txt"));
+    }
+
+    @Test
+    public void testMergeFlagsIntoMembers() throws IOException {
+        TraceProcessor[] shards = createShards();
+        shards[1].mergeFrom(shards[0]);
+        checkMerged(shards[1]);
+    }
+
+    @Test
+    public void testMergeMembersIntoFlags() throws IOException {
+        TraceProcessor[] shards = createShards();
+        shards[0].mergeFrom(shards[1]);
+        checkMerged(shards[0]);
+    }
+
+    @Test
+    public void testMergeIntoEmpty() throws IOException {
+        for (int first = 0; first < 2; first++) {
+            TraceProcessor[] shards = createShards();
+            TraceProcessor merged = newProcessor();
+            merged.mergeFrom(shards[first]);
+            merged.mergeFrom(shards[1 - first]);
+            checkMerged(merged);
+        }
+    }
+}
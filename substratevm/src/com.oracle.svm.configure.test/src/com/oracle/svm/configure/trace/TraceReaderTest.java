@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.configure.trace;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TraceReaderTest {
+
+    private static List<Map<String, ?>> readAll(TraceReader reader) throws IOException {
+        List<Map<String, ?>> entries = new ArrayList<>();
+        Map<String, ?> entry;
+        while ((entry = reader.next()) != null) {
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private static List<Map<String, ?>> readAll(String trace) throws IOException {
+        return readAll(new TraceReader(new StringReader(trace)));
+    }
+
+    @Test
+    public void testEntries() throws IOException {
+        List<Map<String, ?>> entries = readAll("[\n{\"tracer\":\"meta\"},\n  {\"tracer\":\"reflect\", \"args\":[[\"a\"], {\"b\":[]}]}\n]\n");
+        Assert.assertEquals(2, entries.size());
+        Assert.assertEquals("meta", entries.get(0).get("tracer"));
+        Assert.assertEquals(Arrays.asList(Arrays.asList("a"), Collections.singletonMap("b", Collections.emptyList())), entries.get(1).get("args"));
+    }
+
+    @Test
+    public void testEmptyTrace() throws IOException {
+        Assert.assertEquals(0, readAll("[]").size());
+        Assert.assertEquals(0, readAll(" [ \n ] ").size());
+    }
+
+    /** Brackets, braces and escaped quotes within strings must not end an entry. */
+    @Test
+    public void testStringsWithBracketsAndQuotes() throws IOException {
+        String trace = "[{\"name\":\"a\\\"}]{[\",\"path\":\"C:\\\\\"},{\"name\":\"]\"},{\"name\":\"\\\\\\\"}\"}]";
+        List<Map<String, ?>> entries = readAll(trace);
+        Assert.assertEquals(3, entries.size());
+        Assert.assertEquals("a\"}]{[", entries.get(0).get("name"));
+        Assert.assertEquals("C:\\", entries.get(0).get("path"));
+        Assert.assertEquals("]", entries.get(1).get("name"));
+        Assert.assertEquals("\\\"}", entries.get(2).get("name"));
+    }
+
+    /** A trace without the closing bracket ends after its last complete entry. */
+    @Test
+    public void testMissingClosingBracket() throws IOException {
+        Assert.assertEquals(2, readAll("[{\"a\":\"1\"},\n{\"b\":\"2\"}").size());
+        Assert.assertEquals(2, readAll("[{\"a\":\"1\"},\n{\"b\":\"2\"},\n").size());
+    }
+
+    @Test
+    public void testTruncatedEntry() throws IOException {
+        for (String truncated : new String[]{"{\"b\":\"2", "{\"b\":\"2\\", "{\"b\":[\"]\"", "{\"b\":{}"}) {
+            TraceReader reader = new TraceReader(new StringReader("[{\"a\":\"1\"},\n" + truncated));
+            Assert.assertEquals("1", reader.next().get("a"));
+            try {
+                reader.next();
+                Assert.fail("EOFException expected for " + truncated);
+            } catch (EOFException e) {
+                /* The trace ends within the entry. */
+            }
+            Assert.assertNull("no entries after the end of the trace", reader.next());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotATrace() throws IOException {
+        readAll("{\"a\":\"1\"}");
+    }
+}
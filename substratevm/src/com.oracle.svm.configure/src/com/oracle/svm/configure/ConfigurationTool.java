@@ -31,6 +31,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -44,6 +45,9 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import com.oracle.svm.configure.config.ConfigurationSet;
+import com.oracle.svm.configure.config.ProxyConfiguration;
+import com.oracle.svm.configure.config.ResourceConfiguration;
+import com.oracle.svm.configure.config.TypeConfiguration;
 import com.oracle.svm.configure.filters.FilterConfigurationParser;
 import com.oracle.svm.configure.filters.ModuleFilterTools;
 import com.oracle.svm.configure.filters.RuleNode;
@@ -230,9 +234,35 @@ public class ConfigurationTool {
         if (traceInputs.isEmpty() && inputSet.isEmpty()) {
             throw new UsageException("No inputs specified.");
         }
-        for (URI uri : traceInputs) {
-            try (Reader reader = Files.newBufferedReader(Paths.get(uri))) {
-                p.process(reader);
+        if (traceInputs.size() == 1) {
+            processTrace(p, traceInputs.get(0));
+        } else if (!traceInputs.isEmpty()) {
+            /*
+             * Trace files are independent of each other, so process each of them with its own
+             * processor in parallel and merge the results in the order the files were specified.
+             */
+            boolean heuristicsEnabled = builtinHeuristicFilter;
+            RuleNode shardCallersFilter = callersFilter;
+            List<TraceProcessor> shards;
+            try {
+                shards = traceInputs.parallelStream().map(uri -> {
+                    TraceProcessor shard = new TraceProcessor(new TypeConfiguration(), new TypeConfiguration(), new ProxyConfiguration(), new ResourceConfiguration());
+                    shard.setHeuristicsEnabled(heuristicsEnabled);
+                    if (shardCallersFilter != null) {
+                        shard.setCallerFilterTree(shardCallersFilter);
+                    }
+                    try {
+                        processTrace(shard, uri);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return shard;
+                }).collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            for (TraceProcessor shard : shards) {
+                p.mergeFrom(shard);
             }
         }
 
@@ -261,6 +291,12 @@ public class ConfigurationTool {
         }
     }
 
+    private static void processTrace(TraceProcessor processor, URI uri) throws IOException {
+        try (Reader reader = Files.newBufferedReader(Paths.get(uri))) {
+            processor.process(reader);
+        }
+    }
+
     private static void generateFilterRules(Iterator<String> argsIter) throws IOException {
         Path outputPath = null;
         boolean reduce = false;
@@ -100,6 +100,49 @@ public class ConfigurationType implements JsonPrintable {
         assert methods.containsKey(method);
     }
 
+    /**
+     * Adds the fields, methods and flags of another configuration of the same type. The flags are
+     * set first so that individual members which they already cover are not added.
+     */
+    public void mergeFrom(ConfigurationType other) {
+        assert qualifiedJavaName.equals(other.qualifiedJavaName);
+        if (other.allDeclaredClasses) {
+            setAllDeclaredClasses();
+        }
+        if (other.allPublicClasses) {
+            setAllPublicClasses();
+        }
+        if (other.allDeclaredFields) {
+            setAllDeclaredFields();
+        }
+        if (other.allPublicFields) {
+            setAllPublicFields();
+        }
+        if (other.allDeclaredMethods) {
+            setAllDeclaredMethods();
+        }
+        if (other.allPublicMethods) {
+            setAllPublicMethods();
+        }
+        if (other.allDeclaredConstructors) {
+            setAllDeclaredConstructors();
+        }
+        if (other.allPublicConstructors) {
+            setAllPublicConstructors();
+        }
+        if (other.fields != null) {
+            for (Map.Entry<String, FieldInfo> entry : other.fields.entrySet()) {
+                FieldInfo info = entry.getValue();
+                addField(entry.getKey(), info.getKind(), info.isFinalButWritable(), info.isUnsafeAccessible());
+            }
+        }
+        if (other.methods != null) {
+            for (Map.Entry<ConfigurationMethod, ConfigurationMemberKind> entry : other.methods.entrySet()) {
+                addMethod(entry.getKey().getName(), entry.getKey().getInternalSignature(), entry.getValue());
+            }
+        }
+    }
+
     public boolean hasIndividualMethod(String name, String internalSignature) {
         if (methods != null && name != null && internalSignature != null) {
             for (ConfigurationMethod method : methods.keySet()) {
@@ -44,6 +44,10 @@ public class ProxyConfiguration implements JsonPrintable {
         return interfaceLists.contains(interfaceList);
     }
 
+    public void mergeFrom(ProxyConfiguration other) {
+        interfaceLists.addAll(other.interfaceLists);
+    }
+
     @Override
     public void printJson(JsonWriter writer) throws IOException {
         List<String[]> lists = new ArrayList<>(interfaceLists.size());
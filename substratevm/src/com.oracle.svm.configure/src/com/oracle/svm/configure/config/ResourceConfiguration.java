@@ -85,6 +85,11 @@ public class ResourceConfiguration implements JsonPrintable {
         return bundles.contains(s);
     }
 
+    public void mergeFrom(ResourceConfiguration other) {
+        resources.putAll(other.resources);
+        bundles.addAll(other.bundles);
+    }
+
     @Override
     public void printJson(JsonWriter writer) throws IOException {
         writer.append('{').indent().newline();
@@ -57,6 +57,12 @@ public class TypeConfiguration implements JsonPrintable {
         return types.computeIfAbsent(qualifiedJavaName, ConfigurationType::new);
     }
 
+    public void mergeFrom(TypeConfiguration other) {
+        for (ConfigurationType type : other.types.values()) {
+            getOrCreateType(type.getQualifiedJavaName()).mergeFrom(type);
+        }
+    }
+
     @Override
     public void printJson(JsonWriter writer) throws IOException {
         writer.append('[');
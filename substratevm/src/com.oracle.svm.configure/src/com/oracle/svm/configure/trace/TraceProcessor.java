@@ -24,16 +24,15 @@
  */
 package com.oracle.svm.configure.trace;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.Reader;
-import java.util.List;
 import java.util.Map;
 
 import com.oracle.svm.configure.config.ProxyConfiguration;
 import com.oracle.svm.configure.config.ResourceConfiguration;
 import com.oracle.svm.configure.config.TypeConfiguration;
 import com.oracle.svm.configure.filters.RuleNode;
-import com.oracle.svm.core.util.json.JSONParser;
 
 public class TraceProcessor extends AbstractProcessor {
     private final AccessAdvisor advisor = new AccessAdvisor();
@@ -70,18 +69,28 @@ public class TraceProcessor extends AbstractProcessor {
         return reflectionProcessor.getResourceConfiguration();
     }
 
-    @SuppressWarnings("unchecked")
     public void process(Reader reader) throws IOException {
         setInLivePhase(false);
-        JSONParser parser = new JSONParser(reader);
-        List<Map<String, ?>> trace = (List<Map<String, ?>>) parser.parse();
-        processTrace(trace);
+        TraceReader trace = new TraceReader(reader);
+        try {
+            Map<String, ?> entry;
+            while ((entry = trace.next()) != null) {
+                processEntry(entry);
+            }
+        } catch (EOFException e) {
+            logWarning("Trace is truncated, ignoring its incomplete last entry: " + e.getMessage());
+        }
     }
 
-    private void processTrace(List<Map<String, ?>> trace) {
-        for (Map<String, ?> entry : trace) {
-            processEntry(entry);
-        }
+    /**
+     * Adds the configurations collected by another processor, for example one that processed a
+     * different trace file concurrently, to the configurations of this processor.
+     */
+    public void mergeFrom(TraceProcessor other) {
+        getJniConfiguration().mergeFrom(other.getJniConfiguration());
+        getReflectionConfiguration().mergeFrom(other.getReflectionConfiguration());
+        getProxyConfiguration().mergeFrom(other.getProxyConfiguration());
+        getResourceConfiguration().mergeFrom(other.getResourceConfiguration());
     }
 
     @Override
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.configure.trace;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+
+import com.oracle.svm.core.util.json.JSONParser;
+
+/**
+ * Reads the entries of a trace one at a time. A trace is a JSON array of objects, which can be
+ * gigabytes large. Only the text of the current entry is kept in memory and parsed with
+ * {@link JSONParser}, so memory use does not depend on the size of the trace.
+ */
+final class TraceReader {
+    private final Reader reader;
+    private final StringBuilder entry = new StringBuilder();
+    private boolean started;
+    private boolean finished;
+
+    TraceReader(Reader reader) {
+        this.reader = (reader instanceof BufferedReader) ? reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Returns the next entry of the trace, or {@code null} after the last entry. A trace that ends
+     * without the closing bracket, for example because the traced process was killed, ends after
+     * its last complete entry.
+     *
+     * @throws EOFException if the trace ends within an entry.
+     */
+    @SuppressWarnings("unchecked")
+    Map<String, ?> next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int c = skipWhitespace();
+        if (!started) {
+            if (c != '[') {
+                throw new IOException("Trace must start with '[', found: " + describe(c));
+            }
+            started = true;
+            c = skipWhitespace();
+        } else if (c == ',') {
+            c = skipWhitespace();
+        }
+        if (c == ']' || c == -1) {
+            finished = true;
+            return null;
+        }
+        if (c != '{') {
+            throw new IOException("Expected '{' at the start of a trace entry, found: " + describe(c));
+        }
+
+        entry.setLength(0);
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        while (true) {
+            entry.append((char) c);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+                if (depth == 0) {
+                    break;
+                }
+            }
+            c = reader.read();
+            if (c == -1) {
+                finished = true;
+                throw new EOFException("Trace ends within an entry");
+            }
+        }
+        return (Map<String, ?>) new JSONParser(entry.toString()).parse();
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        do {
+            c = reader.read();
+        } while (c != -1 && Character.isWhitespace(c));
+        return c;
+    }
+
+    private static String describe(int c) {
+        return (c == -1) ? "end of input" : "'" + (char) c + "'";
+    }
+}
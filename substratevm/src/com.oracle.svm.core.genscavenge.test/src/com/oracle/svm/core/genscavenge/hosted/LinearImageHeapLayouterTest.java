@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.genscavenge.hosted;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.svm.core.image.ImageHeapObject;
+import com.oracle.svm.core.image.ImageHeapPartition;
+
+public class LinearImageHeapLayouterTest {
+
+    private static final class TestObject implements ImageHeapObject {
+        private final long size;
+        private final boolean knownWritten;
+        private ImageHeapPartition partition;
+        private long offsetInPartition = -1;
+
+        TestObject(ImageHeapPartition partition, long size, boolean knownWritten) {
+            this.partition = partition;
+            this.size = size;
+            this.knownWritten = knownWritten;
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public Object getObject() {
+            return this;
+        }
+
+        @Override
+        public void setHeapPartition(ImageHeapPartition partition) {
+            this.partition = partition;
+        }
+
+        @Override
+        public ImageHeapPartition getPartition() {
+            return partition;
+        }
+
+        @Override
+        public void setOffsetInPartition(long offset) {
+            this.offsetInPartition = offset;
+        }
+
+        @Override
+        public long getOffsetInPartition() {
+            return offsetInPartition;
+        }
+
+        @Override
+        public boolean isKnownWritten() {
+            return knownWritten;
+        }
+    }
+
+    private static List<TestObject> createObjects(LinearImageHeapPartition... partitions) {
+        List<TestObject> objects = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            LinearImageHeapPartition partition = partitions[i % partitions.length];
+            // the first objects of each partition are not known to be written
+            boolean knownWritten = (i / partitions.length) % 3 == 2;
+            objects.add(new TestObject(partition, 16 + 8 * (i % 5), knownWritten));
+        }
+        return objects;
+    }
+
+    @Test
+    public void testKnownWrittenObjectsFirst() {
+        LinearImageHeapPartition readOnly = new LinearImageHeapPartition("readOnlyReference", false);
+        LinearImageHeapPartition writablePrimitive = new LinearImageHeapPartition("writablePrimitive", true);
+        LinearImageHeapPartition writableReference = new LinearImageHeapPartition("writableReference", true);
+        List<TestObject> objects = createObjects(readOnly, writablePrimitive, writableReference);
+
+        LinearImageHeapLayouter.allocate(objects);
+
+        for (LinearImageHeapPartition partition : new LinearImageHeapPartition[]{writablePrimitive, writableReference}) {
+            long writtenEnd = 0;
+            long unwrittenStart = Long.MAX_VALUE;
+            for (TestObject object : objects) {
+                if (object.getPartition() == partition) {
+                    if (object.isKnownWritten()) {
+                        writtenEnd = Math.max(writtenEnd, object.getOffsetInPartition() + object.getSize());
+                    } else {
+                        unwrittenStart = Math.min(unwrittenStart, object.getOffsetInPartition());
+                    }
+                }
+            }
+            Assert.assertTrue(partition.getName() + ": known-written objects must precede the other objects", writtenEnd <= unwrittenStart);
+            Assert.assertTrue(partition.getName() + ": the first object must be known-written", ((TestObject) partition.firstObject).isKnownWritten());
+            Assert.assertFalse(partition.getName() + ": the last object must not be known-written", ((TestObject) partition.lastObject).isKnownWritten());
+        }
+    }
+
+    @Test
+    public void testObjectsDoNotOverlap() {
+        LinearImageHeapPartition readOnly = new LinearImageHeapPartition("readOnlyPrimitive", false);
+        LinearImageHeapPartition writable = new LinearImageHeapPartition("writableReference", true);
+        List<TestObject> objects = createObjects(readOnly, writable);
+
+        LinearImageHeapLayouter.allocate(objects);
+
+        for (LinearImageHeapPartition partition : new LinearImageHeapPartition[]{readOnly, writable}) {
+            long totalSize = 0;
+            boolean[] used = new boolean[(int) partition.getSize()];
+            for (TestObject object : objects) {
+                if (object.getPartition() == partition) {
+                    totalSize += object.getSize();
+                    for (long offset = object.getOffsetInPartition(); offset < object.getOffsetInPartition() + object.getSize(); offset++) {
+                        Assert.assertFalse(partition.getName() + ": objects overlap at offset " + offset, used[(int) offset]);
+                        used[(int) offset] = true;
+                    }
+                }
+            }
+            Assert.assertEquals(partition.getName() + ": partition size", totalSize, partition.getSize());
+        }
+    }
+
+    @Test
+    public void testReadOnlyOrderUnchanged() {
+        LinearImageHeapPartition readOnly = new LinearImageHeapPartition("readOnlyReference", false);
+        List<TestObject> objects = createObjects(readOnly);
+
+        LinearImageHeapLayouter.allocate(objects);
+
+        long expectedOffset = 0;
+        for (TestObject object : objects) {
+            Assert.assertEquals(expectedOffset, object.getOffsetInPartition());
+            expectedOffset += object.getSize();
+        }
+    }
+}
@@ -24,6 +24,8 @@
  */
 package com.oracle.svm.core.genscavenge.hosted;
 
+import java.util.Collection;
+
 import org.graalvm.nativeimage.Platform;
 import org.graalvm.nativeimage.Platforms;
 
@@ -32,7 +34,6 @@ import com.oracle.svm.core.genscavenge.HeapImpl;
 import com.oracle.svm.core.image.AbstractImageHeapLayouter;
 import com.oracle.svm.core.image.ImageHeap;
 import com.oracle.svm.core.image.ImageHeapObject;
-import com.oracle.svm.core.image.ImageHeapPartition;
 
 @Platforms(value = Platform.HOSTED_ONLY.class)
 public class LinearImageHeapLayouter extends AbstractImageHeapLayouter<LinearImageHeapPartition> {
@@ -64,17 +65,36 @@ public class LinearImageHeapLayouter extends AbstractImageHeapLayouter<LinearIma
 
     @Override
     public void assignPartitionRelativeOffsets(ImageHeap imageHeap) {
-        for (ImageHeapObject info : imageHeap.getObjects()) {
-            ImageHeapPartition partition = info.getPartition();
-            partition.allocate(info);
+        allocate(imageHeap.getObjects());
 
+        for (ImageHeapObject info : imageHeap.getObjects()) {
             assert ConfigurationValues.getObjectLayout().isAligned(info.getOffsetInPartition()) : "start: " + info.getOffsetInPartition() + " must be aligned.";
-            assert ConfigurationValues.getObjectLayout().isAligned(partition.getSize()) : "size: " + partition.getSize() + " must be aligned.";
+            assert ConfigurationValues.getObjectLayout().isAligned(info.getPartition().getSize()) : "size: " + info.getPartition().getSize() + " must be aligned.";
         }
 
         initializeHeapInfo();
     }
 
+    /**
+     * Allocates the objects in their partitions. In the writable partitions, objects with fields
+     * that are known to be written at run time are placed before the objects that are writable only
+     * conservatively, e.g., arrays. The image heap is mapped copy-on-write, so clustering the
+     * written objects keeps more pages unmodified and therefore shared between processes that run
+     * the same image.
+     */
+    static void allocate(Collection<? extends ImageHeapObject> objects) {
+        for (ImageHeapObject info : objects) {
+            if (!info.getPartition().isWritable() || info.isKnownWritten()) {
+                info.getPartition().allocate(info);
+            }
+        }
+        for (ImageHeapObject info : objects) {
+            if (info.getPartition().isWritable() && !info.isKnownWritten()) {
+                info.getPartition().allocate(info);
+            }
+        }
+    }
+
     /**
      * Store which objects are at the boundaries of the image heap partitions. Here, we also merge
      * the read-only reference partition with the read-only relocatable partition.
@@ -24,7 +24,9 @@
  */
 package com.oracle.svm.core.graal.code;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.graalvm.compiler.code.CompilationResult;
 import org.graalvm.compiler.core.common.CompilationIdentifier;
@@ -34,6 +36,15 @@ public final class SubstrateCompilationResult extends CompilationResult {
 
     private List<NodeSourcePosition> deoptimizationSourcePositions;
 
+    /**
+     * The machine code. It is kept here instead of in the superclass so that it can still be
+     * {@linkplain #releaseTargetCode released} after this result has been closed.
+     */
+    private byte[] targetCode;
+
+    /** Provides the machine code again after it has been released, otherwise null. */
+    private Supplier<byte[]> targetCodeLoader;
+
     public SubstrateCompilationResult(CompilationIdentifier compilationId, String name) {
         super(compilationId, name);
     }
@@ -47,4 +58,41 @@ public final class SubstrateCompilationResult extends CompilationResult {
         assert deoptimizationSourcePositions.get(0) == null : "First index is reserved for unknown source positions";
         this.deoptimizationSourcePositions = deoptimizationSourcePositions;
     }
+
+    @Override
+    public void setTargetCode(byte[] code, int size) {
+        super.setTargetCode(null, size);
+        targetCode = code;
+        targetCodeLoader = null;
+    }
+
+    @Override
+    public byte[] getTargetCode() {
+        if (targetCode == null && targetCodeLoader != null) {
+            targetCode = targetCodeLoader.get();
+            targetCodeLoader = null;
+        }
+        return targetCode;
+    }
+
+    /**
+     * Drops the reference to the machine code, for example after it has been written to a file.
+     * The next call of {@link #getTargetCode()} obtains the machine code from the loader and keeps
+     * it again, so that code patching modifies the array that is eventually emitted.
+     */
+    public void releaseTargetCode(Supplier<byte[]> loader) {
+        assert targetCode != null && loader != null;
+        targetCodeLoader = loader;
+        targetCode = null;
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return super.equals(obj) && Arrays.equals(getTargetCode(), ((SubstrateCompilationResult) obj).getTargetCode());
+    }
 }
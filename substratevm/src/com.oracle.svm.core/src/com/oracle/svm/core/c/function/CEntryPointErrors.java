@@ -96,6 +96,9 @@ public final class CEntryPointErrors {
     @Description("Initialization the isolate failed.") //
     public static final int ISOLATE_INITIALIZATION_FAILED = 13;
 
+    @Description("Reserving the address space for the heap failed.") //
+    public static final int RESERVE_ADDRESS_SPACE_FAILED = 14;
+
     static String getDescription(int code) {
         String result = null;
         if (code >= 0 && code < DESCRIPTIONS.length) {
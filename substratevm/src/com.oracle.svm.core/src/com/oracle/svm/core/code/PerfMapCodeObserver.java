@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.code;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.graalvm.compiler.code.CompilationResult;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.options.Option;
+import org.graalvm.nativeimage.ProcessProperties;
+import org.graalvm.word.Pointer;
+import org.graalvm.word.WordFactory;
+
+import com.oracle.svm.core.log.Log;
+import com.oracle.svm.core.meta.SharedMethod;
+import com.oracle.svm.core.option.RuntimeOptionKey;
+
+/**
+ * Writes an entry to the perf map file {@code /tmp/perf-<pid>.map} for every piece of
+ * runtime-compiled code, so that the Linux {@code perf} tool and other system profilers can map
+ * samples in the runtime code cache to method names. Code that is part of the image is already
+ * described by the symbol table of the image and does not need an entry.
+ *
+ * The perf map format has no way to express that code was invalidated. When the memory of
+ * invalidated code is reused, the profiler uses the most recent entry that covers an address.
+ */
+public final class PerfMapCodeObserver implements InstalledCodeObserver {
+
+    public static class Options {
+        @Option(help = "Write /tmp/perf-<pid>.map entries for runtime-compiled code so that it can be symbolized by the Linux perf tool.")//
+        public static final RuntimeOptionKey<Boolean> WritePerfMap = new RuntimeOptionKey<>(false);
+    }
+
+    public static final class Factory implements InstalledCodeObserver.Factory {
+        @Override
+        public InstalledCodeObserver create(DebugContext debug, SharedMethod method, CompilationResult compilation, Pointer code) {
+            return new PerfMapCodeObserver(method, compilation.getName(), code, compilation.getTargetCodeSize());
+        }
+    }
+
+    private static FileOutputStream perfMapStream;
+    private static boolean perfMapUnavailable;
+
+    private final SharedMethod method;
+    private final String compilationName;
+    private final Pointer code;
+    private final int codeSize;
+
+    private PerfMapCodeObserver(SharedMethod method, String compilationName, Pointer code, int codeSize) {
+        this.method = method;
+        this.compilationName = compilationName;
+        this.code = code;
+        this.codeSize = codeSize;
+    }
+
+    @Override
+    public InstalledCodeObserverHandle install() {
+        if (Options.WritePerfMap.getValue()) {
+            /* Truffle compilations are named after the guest language function. */
+            String name = compilationName != null ? compilationName : method.format("%H.%n(%p)");
+            writeEntry(code.rawValue(), codeSize, name);
+        }
+        /* Nothing needs to be done when the code is released, so no handle is necessary. */
+        return WordFactory.nullPointer();
+    }
+
+    private static synchronized void writeEntry(long address, int size, String name) {
+        if (perfMapUnavailable) {
+            return;
+        }
+        String line = Long.toHexString(address) + " " + Integer.toHexString(size) + " " + name.replace('\n', ' ') + "\n";
+        try {
+            if (perfMapStream == null) {
+                perfMapStream = new FileOutputStream("/tmp/perf-" + ProcessProperties.getProcessID() + ".map", true);
+            }
+            /* Written unbuffered, so that the file is complete even if the process crashes. */
+            perfMapStream.write(line.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            perfMapUnavailable = true;
+            Log.log().string("Cannot write perf map file, disabling perf map support: ").string(ex.getMessage()).newline();
+        }
+    }
+}
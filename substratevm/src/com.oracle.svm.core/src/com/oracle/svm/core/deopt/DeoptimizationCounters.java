@@ -53,6 +53,10 @@ public class DeoptimizationCounters {
      */
     static final FastThreadLocalLong startTime = FastThreadLocalFactory.createLong();
 
+    public Counter.Group getCounterGroup() {
+        return deoptCounters;
+    }
+
     @Fold
     public static DeoptimizationCounters counters() {
         return ImageSingletons.lookup(DeoptimizationCounters.class);
@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.deopt;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.graalvm.compiler.api.replacements.Fold;
+import org.graalvm.compiler.options.Option;
+import org.graalvm.nativeimage.ImageSingletons;
+import org.graalvm.nativeimage.Platform;
+import org.graalvm.nativeimage.Platforms;
+
+import com.oracle.svm.core.log.Log;
+import com.oracle.svm.core.option.RuntimeOptionKey;
+import com.oracle.svm.core.util.Counter;
+
+import jdk.vm.ci.meta.ResolvedJavaField;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import jdk.vm.ci.meta.ResolvedJavaType;
+import jdk.vm.ci.meta.SpeculationLog.SpeculationReason;
+import jdk.vm.ci.meta.SpeculationLog.SpeculationReasonEncoding;
+
+// Checkstyle: allow synchronization
+
+/**
+ * Keeps the failed speculations of runtime-compiled code across process restarts. The file
+ * specified by {@link Options#SpeculationLogFile} is loaded when the first speculation log that
+ * has a {@linkplain SubstrateSpeculationLog#setPersistenceKey persistence key} needs it, and is
+ * written back by a shutdown hook. Compilations in a later run of the same image then avoid
+ * speculations that are already known to fail, instead of deoptimizing and recompiling again.
+ *
+ * Speculations are identified by the {@linkplain RecordEncoding encoded} group id and context of
+ * their {@link SpeculationReason}, grouped by the persistence key of the speculation log. Reasons
+ * that cannot be encoded are not persisted. Group ids are only stable for the same image, but using
+ * a stale or mismatching record is never incorrect: it can only prevent a speculation that would
+ * have succeeded.
+ *
+ * The file also accumulates the values of the {@link DeoptimizationCounters} over all runs, if the
+ * counters are enabled in the image.
+ */
+public final class PersistentSpeculations {
+
+    public static class Options {
+        @Option(help = "File that failed speculations of runtime-compiled code are loaded from and written to at shutdown, so that compilations in later runs avoid speculations known to fail.")//
+        public static final RuntimeOptionKey<String> SpeculationLogFile = new RuntimeOptionKey<>("");
+    }
+
+    private static final String HEADER = "# Substrate VM failed speculations, version 1";
+    private static final String SPECULATION_RECORD = "speculation";
+    private static final String COUNTER_RECORD = "counter";
+
+    /** Failed speculations, grouped by the persistence key of their speculation log. */
+    private Map<String, Set<String>> failedSpeculations;
+    /** Counter values of previous runs, by counter name. */
+    private Map<String, Long> previousCounterValues;
+    /** The file to load from and save to, or null for the {@link Options#SpeculationLogFile}. */
+    private final Path file;
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    public PersistentSpeculations() {
+        this.file = null;
+    }
+
+    /** Creates failed speculations that are kept in the given file instead of the option value. */
+    public PersistentSpeculations(Path file) {
+        this.file = file;
+    }
+
+    @Fold
+    public static PersistentSpeculations singleton() {
+        return ImageSingletons.lookup(PersistentSpeculations.class);
+    }
+
+    public static boolean isEnabled() {
+        return !Options.SpeculationLogFile.getValue().isEmpty();
+    }
+
+    /**
+     * Returns the record that identifies {@code reason} in the file, or null if the reason cannot be
+     * persisted. The record is computed once and then cached by the reason along with its encoding.
+     */
+    static String toRecord(SpeculationReason reason) {
+        SpeculationReasonEncoding encoding = reason.encode(RecordEncoding::new);
+        return encoding instanceof RecordEncoding ? ((RecordEncoding) encoding).getRecord() : null;
+    }
+
+    /**
+     * Returns a snapshot of the failed speculations that are known for the speculation log with the
+     * given key.
+     */
+    synchronized Set<String> getFailedSpeculations(String persistenceKey) {
+        ensureLoaded();
+        Set<String> result = failedSpeculations.get(persistenceKey);
+        return result != null ? new HashSet<>(result) : Collections.emptySet();
+    }
+
+    synchronized void addFailedSpeculation(String persistenceKey, String record) {
+        if (record == null) {
+            return;
+        }
+        ensureLoaded();
+        failedSpeculations.computeIfAbsent(persistenceKey, k -> new LinkedHashSet<>()).add(record);
+    }
+
+    private void ensureLoaded() {
+        if (failedSpeculations != null) {
+            return;
+        }
+        failedSpeculations = new HashMap<>();
+        previousCounterValues = new HashMap<>();
+
+        Path file = getFile();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (!HEADER.equals(line)) {
+                Log.log().string("Ignoring speculation log file with unknown format: ").string(file.toString()).newline();
+                return;
+            }
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", 3);
+                if (parts.length != 3) {
+                    continue;
+                }
+                if (parts[0].equals(SPECULATION_RECORD)) {
+                    failedSpeculations.computeIfAbsent(unescape(parts[1]), k -> new LinkedHashSet<>()).add(unescape(parts[2]));
+                } else if (parts[0].equals(COUNTER_RECORD)) {
+                    try {
+                        previousCounterValues.put(unescape(parts[1]), Long.parseLong(parts[2]));
+                    } catch (NumberFormatException ex) {
+                        /* Ignore the malformed record. */
+                    }
+                }
+            }
+        } catch (NoSuchFileException ex) {
+            /* First run, nothing to preload. */
+        } catch (IOException ex) {
+            Log.log().string("Cannot read speculation log file ").string(file.toString()).string(": ").string(ex.getMessage()).newline();
+        }
+    }
+
+    private Path getFile() {
+        return file != null ? file : Paths.get(Options.SpeculationLogFile.getValue());
+    }
+
+    public synchronized void save() {
+        ensureLoaded();
+        Path file = getFile().toAbsolutePath();
+        try {
+            /* Write to a temporary file first, so that concurrent readers never see a partial file. */
+            Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (Map.Entry<String, Set<String>> entry : failedSpeculations.entrySet()) {
+                    String key = escape(entry.getKey());
+                    for (String record : entry.getValue()) {
+                        writer.write(SPECULATION_RECORD + "\t" + key + "\t" + escape(record));
+                        writer.newLine();
+                    }
+                }
+                if (ImageSingletons.contains(DeoptimizationCounters.class)) {
+                    for (Counter counter : DeoptimizationCounters.counters().getCounterGroup().getCounters()) {
+                        long value = previousCounterValues.getOrDefault(counter.getName(), 0L) + counter.getValue();
+                        if (value != 0) {
+                            writer.write(COUNTER_RECORD + "\t" + escape(counter.getName()) + "\t" + value);
+                            writer.newLine();
+                        }
+                    }
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            Log.log().string("Cannot write speculation log file ").string(file.toString()).string(": ").string(ex.getMessage()).newline();
+        }
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String s) {
+        if (s.indexOf('\\') < 0) {
+            return s;
+        }
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\' && i + 1 < s.length()) {
+                char next = s.charAt(++i);
+                sb.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Encodes the group id and the context of a {@link SpeculationReason} as a record string.
+     * Methods, types and fields are encoded by name, which unlike their identity is the same in
+     * every run of an image. Text values are prefixed with their length so that records of
+     * different reasons cannot collide.
+     */
+    static final class RecordEncoding implements SpeculationReasonEncoding {
+        private final StringBuilder builder = new StringBuilder();
+        private String record;
+
+        private void add(char tag, String value) {
+            builder.append(tag).append(value);
+        }
+
+        private void addText(char tag, String value) {
+            builder.append(tag).append(value.length()).append(':').append(value);
+        }
+
+        @Override
+        public void addByte(int value) {
+            add('B', Integer.toString(value));
+        }
+
+        @Override
+        public void addShort(int value) {
+            add('S', Integer.toString(value));
+        }
+
+        @Override
+        public void addInt(int value) {
+            add('I', Integer.toString(value));
+        }
+
+        @Override
+        public void addLong(long value) {
+            add('J', Long.toString(value));
+        }
+
+        @Override
+        public void addMethod(ResolvedJavaMethod method) {
+            addText('M', method.format("%H.%n(%P)%R"));
+        }
+
+        @Override
+        public void addType(ResolvedJavaType type) {
+            addText('T', type.toJavaName());
+        }
+
+        @Override
+        public void addString(String value) {
+            addText('s', value);
+        }
+
+        @Override
+        public void addField(ResolvedJavaField field) {
+            addText('F', field.format("%H.%n"));
+        }
+
+        String getRecord() {
+            if (record == null) {
+                record = builder.toString();
+            }
+            return record;
+        }
+    }
+
+    public static class ShutdownHook implements Runnable {
+        @Override
+        public void run() {
+            if (isEnabled()) {
+                singleton().save();
+            }
+        }
+    }
+}
@@ -26,8 +26,10 @@ package com.oracle.svm.core.deopt;
 
 import static com.oracle.svm.core.snippets.KnownIntrinsics.convertUnknownValue;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import com.oracle.svm.core.meta.SubstrateObjectConstant;
@@ -58,6 +60,18 @@ public class SubstrateSpeculationLog implements SpeculationLog {
     /** The collected set of speculations, for quick access during compilation. */
     private Map<SpeculationReason, Boolean> failedSpeculations;
 
+    /**
+     * Identifies this log across process restarts, see {@link PersistentSpeculations}. Null if the
+     * failed speculations of this log are not persisted.
+     */
+    private String persistenceKey;
+
+    /** Where the failed speculations of this log are persisted, if it has a persistence key. */
+    private PersistentSpeculations persistentSpeculations;
+
+    /** Failed speculations of previous runs, in the format of {@link PersistentSpeculations}. */
+    private Set<String> persistedFailedSpeculations = Collections.emptySet();
+
     /**
      * Newly added speculation failures. Atomic linked list to allow lock free append during
      * deoptimization.
@@ -84,6 +98,39 @@ public class SubstrateSpeculationLog implements SpeculationLog {
         }
     }
 
+    public synchronized boolean hasPersistenceKey() {
+        return persistenceKey != null;
+    }
+
+    /**
+     * Enables persisting the failed speculations of this log under the given key, and preloads the
+     * failed speculations of previous runs. Only has an effect if
+     * {@linkplain PersistentSpeculations#isEnabled() persistence is enabled}.
+     */
+    public void setPersistenceKey(String key) {
+        if (PersistentSpeculations.isEnabled()) {
+            setPersistenceKey(key, PersistentSpeculations.singleton());
+        }
+    }
+
+    /**
+     * Enables persisting the failed speculations of this log in {@code speculations} under the
+     * given key, and preloads the failed speculations that {@code speculations} already has for it.
+     */
+    public synchronized void setPersistenceKey(String key, PersistentSpeculations speculations) {
+        if (persistenceKey != null) {
+            return;
+        }
+        persistenceKey = key;
+        persistentSpeculations = speculations;
+        persistedFailedSpeculations = speculations.getFailedSpeculations(key);
+        if (failedSpeculations != null) {
+            for (SpeculationReason reason : failedSpeculations.keySet()) {
+                speculations.addFailedSpeculation(key, PersistentSpeculations.toRecord(reason));
+            }
+        }
+    }
+
     @Override
     public synchronized void collectFailedSpeculations() {
         LogEntry cur = HEAD_UPDATER.getAndSet(this, null);
@@ -92,13 +139,32 @@ public class SubstrateSpeculationLog implements SpeculationLog {
                 failedSpeculations = new HashMap<>();
             }
             failedSpeculations.put(cur.reason, Boolean.TRUE);
+            if (persistenceKey != null) {
+                persistentSpeculations.addFailedSpeculation(persistenceKey, PersistentSpeculations.toRecord(cur.reason));
+            }
             cur = cur.next;
         }
     }
 
     @Override
     public synchronized boolean maySpeculate(SpeculationReason reason) {
-        return failedSpeculations == null || !failedSpeculations.containsKey(reason);
+        if (failedSpeculations != null && failedSpeculations.containsKey(reason)) {
+            return false;
+        }
+        if (!persistedFailedSpeculations.isEmpty() && isPersistedFailedSpeculation(reason)) {
+            /* Failed in a previous run: remember it so that the lookup is only done once. */
+            if (failedSpeculations == null) {
+                failedSpeculations = new HashMap<>();
+            }
+            failedSpeculations.put(reason, Boolean.TRUE);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isPersistedFailedSpeculation(SpeculationReason reason) {
+        String record = PersistentSpeculations.toRecord(reason);
+        return record != null && persistedFailedSpeculations.contains(record);
     }
 
     @Override
@@ -82,6 +82,14 @@ public final class ObjectHandlesImpl implements ObjectHandles {
     private final Object[][] buckets;
     private volatile long unusedHandleSearchIndex = 0;
 
+    private static final long NO_FREED_HANDLE_INDEX = Long.MAX_VALUE;
+
+    /**
+     * The lowest index that has been freed by {@link #destroy} before the search index since the last
+     * {@link #create}. This is only a hint: races with other threads are harmless.
+     */
+    private volatile long freedHandleIndex = NO_FREED_HANDLE_INDEX;
+
     public ObjectHandlesImpl() {
         this(WordFactory.signed(1), WordFactory.signed(Long.MAX_VALUE), WordFactory.signed(0));
     }
@@ -159,6 +167,20 @@ public final class ObjectHandlesImpl implements ObjectHandles {
         if (obj == null) {
             return (ObjectHandle) nullHandle;
         }
+        long freedIndex = freedHandleIndex;
+        if (freedIndex != NO_FREED_HANDLE_INDEX) {
+            /*
+             * Reuse the slot freed by destroy() without moving the search index, so that subsequent
+             * searches resume where they left off instead of scanning the live handles again.
+             */
+            freedHandleIndex = NO_FREED_HANDLE_INDEX;
+            int bucketIndex = getBucketIndex(freedIndex);
+            int indexInBucket = getIndexInBucket(freedIndex);
+            Object[] bucket = getBucket(bucketIndex);
+            if (bucket[indexInBucket] == null && UNSAFE.compareAndSwapObject(bucket, getObjectArrayByteOffset(indexInBucket), null, obj)) {
+                return toHandle(bucketIndex, indexInBucket);
+            }
+        }
         outer: for (;;) {
             long startIndex = unusedHandleSearchIndex;
             int startBucketIndex = getBucketIndex(startIndex);
@@ -269,6 +291,15 @@ public final class ObjectHandlesImpl implements ObjectHandles {
         }
         int indexInBucket = getIndexInBucket(index);
         UNSAFE.putOrderedObject(bucket, getObjectArrayByteOffset(indexInBucket), null);
+        /*
+         * Let the next create() reuse the freed element. Otherwise, with many live handles, creating
+         * a handle after destroying one below the search index can require scanning all buckets
+         * until the search wraps around. Elements at or after the search index are found by the
+         * search anyway, and of several freed elements, the lowest keeps the handles compact.
+         */
+        if (index < unusedHandleSearchIndex && index < freedHandleIndex) {
+            freedHandleIndex = index;
+        }
     }
 
     public void destroyWeak(ObjectHandle handle) {
@@ -24,6 +24,8 @@
  */
 package com.oracle.svm.core.handles;
 
+import java.util.Arrays;
+
 import org.graalvm.nativeimage.ObjectHandle;
 import org.graalvm.word.SignedWord;
 import org.graalvm.word.WordFactory;
@@ -53,11 +55,20 @@ public final class ThreadLocalHandles<T extends ObjectHandle> {
     private Object[] objects;
     private int top = MIN_VALUE;
 
-    private int[] frameStack = new int[INITIAL_NUMBER_OF_FRAMES];
+    private int[] frameStack;
     private int frameCount = 0;
 
     public ThreadLocalHandles(int initialNumberOfHandles) {
+        this(initialNumberOfHandles, INITIAL_NUMBER_OF_FRAMES);
+    }
+
+    /**
+     * Creates handles with preallocated space, so that typical nesting depths of frames and numbers
+     * of handles do not require growing the arrays.
+     */
+    public ThreadLocalHandles(int initialNumberOfHandles, int initialNumberOfFrames) {
         objects = new Object[MIN_VALUE + initialNumberOfHandles];
+        frameStack = new int[initialNumberOfFrames];
     }
 
     @Uninterruptible(reason = "Called from uninterruptible code.", mayBeInlined = true)
@@ -115,16 +126,13 @@ public final class ThreadLocalHandles<T extends ObjectHandle> {
         int previousTop = top;
         frameCount = frame - 1;
         top = frameStack[frameCount];
-        for (int i = top; i < previousTop; i++) {
-            objects[i] = null; // so objects can be garbage collected
-        }
+        Arrays.fill(objects, top, previousTop, null); // so objects can be garbage collected
     }
 
     public void ensureCapacity(int capacity) {
         if (top + capacity >= objects.length) {
             Object[] oldArray = objects;
-            int newLength = oldArray.length * 2;
-            assert newLength >= top + capacity;
+            int newLength = Math.max(oldArray.length * 2, top + capacity + 1);
             objects = new Object[newLength];
             System.arraycopy(oldArray, 0, objects, 0, oldArray.length);
         }
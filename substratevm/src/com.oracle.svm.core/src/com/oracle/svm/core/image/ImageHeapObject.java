@@ -40,4 +40,11 @@ public interface ImageHeapObject {
     void setOffsetInPartition(long size);
 
     long getOffsetInPartition();
+
+    /**
+     * Returns true if the static analysis found that a field of this object is written at run
+     * time. Objects that are in a writable partition but for which this method returns false (for
+     * example arrays) are writable only because the image builder cannot prove otherwise.
+     */
+    boolean isKnownWritten();
 }
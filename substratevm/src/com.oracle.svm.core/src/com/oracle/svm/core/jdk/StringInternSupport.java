@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2017, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -24,60 +24,216 @@
  */
 package com.oracle.svm.core.jdk;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.graalvm.nativeimage.Platform;
 import org.graalvm.nativeimage.Platforms;
 
 import com.oracle.svm.core.annotate.UnknownObjectField;
+import com.oracle.svm.core.util.VMError;
 
 public final class StringInternSupport {
 
-    /** The String intern table at run time. */
-    private final ConcurrentHashMap<String, String> internedStrings;
+    /**
+     * Number of independent maps that hold the strings interned at run time. Must be a power of 2.
+     */
+    private static final int RUNTIME_STRIPES = 16;
+
+    /**
+     * The String intern table at run time, split into {@link #RUNTIME_STRIPES} independent maps
+     * selected by the hash code of the string. Only strings that are not already in the image heap
+     * table end up here, so the stripes start out empty and resize independently of each other.
+     */
+    private final ConcurrentHashMap<String, String>[] internedStrings;
 
     /**
      * The native image contains a lot of interned strings. All Java String literals, and all class
      * names, are interned per Java specification. We don't want the memory overhead of an hash
-     * table entry, so we store them (sorted) in this String[] array. When a string is interned at
-     * run time, it is added to the real hash map, so we pay the (logarithmic) cost of the array
-     * access only once per string.
+     * table entry, and we don't want to copy them into a map at run time, so we store them in a
+     * read-only perfect hash table that is built at image generation time. A lookup computes the
+     * bucket of the string, reads the seed of the bucket from {@link #imageInternedStringsSeeds},
+     * and then needs to compare against a single slot of this array. The lookup is lock free and
+     * does not allocate.
+     *
+     * The perfect hash function is computed from {@link String#hashCode()}, so strings that have the
+     * same hash code as a string in the table cannot get their own slot. They are stored in the
+     * sorted {@link #imageInternedStringsOverflow} array instead.
      *
-     * The field is set late during image generation, so the value is not available during static
-     * analysis and compilation.
+     * The fields are set late during image generation, so the values are not available during
+     * static analysis and compilation.
      */
     @UnknownObjectField(types = {String[].class}) private String[] imageInternedStrings;
+    @UnknownObjectField(types = {int[].class}) private int[] imageInternedStringsSeeds;
+    @UnknownObjectField(types = {String[].class}) private String[] imageInternedStringsOverflow;
 
     @Platforms(Platform.HOSTED_ONLY.class)
+    @SuppressWarnings("unchecked")
     public StringInternSupport() {
-        this.internedStrings = new ConcurrentHashMap<>(16, 0.75f, 1);
+        this.internedStrings = new ConcurrentHashMap[RUNTIME_STRIPES];
+        for (int i = 0; i < RUNTIME_STRIPES; i++) {
+            this.internedStrings[i] = new ConcurrentHashMap<>();
+        }
     }
 
+    /**
+     * Builds the image heap intern table from the given strings, which must be distinct. The
+     * iteration order of the strings determines the layout of the table, so callers should provide
+     * a sorted array to get deterministic images.
+     */
     @Platforms(Platform.HOSTED_ONLY.class)
     public void setImageInternedStrings(String[] newImageInternedStrings) {
-        this.imageInternedStrings = newImageInternedStrings;
+        Map<Integer, String> byHash = new HashMap<>();
+        List<String> unique = new ArrayList<>();
+        List<String> overflow = new ArrayList<>();
+        for (String str : newImageInternedStrings) {
+            if (byHash.putIfAbsent(str.hashCode(), str) == null) {
+                unique.add(str);
+            } else {
+                overflow.add(str);
+            }
+        }
+
+        int numBuckets = Integer.highestOneBit(Math.max(unique.size() / 4, 1));
+        int numSlots = roundUpToPowerOf2(unique.size() + unique.size() / 4);
+        while (!buildPerfectHashTable(unique, numBuckets, numSlots)) {
+            numSlots <<= 1;
+        }
+
+        String[] sortedOverflow = overflow.toArray(new String[0]);
+        Arrays.sort(sortedOverflow);
+        this.imageInternedStringsOverflow = sortedOverflow;
+    }
+
+    /** Maximum number of seeds tried for a single bucket before the table is made larger. */
+    private static final int MAX_SEED_ATTEMPTS = 1 << 16;
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    private boolean buildPerfectHashTable(List<String> strings, int numBuckets, int numSlots) {
+        List<List<String>> buckets = new ArrayList<>(numBuckets);
+        for (int i = 0; i < numBuckets; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (String str : strings) {
+            buckets.get(bucketIndex(str.hashCode(), numBuckets - 1)).add(str);
+        }
+        Integer[] order = new Integer[numBuckets];
+        for (int i = 0; i < numBuckets; i++) {
+            order[i] = i;
+        }
+        /* Place the largest buckets first, while the table is still mostly empty. */
+        Arrays.sort(order, (a, b) -> Integer.compare(buckets.get(b).size(), buckets.get(a).size()));
+
+        String[] slots = new String[numSlots];
+        int[] seeds = new int[numBuckets];
+        int[] positions = new int[strings.size()];
+        for (int bucketIdx : order) {
+            List<String> bucket = buckets.get(bucketIdx);
+            if (bucket.isEmpty()) {
+                break;
+            }
+            boolean placed = false;
+            for (int seed = 1; seed <= MAX_SEED_ATTEMPTS && !placed; seed++) {
+                placed = true;
+                for (int i = 0; i < bucket.size() && placed; i++) {
+                    int pos = slotIndex(bucket.get(i).hashCode(), seed, numSlots - 1);
+                    positions[i] = pos;
+                    if (slots[pos] != null) {
+                        placed = false;
+                    }
+                    for (int j = 0; j < i && placed; j++) {
+                        if (positions[j] == pos) {
+                            placed = false;
+                        }
+                    }
+                }
+                if (placed) {
+                    for (int i = 0; i < bucket.size(); i++) {
+                        slots[positions[i]] = bucket.get(i);
+                    }
+                    seeds[bucketIdx] = seed;
+                }
+            }
+            if (!placed) {
+                return false;
+            }
+        }
+
+        this.imageInternedStrings = slots;
+        this.imageInternedStringsSeeds = seeds;
+        return true;
+    }
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    private static int roundUpToPowerOf2(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * Returns the arrays that make up the image heap intern table. They must be added to the image
+     * heap after {@link #setImageInternedStrings} has been called.
+     */
+    @Platforms(Platform.HOSTED_ONLY.class)
+    public Object[] getImageInternedStringsTables() {
+        VMError.guarantee(imageInternedStrings != null, "Image intern table not built yet");
+        return new Object[]{imageInternedStrings, imageInternedStringsSeeds, imageInternedStringsOverflow};
     }
 
     protected String intern(String str) {
-        String result = internedStrings.get(str);
+        String result = lookupImageInternedString(str);
         if (result != null) {
             return result;
-        } else {
-            return doIntern(str);
         }
+        ConcurrentHashMap<String, String> stripe = internedStrings[(mix(str.hashCode()) >>> 16) & (RUNTIME_STRIPES - 1)];
+        result = stripe.get(str);
+        if (result != null) {
+            return result;
+        }
+        String oldValue = stripe.putIfAbsent(str, str);
+        return oldValue != null ? oldValue : str;
     }
 
-    private String doIntern(String str) {
-        String result = str;
-        int imageIdx = Arrays.binarySearch(imageInternedStrings, str);
-        if (imageIdx >= 0) {
-            result = imageInternedStrings[imageIdx];
+    private String lookupImageInternedString(String str) {
+        int hash = str.hashCode();
+        int seed = imageInternedStringsSeeds[bucketIndex(hash, imageInternedStringsSeeds.length - 1)];
+        String candidate = imageInternedStrings[slotIndex(hash, seed, imageInternedStrings.length - 1)];
+        if (candidate == null || candidate.hashCode() != hash) {
+            /*
+             * The slot is owned by the only image string with this hash code, if there is one, so
+             * no other image string can be equal.
+             */
+            return null;
+        } else if (candidate.equals(str)) {
+            return candidate;
+        } else if (imageInternedStringsOverflow.length > 0) {
+            int overflowIdx = Arrays.binarySearch(imageInternedStringsOverflow, str);
+            if (overflowIdx >= 0) {
+                return imageInternedStringsOverflow[overflowIdx];
+            }
         }
-        String oldValue = internedStrings.putIfAbsent(result, result);
-        if (oldValue != null) {
-            result = oldValue;
-        }
-        return result;
+        return null;
+    }
+
+    private static int bucketIndex(int hash, int bucketMask) {
+        return mix(hash) & bucketMask;
+    }
+
+    private static int slotIndex(int hash, int seed, int slotMask) {
+        return mix(hash + seed * 0x9E3779B9) & slotMask;
+    }
+
+    /** The finalization step of MurmurHash3, which spreads all input bits over the result. */
+    private static int mix(int value) {
+        int h = value;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
     }
 }
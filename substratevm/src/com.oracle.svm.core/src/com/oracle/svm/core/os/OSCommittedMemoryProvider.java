@@ -185,12 +185,12 @@ public class OSCommittedMemoryProvider extends AbstractCommittedMemoryProvider {
         return success;
     }
 
-    private void trackVirtualMemory(UnsignedWord size) {
+    protected void trackVirtualMemory(UnsignedWord size) {
         tracker.track(size);
     }
 
     @Uninterruptible(reason = "Called from uninterruptible code.", mayBeInlined = true)
-    private void untrackVirtualMemory(UnsignedWord size) {
+    protected void untrackVirtualMemory(UnsignedWord size) {
         tracker.untrack(size);
     }
 
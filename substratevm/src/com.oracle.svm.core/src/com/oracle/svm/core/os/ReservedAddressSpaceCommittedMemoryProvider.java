@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.os;
+
+import org.graalvm.compiler.api.replacements.Fold;
+import org.graalvm.compiler.options.Option;
+import org.graalvm.nativeimage.CurrentIsolate;
+import org.graalvm.nativeimage.ImageSingletons;
+import org.graalvm.nativeimage.Platform;
+import org.graalvm.nativeimage.Platforms;
+import org.graalvm.nativeimage.c.type.WordPointer;
+import org.graalvm.nativeimage.hosted.Feature;
+import org.graalvm.word.Pointer;
+import org.graalvm.word.PointerBase;
+import org.graalvm.word.UnsignedWord;
+import org.graalvm.word.WordFactory;
+
+import com.oracle.svm.core.Isolates;
+import com.oracle.svm.core.SubstrateOptions;
+import com.oracle.svm.core.annotate.AutomaticFeature;
+import com.oracle.svm.core.annotate.Uninterruptible;
+import com.oracle.svm.core.c.function.CEntryPointCreateIsolateParameters;
+import com.oracle.svm.core.c.function.CEntryPointErrors;
+import com.oracle.svm.core.heap.Heap;
+import com.oracle.svm.core.jdk.UninterruptibleUtils;
+import com.oracle.svm.core.locks.VMMutex;
+import com.oracle.svm.core.option.HostedOptionKey;
+import com.oracle.svm.core.snippets.KnownIntrinsics;
+import com.oracle.svm.core.util.PointerUtils;
+import com.oracle.svm.core.util.UnsignedUtils;
+import com.oracle.svm.core.util.UserError;
+import com.oracle.svm.core.util.VMError;
+
+@AutomaticFeature
+class ReservedAddressSpaceCommittedMemoryProviderFeature implements Feature {
+    @Override
+    public boolean isInConfiguration(IsInConfigurationAccess access) {
+        return SubstrateOptions.SpawnIsolates.getValue() && ReservedAddressSpaceCommittedMemoryProvider.Options.ReservedAddressSpaceSize.getValue() > 0;
+    }
+
+    @Override
+    public void afterRegistration(AfterRegistrationAccess access) {
+        long size = ReservedAddressSpaceCommittedMemoryProvider.Options.ReservedAddressSpaceSize.getValue();
+        UserError.guarantee(size <= ReservedAddressSpaceCommittedMemoryProvider.MAX_RESERVED_SIZE, "The reserved address space of %d bytes exceeds the maximum of %d bytes.",
+                        size, ReservedAddressSpaceCommittedMemoryProvider.MAX_RESERVED_SIZE);
+        ImageSingletons.add(CommittedMemoryProvider.class, new ReservedAddressSpaceCommittedMemoryProvider());
+    }
+}
+
+/**
+ * Reserves one contiguous block of address space per isolate and places the image heap at its
+ * start and all chunks of the Java heap after it. Every object of the isolate is therefore at an
+ * offset below the reserved size from the heap base, which is the precondition for encoding
+ * references as 32-bit values relative to the heap base (up to 32 GB with an object alignment of 8
+ * bytes).
+ *
+ * Memory is committed on allocation and uncommitted on free, so the reservation costs only address
+ * space. Which pages of the reservation are allocated is tracked in a bitmap with one bit per page,
+ * which is placed at the end of the reservation and so grows with it. Freed pages are therefore
+ * never lost, and an allocation fails only when the reservation has no free range that is large
+ * enough. Executable memory is not part of the Java heap and is always allocated outside of the
+ * reservation.
+ *
+ * This provider only establishes the address-space layout: references and hubs keep their size of
+ * 64 bits, because the object layout, the reference maps, the write barriers and the code
+ * generator all assume references of the word size. Shrinking them is a separate step that builds
+ * on the guarantee that this provider gives.
+ */
+public class ReservedAddressSpaceCommittedMemoryProvider extends OSCommittedMemoryProvider {
+
+    public static class Options {
+        @Option(help = "Size in bytes of the contiguous address space that is reserved for the image heap and the Java heap of each isolate (0: no reservation). " +
+                        "The Java heap cannot grow beyond the reservation.")//
+        public static final HostedOptionKey<Long> ReservedAddressSpaceSize = new HostedOptionKey<>(0L);
+    }
+
+    /** The largest heap that 32-bit references shifted by the object alignment of 8 can address. */
+    static final long MAX_RESERVED_SIZE = 32L * 1024L * 1024L * 1024L;
+
+    /** Index of the first page after the image heap, or 0 before the first allocation. */
+    private long firstPage;
+    /**
+     * Index of the lowest page that can be free: all pages from {@link #firstPage} below it are
+     * allocated.
+     */
+    private long lowestFreePage;
+    private final VMMutex lock = new VMMutex();
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    public ReservedAddressSpaceCommittedMemoryProvider() {
+    }
+
+    @Fold
+    public static UnsignedWord getReservedSize() {
+        return WordFactory.unsigned(Options.ReservedAddressSpaceSize.getValue());
+    }
+
+    /** Returns the size of the bitmap at the end of the reservation, which is a multiple of pages. */
+    @Uninterruptible(reason = "Called from uninterruptible code.", mayBeInlined = true)
+    private static UnsignedWord getBitmapSize() {
+        UnsignedWord pageSize = VirtualMemoryProvider.get().getGranularity();
+        UnsignedWord pages = getReservedSize().unsignedDivide(pageSize);
+        return UnsignedUtils.roundUp(pages.add(Byte.SIZE - 1).unsignedDivide(Byte.SIZE), pageSize);
+    }
+
+    @Uninterruptible(reason = "Called from uninterruptible code.", mayBeInlined = true)
+    private static Pointer getBitmap(Pointer heapBase) {
+        return heapBase.add(getReservedSize()).subtract(getBitmapSize());
+    }
+
+    /** Returns the index of the first page after the pages that allocations can use. */
+    @Uninterruptible(reason = "Called from uninterruptible code.", mayBeInlined = true)
+    private static long getEndPage() {
+        return getReservedSize().subtract(getBitmapSize()).unsignedDivide(VirtualMemoryProvider.get().getGranularity()).rawValue();
+    }
+
+    @Override
+    @Uninterruptible(reason = "Still being initialized.")
+    public int initialize(WordPointer isolatePointer, CEntryPointCreateIsolateParameters parameters) {
+        Pointer reserved = VirtualMemoryProvider.get().reserve(getReservedSize());
+        if (reserved.isNull()) {
+            return CEntryPointErrors.RESERVE_ADDRESS_SPACE_FAILED;
+        }
+        /* Committed memory is zeroed, so all pages start out as free. */
+        Pointer bitmap = getBitmap(reserved);
+        if (VirtualMemoryProvider.get().commit(bitmap, getBitmapSize(), VirtualMemoryProvider.Access.READ | VirtualMemoryProvider.Access.WRITE).isNull()) {
+            VirtualMemoryProvider.get().free(reserved, getReservedSize());
+            return CEntryPointErrors.RESERVE_ADDRESS_SPACE_FAILED;
+        }
+        int result = ImageHeapProvider.get().initialize(reserved, bitmap.subtract(reserved), isolatePointer, WordFactory.nullPointer());
+        if (result != CEntryPointErrors.NO_ERROR) {
+            VirtualMemoryProvider.get().free(reserved, getReservedSize());
+        }
+        return result;
+    }
+
+    @Override
+    @Uninterruptible(reason = "Tear-down in progress.")
+    public int tearDown() {
+        PointerBase heapBase = Isolates.getHeapBase(CurrentIsolate.getIsolate());
+        if (VirtualMemoryProvider.get().free(heapBase, getReservedSize()) != 0) {
+            return CEntryPointErrors.UNSPECIFIED;
+        }
+        return CEntryPointErrors.NO_ERROR;
+    }
+
+    @Override
+    public Pointer allocate(UnsignedWord size, UnsignedWord alignment, boolean executable) {
+        if (executable) {
+            return super.allocate(size, alignment, executable);
+        }
+        UnsignedWord pageSize = getGranularity();
+        UnsignedWord pagedSize = UnsignedUtils.roundUp(size, pageSize);
+        UnsignedWord pagedAlignment = alignment.equal(UNALIGNED) ? pageSize : alignment;
+
+        Pointer start = reserveRange(pagedSize, pagedAlignment);
+        if (start.isNull()) {
+            return WordFactory.nullPointer();
+        }
+        int access = VirtualMemoryProvider.Access.READ | VirtualMemoryProvider.Access.WRITE;
+        if (VirtualMemoryProvider.get().commit(start, pagedSize, access).isNull()) {
+            releaseRange(start, pagedSize);
+            return WordFactory.nullPointer();
+        }
+        trackVirtualMemory(pagedSize);
+        return start;
+    }
+
+    @Override
+    @Uninterruptible(reason = "Called from uninterruptible code.", mayBeInlined = true)
+    public boolean free(PointerBase start, UnsignedWord nbytes, UnsignedWord alignment, boolean executable) {
+        if (!isInReservation((Pointer) start)) {
+            return super.free(start, nbytes, alignment, executable);
+        }
+        UnsignedWord pageSize = getGranularity();
+        Pointer pagedStart = PointerUtils.roundDown(start, pageSize);
+        UnsignedWord pagedSize = PointerUtils.roundUp(((Pointer) start).add(nbytes), pageSize).subtract(pagedStart);
+        if (VirtualMemoryProvider.get().uncommit(pagedStart, pagedSize) != 0) {
+            return false;
+        }
+        untrackVirtualMemory(pagedSize);
+        releaseRange(pagedStart, pagedSize);
+        return true;
+    }
+
+    @Uninterruptible(reason = "Called from uninterruptible code.", mayBeInlined = true)
+    private static boolean isInReservation(Pointer address) {
+        Pointer heapBase = KnownIntrinsics.heapBase();
+        return address.aboveOrEqual(heapBase) && address.belowThan(heapBase.add(getReservedSize()));
+    }
+
+    /**
+     * Finds and marks a range of free pages of the given size and alignment, at the lowest address
+     * possible. Returns null if the reservation has no such range.
+     */
+    @Uninterruptible(reason = "Holds the lock that is also acquired in uninterruptible code.")
+    private Pointer reserveRange(UnsignedWord size, UnsignedWord alignment) {
+        lock.lockNoTransition();
+        try {
+            Pointer heapBase = KnownIntrinsics.heapBase();
+            UnsignedWord pageSize = getGranularity();
+            if (firstPage == 0) {
+                UnsignedWord imageHeapSize = Isolates.IMAGE_HEAP_END.get().subtract(Isolates.IMAGE_HEAP_BEGIN.get());
+                UnsignedWord imageHeapEnd = WordFactory.unsigned(Heap.getHeap().getImageHeapOffsetInAddressSpace()).add(imageHeapSize);
+                firstPage = UnsignedUtils.roundUp(imageHeapEnd, pageSize).unsignedDivide(pageSize).rawValue();
+                lowestFreePage = firstPage;
+            }
+            Pointer bitmap = getBitmap(heapBase);
+            long pageCount = size.unsignedDivide(pageSize).rawValue();
+            long endPage = getEndPage();
+            long page = lowestFreePage;
+            while (true) {
+                Pointer start = PointerUtils.roundUp(heapBase.add(WordFactory.unsigned(page).multiply(pageSize)), alignment);
+                page = start.subtract(heapBase).unsignedDivide(pageSize).rawValue();
+                if (page + pageCount > endPage) {
+                    return WordFactory.nullPointer();
+                }
+                long allocated = findLastAllocatedPage(bitmap, page, page + pageCount);
+                if (allocated < 0) {
+                    setPages(bitmap, page, page + pageCount, true);
+                    if (page == lowestFreePage) {
+                        lowestFreePage = page + pageCount;
+                    }
+                    return start;
+                }
+                page = allocated + 1;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Makes a range available for later allocations. */
+    @Uninterruptible(reason = "Holds the lock that is also acquired in uninterruptible code.")
+    private void releaseRange(Pointer start, UnsignedWord size) {
+        lock.lockNoTransition();
+        try {
+            Pointer heapBase = KnownIntrinsics.heapBase();
+            UnsignedWord pageSize = getGranularity();
+            long page = start.subtract(heapBase).unsignedDivide(pageSize).rawValue();
+            long pageCount = size.unsignedDivide(pageSize).rawValue();
+            setPages(getBitmap(heapBase), page, page + pageCount, false);
+            if (page < lowestFreePage) {
+                lowestFreePage = page;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Returns the index of the last allocated page in [begin, end), or -1 if all are free. */
+    @Uninterruptible(reason = "Called with the lock held.", callerMustBe = true)
+    private static long findLastAllocatedPage(Pointer bitmap, long begin, long end) {
+        long page = end;
+        while (page > begin) {
+            long wordIndex = (page - 1) / Long.SIZE;
+            long word = bitmap.readLong(WordFactory.unsigned(wordIndex).multiply(Long.BYTES));
+            long wordBegin = wordIndex * Long.SIZE;
+            long low = UninterruptibleUtils.Math.max(begin, wordBegin);
+            /* Only consider the bits of pages in [low, page). */
+            long mask = -1L >>> (Long.SIZE - (page - low));
+            long bits = (word >>> (low - wordBegin)) & mask;
+            if (bits != 0) {
+                return low + (Long.SIZE - 1 - UninterruptibleUtils.Long.numberOfLeadingZeros(bits));
+            }
+            page = low;
+        }
+        return -1;
+    }
+
+    @Uninterruptible(reason = "Called with the lock held.", callerMustBe = true)
+    private static void setPages(Pointer bitmap, long begin, long end, boolean allocated) {
+        for (long page = begin; page < end; page++) {
+            UnsignedWord offset = WordFactory.unsigned(page / Long.SIZE).multiply(Long.BYTES);
+            long bit = 1L << (page % Long.SIZE);
+            long word = bitmap.readLong(offset);
+            VMError.guarantee(((word & bit) != 0) != allocated, "Pages must be allocated and freed only once");
+            bitmap.writeLong(offset, allocated ? (word | bit) : (word & ~bit));
+        }
+    }
+}
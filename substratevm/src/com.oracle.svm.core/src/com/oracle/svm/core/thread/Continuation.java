@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.thread;
+
+import java.util.Arrays;
+
+import org.graalvm.compiler.api.replacements.Fold;
+import org.graalvm.compiler.options.Option;
+import org.graalvm.compiler.word.Word;
+import org.graalvm.nativeimage.StackValue;
+import org.graalvm.nativeimage.c.function.CodePointer;
+import org.graalvm.nativeimage.c.type.CCharPointer;
+import org.graalvm.word.Pointer;
+import org.graalvm.word.WordFactory;
+
+import com.oracle.svm.core.FrameAccess;
+import com.oracle.svm.core.MemoryUtil;
+import com.oracle.svm.core.annotate.NeverInline;
+import com.oracle.svm.core.annotate.Uninterruptible;
+import com.oracle.svm.core.code.CodeInfo;
+import com.oracle.svm.core.code.CodeInfoAccess;
+import com.oracle.svm.core.code.CodeInfoQueryResult;
+import com.oracle.svm.core.code.CodeInfoTable;
+import com.oracle.svm.core.code.SimpleCodeInfoQueryResult;
+import com.oracle.svm.core.config.ConfigurationValues;
+import com.oracle.svm.core.heap.ObjectReferenceVisitor;
+import com.oracle.svm.core.heap.ReferenceAccess;
+import com.oracle.svm.core.option.HostedOptionKey;
+import com.oracle.svm.core.snippets.KnownIntrinsics;
+import com.oracle.svm.core.threadlocal.FastThreadLocalFactory;
+import com.oracle.svm.core.threadlocal.FastThreadLocalObject;
+
+import jdk.vm.ci.meta.JavaKind;
+
+/**
+ * A one-shot delimited continuation: {@link #run()} executes the task on the current thread until
+ * the task either completes or calls {@link #yield()}. On a yield, the stack frames between
+ * {@link #yield()} and {@link #run()} are copied into the heap and removed from the stack, and
+ * {@link #run()} returns. A later {@link #run()}, possibly on a different thread, copies the frames
+ * back to the stack and continues the task after the {@link #yield()}.
+ *
+ * The object references of the stored frames are kept in a regular {@code Object[]}, so the garbage
+ * collector does not need to know about stored continuations. When the frames are copied back, the
+ * references are written to the new stack location.
+ *
+ * Stored frames are copied byte-by-byte and therefore must not contain pointers into the stack.
+ * This results in the following restrictions, which are checked when possible:
+ * <ul>
+ * <li>Only frames of ahead-of-time compiled code can be yielded, i.e., neither runtime-compiled
+ * nor deoptimized frames, and no entry points or native frames.</li>
+ * <li>No {@link StackValue stack-allocated} memory or pinned object can be live across a
+ * {@link #yield()}.</li>
+ * <li>No monitor can be held across a {@link #yield()}: monitors are owned by the carrier thread
+ * and not by the continuation.</li>
+ * <li>Continuations are not supported together with
+ * {@link com.oracle.svm.core.SubstrateOptions#PreserveFramePointer}, because saved frame pointers
+ * point into the stack.</li>
+ * </ul>
+ */
+public final class Continuation {
+
+    public static class Options {
+        @Option(help = "Support continuations and lightweight threads (experimental).")//
+        public static final HostedOptionKey<Boolean> SupportContinuations = new HostedOptionKey<>(false);
+    }
+
+    @Fold
+    public static boolean isSupported() {
+        return Options.SupportContinuations.getValue();
+    }
+
+    private static final FastThreadLocalObject<Continuation> currentContinuation = FastThreadLocalFactory.createObject(Continuation.class);
+
+    /** Size of the stack memory reserved by each recursive call when restoring frames. */
+    private static final int RESERVE_CHUNK_SIZE = 512;
+
+    private static final int BYTE_ARRAY_BASE_OFFSET = ConfigurationValues.getObjectLayout().getArrayBaseOffset(JavaKind.Byte);
+
+    private final Runnable task;
+
+    /** Stack pointer and return address of the frame that called {@link #enter0} or {@link #resume0}. */
+    private long baseSP;
+    private long baseIP;
+
+    private StoredFrames stored;
+    private boolean running;
+    private boolean done;
+
+    public Continuation(Runnable task) {
+        this.task = task;
+    }
+
+    /** Returns the continuation that is currently running on this thread, or {@code null}. */
+    public static Continuation current() {
+        return currentContinuation.get();
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Runs the task until it completes or calls {@link #yield()}. Exceptions thrown by the task are
+     * propagated to the caller, and the continuation is done afterwards.
+     *
+     * @return {@code true} if the task is done, {@code false} if it yielded.
+     */
+    public boolean run() {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Continuations are not supported. Enable with -H:+" + Options.SupportContinuations.getName());
+        }
+        if (done) {
+            throw new IllegalStateException("Continuation is already done");
+        }
+        if (running) {
+            throw new IllegalStateException("Continuation is already running");
+        }
+        Continuation outer = currentContinuation.get();
+        currentContinuation.set(this);
+        running = true;
+        try {
+            if (stored == null) {
+                enter0(this);
+            } else {
+                resume0(this);
+            }
+        } finally {
+            running = false;
+            currentContinuation.set(outer);
+        }
+        return done;
+    }
+
+    /**
+     * Suspends the continuation that is currently running on this thread. Execution continues when
+     * {@link #run()} is called the next time.
+     *
+     * @throws IllegalStateException if no continuation is running or if the frames of the
+     *             continuation cannot be stored.
+     */
+    public static void yield() {
+        Continuation cont = currentContinuation.get();
+        if (cont == null) {
+            throw new IllegalStateException("No continuation is running on the current thread");
+        }
+        yield0(cont);
+    }
+
+    @NeverInline("Accesses the caller stack pointer and return address.")
+    private static void enter0(Continuation cont) {
+        cont.baseSP = KnownIntrinsics.readCallerStackPointer().rawValue();
+        cont.baseIP = KnownIntrinsics.readReturnAddress().rawValue();
+        try {
+            cont.task.run();
+        } finally {
+            cont.done = true;
+        }
+    }
+
+    @NeverInline("Accesses the caller stack pointer and return address.")
+    private static void yield0(Continuation cont) {
+        Pointer sp = KnownIntrinsics.readCallerStackPointer();
+        CodePointer ip = KnownIntrinsics.readReturnAddress();
+        Pointer baseSP = WordFactory.pointer(cont.baseSP);
+
+        FrameReferenceCollector collector = new FrameReferenceCollector(sp);
+        collectFrames(sp, ip, baseSP, collector);
+
+        StoredFrames frames = collector.toStoredFrames(new byte[(int) baseSP.subtract(sp).rawValue()], ip);
+        cont.stored = frames;
+        saveFramesAndReturn(frames.data, sp, baseSP, WordFactory.pointer(cont.baseIP));
+    }
+
+    /**
+     * Walks the frames from {@code sp} up to {@code baseSP} and collects their object references.
+     * Only image code is expected between the two, so the walk does not need to be uninterruptible:
+     * image code is never deoptimized or freed.
+     */
+    private static void collectFrames(Pointer startSP, CodePointer startIP, Pointer baseSP, FrameReferenceCollector collector) {
+        CodeInfo imageCodeInfo = CodeInfoTable.getImageCodeInfo();
+        SimpleCodeInfoQueryResult queryResult = StackValue.get(SimpleCodeInfoQueryResult.class);
+
+        Pointer sp = startSP;
+        CodePointer ip = startIP;
+        while (sp.belowThan(baseSP)) {
+            if (!CodeInfoAccess.contains(imageCodeInfo, ip)) {
+                throw new IllegalStateException("Cannot yield a continuation with frames of runtime-compiled or native code");
+            }
+            CodeInfoAccess.lookupCodeInfo(imageCodeInfo, CodeInfoAccess.relativeIP(imageCodeInfo, ip), queryResult);
+            long encodedFrameSize = queryResult.getEncodedFrameSize();
+            if (CodeInfoQueryResult.isEntryPoint(encodedFrameSize) || CodeInfoQueryResult.hasCalleeSavedRegisters(encodedFrameSize)) {
+                throw new IllegalStateException("Cannot yield a continuation with frames of entry points or methods with callee-saved registers");
+            }
+            CodeInfoTable.visitObjectReferences(sp, ip, imageCodeInfo, null, collector);
+
+            sp = sp.add(WordFactory.unsigned(CodeInfoQueryResult.getTotalFrameSize(encodedFrameSize)));
+            ip = FrameAccess.singleton().readReturnAddress(sp);
+        }
+        if (sp.notEqual(baseSP)) {
+            throw new IllegalStateException("Stack walk of continuation did not reach its base frame");
+        }
+    }
+
+    @Uninterruptible(reason = "Copies stack memory into a movable array, and the frames are removed from the stack.")
+    private static void saveFramesAndReturn(byte[] data, Pointer sp, Pointer baseSP, CodePointer baseIP) {
+        Pointer dest = Word.objectToUntrackedPointer(data).add(BYTE_ARRAY_BASE_OFFSET);
+        MemoryUtil.copyConjointMemoryAtomic(sp, dest, WordFactory.unsigned(data.length));
+        KnownIntrinsics.farReturn(null, baseSP, baseIP, false);
+    }
+
+    @NeverInline("Accesses the caller stack pointer and return address.")
+    private static void resume0(Continuation cont) {
+        Pointer callerSP = KnownIntrinsics.readCallerStackPointer();
+        CodePointer callerIP = KnownIntrinsics.readReturnAddress();
+        StoredFrames frames = cont.stored;
+        cont.stored = null;
+        cont.baseSP = callerSP.rawValue();
+        cont.baseIP = callerIP.rawValue();
+
+        Pointer targetSP = callerSP.subtract(frames.data.length);
+        reserveStackAndRestore(frames, targetSP, callerSP, callerIP);
+    }
+
+    /**
+     * Recursively grows the stack until the current frame is below {@code targetSP}, so that the
+     * stored frames can be copied to {@code [targetSP, callerSP)} without overwriting a live frame.
+     * The regular stack overflow checks of the recursive calls ensure that there is enough space.
+     */
+    @NeverInline("Reserves stack memory.")
+    private static void reserveStackAndRestore(StoredFrames frames, Pointer targetSP, Pointer callerSP, CodePointer callerIP) {
+        CCharPointer reserved = StackValue.get(RESERVE_CHUNK_SIZE);
+        reserved.write(0, (byte) 0);
+        if (KnownIntrinsics.readStackPointer().aboveThan(targetSP)) {
+            reserveStackAndRestore(frames, targetSP, callerSP, callerIP);
+        } else {
+            restoreFramesAndJump(frames, targetSP, callerSP, callerIP);
+        }
+    }
+
+    @Uninterruptible(reason = "Stack frames are restored while their references are not visible to the GC.")
+    private static void restoreFramesAndJump(StoredFrames frames, Pointer targetSP, Pointer callerSP, CodePointer callerIP) {
+        Pointer src = Word.objectToUntrackedPointer(frames.data).add(BYTE_ARRAY_BASE_OFFSET);
+        MemoryUtil.copyConjointMemoryAtomic(src, targetSP, WordFactory.unsigned(frames.data.length));
+
+        for (int i = 0; i < frames.referenceOffsets.length; i++) {
+            Pointer slot = targetSP.add(frames.referenceOffsets[i]);
+            int innerOffset = frames.innerOffsets[i];
+            if (innerOffset == 0) {
+                ReferenceAccess.singleton().writeObjectAt(slot, frames.references[i], frames.compressed[i]);
+            } else {
+                slot.writeWord(0, Word.objectToUntrackedPointer(frames.references[i]).add(innerOffset));
+            }
+        }
+
+        /* The outermost stored frame now returns to the caller of resume0. */
+        callerSP.writeWord(-FrameAccess.returnAddressSize(), callerIP);
+        KnownIntrinsics.farReturn(null, targetSP, WordFactory.pointer(frames.ip), false);
+    }
+
+    /** The stack frames of a yielded continuation. */
+    private static final class StoredFrames {
+        final byte[] data;
+        final long ip;
+        final Object[] references;
+        final int[] referenceOffsets;
+        final int[] innerOffsets;
+        final boolean[] compressed;
+
+        StoredFrames(byte[] data, long ip, Object[] references, int[] referenceOffsets, int[] innerOffsets, boolean[] compressed) {
+            this.data = data;
+            this.ip = ip;
+            this.references = references;
+            this.referenceOffsets = referenceOffsets;
+            this.innerOffsets = innerOffsets;
+            this.compressed = compressed;
+        }
+    }
+
+    /**
+     * Collects the object references of the frames, relative to the stack pointer of the topmost
+     * stored frame. Derived references are stored as their base object and the offset into it.
+     */
+    private static final class FrameReferenceCollector implements ObjectReferenceVisitor {
+        private final Pointer startSP;
+        private Object[] references = new Object[16];
+        private int[] referenceOffsets = new int[16];
+        private int[] innerOffsets = new int[16];
+        private boolean[] compressed = new boolean[16];
+        private int count;
+
+        FrameReferenceCollector(Pointer startSP) {
+            this.startSP = startSP;
+        }
+
+        @Override
+        public boolean visitObjectReference(Pointer objRef, boolean isCompressed) {
+            return visitObjectReferenceInline(objRef, 0, isCompressed);
+        }
+
+        @Override
+        public boolean visitObjectReferenceInline(Pointer objRef, int innerOffset, boolean isCompressed) {
+            if (count == references.length) {
+                int newLength = count * 2;
+                references = Arrays.copyOf(references, newLength);
+                referenceOffsets = Arrays.copyOf(referenceOffsets, newLength);
+                innerOffsets = Arrays.copyOf(innerOffsets, newLength);
+                compressed = Arrays.copyOf(compressed, newLength);
+            }
+            Object value;
+            if (innerOffset == 0) {
+                value = ReferenceAccess.singleton().readObjectAt(objRef, isCompressed);
+            } else {
+                Pointer derived = objRef.readWord(0);
+                value = derived.subtract(innerOffset).toObject();
+            }
+            references[count] = value;
+            referenceOffsets[count] = (int) objRef.subtract(startSP).rawValue();
+            innerOffsets[count] = innerOffset;
+            compressed[count] = isCompressed;
+            count++;
+            return true;
+        }
+
+        StoredFrames toStoredFrames(byte[] data, CodePointer ip) {
+            return new StoredFrames(data, ip.rawValue(), Arrays.copyOf(references, count), Arrays.copyOf(referenceOffsets, count), Arrays.copyOf(innerOffsets, count), Arrays.copyOf(compressed, count));
+        }
+    }
+}
@@ -165,6 +165,14 @@ public abstract class JavaThreads {
         toTarget(thread).threadStatus = threadStatus;
     }
 
+    static LightweightThread getLightweightThread(Thread thread) {
+        return toTarget(thread).lightweightThread;
+    }
+
+    static void setLightweightThread(Thread thread, LightweightThread lightweightThread) {
+        toTarget(thread).lightweightThread = lightweightThread;
+    }
+
     protected static AtomicReference<ParkEvent> getUnsafeParkEvent(Thread thread) {
         return toTarget(thread).unsafeParkEvent;
     }
@@ -664,14 +672,19 @@ public abstract class JavaThreads {
     static WaitResult park() {
         VMOperationControl.guaranteeOkayToBlock("[UnsafeParkSupport.park(): Should not park when it is not okay to block.]");
         final Thread thread = Thread.currentThread();
-        final ParkEvent parkEvent = ensureUnsafeParkEvent(thread);
+        final LightweightThread lightweightThread = getLightweightThread(thread);
 
         // Change the Java thread state while parking.
         final int oldStatus = JavaThreads.getThreadStatus(thread);
         int newStatus = MonitorSupport.maybeAdjustNewParkStatus(ThreadStatus.PARKED);
         JavaThreads.setThreadStatus(thread, newStatus);
         try {
-            return parkEvent.condWait();
+            if (lightweightThread != null) {
+                /* Yield the lightweight thread instead of blocking its carrier thread. */
+                LightweightThread.park();
+                return WaitResult.UNPARKED;
+            }
+            return ensureUnsafeParkEvent(thread).condWait();
         } finally {
             JavaThreads.setThreadStatus(thread, oldStatus);
         }
@@ -681,7 +694,7 @@ public abstract class JavaThreads {
     static WaitResult park(long delayNanos) {
         VMOperationControl.guaranteeOkayToBlock("[UnsafeParkSupport.park(long): Should not park when it is not okay to block.]");
         final Thread thread = Thread.currentThread();
-        final ParkEvent parkEvent = ensureUnsafeParkEvent(thread);
+        final LightweightThread lightweightThread = getLightweightThread(thread);
 
         final long startNanos = System.nanoTime();
         /* Can not park past the end of a 64-bit nanosecond epoch. */
@@ -691,6 +704,12 @@ public abstract class JavaThreads {
         int newStatus = MonitorSupport.maybeAdjustNewParkStatus(ThreadStatus.PARKED_TIMED);
         JavaThreads.setThreadStatus(thread, newStatus);
         try {
+            if (lightweightThread != null) {
+                /* Callers of a timed park must tolerate spurious wakeups. */
+                LightweightThread.park(delayNanos);
+                return WaitResult.UNPARKED;
+            }
+            final ParkEvent parkEvent = ensureUnsafeParkEvent(thread);
             // How much longer should I sleep?
             long remainingNanos = delayNanos;
             while (0L < remainingNanos) {
@@ -710,6 +729,11 @@ public abstract class JavaThreads {
 
     /** Unpark a Thread. */
     static void unpark(Thread thread) {
+        LightweightThread lightweightThread = getLightweightThread(thread);
+        if (lightweightThread != null) {
+            lightweightThread.unpark();
+            return;
+        }
         ensureUnsafeParkEvent(thread).unpark();
     }
 
@@ -722,7 +746,7 @@ public abstract class JavaThreads {
     static WaitResult sleep(long delayNanos) {
         VMOperationControl.guaranteeOkayToBlock("[SleepSupport.sleep(long): Should not sleep when it is not okay to block.]");
         final Thread thread = Thread.currentThread();
-        final ParkEvent sleepEvent = ensureSleepEvent(thread);
+        final LightweightThread lightweightThread = getLightweightThread(thread);
 
         final long startNanos = System.nanoTime();
         /* Can not sleep past the end of a 64-bit nanosecond epoch. */
@@ -731,6 +755,10 @@ public abstract class JavaThreads {
         final int oldStatus = JavaThreads.getThreadStatus(thread);
         JavaThreads.setThreadStatus(thread, ThreadStatus.SLEEPING);
         try {
+            if (lightweightThread != null) {
+                return LightweightThread.sleep(delayNanos);
+            }
+            final ParkEvent sleepEvent = ensureSleepEvent(thread);
             // How much longer should I sleep?
             long remainingNanos = delayNanos;
             while (0L < remainingNanos) {
@@ -750,6 +778,11 @@ public abstract class JavaThreads {
 
     /** Interrupt a sleeping thread. */
     static void interrupt(Thread thread) {
+        LightweightThread lightweightThread = getLightweightThread(thread);
+        if (lightweightThread != null) {
+            lightweightThread.interruptSleep();
+            return;
+        }
         final ParkEvent sleepEvent = JavaThreads.getSleepParkEvent(thread).get();
         if (sleepEvent != null) {
             sleepEvent.unpark();
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.thread;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.oracle.svm.core.thread.ParkEvent.WaitResult;
+
+/**
+ * A thread that is implemented as a {@link Continuation} and scheduled on the threads of an
+ * {@link Executor}, the carrier threads. {@link #park()} yields the continuation and thereby frees
+ * the carrier thread, {@link #unpark()} submits the continuation to the executor again.
+ *
+ * Each lightweight thread has its own {@link Thread} object, which {@link Thread#currentThread()}
+ * returns while the lightweight thread runs on a carrier thread. Parking in
+ * {@link java.util.concurrent.locks.LockSupport}, and therefore blocking on monitors,
+ * {@link Object#wait()} and {@code java.util.concurrent} locks, as well as {@link Thread#sleep}
+ * yield the lightweight thread instead of blocking the carrier thread. Blocking I/O and other
+ * native calls still block the carrier thread. The restrictions of {@link Continuation} apply to
+ * all code that can block on a lightweight thread.
+ */
+public final class LightweightThread {
+
+    private static final int RUNNABLE = 0;
+    private static final int RUNNING = 1;
+    private static final int PARKING = 2;
+    private static final int PARKED = 3;
+    private static final int TERMINATED = 4;
+
+    private static final AtomicInteger threadNumber = new AtomicInteger();
+
+    /** Wakes up lightweight threads at the end of timed parks and sleeps. Lazily initialized. */
+    private static volatile ScheduledExecutorService timer;
+
+    private final Continuation continuation;
+    private final Executor scheduler;
+    private final Thread thread;
+    private final AtomicInteger state = new AtomicInteger(RUNNABLE);
+    private final AtomicBoolean permit = new AtomicBoolean();
+    /** The flag that the thread is waiting for while it is parking or parked. */
+    private volatile AtomicBoolean waitFlag;
+    /** The flag that ends the current {@link #sleep}, or null if the thread is not sleeping. */
+    private volatile AtomicBoolean sleepFlag;
+
+    private LightweightThread(Runnable task, Executor scheduler) {
+        this.continuation = new Continuation(task);
+        this.scheduler = scheduler;
+        this.thread = new Thread("LightweightThread-" + threadNumber.incrementAndGet());
+        JavaThreads.setLightweightThread(thread, this);
+    }
+
+    /** Creates a lightweight thread and schedules it for execution on the given executor. */
+    public static LightweightThread start(Runnable task, Executor scheduler) {
+        LightweightThread lightweightThread = new LightweightThread(task, scheduler);
+        JavaThreads.setThreadStatus(lightweightThread.thread, ThreadStatus.RUNNABLE);
+        lightweightThread.schedule();
+        return lightweightThread;
+    }
+
+    /** Returns the lightweight thread that is running on the current carrier thread, or null. */
+    public static LightweightThread current() {
+        return JavaThreads.getLightweightThread(Thread.currentThread());
+    }
+
+    /** Returns the {@link Thread} object that represents this lightweight thread. */
+    public Thread getThread() {
+        return thread;
+    }
+
+    /**
+     * Disables the current lightweight thread until the permit is available, like
+     * {@link java.util.concurrent.locks.LockSupport#park()}. The carrier thread is released while
+     * the lightweight thread is parked.
+     */
+    public static void park() {
+        LightweightThread lightweightThread = current();
+        if (lightweightThread == null) {
+            throw new IllegalStateException("Not running on a lightweight thread");
+        }
+        /*
+         * The permit is only ever consumed here, so an unpark() that happens after the thread is
+         * resumed is not lost but makes the next park() return immediately.
+         */
+        lightweightThread.await(lightweightThread.permit);
+    }
+
+    /**
+     * Parks the current lightweight thread for at most the given time. The wakeup at the end of
+     * the time is an {@link #unpark()}, so it can make a later park return early, which
+     * {@link java.util.concurrent.locks.LockSupport} allows.
+     */
+    static void park(long delayNanos) {
+        LightweightThread lightweightThread = current();
+        ScheduledFuture<?> wakeup = timer().schedule(lightweightThread::unpark, delayNanos, TimeUnit.NANOSECONDS);
+        try {
+            park();
+        } finally {
+            wakeup.cancel(false);
+        }
+    }
+
+    /**
+     * Sleeps on the current lightweight thread without consuming the permit of
+     * {@link #park()}. Returns {@link WaitResult#INTERRUPTED} if the thread is interrupted.
+     */
+    static WaitResult sleep(long delayNanos) {
+        LightweightThread lightweightThread = current();
+        AtomicBoolean flag = new AtomicBoolean();
+        /* Published before the interrupt status is checked, see interruptSleep(). */
+        lightweightThread.sleepFlag = flag;
+        ScheduledFuture<?> wakeup = null;
+        try {
+            if (lightweightThread.thread.isInterrupted()) {
+                return WaitResult.INTERRUPTED;
+            }
+            wakeup = timer().schedule(() -> lightweightThread.signal(flag), delayNanos, TimeUnit.NANOSECONDS);
+            lightweightThread.await(flag);
+        } finally {
+            lightweightThread.sleepFlag = null;
+            if (wakeup != null) {
+                wakeup.cancel(false);
+            }
+        }
+        return lightweightThread.thread.isInterrupted() ? WaitResult.INTERRUPTED : WaitResult.TIMED_OUT;
+    }
+
+    /** Ends a {@link #sleep} of this thread, which is called after its interrupt status is set. */
+    void interruptSleep() {
+        AtomicBoolean flag = sleepFlag;
+        if (flag != null) {
+            signal(flag);
+        }
+    }
+
+    /** Makes the permit available and reschedules this thread if it is parked. */
+    public void unpark() {
+        signal(permit);
+    }
+
+    public boolean isTerminated() {
+        return state.get() == TERMINATED;
+    }
+
+    /** Yields the current lightweight thread until the flag is set, and clears the flag. */
+    private void await(AtomicBoolean flag) {
+        while (!flag.getAndSet(false)) {
+            waitFlag = flag;
+            state.set(PARKING);
+            Continuation.yield();
+        }
+    }
+
+    /**
+     * Sets the flag and reschedules this thread if it is parking or parked. The thread is also
+     * rescheduled if it waits for another flag, in which case it yields again.
+     */
+    private void signal(AtomicBoolean flag) {
+        flag.set(true);
+        while (true) {
+            int s = state.get();
+            if (s == PARKED) {
+                if (state.compareAndSet(PARKED, RUNNABLE)) {
+                    schedule();
+                    return;
+                }
+            } else if (s == PARKING) {
+                /* The carrier thread reschedules the thread once the yield is complete. */
+                if (state.compareAndSet(PARKING, RUNNABLE)) {
+                    return;
+                }
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void schedule() {
+        scheduler.execute(this::runOnCarrier);
+    }
+
+    private void runOnCarrier() {
+        state.set(RUNNING);
+        Thread carrier = JavaThreads.currentThread.get();
+        JavaThreads.currentThread.set(thread);
+        boolean done = true;
+        try {
+            done = continuation.run();
+        } finally {
+            JavaThreads.currentThread.set(carrier);
+            if (done) {
+                JavaThreads.setThreadStatus(thread, ThreadStatus.TERMINATED);
+                state.set(TERMINATED);
+            }
+        }
+        if (done) {
+            return;
+        }
+        if (state.compareAndSet(PARKING, PARKED)) {
+            /* Recheck the flag in case it was set before the thread was PARKING. */
+            if (waitFlag.get() && state.compareAndSet(PARKED, RUNNABLE)) {
+                schedule();
+            }
+        } else {
+            /* Signaled while the yield was in progress. */
+            schedule();
+        }
+    }
+
+    private static ScheduledExecutorService timer() {
+        ScheduledExecutorService result = timer;
+        if (result == null) {
+            synchronized (LightweightThread.class) {
+                result = timer;
+                if (result == null) {
+                    ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, task -> {
+                        Thread timerThread = new Thread(task, "LightweightThread timer");
+                        timerThread.setDaemon(true);
+                        return timerThread;
+                    });
+                    executor.setRemoveOnCancelPolicy(true);
+                    timer = executor;
+                    result = executor;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -75,6 +75,10 @@ final class Target_java_lang_Thread {
     @Inject @RecomputeFieldValue(kind = RecomputeFieldValue.Kind.NewInstance, declClass = AtomicReference.class)//
     AtomicReference<ParkEvent> sleepParkEvent;
 
+    /** The {@link LightweightThread} that this thread represents, or null. */
+    @Inject @RecomputeFieldValue(kind = RecomputeFieldValue.Kind.Reset)//
+    LightweightThread lightweightThread;
+
     @Alias//
     ClassLoader contextClassLoader;
 
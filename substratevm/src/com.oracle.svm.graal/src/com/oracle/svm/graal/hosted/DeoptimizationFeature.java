@@ -43,12 +43,14 @@ import com.oracle.svm.core.deopt.DeoptimizationRuntime;
 import com.oracle.svm.core.deopt.DeoptimizationSupport;
 import com.oracle.svm.core.deopt.DeoptimizedFrame;
 import com.oracle.svm.core.deopt.Deoptimizer;
+import com.oracle.svm.core.deopt.PersistentSpeculations;
 import com.oracle.svm.core.graal.GraalFeature;
 import com.oracle.svm.core.graal.meta.RuntimeConfiguration;
 import com.oracle.svm.core.graal.meta.SubstrateForeignCallLinkage;
 import com.oracle.svm.core.graal.snippets.DeoptTestSnippets;
 import com.oracle.svm.core.graal.snippets.DeoptTester;
 import com.oracle.svm.core.graal.snippets.NodeLoweringProvider;
+import com.oracle.svm.core.jdk.RuntimeSupport;
 import com.oracle.svm.core.snippets.SnippetRuntime.SubstrateForeignCallDescriptor;
 import com.oracle.svm.core.util.CounterFeature;
 import com.oracle.svm.core.util.VMError;
@@ -82,6 +84,9 @@ public final class DeoptimizationFeature implements GraalFeature {
         ImageSingletons.add(DeoptimizationSupport.class, new DeoptimizationSupport());
         /* Counters for deoptimization. */
         ImageSingletons.add(DeoptimizationCounters.class, new DeoptimizationCounters());
+        /* Failed speculations that are kept across process restarts. */
+        ImageSingletons.add(PersistentSpeculations.class, new PersistentSpeculations());
+        RuntimeSupport.getRuntimeSupport().addShutdownHook(new PersistentSpeculations.ShutdownHook());
     }
 
     @Override
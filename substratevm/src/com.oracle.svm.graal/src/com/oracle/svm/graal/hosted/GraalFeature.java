@@ -299,7 +299,7 @@ public final class GraalFeature implements Feature {
 
     @Override
     public List<Class<? extends Feature>> getRequiredFeatures() {
-        return Arrays.asList(DeoptimizationFeature.class, FieldsOffsetsFeature.class);
+        return Arrays.asList(DeoptimizationFeature.class, FieldsOffsetsFeature.class, PerfMapFeature.class);
     }
 
     @Override
@@ -79,6 +79,9 @@ public class NativeImageOptions {
     @Option(help = "Print the sizes of the native image heap as the image is built")//
     public static final HostedOptionKey<Boolean> PrintImageHeapPartitionSizes = new HostedOptionKey<>(false);
 
+    @Option(help = "Write a report to the reports directory of how many pages of each native image heap partition can stay shared between processes that run the image")//
+    public static final HostedOptionKey<Boolean> PrintImageHeapPageSharing = new HostedOptionKey<>(false);
+
     @Option(help = "Print features-specific information")//
     public static final HostedOptionKey<Boolean> PrintFeatures = new HostedOptionKey<>(false);
 
@@ -224,6 +224,7 @@ public class ClassInitializationFeature implements Feature {
             if (Options.PrintClassInitialization.getValue()) {
                 reportSafeTypeInitiazliation(universe, initGraph, path, provenSafe);
                 reportMethodInitializationInfo(path);
+                reportRunTimeInitializationReasons(initGraph, path);
             }
         }
     }
@@ -260,6 +261,25 @@ public class ClassInitializationFeature implements Feature {
         }
     }
 
+    /**
+     * Prints, for every class that is still initialized at run time, why it could not be
+     * initialized automatically during image generation.
+     */
+    private void reportRunTimeInitializationReasons(TypeInitializerGraph initGraph, String path) {
+        Set<Class<?>> classes = classInitializationSupport.classesWithKind(RUN_TIME);
+        ReportUtils.report("reasons for run-time initialization", path, "run_time_classes_reasons", "txt",
+                        writer -> classes.stream()
+                                        .filter(c -> metaAccess.optionalLookupJavaType(c).isPresent())
+                                        .map(metaAccess::lookupJavaType)
+                                        .filter(ClassInitializationFeature::isRelevantForPrinting)
+                                        .map(t -> {
+                                            String reason = initGraph.describeUnsafety(t);
+                                            return reason != null ? reason : t.toJavaName(true) + " failed to initialize during image generation";
+                                        })
+                                        .sorted()
+                                        .forEach(writer::println));
+    }
+
     private static boolean isRelevantForPrinting(AnalysisType type) {
         return !type.isPrimitive() && !type.isArray() && type.isInTypeCheck();
     }
@@ -70,6 +70,8 @@ import jdk.vm.ci.meta.ResolvedJavaField;
  * bytecode. We extract those dependencies here by using the
  * {@link #getInitializerType(InvokeTypeFlow)} method.
  *
+ * For every type and method that becomes unsafe, the graph remembers the first reason, so that
+ * {@link #describeUnsafety} can explain why a class is still initialized at run time.
  */
 public class TypeInitializerGraph {
     private final SVMHost hostVM;
@@ -87,6 +89,25 @@ public class TypeInitializerGraph {
     private final Map<AnalysisMethod, Safety> methodSafety = new HashMap<>();
     private final Collection<AnalysisMethod> methods;
 
+    private final Map<AnalysisType, Reason> typeReasons = new HashMap<>();
+    private final Map<AnalysisMethod, Reason> methodReasons = new HashMap<>();
+
+    /**
+     * Why a type or method is unsafe. The reason can refer to another unsafe type or method, which
+     * forms a chain that ends at the element that is unsafe on its own.
+     */
+    private static final class Reason {
+        final String message;
+        final AnalysisType causeType;
+        final AnalysisMethod causeMethod;
+
+        Reason(String message, AnalysisType causeType, AnalysisMethod causeMethod) {
+            this.message = message;
+            this.causeType = causeType;
+            this.causeMethod = causeMethod;
+        }
+    }
+
     TypeInitializerGraph(AnalysisUniverse universe, AnalysisMethod ensureInitializedMethod) {
         assert universe.getMethods().contains(ensureInitializedMethod);
 
@@ -124,8 +145,11 @@ public class TypeInitializerGraph {
      * A type initializer is initially unsafe only if it was marked by the user as such.
      */
     private Safety initialTypeInitializerSafety(AnalysisType t) {
-        return classInitializationSupport.specifiedInitKindFor(t.getJavaClass()) == InitKind.RUN_TIME ? Safety.UNSAFE
-                        : Safety.SAFE;
+        if (classInitializationSupport.specifiedInitKindFor(t.getJavaClass()) == InitKind.RUN_TIME) {
+            typeReasons.put(t, new Reason("is specified for initialization at run time", null, null));
+            return Safety.UNSAFE;
+        }
+        return Safety.SAFE;
     }
 
     boolean isUnsafe(AnalysisType type) {
@@ -138,10 +162,21 @@ public class TypeInitializerGraph {
 
     private boolean updateTypeInitializerSafety() {
         List<AnalysisType> newUnsafeTypes = types.keySet().stream().filter(type -> shouldPromoteToUnsafe(type, methodSafety)).collect(Collectors.toList());
+        newUnsafeTypes.forEach(type -> typeReasons.put(type, promotionReason(type)));
         newUnsafeTypes.forEach(this::setUnsafe);
         return !newUnsafeTypes.isEmpty();
     }
 
+    private Reason promotionReason(AnalysisType type) {
+        for (AnalysisType dependency : dependencies.get(type)) {
+            if (types.get(dependency) == Safety.UNSAFE || shouldPromoteToUnsafe(dependency, methodSafety)) {
+                return new Reason("depends on the unsafe type " + dependency.toJavaName(true), dependency, null);
+            }
+        }
+        AnalysisMethod initializer = type.getClassInitializer();
+        return new Reason("has an unsafe class initializer", null, initializer);
+    }
+
     private void addInitializerDependencies(AnalysisType t) {
         addInterfaceDependencies(t, t.getInterfaces());
         if (t.getSuperclass() != null) {
@@ -170,9 +205,31 @@ public class TypeInitializerGraph {
      * types unknown to points-to analysis (which sees only the substituted version.
      */
     private Safety initialMethodSafety(AnalysisMethod m) {
-        return m.getTypeFlow().getInvokes().stream().anyMatch(this::isInvokeInitiallyUnsafe) ||
-                        hasStaticFieldAccess(m) ||
-                        isSubstitutedMethod(m) ? Safety.UNSAFE : Safety.SAFE;
+        Optional<InvokeTypeFlow> unsafeInvoke = m.getTypeFlow().getInvokes().stream().filter(this::isInvokeInitiallyUnsafe).findFirst();
+        Reason reason = null;
+        if (unsafeInvoke.isPresent()) {
+            reason = initialInvokeReason(unsafeInvoke.get());
+        } else if (hasStaticFieldAccess(m)) {
+            reason = new Reason("accesses a static field of another class or uses unsafe memory access", null, null);
+        } else if (isSubstitutedMethod(m)) {
+            reason = new Reason("is substituted", null, null);
+        }
+        if (reason != null) {
+            methodReasons.put(m, reason);
+            return Safety.UNSAFE;
+        }
+        return Safety.SAFE;
+    }
+
+    private Reason initialInvokeReason(InvokeTypeFlow i) {
+        AnalysisMethod target = i.getTargetMethod();
+        if (target.isNative()) {
+            return new Reason("calls the native method " + target.format("%H.%n(%p)"), null, null);
+        } else if (!i.canBeStaticallyBound()) {
+            return new Reason("contains a virtual call of " + target.format("%H.%n(%p)"), null, null);
+        } else {
+            return new Reason("initializes a class that is not a compile-time constant", null, null);
+        }
     }
 
     /**
@@ -251,7 +308,15 @@ public class TypeInitializerGraph {
     private boolean updateMethodSafety(AnalysisMethod m) {
         assert methodSafety.get(m) == Safety.SAFE;
         Collection<InvokeTypeFlow> invokes = m.getTypeFlow().getInvokes();
-        if (invokes.stream().anyMatch(this::isInvokeUnsafeIterative)) {
+        Optional<InvokeTypeFlow> unsafeInvoke = invokes.stream().filter(this::isInvokeUnsafeIterative).findFirst();
+        if (unsafeInvoke.isPresent()) {
+            InvokeTypeFlow i = unsafeInvoke.get();
+            Optional<AnalysisType> initializerType = getInitializerType(i);
+            if (initializerType.isPresent()) {
+                methodReasons.put(m, new Reason("initializes the unsafe type " + initializerType.get().toJavaName(true), initializerType.get(), null));
+            } else {
+                methodReasons.put(m, new Reason("calls the unsafe method " + i.getTargetMethod().format("%H.%n(%p)"), null, i.getTargetMethod()));
+            }
             methodSafety.put(m, Safety.UNSAFE);
             return true;
         }
@@ -292,6 +357,32 @@ public class TypeInitializerGraph {
         dependencies.put(t, new HashSet<>());
     }
 
+    /**
+     * Describes why {@code type} is unsafe to initialize during image generation, following the
+     * chain of unsafe types and methods to the element that is unsafe on its own. Returns null if
+     * the type is safe.
+     */
+    String describeUnsafety(AnalysisType type) {
+        if (!isUnsafe(type)) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(type.toJavaName(true));
+        Set<Object> visited = new HashSet<>();
+        Object element = type;
+        while (element != null && visited.add(element)) {
+            Reason reason = element instanceof AnalysisType ? typeReasons.get(element) : methodReasons.get(element);
+            if (reason == null) {
+                break;
+            }
+            if (element != type) {
+                sb.append(" -> ").append(element instanceof AnalysisType ? ((AnalysisType) element).toJavaName(true) : ((AnalysisMethod) element).format("%H.%n(%p)"));
+            }
+            sb.append(' ').append(reason.message);
+            element = reason.causeType != null ? reason.causeType : reason.causeMethod;
+        }
+        return sb.toString();
+    }
+
     Set<AnalysisType> getDependencies(AnalysisType type) {
         return Collections.unmodifiableSet(dependencies.get(type));
     }
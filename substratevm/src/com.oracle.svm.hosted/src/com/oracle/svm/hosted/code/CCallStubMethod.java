@@ -40,9 +40,11 @@ import org.graalvm.compiler.nodes.extended.BranchProbabilityNode;
 import org.graalvm.compiler.nodes.java.NewInstanceNode;
 import org.graalvm.nativeimage.c.constant.CEnum;
 import org.graalvm.nativeimage.c.constant.CEnumLookup;
+import org.graalvm.nativeimage.c.function.CFunctionPointer;
 
 import com.oracle.graal.pointsto.meta.HostedProviders;
 import com.oracle.svm.core.meta.SharedMethod;
+import com.oracle.svm.core.thread.VMThreads.StatusSupport;
 import com.oracle.svm.core.util.UserError;
 import com.oracle.svm.hosted.annotation.CustomSubstitutionMethod;
 import com.oracle.svm.hosted.c.NativeLibraries;
@@ -71,6 +73,15 @@ public abstract class CCallStubMethod extends CustomSubstitutionMethod {
 
     protected abstract String getCorrespondingAnnotationName();
 
+    /**
+     * Returns true if the call performs a Java-to-native thread state transition. Calls without a
+     * transition stay in Java state: no safepoint can occur until the call returns, so the C
+     * function must be a short leaf function that neither blocks nor calls back to Java.
+     */
+    protected boolean needsTransition() {
+        return StatusSupport.isValidStatus(newThreadStatus);
+    }
+
     @Override
     public StructuredGraph buildGraph(DebugContext debug, ResolvedJavaMethod method, HostedProviders providers, Purpose purpose) {
         NativeLibraries nativeLibraries = CEntryPointCallStubSupport.singleton().getNativeLibraries();
@@ -103,8 +114,21 @@ public abstract class CCallStubMethod extends CustomSubstitutionMethod {
                     HostedGraphKit kit, JavaType returnType, JavaType[] parameterTypes, List<ValueNode> arguments) {
 
         MetaAccessProvider metaAccess = providers.getMetaAccess();
+        ResolvedJavaType[] arrayTypes = new ResolvedJavaType[parameterTypes.length];
         for (int i = 0; i < parameterTypes.length; i++) {
-            if (!isPrimitiveOrWord(providers, parameterTypes[i])) {
+            if (!needsTransition() && providers.getWordTypes().isWord(parameterTypes[i]) &&
+                            metaAccess.lookupJavaType(CFunctionPointer.class).isAssignableFrom((ResolvedJavaType) parameterTypes[i])) {
+                throw UserError.abort("@" + getCorrespondingAnnotationName() + " without a thread state transition must not have function pointer parameters, because C code " +
+                                "called without a transition must not call back to Java: " + getOriginal().format("%H.%n(%p)"));
+            }
+            if (isPrimitiveArray(parameterTypes[i])) {
+                if (needsTransition()) {
+                    throw UserError.abort("@" + getCorrespondingAnnotationName() + " parameters of primitive array types are only allowed for calls without a thread state transition: " +
+                                    getOriginal().format("%H.%n(%p)"));
+                }
+                arrayTypes[i] = (ResolvedJavaType) parameterTypes[i];
+                parameterTypes[i] = providers.getWordTypes().getWordImplType();
+            } else if (!isPrimitiveOrWord(providers, parameterTypes[i])) {
                 ElementInfo typeInfo = nativeLibraries.findElementInfo((ResolvedJavaType) parameterTypes[i]);
                 if (typeInfo instanceof EnumInfo) {
                     ValueNode argumentValue = arguments.get(i);
@@ -128,16 +152,31 @@ public abstract class CCallStubMethod extends CustomSubstitutionMethod {
                     arguments.set(i, argumentValue);
                     parameterTypes[i] = metaAccess.lookupJavaType(cEnumKind.toJavaClass());
                 } else {
-                    throw UserError.abort("@" + getCorrespondingAnnotationName() + " parameter types are restricted to primitive types, word types and enumerations (@" +
-                                    CEnum.class.getSimpleName() + "): " + getOriginal().format("%H.%n(%p)"));
+                    throw UserError.abort("@" + getCorrespondingAnnotationName() + " parameter types are restricted to primitive types, word types, enumerations (@" +
+                                    CEnum.class.getSimpleName() + ") and, for calls without a thread state transition, primitive arrays: " + getOriginal().format("%H.%n(%p)"));
                 }
             }
         }
+        /*
+         * Primitive arrays are passed as the address of their first element. The arrays are not
+         * pinned, so the addresses are computed last: the conversions above can allocate and call
+         * Java code, and a safepoint between computing an address and the C call could move the
+         * array. Nothing after this point must be able to safepoint before the C call.
+         */
+        for (int i = 0; i < arrayTypes.length; i++) {
+            if (arrayTypes[i] != null) {
+                arguments.set(i, kit.createArrayDataAddress(arrayTypes[i], arguments.get(i)));
+            }
+        }
         /* Actual checks and conversion are in adaptReturnValue() */
         JavaType actualReturnType = isPrimitiveOrWord(providers, returnType) ? returnType : providers.getWordTypes().getWordImplType();
         return new SimpleSignature(parameterTypes, actualReturnType);
     }
 
+    private static boolean isPrimitiveArray(JavaType type) {
+        return type instanceof ResolvedJavaType && ((ResolvedJavaType) type).isArray() && ((ResolvedJavaType) type).getComponentType().getJavaKind().isPrimitive();
+    }
+
     private ValueNode adaptReturnValue(ResolvedJavaMethod method, HostedProviders providers, NativeLibraries nativeLibraries, HostedGraphKit kit, ValueNode invokeValue) {
         ValueNode returnValue = invokeValue;
         JavaType declaredReturnType = method.getSignature().getReturnType(null);
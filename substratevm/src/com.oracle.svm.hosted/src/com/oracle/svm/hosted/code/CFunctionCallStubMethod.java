@@ -34,7 +34,6 @@ import org.graalvm.nativeimage.c.function.CFunction;
 import com.oracle.graal.pointsto.meta.HostedProviders;
 import com.oracle.svm.core.graal.code.CGlobalDataInfo;
 import com.oracle.svm.core.graal.nodes.CGlobalDataLoadAddressNode;
-import com.oracle.svm.core.thread.VMThreads.StatusSupport;
 import com.oracle.svm.core.util.VMError;
 import com.oracle.svm.hosted.phases.HostedGraphKit;
 
@@ -72,8 +71,7 @@ public final class CFunctionCallStubMethod extends CCallStubMethod {
          * native code, which means the deoptimization stub would need to do the native-to-Java
          * transition.
          */
-        boolean needsTransition = StatusSupport.isValidStatus(newThreadStatus);
-        return !needsTransition;
+        return !needsTransition();
     }
 
     @Override
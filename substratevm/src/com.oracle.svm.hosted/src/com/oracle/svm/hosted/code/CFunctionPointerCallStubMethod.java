@@ -115,8 +115,7 @@ public final class CFunctionPointerCallStubMethod extends CCallStubMethod {
          * native code, which means the deoptimization stub would need to do the native-to-Java
          * transition.
          */
-        boolean needsTransition = StatusSupport.isValidStatus(newThreadStatus);
-        return !needsTransition;
+        return !needsTransition();
     }
 
     @Override
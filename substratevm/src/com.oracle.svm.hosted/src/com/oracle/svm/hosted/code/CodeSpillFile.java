@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.hosted.code;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.graalvm.compiler.code.CompilationResult;
+
+import com.oracle.svm.core.graal.code.SubstrateCompilationResult;
+import com.oracle.svm.core.util.VMError;
+
+/**
+ * A temporary file to which {@link CompileQueue} moves the machine code of compiled methods while
+ * the heap of the image builder is almost full. The machine code is read back when the code cache
+ * is laid out and patched, after the compile phase and its temporary data structures are gone.
+ *
+ * Only the machine code is moved. The infopoints, data patches and other metadata of a
+ * {@link CompilationResult} reference objects of the hosted universe and stay in the heap.
+ */
+final class CodeSpillFile {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final AtomicLong size = new AtomicLong();
+    /** The number of results whose machine code has not been read back yet. */
+    private final AtomicInteger spilled = new AtomicInteger();
+    private volatile boolean writeFailed;
+
+    CodeSpillFile() {
+        try {
+            path = Files.createTempFile("SVM-code-", ".bin");
+            path.toFile().deleteOnExit();
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException ex) {
+            throw VMError.shouldNotReachHere(ex);
+        }
+    }
+
+    /**
+     * Writes the machine code of the result to the file and releases it. The machine code stays in
+     * the heap if it cannot be written.
+     */
+    void spill(SubstrateCompilationResult result) {
+        if (writeFailed) {
+            return;
+        }
+        int length = result.getTargetCodeSize();
+        long position = size.getAndAdd(length);
+        ByteBuffer buffer = ByteBuffer.wrap(result.getTargetCode(), 0, length);
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
+        } catch (IOException ex) {
+            /* For example, the disk is full. */
+            writeFailed = true;
+            return;
+        }
+        spilled.incrementAndGet();
+        result.releaseTargetCode(() -> read(position, length));
+    }
+
+    private byte[] read(long position, int length) {
+        byte[] code = new byte[length];
+        ByteBuffer buffer = ByteBuffer.wrap(code);
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw VMError.shouldNotReachHere("Unexpected end of " + path);
+                }
+            }
+            if (spilled.decrementAndGet() == 0) {
+                /* All machine code has been read back. */
+                channel.close();
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException ex) {
+            throw VMError.shouldNotReachHere(ex);
+        }
+        return code;
+    }
+}
@@ -39,6 +39,7 @@ import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.PriorityBlockingQueue;
 
 import org.graalvm.collections.EconomicMap;
 import org.graalvm.compiler.api.replacements.Fold;
@@ -53,7 +54,9 @@ import org.graalvm.compiler.core.common.CompilationIdentifier;
 import org.graalvm.compiler.core.common.CompilationIdentifier.Verbosity;
 import org.graalvm.compiler.core.common.spi.ForeignCallsProvider;
 import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.debug.DebugContext.Activation;
 import org.graalvm.compiler.debug.DebugContext.Description;
+import org.graalvm.compiler.debug.DebugHandlersFactory;
 import org.graalvm.compiler.debug.GraalError;
 import org.graalvm.compiler.debug.Indent;
 import org.graalvm.compiler.graph.Node;
@@ -107,6 +110,7 @@ import com.oracle.graal.pointsto.meta.HostedProviders;
 import com.oracle.graal.pointsto.phases.SubstrateIntrinsicGraphBuilder;
 import com.oracle.graal.pointsto.util.CompletionExecutor;
 import com.oracle.graal.pointsto.util.CompletionExecutor.DebugContextRunnable;
+import com.oracle.graal.pointsto.util.MemoryGovernor;
 import com.oracle.graal.pointsto.util.Timer;
 import com.oracle.graal.pointsto.util.Timer.StopTimer;
 import com.oracle.svm.core.SubstrateOptions;
@@ -121,6 +125,7 @@ import com.oracle.svm.core.code.FrameInfoEncoder;
 import com.oracle.svm.core.deopt.DeoptEntryInfopoint;
 import com.oracle.svm.core.graal.GraalConfiguration;
 import com.oracle.svm.core.graal.code.SubstrateBackend;
+import com.oracle.svm.core.graal.code.SubstrateCompilationResult;
 import com.oracle.svm.core.graal.meta.RuntimeConfiguration;
 import com.oracle.svm.core.graal.meta.SubstrateForeignCallsProvider;
 import com.oracle.svm.core.graal.nodes.DeoptEntryNode;
@@ -164,6 +169,11 @@ public class CompileQueue {
     private final Boolean deoptimizeAll;
     protected CompletionExecutor executor;
     private final ConcurrentMap<HostedMethod, CompileTask> compilations;
+    /**
+     * Compilations that are scheduled but not yet started, largest graph first. See
+     * {@link CompileSlot}.
+     */
+    private final PriorityBlockingQueue<CompileTask> pendingCompilations;
     protected final RuntimeConfiguration runtimeConfig;
     private Suites regularSuites = null;
     private Suites deoptTargetSuites = null;
@@ -176,6 +186,13 @@ public class CompileQueue {
 
     private volatile boolean inliningProgress;
 
+    /**
+     * Tells when the heap is almost full, so that the machine code of compiled methods is moved
+     * to the {@link #codeSpillFile}.
+     */
+    private final MemoryGovernor memoryGovernor = MemoryGovernor.install();
+    private CodeSpillFile codeSpillFile;
+
     public abstract static class CompileReason {
         /**
          * For debugging only: chaining of the compile reason, so that you can track the compilation
@@ -239,10 +256,14 @@ public class CompileQueue {
         protected final List<CompileReason> allReasons;
         public CompilationResult result;
         public final CompilationIdentifier compilationIdentifier;
+        /** The number of nodes of the parsed graph, used to start large compilations first. */
+        protected final int estimatedSize;
 
         public CompileTask(HostedMethod method, CompileReason reason) {
             this.method = method;
             this.reason = reason;
+            StructuredGraph graph = method.compilationInfo.graph;
+            this.estimatedSize = graph != null ? graph.getNodeCount() : 0;
             if (NativeImageOptions.PrintMethodHistogram.getValue()) {
                 this.allReasons = Collections.synchronizedList(new ArrayList<CompileReason>());
                 this.allReasons.add(reason);
@@ -258,6 +279,9 @@ public class CompileQueue {
                 method.compilationInfo.graph.resetDebug(debug);
             }
             result = doCompile(debug, method, compilationIdentifier, reason);
+            if (result instanceof SubstrateCompilationResult && memoryGovernor.isMemoryTight()) {
+                getCodeSpillFile().spill((SubstrateCompilationResult) result);
+            }
         }
 
         @Override
@@ -266,6 +290,35 @@ public class CompileQueue {
         }
     }
 
+    /**
+     * The unit of work posted to the {@link #executor} during compilation. One slot is posted for
+     * every scheduled {@link CompileTask}, but a slot does not decide which compilation it runs:
+     * it takes the largest pending compilation when it gets a thread. Compilation time grows with
+     * the method size, so starting large methods first avoids ending the compile phase with a
+     * single large compilation that runs while all other threads are idle.
+     */
+    protected class CompileSlot implements DebugContextRunnable {
+
+        @Override
+        @SuppressWarnings("try")
+        public void run(DebugContext debug) {
+            CompileTask task = pendingCompilations.poll();
+            assert task != null : "one slot is posted for every pending compilation";
+            List<DebugHandlersFactory> factories = universe.getBigBang().getDebugHandlerFactories();
+            try (DebugContext taskDebug = task.getDebug(debug.getOptions(), factories);
+                            DebugContext.Scope s = taskDebug.scope("Operation");
+                            Activation a = taskDebug.activate()) {
+                task.run(taskDebug);
+            }
+        }
+
+        @Override
+        public DebugContext getDebug(OptionValues options, List<DebugHandlersFactory> factories) {
+            /* The debug context is created for the actual compilation in run(). */
+            return DebugContext.disabled(options);
+        }
+    }
+
     protected class TrivialInlineTask implements DebugContextRunnable {
 
         private final HostedMethod method;
@@ -314,6 +367,7 @@ public class CompileQueue {
                     SnippetReflectionProvider snippetReflection, ForkJoinPool executorService) {
         this.universe = universe;
         this.compilations = new ConcurrentHashMap<>();
+        this.pendingCompilations = new PriorityBlockingQueue<>(11, Comparator.comparingInt((CompileTask task) -> task.estimatedSize).reversed());
         this.runtimeConfig = runtimeConfigBuilder.getRuntimeConfig();
         this.deoptimizeAll = deoptimizeAll;
         this.dataCache = new ConcurrentHashMap<>();
@@ -900,7 +954,8 @@ public class CompileQueue {
                 }
             }
         }
-        executor.execute(task);
+        pendingCompilations.add(task);
+        executor.execute(new CompileSlot());
         method.setCompiled();
     }
 
@@ -1159,6 +1214,13 @@ public class CompileQueue {
         }
     }
 
+    private synchronized CodeSpillFile getCodeSpillFile() {
+        if (codeSpillFile == null) {
+            codeSpillFile = new CodeSpillFile();
+        }
+        return codeSpillFile;
+    }
+
     public Map<HostedMethod, CompilationResult> getCompilations() {
         Map<HostedMethod, CompilationResult> result = new TreeMap<>();
         for (Entry<HostedMethod, CompileTask> entry : compilations.entrySet()) {
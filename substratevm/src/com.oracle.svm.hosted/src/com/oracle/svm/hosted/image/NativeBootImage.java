@@ -37,6 +37,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Collection;
@@ -62,6 +63,7 @@ import org.graalvm.nativeimage.c.function.CFunctionPointer;
 
 import com.oracle.graal.pointsto.meta.AnalysisMethod;
 import com.oracle.graal.pointsto.meta.AnalysisType;
+import com.oracle.graal.pointsto.reports.ReportUtils;
 import com.oracle.objectfile.BasicProgbitsSectionImpl;
 import com.oracle.objectfile.BuildDependency;
 import com.oracle.objectfile.LayoutDecision;
@@ -494,7 +496,7 @@ public abstract class NativeBootImage extends AbstractBootImage {
 
             // We print the heap statistics after the heap was successfully written because this
             // could modify objects that will be part of the image heap.
-            printHeapStatistics(layouter.getPartitions());
+            printHeapStatistics(layouter.getPartitions(), heapLayout, objectFile.getPageSize());
         }
 
         // [Footnote 1]
@@ -746,7 +748,7 @@ public abstract class NativeBootImage extends AbstractBootImage {
         return objectFile;
     }
 
-    private void printHeapStatistics(ImageHeapPartition[] partitions) {
+    private void printHeapStatistics(ImageHeapPartition[] partitions, ImageHeapLayout heapLayout, int pageSize) {
         if (NativeImageOptions.PrintHeapHistogram.getValue()) {
             // A histogram for the whole heap.
             ObjectGroupHistogram.print(heap);
@@ -756,6 +758,57 @@ public abstract class NativeBootImage extends AbstractBootImage {
         if (NativeImageOptions.PrintImageHeapPartitionSizes.getValue()) {
             printSizes(partitions);
         }
+        if (NativeImageOptions.PrintImageHeapPageSharing.getValue()) {
+            reportPageSharing(partitions, heapLayout, pageSize);
+        }
+    }
+
+    private static final byte PAGE_SHARED = 0;
+    private static final byte PAGE_POSSIBLY_PRIVATE = 1;
+    private static final byte PAGE_PRIVATE = 2;
+
+    /**
+     * Estimates how many pages of each partition stay shared between processes that map the same
+     * image. A page becomes private to a process when an object on it is written, or when it
+     * contains relocatable pointers that are patched at image startup. Pages of writable partitions
+     * that only contain objects without known writes (e.g., arrays) are reported separately.
+     */
+    private void reportPageSharing(ImageHeapPartition[] partitions, ImageHeapLayout heapLayout, int pageSize) {
+        String path = Paths.get(Paths.get(SubstrateOptions.Path.getValue()).toString(), "reports").toAbsolutePath().toString();
+        ReportUtils.report("image heap page sharing", path, "image_heap_page_sharing", "txt", writer -> printPageSharing(writer, partitions, heapLayout, pageSize));
+    }
+
+    private void printPageSharing(PrintWriter writer, ImageHeapPartition[] partitions, ImageHeapLayout heapLayout, int pageSize) {
+        writer.printf("%-20s %10s %10s %17s %10s%n", "Partition", "Pages", "Shared", "Possibly private", "Private");
+        for (ImageHeapPartition partition : partitions) {
+            long partitionStart = partition.getOffsetInSection();
+            long firstPage = partitionStart / pageSize;
+            long endPage = (partitionStart + partition.getSize() + pageSize - 1) / pageSize;
+            byte[] pages = new byte[NumUtil.safeToInt(endPage - firstPage)];
+
+            boolean relocated = SubstrateOptions.SpawnIsolates.getValue() && partition.getSize() > 0 && heapLayout.isReadOnlyRelocatable(NumUtil.safeToInt(partitionStart));
+            if (relocated) {
+                Arrays.fill(pages, PAGE_PRIVATE);
+            } else if (partition.isWritable()) {
+                for (ObjectInfo info : heap.getObjects()) {
+                    if (info.getPartition() == partition) {
+                        byte state = info.isKnownWritten() ? PAGE_PRIVATE : PAGE_POSSIBLY_PRIVATE;
+                        long objectStart = partitionStart + info.getOffsetInPartition();
+                        long objectEnd = objectStart + info.getSize() - 1;
+                        for (long page = objectStart / pageSize; page <= objectEnd / pageSize; page++) {
+                            int index = NumUtil.safeToInt(page - firstPage);
+                            pages[index] = (byte) Math.max(pages[index], state);
+                        }
+                    }
+                }
+            }
+
+            int[] counts = new int[PAGE_PRIVATE + 1];
+            for (byte state : pages) {
+                counts[state]++;
+            }
+            writer.printf("%-20s %10d %10d %17d %10d%n", partition.getName(), pages.length, counts[PAGE_SHARED], counts[PAGE_POSSIBLY_PRIVATE], counts[PAGE_PRIVATE]);
+        }
     }
 
     private void printHistogram(ImageHeapPartition[] partitions) {
@@ -204,9 +204,11 @@ public final class NativeImageHeap implements ImageHeap {
 
         if (usesInternedStrings) {
             /*
-             * Ensure that the hub of the String[] array (used for the interned objects) is written.
+             * Ensure that the hubs of the String[] and int[] arrays (used for the interned objects
+             * and the hash seeds) are written.
              */
             addObject(getMetaAccess().lookupJavaType(String[].class).getHub(), false, "internedStrings table");
+            addObject(getMetaAccess().lookupJavaType(int[].class).getHub(), false, "internedStrings table");
             /*
              * We are no longer allowed to add new interned strings, because that would modify the
              * table we are about to write.
@@ -218,9 +220,12 @@ public final class NativeImageHeap implements ImageHeap {
              */
             String[] imageInternedStrings = internedStrings.keySet().toArray(new String[0]);
             Arrays.sort(imageInternedStrings);
-            ImageSingletons.lookup(StringInternSupport.class).setImageInternedStrings(imageInternedStrings);
+            StringInternSupport stringInternSupport = ImageSingletons.lookup(StringInternSupport.class);
+            stringInternSupport.setImageInternedStrings(imageInternedStrings);
 
-            addObject(imageInternedStrings, true, "internedStrings table");
+            for (Object table : stringInternSupport.getImageInternedStringsTables()) {
+                addObject(table, true, "internedStrings table");
+            }
 
             // Process any objects that were transitively added to the heap.
             processAddObjectWorklist();
@@ -465,6 +470,7 @@ public final class NativeImageHeap implements ImageHeap {
         if (relocatable && !isKnownImmutable(object)) {
             VMError.shouldNotReachHere("Object with relocatable pointers must be explicitly immutable: " + object);
         }
+        info.knownWritten = written && !type.isArray() && !immutable;
         heapLayouter.assignObjectToPartition(info, !written || immutable, references, relocatable);
     }
 
@@ -586,6 +592,7 @@ public final class NativeImageHeap implements ImageHeap {
         private int identityHashCode;
         private ImageHeapPartition partition;
         private long offsetInPartition;
+        private boolean knownWritten;
         /**
          * For debugging only: the reason why this object is in the native image heap.
          *
@@ -679,6 +686,11 @@ public final class NativeImageHeap implements ImageHeap {
             this.identityHashCode = identityHashCode;
         }
 
+        @Override
+        public boolean isKnownWritten() {
+            return knownWritten;
+        }
+
         @Override
         public void setHeapPartition(ImageHeapPartition value) {
             assert this.partition == null;
@@ -33,15 +33,21 @@ import org.graalvm.compiler.java.GraphBuilderPhase.Instance;
 import org.graalvm.compiler.nodes.CallTargetNode.InvokeKind;
 import org.graalvm.compiler.nodes.UnwindNode;
 import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.ConditionalNode;
+import org.graalvm.compiler.nodes.calc.IsNullNode;
 import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderConfiguration;
 import org.graalvm.compiler.nodes.graphbuilderconf.IntrinsicContext;
 import org.graalvm.compiler.nodes.java.MethodCallTargetNode;
 import org.graalvm.compiler.nodes.java.NewInstanceNode;
 import org.graalvm.compiler.phases.OptimisticOptimizations;
 import org.graalvm.compiler.phases.util.Providers;
+import org.graalvm.compiler.word.WordCastNode;
 
 import com.oracle.graal.pointsto.meta.AnalysisMethod;
 import com.oracle.graal.pointsto.meta.HostedProviders;
+import com.oracle.svm.core.FrameAccess;
+import com.oracle.svm.core.config.ConfigurationValues;
 import com.oracle.svm.core.graal.code.SubstrateCompilationIdentifier;
 import com.oracle.svm.core.graal.replacements.SubstrateGraphKit;
 import com.oracle.svm.core.hub.DynamicHub;
@@ -50,6 +56,7 @@ import com.oracle.svm.hosted.meta.HostedMethod;
 import com.oracle.svm.hosted.nodes.SubstrateMethodCallTargetNode;
 
 import jdk.vm.ci.meta.Constant;
+import jdk.vm.ci.meta.JavaConstant;
 import jdk.vm.ci.meta.JavaKind;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
 import jdk.vm.ci.meta.ResolvedJavaType;
@@ -132,4 +139,18 @@ public class HostedGraphKit extends SubstrateGraphKit {
         append(new UnwindNode(ite));
     }
 
+    /**
+     * Returns the address of the first element of a primitive array, or a null pointer if the
+     * array is null. The address is only valid as long as there is no safepoint, because the
+     * array is not pinned: callers must not emit anything that can safepoint between this node
+     * and the last use of the address.
+     */
+    public ValueNode createArrayDataAddress(ResolvedJavaType arrayType, ValueNode array) {
+        JavaKind wordKind = FrameAccess.getWordKind();
+        int baseOffset = ConfigurationValues.getObjectLayout().getArrayBaseOffset(arrayType.getComponentType().getJavaKind());
+        ValueNode address = append(WordCastNode.objectToUntrackedPointer(array, wordKind));
+        ValueNode dataAddress = unique(new AddNode(address, createConstant(JavaConstant.forIntegerKind(wordKind, baseOffset), wordKind)));
+        ValueNode nullAddress = createConstant(JavaConstant.forIntegerKind(wordKind, 0), wordKind);
+        return unique(new ConditionalNode(unique(new IsNullNode(array)), nullAddress, dataAddress));
+    }
 }
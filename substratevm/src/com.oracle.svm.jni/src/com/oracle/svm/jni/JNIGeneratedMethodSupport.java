@@ -57,6 +57,10 @@ public final class JNIGeneratedMethodSupport {
         return linkage.getOrFindEntryPoint();
     }
 
+    static int criticalArrayLength(Object array) {
+        return (array != null) ? Array.getLength(array) : 0;
+    }
+
     static int nativeCallPrologue() {
         return JNIObjectHandles.pushLocalFrame(JNIObjectHandles.NATIVE_CALL_MIN_LOCAL_HANDLE_CAPACITY);
     }
@@ -92,12 +92,22 @@ public final class JNIObjectHandles {
         return SubstrateOptions.SpawnIsolates.getValue();
     }
 
+    /**
+     * Initial capacity of the local handles of a thread. The handles and frames are preallocated
+     * generously so that native code that calls back into Java in a loop, with a new local frame for
+     * each call, does not need to grow them. Popped frames are reused by subsequent calls.
+     */
+    private static final int INITIAL_LOCAL_HANDLE_CAPACITY = 4 * NATIVE_CALL_MIN_LOCAL_HANDLE_CAPACITY;
+    private static final int INITIAL_LOCAL_FRAME_CAPACITY = 16;
+
     @SuppressWarnings("unchecked")
     private static ThreadLocalHandles<ObjectHandle> getLocals() {
-        if (handles.get() == null) {
-            handles.set(new ThreadLocalHandles<>(NATIVE_CALL_MIN_LOCAL_HANDLE_CAPACITY));
+        ThreadLocalHandles<ObjectHandle> locals = handles.get();
+        if (locals == null) {
+            locals = new ThreadLocalHandles<>(INITIAL_LOCAL_HANDLE_CAPACITY, INITIAL_LOCAL_FRAME_CAPACITY);
+            handles.set(locals);
         }
-        return handles.get();
+        return locals;
     }
 
     private static boolean isInLocalRange(JNIObjectHandle handle) {
@@ -31,6 +31,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -38,6 +39,7 @@ import java.util.stream.Stream;
 
 import org.graalvm.compiler.api.replacements.Fold;
 import org.graalvm.compiler.options.Option;
+import org.graalvm.compiler.options.OptionType;
 import org.graalvm.nativeimage.ImageSingletons;
 import org.graalvm.nativeimage.hosted.Feature;
 import org.graalvm.nativeimage.impl.ReflectionRegistry;
@@ -53,6 +55,7 @@ import com.oracle.svm.core.configure.ConfigurationFiles;
 import com.oracle.svm.core.configure.ReflectionConfigurationParser;
 import com.oracle.svm.core.jni.JNIRuntimeAccess;
 import com.oracle.svm.core.option.HostedOptionKey;
+import com.oracle.svm.core.option.OptionUtils;
 import com.oracle.svm.core.util.UserError;
 import com.oracle.svm.hosted.FallbackFeature;
 import com.oracle.svm.hosted.FeatureImpl.AfterRegistrationAccessImpl;
@@ -69,7 +72,9 @@ import com.oracle.svm.jni.hosted.JNICallTrampolineMethod;
 import com.oracle.svm.jni.hosted.JNIJavaCallWrapperMethod;
 import com.oracle.svm.jni.hosted.JNIJavaCallWrapperMethod.CallVariant;
 
+import jdk.vm.ci.meta.JavaType;
 import jdk.vm.ci.meta.MetaAccessProvider;
+import jdk.vm.ci.meta.MetaUtil;
 import jdk.vm.ci.meta.ResolvedJavaField;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
 
@@ -102,11 +107,17 @@ public class JNIAccessFeature implements Feature {
 
     private final Map<JNINativeLinkage, JNINativeLinkage> nativeLinkages = new ConcurrentHashMap<>();
 
+    private final Set<String> criticalNativeMethods = new HashSet<>();
+
     private boolean haveJavaRuntimeReflectionSupport;
 
     public static class Options {
         @Option(help = "Print JNI methods added to generated image")//
         public static final HostedOptionKey<Boolean> PrintJNIMethods = new HostedOptionKey<>(false);
+
+        @Option(help = "Comma-separated list of static native methods, given as fully qualified class name and method name (for example, com.example.Native.sum), " +
+                        "that are critical natives: they are linked to a JavaCritical_ function and called without a thread state transition.", type = OptionType.User)//
+        public static final HostedOptionKey<String[]> JNICriticalNativeMethods = new HostedOptionKey<>(null);
     }
 
     private void abortIfSealed() {
@@ -125,6 +136,8 @@ public class JNIAccessFeature implements Feature {
         ReflectionConfigurationParser<Class<?>> parser = ConfigurationParserUtils.create(registry, access.getImageClassLoader());
         loadedConfigurations = ConfigurationParserUtils.parseAndRegisterConfigurations(parser, access.getImageClassLoader(), "JNI",
                         ConfigurationFiles.Options.JNIConfigurationFiles, ConfigurationFiles.Options.JNIConfigurationResources, ConfigurationFiles.JNI_NAME);
+
+        criticalNativeMethods.addAll(OptionUtils.flatten(",", Options.JNICriticalNativeMethods.getValue()));
     }
 
     private class JNIRuntimeAccessibilitySupportImpl implements JNIRuntimeAccess.JNIRuntimeAccessibilitySupport, ReflectionRegistry {
@@ -188,12 +201,21 @@ public class JNIAccessFeature implements Feature {
         return method;
     }
 
-    public JNINativeLinkage makeLinkage(String declaringClass, String name, String descriptor) {
+    /**
+     * Returns true if the {@code native} method with the given name, in the class with the given
+     * {@linkplain JavaType#getName() name}, was specified with
+     * {@link Options#JNICriticalNativeMethods}. This applies to all overloads of the method.
+     */
+    public boolean isCriticalNative(String declaringClass, String name) {
+        return criticalNativeMethods.contains(MetaUtil.internalNameToJava(declaringClass, true, false) + "." + name);
+    }
+
+    public JNINativeLinkage makeLinkage(String declaringClass, String name, String descriptor, boolean critical) {
         UserError.guarantee(!sealed,
                         "All linkages for JNI calls must be created before the analysis has completed.%nOffending class: %s name: %s descriptor: %s",
                         declaringClass, name, descriptor);
 
-        JNINativeLinkage key = new JNINativeLinkage(declaringClass, name, descriptor);
+        JNINativeLinkage key = new JNINativeLinkage(declaringClass, name, descriptor, critical);
 
         // Checkstyle: stop
         if (JNIAccessFeature.Options.PrintJNIMethods.getValue()) {
@@ -50,6 +50,7 @@ public final class JNINativeLinkage {
     private final String declaringClass;
     private final String name;
     private final String descriptor;
+    private final boolean critical;
 
     private CGlobalDataInfo builtInAddress = null;
 
@@ -61,20 +62,27 @@ public final class JNINativeLinkage {
      * @param name the name of the native method
      * @param descriptor the {@linkplain Signature#toMethodDescriptor() descriptor} of the native
      *            method
+     * @param critical whether to link the {@code JavaCritical_} function of a critical native
+     *            method instead of the regular {@code Java_} function
      */
-    public JNINativeLinkage(String declaringClass, String name, String descriptor) {
+    public JNINativeLinkage(String declaringClass, String name, String descriptor, boolean critical) {
         assert declaringClass.startsWith("L") && declaringClass.endsWith(";") : declaringClass;
         this.declaringClass = declaringClass;
         this.name = name;
         this.descriptor = descriptor;
+        this.critical = critical;
     }
 
     public String getDeclaringClassName() {
         return declaringClass;
     }
 
+    public boolean isCritical() {
+        return critical;
+    }
+
     public boolean isBuiltInFunction() {
-        return (PlatformNativeLibrarySupport.singleton().isBuiltinPkgNative(this.getShortName()));
+        return !critical && (PlatformNativeLibrarySupport.singleton().isBuiltinPkgNative(this.getShortName()));
     }
 
     public CGlobalDataInfo getBuiltInAddress() {
@@ -103,12 +111,12 @@ public final class JNINativeLinkage {
 
     @Override
     public int hashCode() {
-        return (((name.hashCode() * 31) + descriptor.hashCode()) * 31) + declaringClass.hashCode();
+        return (((((name.hashCode() * 31) + descriptor.hashCode()) * 31) + declaringClass.hashCode()) * 31) + Boolean.hashCode(critical);
     }
 
     /**
      * Returns {@code true} iff {@code obj} is a {@link JNINativeLinkage} and has the same declaring
-     * class, name and descriptor as this object.
+     * class, name, descriptor and kind of linked function as this object.
      */
     @Override
     public boolean equals(Object obj) {
@@ -117,7 +125,8 @@ public final class JNINativeLinkage {
             return (that == this) ||
                             (this.declaringClass.equals(that.declaringClass) &&
                                             this.name.equals(that.name) &&
-                                            this.descriptor.equals(that.descriptor));
+                                            this.descriptor.equals(that.descriptor) &&
+                                            this.critical == that.critical);
         }
         return false;
     }
@@ -150,7 +159,7 @@ public final class JNINativeLinkage {
     }
 
     private String getShortName() {
-        StringBuilder sb = new StringBuilder("Java_");
+        StringBuilder sb = new StringBuilder(critical ? "JavaCritical_" : "Java_");
         mangleName(declaringClass, 1, declaringClass.length() - 1, sb);
         sb.append('_');
         mangleName(name, 0, name.length(), sb);
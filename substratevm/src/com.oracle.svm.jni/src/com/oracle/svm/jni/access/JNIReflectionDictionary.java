@@ -138,10 +138,11 @@ public final class JNIReflectionDictionary {
      * @param name the name of the native method
      * @param descriptor the {@linkplain Signature#toMethodDescriptor() descriptor} of the native
      *            method
-     * @return the linkage for the native method or {@code null} if no linkage exists
+     * @return the linkage for the native method or {@code null} if no linkage exists, which is
+     *         also the case for critical native methods
      */
     public JNINativeLinkage getLinkage(String declaringClass, String name, String descriptor) {
-        JNINativeLinkage key = new JNINativeLinkage(declaringClass, name, descriptor);
+        JNINativeLinkage key = new JNINativeLinkage(declaringClass, name, descriptor, false);
         return nativeLinkages.get(key);
     }
 
@@ -69,6 +69,10 @@ class JNIGraphKit extends HostedGraphKit {
         return createInvokeWithExceptionAndUnwind(method, InvokeKind.Static, getFrameState(), invokeBci, exceptionEdgeBci, linkage);
     }
 
+    public InvokeWithExceptionNode criticalArrayLength(ValueNode array) {
+        return createStaticInvoke("criticalArrayLength", array);
+    }
+
     public InvokeWithExceptionNode nativeCallPrologue() {
         return createStaticInvoke("nativeCallPrologue");
     }
@@ -54,6 +54,7 @@ import com.oracle.svm.core.graal.nodes.CGlobalDataLoadAddressNode;
 import com.oracle.svm.core.hub.DynamicHub;
 import com.oracle.svm.core.meta.SubstrateObjectConstant;
 import com.oracle.svm.core.thread.VMThreads.StatusSupport;
+import com.oracle.svm.core.util.UserError;
 import com.oracle.svm.hosted.annotation.CustomSubstitutionMethod;
 import com.oracle.svm.hosted.code.SimpleSignature;
 import com.oracle.svm.jni.access.JNIAccessFeature;
@@ -74,6 +75,11 @@ import jdk.vm.ci.meta.Signature;
  * Generated code for calling a specific native method from Java code. The wrapper takes care of
  * transitioning to native code and back to Java, and if required, for boxing object arguments in
  * handles and for unboxing an object return value.
+ * <p>
+ * Methods specified with {@link JNIAccessFeature.Options#JNICriticalNativeMethods} are critical
+ * natives like in HotSpot: the wrapper calls their {@code JavaCritical_} function without a
+ * transition and without a {@code JNIEnv} or class argument, and passes each primitive array as
+ * its length and the address of its first element.
  */
 class JNINativeCallWrapperMethod extends CustomSubstitutionMethod {
     private final JNINativeLinkage linkage;
@@ -90,7 +96,31 @@ class JNINativeCallWrapperMethod extends CustomSubstitutionMethod {
         }
         String className = unwrapped.getDeclaringClass().getName();
         String descriptor = unwrapped.getSignature().toMethodDescriptor();
-        return JNIAccessFeature.singleton().makeLinkage(className, unwrapped.getName(), descriptor);
+        boolean critical = JNIAccessFeature.singleton().isCriticalNative(className, unwrapped.getName());
+        if (critical) {
+            checkCriticalNative(unwrapped);
+        }
+        return JNIAccessFeature.singleton().makeLinkage(className, unwrapped.getName(), descriptor, critical);
+    }
+
+    /**
+     * A critical native is called without a transition, so no safepoint can occur until it
+     * returns: it must be a short leaf function that neither blocks nor calls back to Java, and it
+     * cannot receive object references other than primitive arrays.
+     */
+    private static void checkCriticalNative(ResolvedJavaMethod method) {
+        boolean valid = method.isStatic() && !method.isSynchronized() && !method.getSignature().getReturnKind().isObject();
+        for (JavaType type : method.toParameterTypes()) {
+            valid = valid && (type.getJavaKind().isPrimitive() || isPrimitiveArray(type));
+        }
+        if (!valid) {
+            throw UserError.abort("Critical native methods must be static and not synchronized, and their parameter types are restricted to primitive types " +
+                            "and primitive arrays and their return type to primitive types: " + method.format("%H.%n(%p)"));
+        }
+    }
+
+    private static boolean isPrimitiveArray(JavaType type) {
+        return type instanceof ResolvedJavaType && ((ResolvedJavaType) type).isArray() && ((ResolvedJavaType) type).getComponentType().getJavaKind().isPrimitive();
     }
 
     @Override
@@ -109,6 +139,9 @@ class JNINativeCallWrapperMethod extends CustomSubstitutionMethod {
     @Override
     public StructuredGraph buildGraph(DebugContext debug, ResolvedJavaMethod method, HostedProviders providers, Purpose purpose) {
         JNIGraphKit kit = new JNIGraphKit(debug, providers, method);
+        if (linkage.isCritical()) {
+            return buildCriticalGraph(kit, method, providers);
+        }
         StructuredGraph graph = kit.getGraph();
 
         InvokeWithExceptionNode handleFrame = kit.nativeCallPrologue();
@@ -197,6 +230,50 @@ class JNINativeCallWrapperMethod extends CustomSubstitutionMethod {
         return kit.finalizeGraph();
     }
 
+    private StructuredGraph buildCriticalGraph(JNIGraphKit kit, ResolvedJavaMethod method, HostedProviders providers) {
+        ValueNode callAddress = kit.nativeCallAddress(kit.createObject(linkage));
+
+        JavaType[] javaArgumentTypes = method.toParameterTypes();
+        List<ValueNode> javaArguments = kit.loadArguments(javaArgumentTypes);
+
+        List<ValueNode> criticalArguments = new ArrayList<>(2 * javaArguments.size());
+        List<JavaType> criticalArgumentTypes = new ArrayList<>(2 * javaArguments.size());
+        JavaType intType = providers.getMetaAccess().lookupJavaType(int.class);
+        JavaType wordType = providers.getWordTypes().getWordImplType();
+        ResolvedJavaType[] arrayTypes = new ResolvedJavaType[2 * javaArguments.size()];
+        for (int i = 0; i < javaArguments.size(); i++) {
+            ValueNode arg = javaArguments.get(i);
+            if (javaArgumentTypes[i].getJavaKind().isObject()) {
+                criticalArguments.add(kit.criticalArrayLength(arg));
+                criticalArgumentTypes.add(intType);
+                arrayTypes[criticalArguments.size()] = (ResolvedJavaType) javaArgumentTypes[i];
+                criticalArguments.add(arg);
+                criticalArgumentTypes.add(wordType);
+            } else {
+                criticalArguments.add(arg);
+                criticalArgumentTypes.add(javaArgumentTypes[i]);
+            }
+        }
+        /*
+         * The arrays are not pinned, so their addresses are computed last: nothing between here
+         * and the end of the call can safepoint and move them.
+         */
+        for (int i = 0; i < criticalArguments.size(); i++) {
+            if (arrayTypes[i] != null) {
+                criticalArguments.set(i, kit.createArrayDataAddress(arrayTypes[i], criticalArguments.get(i)));
+            }
+        }
+
+        kit.getFrameState().clearLocals();
+
+        JavaType returnType = method.getSignature().getReturnType(null);
+        Signature criticalSignature = new SimpleSignature(criticalArgumentTypes, returnType);
+        ValueNode returnValue = kit.createCFunctionCall(callAddress, criticalArguments, criticalSignature, StatusSupport.STATUS_ILLEGAL, false);
+        kit.createReturn(returnValue, returnType.getJavaKind());
+
+        return kit.finalizeGraph();
+    }
+
     private static ValueNode castObject(JNIGraphKit kit, ValueNode object, ResolvedJavaType type, Purpose purpose) {
         ValueNode casted = object;
         if (!type.isJavaLangObject()) { // safe cast to expected type
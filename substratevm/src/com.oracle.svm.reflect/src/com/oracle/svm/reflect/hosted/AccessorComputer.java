@@ -27,39 +27,18 @@ package com.oracle.svm.reflect.hosted;
 // Checkstyle: allow reflection
 
 import java.lang.reflect.Member;
-import java.lang.reflect.Proxy;
 
-import org.graalvm.compiler.serviceprovider.GraalUnsafeAccess;
 import org.graalvm.nativeimage.ImageSingletons;
 
 import com.oracle.svm.core.annotate.RecomputeFieldValue;
-import com.oracle.svm.core.util.VMError;
-import com.oracle.svm.reflect.helpers.ReflectionProxyHelper;
 
 import jdk.vm.ci.meta.MetaAccessProvider;
 import jdk.vm.ci.meta.ResolvedJavaField;
-import sun.misc.Unsafe;
 
 public final class AccessorComputer implements RecomputeFieldValue.CustomFieldValueComputer {
 
-    private static final Unsafe UNSAFE = GraalUnsafeAccess.getUnsafe();
-
     @Override
     public Object compute(MetaAccessProvider metaAccess, ResolvedJavaField original, ResolvedJavaField annotated, Object receiver) {
-        Member member = (Member) receiver;
-        ReflectionSubstitution subst = ImageSingletons.lookup(ReflectionSubstitution.class);
-        Class<?> proxyClass = subst.getProxyClass(member);
-        if (proxyClass == null) {
-            // should never happen, but better check for it here than segfault later
-            throw VMError.shouldNotReachHere();
-        }
-        try {
-            Proxy proxyInstance = (Proxy) UNSAFE.allocateInstance(proxyClass);
-            ReflectionProxyHelper.setDefaultInvocationHandler(proxyInstance);
-            return proxyInstance;
-
-        } catch (InstantiationException ex) {
-            throw VMError.shouldNotReachHere(ex);
-        }
+        return ImageSingletons.lookup(ReflectionSubstitution.class).getProxyInstance((Member) receiver);
     }
 }
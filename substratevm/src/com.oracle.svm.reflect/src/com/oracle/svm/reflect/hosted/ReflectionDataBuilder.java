@@ -134,6 +134,14 @@ public class ReflectionDataBuilder implements RuntimeReflectionSupport {
         }
     }
 
+    /**
+     * Returns true if the method or constructor is registered for reflective access, which is when
+     * an accessor is generated for it.
+     */
+    boolean isRegistered(Executable method) {
+        return reflectionMethods.contains(method);
+    }
+
     @Override
     public void register(boolean finalIsWritable, boolean allowUnsafeAccess, Field... fields) {
         checkNotSealed();
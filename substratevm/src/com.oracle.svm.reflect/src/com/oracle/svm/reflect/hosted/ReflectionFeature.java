@@ -102,5 +102,8 @@ public final class ReflectionFeature implements GraalFeature {
          * since it adds Field and Method objects to the image heap which otherwise are not allowed.
          */
         ReflectionPlugins.registerInvocationPlugins(loader, snippetReflection, annotationSubstitutions, invocationPlugins, hostVM, analysis, hosted);
+        if (hosted) {
+            ReflectionInvocationPlugins.registerInvocationPlugins(snippetReflection, reflectionData, invocationPlugins);
+        }
     }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.reflect.hosted;
+
+// Checkstyle: allow reflection
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+
+import org.graalvm.compiler.api.replacements.SnippetReflectionProvider;
+import org.graalvm.compiler.nodes.CallTargetNode.InvokeKind;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderContext;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugin;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugin.Receiver;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins.Registration;
+import org.graalvm.compiler.options.Option;
+import org.graalvm.nativeimage.ImageSingletons;
+
+import com.oracle.svm.core.option.HostedOptionKey;
+import com.oracle.svm.util.ReflectionUtil;
+
+import jdk.vm.ci.meta.JavaConstant;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+/**
+ * Replaces calls of {@link Method#invoke} on a constant {@link Method} that is registered for
+ * reflection with a direct call of the accessor that is generated for the method, see
+ * {@link ReflectionSubstitutionType}. The accessor calls the target method directly, so the direct
+ * call can be inlined and the argument array and the boxing of arguments can then be removed by
+ * escape analysis. Without this, the call goes through {@code Method.acquireMethodAccessor} and an
+ * interface call of the accessor.
+ *
+ * Calls of {@code MethodHandle.invokeExact} on a constant method handle are already replaced with
+ * direct calls by {@code IntrinsifyMethodHandlesInvocationPlugin}.
+ */
+final class ReflectionInvocationPlugins {
+
+    static class Options {
+        @Option(help = "Replace Method.invoke calls on constant Method objects with direct calls of the generated accessor.")//
+        static final HostedOptionKey<Boolean> InlineConstantReflectiveCalls = new HostedOptionKey<>(false);
+    }
+
+    static void registerInvocationPlugins(SnippetReflectionProvider snippetReflection, ReflectionDataBuilder reflectionData, InvocationPlugins plugins) {
+        if (!Options.InlineConstantReflectiveCalls.getValue()) {
+            return;
+        }
+
+        Registration r = new Registration(plugins, Method.class);
+        r.register3("invoke", Receiver.class, Object.class, Object[].class, new InvocationPlugin() {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode obj, ValueNode args) {
+                ValueNode methodNode = receiver.get(false);
+                if (!methodNode.isConstant() || methodNode.isNullConstant()) {
+                    return false;
+                }
+                Method method = snippetReflection.asObject(Method.class, methodNode.asJavaConstant());
+                if (method == null || !Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                    /*
+                     * Method.invoke performs access checks based on the caller class, unless both
+                     * the method and its class are public. Keep the regular call in that case.
+                     */
+                    return false;
+                }
+                if (!reflectionData.isRegistered(method)) {
+                    /*
+                     * Only methods that are registered for reflection have an accessor. Calling
+                     * any other method would make it invocable although it is not registered.
+                     */
+                    return false;
+                }
+
+                Proxy accessor = ImageSingletons.lookup(ReflectionSubstitution.class).getProxyInstance(method);
+                JavaConstant accessorConstant = snippetReflection.forObject(accessor);
+                ResolvedJavaMethod accessorMethod = b.getMetaAccess().lookupJavaMethod(ReflectionUtil.lookupMethod(accessor.getClass(), "invoke", Object.class, Object[].class));
+                ValueNode accessorNode = ConstantNode.forConstant(accessorConstant, b.getMetaAccess(), b.getGraph());
+                b.handleReplacedInvoke(InvokeKind.Special, accessorMethod, new ValueNode[]{accessorNode, obj, args}, false);
+                return true;
+            }
+        });
+    }
+}
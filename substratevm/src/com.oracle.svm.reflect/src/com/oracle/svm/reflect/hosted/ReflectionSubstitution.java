@@ -33,11 +33,13 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
+import org.graalvm.compiler.serviceprovider.GraalUnsafeAccess;
 import org.graalvm.compiler.serviceprovider.JavaVersionUtil;
 
 import com.oracle.svm.core.SubstrateUtil;
@@ -47,17 +49,21 @@ import com.oracle.svm.hosted.ImageClassLoader;
 import com.oracle.svm.hosted.annotation.CustomSubstitution;
 import com.oracle.svm.hosted.classinitialization.ClassInitializationSupport;
 import com.oracle.svm.reflect.helpers.ReflectionProxy;
+import com.oracle.svm.reflect.helpers.ReflectionProxyHelper;
 import com.oracle.svm.reflect.hosted.ReflectionSubstitutionType.ReflectionSubstitutionMethod;
 import com.oracle.svm.util.ReflectionUtil;
 
 import jdk.vm.ci.meta.MetaAccessProvider;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
 import jdk.vm.ci.meta.ResolvedJavaType;
+import sun.misc.Unsafe;
 
 final class ReflectionSubstitution extends CustomSubstitution<ReflectionSubstitutionType> {
 
     private static final String PROXY_NAME_SEPARATOR = "_";
 
+    private static final Unsafe UNSAFE = GraalUnsafeAccess.getUnsafe();
+
     private final ClassInitializationSupport classInitializationSupport;
 
     private static final int ACC_PUBLIC = 0x00000001;
@@ -71,6 +77,7 @@ final class ReflectionSubstitution extends CustomSubstitution<ReflectionSubstitu
     private final ResolvedJavaType javaLangReflectProxy;
 
     private final HashMap<Member, Class<?>> proxyMap = new HashMap<>();
+    private final HashMap<Member, Proxy> proxyInstances = new HashMap<>();
     private final HashMap<ResolvedJavaType, Member> typeToMember = new HashMap<>();
 
     private static final AtomicInteger proxyNr = new AtomicInteger(0);
@@ -173,6 +180,29 @@ final class ReflectionSubstitution extends CustomSubstitution<ReflectionSubstitu
         return ret;
     }
 
+    /**
+     * Returns the accessor object for the member. The same instance is used as the value of the
+     * accessor field of the member and for calls to the accessor that are emitted directly.
+     */
+    synchronized Proxy getProxyInstance(Member member) {
+        Proxy ret = proxyInstances.get(member);
+        if (ret == null) {
+            Class<?> proxyClass = getProxyClass(member);
+            if (proxyClass == null) {
+                // should never happen, but better check for it here than segfault later
+                throw VMError.shouldNotReachHere();
+            }
+            try {
+                ret = (Proxy) UNSAFE.allocateInstance(proxyClass);
+            } catch (InstantiationException ex) {
+                throw VMError.shouldNotReachHere(ex);
+            }
+            ReflectionProxyHelper.setDefaultInvocationHandler(ret);
+            proxyInstances.put(member, ret);
+        }
+        return ret;
+    }
+
     private boolean isReflectionProxy(ResolvedJavaType type) {
         return reflectionProxy.isAssignableFrom(type) && javaLangReflectProxy.isAssignableFrom(type);
     }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.test;
+
+import org.graalvm.nativeimage.c.CContext;
+import org.graalvm.nativeimage.c.function.CFunction;
+import org.graalvm.nativeimage.c.function.CFunction.Transition;
+import org.graalvm.word.PointerBase;
+import org.graalvm.word.UnsignedWord;
+import org.graalvm.word.WordFactory;
+
+/**
+ * Measures the overhead of the Java-to-native thread state transition of {@link CFunction} calls
+ * for tiny leaf C functions. Build as a standalone image with this class as the main class.
+ */
+@CContext(NoTransitionCFunctionTest.Directives.class)
+public class CFunctionTransitionBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 10_000_000;
+    private static final int ITERATIONS = 100_000_000;
+    private static final int ROUNDS = 5;
+
+    @CFunction(value = "abs")
+    private static native int absWithTransition(int value);
+
+    @CFunction(value = "abs", transition = Transition.NO_TRANSITION)
+    private static native int absNoTransition(int value);
+
+    @CFunction(value = "memchr", transition = Transition.NO_TRANSITION)
+    private static native PointerBase memchrNoTransition(byte[] s, int c, UnsignedWord n);
+
+    private static int sink;
+
+    public static void main(String[] args) {
+        byte[] bytes = new byte[64];
+        bytes[63] = 1;
+
+        runAbs(WARMUP_ITERATIONS, true);
+        runAbs(WARMUP_ITERATIONS, false);
+        runMemchr(bytes, WARMUP_ITERATIONS);
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            runAbs(ITERATIONS, true);
+            long withTransition = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            runAbs(ITERATIONS, false);
+            long noTransition = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            runMemchr(bytes, ITERATIONS);
+            long memchrNoTransition = System.nanoTime() - start;
+
+            System.out.printf("round %d: abs TO_NATIVE %.2f ns/call, abs NO_TRANSITION %.2f ns/call, memchr(byte[64]) NO_TRANSITION %.2f ns/call%n", round,
+                            (double) withTransition / ITERATIONS, (double) noTransition / ITERATIONS, (double) memchrNoTransition / ITERATIONS);
+        }
+        System.out.println(sink);
+    }
+
+    private static void runAbs(int iterations, boolean transition) {
+        int result = 0;
+        for (int i = 0; i < iterations; i++) {
+            result += transition ? absWithTransition(-i) : absNoTransition(-i);
+        }
+        sink += result;
+    }
+
+    private static void runMemchr(byte[] bytes, int iterations) {
+        int result = 0;
+        for (int i = 0; i < iterations; i++) {
+            result += memchrNoTransition(bytes, 1, WordFactory.unsigned(bytes.length)).isNull() ? 0 : 1;
+        }
+        sink += result;
+    }
+}
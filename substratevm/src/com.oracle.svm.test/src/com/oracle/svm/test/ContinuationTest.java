@@ -0,0 +1,419 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.svm.core.thread.Continuation;
+import com.oracle.svm.core.thread.LightweightThread;
+
+/**
+ * Tests {@link Continuation} and {@link LightweightThread}. Requires an image that is built with
+ * {@code -H:+SupportContinuations}.
+ */
+public class ContinuationTest {
+
+    /** Runs submitted tasks only when the test asks for it, so that orderings are deterministic. */
+    static final class ManualExecutor implements Executor {
+        private final Queue<Runnable> queue = new ArrayDeque<>();
+
+        @Override
+        public synchronized void execute(Runnable command) {
+            queue.add(command);
+        }
+
+        synchronized int size() {
+            return queue.size();
+        }
+
+        void runNext() {
+            Runnable next;
+            synchronized (this) {
+                next = queue.remove();
+            }
+            next.run();
+        }
+    }
+
+    @Before
+    public void checkSupported() {
+        Assume.assumeTrue("continuations are not enabled in this image", Continuation.isSupported());
+    }
+
+    private static int[] fill(int n, int seed) {
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = seed + i;
+        }
+        return result;
+    }
+
+    @Test
+    public void testYieldResume() {
+        List<String> log = new ArrayList<>();
+        Continuation cont = new Continuation(() -> {
+            int local = 42;
+            int[] array = fill(1000, local);
+            String text = "before";
+            log.add(text);
+            for (int i = 0; i < 3; i++) {
+                Continuation.yield();
+                /* Locals and references must survive the yield and the garbage collection. */
+                Assert.assertEquals(42, local);
+                Assert.assertEquals(42 + 999, array[999]);
+                log.add(text + i);
+            }
+        });
+        Assert.assertFalse(cont.run());
+        Assert.assertEquals(1, log.size());
+        for (int i = 0; i < 3; i++) {
+            /* May move the objects referenced by the stored frames. */
+            System.gc();
+            Assert.assertEquals(i == 2, cont.run());
+            Assert.assertEquals("before" + i, log.get(log.size() - 1));
+        }
+        Assert.assertTrue(cont.isDone());
+        Assert.assertNull(Continuation.current());
+    }
+
+    @Test
+    public void testResumeOnOtherThread() throws InterruptedException {
+        AtomicReference<Thread> resumedOn = new AtomicReference<>();
+        Continuation cont = new Continuation(() -> {
+            Continuation.yield();
+            resumedOn.set(Thread.currentThread());
+        });
+        Assert.assertFalse(cont.run());
+        Thread other = new Thread(() -> Assert.assertTrue(cont.run()));
+        other.start();
+        other.join();
+        Assert.assertSame(other, resumedOn.get());
+        Assert.assertTrue(cont.isDone());
+    }
+
+    @Test
+    public void testException() {
+        Continuation cont = new Continuation(() -> {
+            Continuation.yield();
+            throw new IllegalArgumentException("expected");
+        });
+        Assert.assertFalse(cont.run());
+        try {
+            cont.run();
+            Assert.fail("exception expected");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertEquals("expected", ex.getMessage());
+        }
+        Assert.assertTrue(cont.isDone());
+        try {
+            cont.run();
+            Assert.fail("exception expected");
+        } catch (IllegalStateException ex) {
+            /* A done continuation cannot be run again. */
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testYieldOutsideContinuation() {
+        Continuation.yield();
+    }
+
+    @Test
+    public void testTermination() {
+        ManualExecutor executor = new ManualExecutor();
+        AtomicInteger step = new AtomicInteger();
+        LightweightThread thread = LightweightThread.start(step::incrementAndGet, executor);
+        Assert.assertFalse(thread.isTerminated());
+        executor.runNext();
+        Assert.assertEquals(1, step.get());
+        Assert.assertTrue(thread.isTerminated());
+        Assert.assertEquals(0, executor.size());
+        /* Unparking a terminated thread must not schedule it again. */
+        thread.unpark();
+        Assert.assertEquals(0, executor.size());
+    }
+
+    @Test
+    public void testTerminationByException() {
+        ManualExecutor executor = new ManualExecutor();
+        LightweightThread thread = LightweightThread.start(() -> {
+            LightweightThread.park();
+            throw new IllegalArgumentException("expected");
+        }, executor);
+        executor.runNext();
+        Assert.assertFalse(thread.isTerminated());
+        thread.unpark();
+        try {
+            executor.runNext();
+            Assert.fail("exception expected");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertEquals("expected", ex.getMessage());
+        }
+        Assert.assertTrue(thread.isTerminated());
+        Assert.assertEquals(0, executor.size());
+    }
+
+    @Test
+    public void testUnparkBeforePark() {
+        ManualExecutor executor = new ManualExecutor();
+        AtomicInteger step = new AtomicInteger();
+        LightweightThread thread = LightweightThread.start(() -> {
+            step.set(1);
+            LightweightThread.park();
+            step.set(2);
+        }, executor);
+        thread.unpark();
+        /* Still only scheduled once. */
+        Assert.assertEquals(1, executor.size());
+        executor.runNext();
+        Assert.assertEquals(2, step.get());
+        Assert.assertTrue(thread.isTerminated());
+    }
+
+    @Test
+    public void testUnparkWhileParked() {
+        ManualExecutor executor = new ManualExecutor();
+        AtomicInteger step = new AtomicInteger();
+        LightweightThread thread = LightweightThread.start(() -> {
+            step.set(1);
+            LightweightThread.park();
+            step.set(2);
+        }, executor);
+        executor.runNext();
+        Assert.assertEquals(1, step.get());
+        Assert.assertFalse(thread.isTerminated());
+        Assert.assertEquals(0, executor.size());
+
+        thread.unpark();
+        thread.unpark();
+        Assert.assertEquals(1, executor.size());
+        executor.runNext();
+        Assert.assertEquals(2, step.get());
+        Assert.assertTrue(thread.isTerminated());
+    }
+
+    @Test
+    public void testUnparkAfterResume() {
+        ManualExecutor executor = new ManualExecutor();
+        AtomicInteger step = new AtomicInteger();
+        LightweightThread thread = LightweightThread.start(() -> {
+            LightweightThread.park();
+            /* An unpark that arrives once the thread runs again must not be lost. */
+            LightweightThread.current().unpark();
+            step.set(1);
+            LightweightThread.park();
+            step.set(2);
+            /* The permit has been consumed, so this park must yield. */
+            LightweightThread.park();
+            step.set(3);
+        }, executor);
+        executor.runNext();
+        thread.unpark();
+        executor.runNext();
+        Assert.assertEquals(2, step.get());
+        Assert.assertFalse(thread.isTerminated());
+        Assert.assertEquals(0, executor.size());
+
+        thread.unpark();
+        executor.runNext();
+        Assert.assertEquals(3, step.get());
+        Assert.assertTrue(thread.isTerminated());
+    }
+
+    /**
+     * Unparks a lightweight thread from another thread as soon as it has consumed the previous
+     * permit, so that the unpark races with the thread running, being in the middle of
+     * {@link LightweightThread#park()} and being parked. A lost wakeup makes the test time out.
+     */
+    @Test
+    public void testConcurrentParkUnpark() throws InterruptedException {
+        int iterations = 10_000;
+        ExecutorService carriers = Executors.newFixedThreadPool(2);
+        try {
+            AtomicInteger consumed = new AtomicInteger();
+            LightweightThread thread = LightweightThread.start(() -> {
+                for (int i = 0; i < iterations; i++) {
+                    LightweightThread.park();
+                    consumed.incrementAndGet();
+                }
+            }, carriers);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            for (int i = 0; i < iterations; i++) {
+                thread.unpark();
+                while (consumed.get() <= i) {
+                    if (System.nanoTime() > deadline) {
+                        Assert.fail("wakeup lost after " + consumed.get() + " iterations");
+                    }
+                    Thread.yield();
+                }
+            }
+            while (!thread.isTerminated()) {
+                Assert.assertTrue("thread did not terminate", System.nanoTime() < deadline);
+                Thread.yield();
+            }
+        } finally {
+            carriers.shutdown();
+            Assert.assertTrue(carriers.awaitTermination(60, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void awaitTermination(LightweightThread... threads) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        for (LightweightThread thread : threads) {
+            while (!thread.isTerminated()) {
+                Assert.assertTrue("thread did not terminate", System.nanoTime() < deadline);
+                Thread.yield();
+            }
+        }
+    }
+
+    @Test
+    public void testLockSupportParkYields() {
+        ManualExecutor executor = new ManualExecutor();
+        AtomicReference<Thread> current = new AtomicReference<>();
+        AtomicInteger step = new AtomicInteger();
+        LightweightThread thread = LightweightThread.start(() -> {
+            current.set(Thread.currentThread());
+            step.set(1);
+            LockSupport.park();
+            step.set(2);
+        }, executor);
+        /* Returns because the park yields instead of blocking the carrier thread. */
+        executor.runNext();
+        Assert.assertEquals(1, step.get());
+        Assert.assertSame(thread.getThread(), current.get());
+        Assert.assertNotSame(thread.getThread(), Thread.currentThread());
+        Assert.assertEquals(0, executor.size());
+
+        LockSupport.unpark(thread.getThread());
+        Assert.assertEquals(1, executor.size());
+        executor.runNext();
+        Assert.assertEquals(2, step.get());
+        Assert.assertTrue(thread.isTerminated());
+    }
+
+    /**
+     * Contends for a monitor between two lightweight threads on a single carrier thread, which
+     * only completes if blocking on the monitor yields the waiting lightweight thread.
+     */
+    @Test
+    public void testMonitorContentionYields() throws InterruptedException {
+        ExecutorService carrier = Executors.newSingleThreadExecutor();
+        try {
+            Object lock = new Object();
+            AtomicInteger entered = new AtomicInteger();
+            LightweightThread owner = LightweightThread.start(() -> {
+                synchronized (lock) {
+                    entered.incrementAndGet();
+                    LockSupport.park();
+                }
+            }, carrier);
+            while (entered.get() == 0) {
+                Thread.yield();
+            }
+            LightweightThread contender = LightweightThread.start(() -> {
+                synchronized (lock) {
+                    entered.incrementAndGet();
+                }
+            }, carrier);
+            LockSupport.unpark(owner.getThread());
+            awaitTermination(owner, contender);
+            Assert.assertEquals(2, entered.get());
+        } finally {
+            carrier.shutdown();
+            Assert.assertTrue(carrier.awaitTermination(60, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testSleepYields() throws InterruptedException {
+        ExecutorService carrier = Executors.newSingleThreadExecutor();
+        try {
+            List<String> log = new ArrayList<>();
+            LightweightThread sleeper = LightweightThread.start(() -> {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException ex) {
+                    throw new AssertionError(ex);
+                }
+                synchronized (log) {
+                    log.add("sleeper");
+                }
+            }, carrier);
+            LightweightThread other = LightweightThread.start(() -> {
+                synchronized (log) {
+                    log.add("other");
+                }
+            }, carrier);
+            awaitTermination(sleeper, other);
+            Assert.assertEquals(Arrays.asList("other", "sleeper"), log);
+        } finally {
+            carrier.shutdown();
+            Assert.assertTrue(carrier.awaitTermination(60, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testInterruptSleep() throws InterruptedException {
+        ExecutorService carrier = Executors.newSingleThreadExecutor();
+        try {
+            AtomicInteger step = new AtomicInteger();
+            AtomicReference<Throwable> thrown = new AtomicReference<>();
+            LightweightThread sleeper = LightweightThread.start(() -> {
+                step.set(1);
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(60));
+                } catch (InterruptedException ex) {
+                    thrown.set(ex);
+                }
+            }, carrier);
+            while (step.get() == 0) {
+                Thread.yield();
+            }
+            sleeper.getThread().interrupt();
+            awaitTermination(sleeper);
+            Assert.assertTrue(thrown.get() instanceof InterruptedException);
+        } finally {
+            carrier.shutdown();
+            Assert.assertTrue(carrier.awaitTermination(60, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.graalvm.nativeimage.PinnedObject;
+import org.graalvm.nativeimage.c.CContext;
+import org.graalvm.nativeimage.c.function.CFunction;
+import org.graalvm.nativeimage.c.function.CFunction.Transition;
+import org.graalvm.word.PointerBase;
+import org.graalvm.word.UnsignedWord;
+import org.graalvm.word.WordFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests passing primitive arrays directly to C functions that are called without a thread state
+ * transition.
+ */
+@CContext(NoTransitionCFunctionTest.Directives.class)
+public class NoTransitionCFunctionTest {
+
+    public static class Directives implements CContext.Directives {
+        @Override
+        public List<String> getHeaderFiles() {
+            return Arrays.asList("<stdlib.h>", "<string.h>");
+        }
+    }
+
+    @CFunction(value = "memset", transition = Transition.NO_TRANSITION)
+    private static native PointerBase memset(byte[] s, int c, UnsignedWord n);
+
+    @CFunction(value = "memcmp", transition = Transition.NO_TRANSITION)
+    private static native int memcmp(byte[] s1, byte[] s2, UnsignedWord n);
+
+    @CFunction(value = "memcmp", transition = Transition.NO_TRANSITION)
+    private static native int memcmp(int[] s1, int[] s2, UnsignedWord n);
+
+    @CFunction(value = "memcmp", transition = Transition.NO_TRANSITION)
+    private static native int memcmp(double[] s1, double[] s2, UnsignedWord n);
+
+    /** Returns {@code dest}, which makes the address that is passed for an array observable. */
+    @CFunction(value = "memcpy", transition = Transition.NO_TRANSITION)
+    private static native PointerBase memcpy(byte[] dest, byte[] src, UnsignedWord n);
+
+    @CFunction(value = "memcpy")
+    private static native PointerBase memcpy(PointerBase dest, PointerBase src, UnsignedWord n);
+
+    @Test
+    public void testArrayAddress() {
+        byte[] array = new byte[16];
+        try (PinnedObject pinned = PinnedObject.create(array)) {
+            /* The array cannot move while it is pinned, so both addresses must be the same. */
+            Assert.assertEquals(pinned.addressOfArrayElement(0).rawValue(), memcpy(array, array, WordFactory.zero()).rawValue());
+        }
+    }
+
+    @Test
+    public void testNullArray() {
+        Assert.assertEquals(0, memcpy((byte[]) null, null, WordFactory.zero()).rawValue());
+    }
+
+    @Test
+    public void testPinnedArgument() {
+        byte[] src = new byte[64];
+        for (int i = 0; i < src.length; i++) {
+            src[i] = (byte) i;
+        }
+        byte[] dest = new byte[src.length];
+        try (PinnedObject pinnedDest = PinnedObject.create(dest); PinnedObject pinnedSrc = PinnedObject.create(src)) {
+            memcpy(pinnedDest.addressOfArrayElement(0), pinnedSrc.addressOfArrayElement(0), WordFactory.unsigned(src.length));
+        }
+        Assert.assertArrayEquals(src, dest);
+        Assert.assertEquals(0, memcmp(src, dest, WordFactory.unsigned(src.length)));
+    }
+
+    @Test
+    public void testByteArray() {
+        byte[] array = new byte[100];
+        memset(array, 42, WordFactory.unsigned(array.length));
+        for (byte b : array) {
+            Assert.assertEquals(42, b);
+        }
+
+        byte[] copy = array.clone();
+        Assert.assertEquals(0, memcmp(array, copy, WordFactory.unsigned(array.length)));
+        copy[99] = 43;
+        Assert.assertTrue(memcmp(array, copy, WordFactory.unsigned(array.length)) < 0);
+        Assert.assertEquals(0, memcmp(array, copy, WordFactory.unsigned(99)));
+    }
+
+    @Test
+    public void testIntArray() {
+        int[] a = {1, 2, 3, 4};
+        int[] b = {1, 2, 3, 5};
+        Assert.assertEquals(0, memcmp(a, b, WordFactory.unsigned(3 * Integer.BYTES)));
+        Assert.assertNotEquals(0, memcmp(a, b, WordFactory.unsigned(4 * Integer.BYTES)));
+    }
+
+    @Test
+    public void testDoubleArray() {
+        double[] a = {1.5, 2.5};
+        double[] b = {1.5, 2.5};
+        Assert.assertEquals(0, memcmp(a, b, WordFactory.unsigned(2 * Double.BYTES)));
+    }
+
+    @Test
+    public void testArraysSurviveGC() {
+        byte[] array = new byte[1024];
+        for (int i = 0; i < 100; i++) {
+            /* Allocate enough to move the array with a young collection. */
+            byte[][] garbage = new byte[1024][];
+            for (int j = 0; j < garbage.length; j++) {
+                garbage[j] = new byte[1024];
+            }
+            memset(array, i, WordFactory.unsigned(array.length));
+            Assert.assertEquals((byte) i, array[i]);
+            Assert.assertEquals((byte) i, array[array.length - 1]);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.test;
+
+import org.graalvm.nativeimage.ObjectHandle;
+import org.graalvm.nativeimage.ObjectHandles;
+
+/**
+ * Measures the throughput of creating, resolving and destroying global object handles, which back
+ * JNI global references, with few and with many live handles. Build as a standalone image with this
+ * class as the main class and compare the results of different builds.
+ *
+ * Besides creating and destroying a single handle, the benchmark replaces long-lived handles in the
+ * middle of the table while also creating and destroying a short-lived handle, so that handles are
+ * freed before the position where the search for an unused handle continues.
+ */
+public class ObjectHandlesBenchmark {
+
+    private static final int ITERATIONS = 10_000_000;
+    private static final int ROUNDS = 5;
+    private static final int[] LIVE_HANDLE_COUNTS = {0, 1_000, 100_000};
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        ObjectHandles handles = ObjectHandles.getGlobal();
+        Object target = new Object();
+        for (int liveCount : LIVE_HANDLE_COUNTS) {
+            ObjectHandle[] live = new ObjectHandle[liveCount];
+            for (int i = 0; i < liveCount; i++) {
+                live[i] = handles.create(target);
+            }
+            run(handles, target, ITERATIONS / 10);
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                run(handles, target, ITERATIONS);
+                long elapsed = System.nanoTime() - start;
+                System.out.printf("%d live handles, round %d: %.2f ns per create/get/destroy%n", liveCount, round, (double) elapsed / ITERATIONS);
+            }
+            if (liveCount > 0) {
+                runChurn(handles, target, live, ITERATIONS / 10);
+                for (int round = 0; round < ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    runChurn(handles, target, live, ITERATIONS);
+                    long elapsed = System.nanoTime() - start;
+                    System.out.printf("%d live handles, round %d: %.2f ns per replace and create/get/destroy%n", liveCount, round, (double) elapsed / ITERATIONS);
+                }
+            }
+            for (ObjectHandle handle : live) {
+                handles.destroy(handle);
+            }
+        }
+        System.out.println(sink);
+    }
+
+    private static void run(ObjectHandles handles, Object target, int iterations) {
+        long result = 0;
+        for (int i = 0; i < iterations; i++) {
+            ObjectHandle handle = handles.create(target);
+            Object obj = handles.get(handle);
+            result += (obj == target) ? 1 : 0;
+            handles.destroy(handle);
+        }
+        sink += result;
+    }
+
+    private static void runChurn(ObjectHandles handles, Object target, ObjectHandle[] live, int iterations) {
+        long result = 0;
+        for (int i = 0; i < iterations; i++) {
+            int replaced = (int) ((i * 0x9E3779B1L) % live.length);
+            handles.destroy(live[replaced]);
+            live[replaced] = handles.create(target);
+            ObjectHandle handle = handles.create(target);
+            Object obj = handles.get(handle);
+            result += (obj == target) ? 1 : 0;
+            handles.destroy(handle);
+        }
+        sink += result;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.svm.core.deopt.PersistentSpeculations;
+import com.oracle.svm.core.deopt.SubstrateSpeculationLog;
+
+import jdk.vm.ci.meta.SpeculationLog.SpeculationReason;
+import jdk.vm.ci.meta.SpeculationLog.SpeculationReasonEncoding;
+
+/**
+ * Tests that failed speculations survive a save and reload of {@link PersistentSpeculations}.
+ */
+public class PersistentSpeculationsTest {
+
+    private static final String KEY = "PersistentSpeculationsTest";
+
+    static final class TestReason implements SpeculationReason {
+        private final int groupId;
+        private final String name;
+        private final int bci;
+        private SpeculationReasonEncoding encoding;
+
+        TestReason(int groupId, String name, int bci) {
+            this.groupId = groupId;
+            this.name = name;
+            this.bci = bci;
+        }
+
+        @Override
+        public SpeculationReasonEncoding encode(Supplier<SpeculationReasonEncoding> encodingSupplier) {
+            if (encoding == null) {
+                encoding = encodingSupplier.get();
+                encoding.addInt(groupId);
+                encoding.addString(name);
+                encoding.addInt(bci);
+            }
+            return encoding;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof TestReason) {
+                TestReason that = (TestReason) obj;
+                return groupId == that.groupId && name.equals(that.name) && bci == that.bci;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(new Object[]{groupId, name, bci});
+        }
+    }
+
+    /** A reason without an encoding, whose failure must not be persisted. */
+    static final class UnencodedReason implements SpeculationReason {
+    }
+
+    private static SubstrateSpeculationLog newLog(Path file) {
+        SubstrateSpeculationLog log = new SubstrateSpeculationLog();
+        log.setPersistenceKey(KEY, new PersistentSpeculations(file));
+        return log;
+    }
+
+    private static void fail(SubstrateSpeculationLog log, SpeculationReason reason) {
+        log.addFailedSpeculation(reason);
+        log.collectFailedSpeculations();
+        Assert.assertFalse(log.maySpeculate(reason));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path file = Files.createTempFile("speculations", ".log");
+        Files.delete(file);
+        try {
+            PersistentSpeculations first = new PersistentSpeculations(file);
+            SubstrateSpeculationLog log = new SubstrateSpeculationLog();
+            log.setPersistenceKey(KEY, first);
+            Assert.assertTrue(log.maySpeculate(new TestReason(1, "a", 7)));
+            fail(log, new TestReason(1, "a", 7));
+            fail(log, new UnencodedReason());
+            first.save();
+
+            SubstrateSpeculationLog reloaded = newLog(file);
+            /* Equal reasons are distinct instances, as they are in a new process. */
+            Assert.assertFalse(reloaded.maySpeculate(new TestReason(1, "a", 7)));
+            Assert.assertTrue(reloaded.maySpeculate(new TestReason(2, "a", 7)));
+            Assert.assertTrue(reloaded.maySpeculate(new TestReason(1, "a7", 0)));
+            Assert.assertTrue(reloaded.maySpeculate(new TestReason(1, "a", 8)));
+            Assert.assertTrue(reloaded.maySpeculate(new UnencodedReason()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testOtherKey() throws IOException {
+        Path file = Files.createTempFile("speculations", ".log");
+        Files.delete(file);
+        try {
+            PersistentSpeculations first = new PersistentSpeculations(file);
+            SubstrateSpeculationLog log = new SubstrateSpeculationLog();
+            log.setPersistenceKey(KEY, first);
+            fail(log, new TestReason(1, "a", 7));
+            first.save();
+
+            SubstrateSpeculationLog other = new SubstrateSpeculationLog();
+            other.setPersistenceKey(KEY + "Other", new PersistentSpeculations(file));
+            Assert.assertTrue(other.maySpeculate(new TestReason(1, "a", 7)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
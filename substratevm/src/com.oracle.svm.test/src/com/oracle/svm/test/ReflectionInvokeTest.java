@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.test;
+
+// Checkstyle: allow reflection
+
+import java.lang.reflect.Method;
+
+import org.graalvm.nativeimage.hosted.Feature;
+import org.graalvm.nativeimage.hosted.RuntimeClassInitialization;
+import org.graalvm.nativeimage.hosted.RuntimeReflection;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that a {@link Method#invoke} call on a constant {@link Method} is replaced with a direct
+ * call of the generated accessor, while a call on a non-constant {@link Method} keeps going through
+ * {@link Method#invoke}. Requires {@code -H:+InlineConstantReflectiveCalls}.
+ */
+public class ReflectionInvokeTest {
+    public static class TestFeature implements Feature {
+        @Override
+        public void beforeAnalysis(BeforeAnalysisAccess access) {
+            RuntimeClassInitialization.initializeAtBuildTime(ReflectionInvokeTest.class);
+            RuntimeReflection.register(TARGET);
+        }
+    }
+
+    private static final Method TARGET = lookupTarget();
+
+    private static volatile Method nonConstantTarget = TARGET;
+
+    private static Method lookupTarget() {
+        try {
+            return ReflectionInvokeTest.class.getMethod("target", int.class);
+        } catch (NoSuchMethodException ex) {
+            throw new AssertionError(ex);
+        }
+    }
+
+    /** Returns whether the caller reached this method through {@link Method#invoke}. */
+    public static boolean target(int value) {
+        Assert.assertEquals(42, value);
+        for (StackTraceElement element : new Exception().getStackTrace()) {
+            if (element.getClassName().equals(Method.class.getName()) && element.getMethodName().equals("invoke")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testConstantMethod() throws ReflectiveOperationException {
+        Assert.assertEquals("call must not go through Method.invoke", Boolean.FALSE, TARGET.invoke(null, 42));
+    }
+
+    @Test
+    public void testNonConstantMethod() throws ReflectiveOperationException {
+        Assert.assertEquals("call must go through Method.invoke", Boolean.TRUE, nonConstantTarget.invoke(null, 42));
+    }
+}
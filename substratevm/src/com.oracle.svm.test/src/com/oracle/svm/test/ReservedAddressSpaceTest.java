@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.test;
+
+import org.graalvm.compiler.word.Word;
+import org.graalvm.nativeimage.ImageSingletons;
+import org.graalvm.nativeimage.IsolateThread;
+import org.graalvm.nativeimage.Isolates;
+import org.graalvm.nativeimage.Isolates.CreateIsolateParameters;
+import org.graalvm.nativeimage.c.function.CEntryPoint;
+import org.graalvm.word.Pointer;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.svm.core.os.CommittedMemoryProvider;
+import com.oracle.svm.core.os.ReservedAddressSpaceCommittedMemoryProvider;
+import com.oracle.svm.core.snippets.KnownIntrinsics;
+
+/**
+ * Creates and tears down isolates whose heap lives in a reserved block of address space and checks
+ * that all objects, including objects in memory that has been freed and reused by the garbage
+ * collector, are within the reservation. Requires {@code -H:ReservedAddressSpaceSize}.
+ */
+public class ReservedAddressSpaceTest {
+
+    private static final int ISOLATES = 3;
+    private static final int ALLOCATIONS = 20_000;
+    /** Enough chunks that the reservation holds well over a thousand allocated ranges at once. */
+    private static final int LIVE_CHUNKS = 1_500;
+    /** Just above the default large array threshold, so that each array gets its own chunk. */
+    private static final int CHUNK_ARRAY_LENGTH = 132 * 1024;
+
+    @Before
+    public void checkReservation() {
+        Assume.assumeTrue(ImageSingletons.lookup(CommittedMemoryProvider.class) instanceof ReservedAddressSpaceCommittedMemoryProvider);
+    }
+
+    @Test
+    public void testCreateAndTearDownIsolates() {
+        for (int i = 0; i < ISOLATES; i++) {
+            IsolateThread isolate = Isolates.createIsolate(CreateIsolateParameters.getDefault());
+            int outside;
+            try {
+                outside = countObjectsOutsideReservation(isolate, ALLOCATIONS);
+            } finally {
+                Isolates.tearDownIsolate(isolate);
+            }
+            Assert.assertEquals("objects outside of the reservation in isolate " + i, 0, outside);
+        }
+    }
+
+    @Test
+    public void testCurrentIsolate() {
+        Assert.assertEquals(0, allocateAndCountOutsideReservation(ALLOCATIONS));
+    }
+
+    @Test
+    public void testManyLiveChunks() {
+        IsolateThread isolate = Isolates.createIsolate(CreateIsolateParameters.getDefault());
+        int outside;
+        try {
+            outside = countChunksOutsideReservation(isolate, LIVE_CHUNKS);
+        } finally {
+            Isolates.tearDownIsolate(isolate);
+        }
+        Assert.assertEquals(0, outside);
+    }
+
+    /**
+     * Keeps many chunks alive at the same time, frees every other one and fills the holes again, so
+     * that the reservation holds many allocated and free ranges at once.
+     */
+    @CEntryPoint
+    static int countChunksOutsideReservation(@SuppressWarnings("unused") IsolateThread isolate, int chunks) {
+        byte[][] live = new byte[chunks][];
+        for (int i = 0; i < chunks; i++) {
+            live[i] = new byte[CHUNK_ARRAY_LENGTH];
+        }
+        for (int i = 0; i < chunks; i += 2) {
+            live[i] = null;
+        }
+        System.gc();
+        for (int i = 0; i < chunks; i += 2) {
+            live[i] = new byte[CHUNK_ARRAY_LENGTH];
+        }
+        int outside = 0;
+        for (byte[] array : live) {
+            if (!isInReservation(array)) {
+                outside++;
+            }
+        }
+        return outside;
+    }
+
+    @CEntryPoint
+    static int countObjectsOutsideReservation(@SuppressWarnings("unused") IsolateThread isolate, int allocations) {
+        return allocateAndCountOutsideReservation(allocations);
+    }
+
+    /**
+     * Allocates small arrays in aligned chunks and large arrays in unaligned chunks, keeping some of
+     * them alive across garbage collections so that freed chunks are reused in between live ones.
+     */
+    private static int allocateAndCountOutsideReservation(int allocations) {
+        Object[] live = new Object[64];
+        int outside = 0;
+        for (int i = 0; i < allocations; i++) {
+            Object array = (i % 100 == 0) ? new byte[2 * 1024 * 1024] : new long[1024];
+            if (!isInReservation(array)) {
+                outside++;
+            }
+            live[(i * 31) % live.length] = array;
+            if (i % 5_000 == 0) {
+                System.gc();
+            }
+        }
+        for (Object array : live) {
+            if (!isInReservation(array)) {
+                outside++;
+            }
+        }
+        return outside;
+    }
+
+    private static boolean isInReservation(Object obj) {
+        Pointer address = Word.objectToUntrackedPointer(obj);
+        Pointer heapBase = KnownIntrinsics.heapBase();
+        return address.aboveOrEqual(heapBase) && address.belowThan(heapBase.add(ReservedAddressSpaceCommittedMemoryProvider.getReservedSize()));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the throughput of {@link String#intern()} with one and with eight threads, both for
+ * strings that are equal to literals, which are interned in the image heap, and for strings that
+ * are only interned at run time. Build as a standalone image with this class as the main class and
+ * compare the results of different builds.
+ */
+public class StringInternBenchmark {
+
+    private static final int ITERATIONS = 10_000_000;
+    private static final int ROUNDS = 5;
+    private static final int[] THREAD_COUNTS = {1, 8};
+
+    private static final String[] LITERALS = {"id", "name", "type", "value", "version", "timestamp", "attributes", "children", "encoding", "namespace", "xmlns", "href",
+                    "content-type", "content-length", "accept", "user-agent"};
+
+    private static final AtomicLong sink = new AtomicLong();
+
+    public static void main(String[] args) throws InterruptedException {
+        /* Copies of the literals, so that intern() actually has to look them up. */
+        String[] literalCopies = new String[LITERALS.length];
+        for (int i = 0; i < LITERALS.length; i++) {
+            literalCopies[i] = new String(LITERALS[i].toCharArray());
+        }
+        String[] runtimeStrings = new String[256];
+        for (int i = 0; i < runtimeStrings.length; i++) {
+            String interned = ("field" + i).intern();
+            runtimeStrings[i] = new String(interned.toCharArray());
+        }
+
+        for (int threads : THREAD_COUNTS) {
+            measure("image heap strings", literalCopies, threads);
+            measure("run-time strings", runtimeStrings, threads);
+        }
+        System.out.println(sink.get());
+    }
+
+    private static void measure(String description, String[] strings, int threadCount) throws InterruptedException {
+        run(strings, threadCount, ITERATIONS / 10);
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            run(strings, threadCount, ITERATIONS);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%s, %d threads, round %d: %.2f ns per intern in each thread%n", description, threadCount, round, (double) elapsed / ITERATIONS);
+        }
+    }
+
+    /** Runs the given number of iterations in each of the threads and waits for all of them. */
+    private static void run(String[] strings, int threadCount, int iterations) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            Thread thread = new Thread(() -> {
+                long result = 0;
+                for (int i = 0; i < iterations; i++) {
+                    result += strings[i & (strings.length - 1)].intern().length();
+                }
+                sink.addAndGet(result);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StringInternTest {
+
+    private static final String LITERAL = "stringInternTestLiteral";
+
+    @Test
+    public void testImageHeapString() {
+        String copy = new String(LITERAL.toCharArray());
+        Assert.assertNotSame(LITERAL, copy);
+        Assert.assertSame(LITERAL, copy.intern());
+    }
+
+    @Test
+    public void testHashCodeCollisions() {
+        /* "Aa" and "BB" have the same hash code, so one of them ends up in the overflow table. */
+        String aa = "Aa";
+        String bb = "BB";
+        Assert.assertEquals(aa.hashCode(), bb.hashCode());
+        Assert.assertSame(aa, new String(aa.toCharArray()).intern());
+        Assert.assertSame(bb, new String(bb.toCharArray()).intern());
+    }
+
+    @Test
+    public void testRuntimeString() {
+        String first = new String(new char[]{'r', 'u', 'n', 't', 'i', 'm', 'e', '1'});
+        String second = new String(first.toCharArray());
+        Assert.assertSame(first, first.intern());
+        Assert.assertSame(first, second.intern());
+    }
+
+    @Test
+    public void testConcurrentIntern() throws InterruptedException, ExecutionException {
+        int numThreads = 8;
+        int numStrings = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<String[]>> futures = new ArrayList<>();
+            for (int t = 0; t < numThreads; t++) {
+                futures.add(executor.submit(() -> {
+                    String[] result = new String[numStrings];
+                    for (int i = 0; i < numStrings; i++) {
+                        result[i] = ("concurrentIntern" + i).intern();
+                    }
+                    return result;
+                }));
+            }
+            String[] expected = futures.get(0).get();
+            for (Future<String[]> future : futures) {
+                String[] actual = future.get();
+                for (int i = 0; i < numStrings; i++) {
+                    Assert.assertSame(expected[i], actual[i]);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -36,10 +36,12 @@ import com.oracle.svm.core.annotate.Uninterruptible;
 import com.oracle.svm.core.code.CodeInfoTable;
 import com.oracle.svm.core.code.UntetheredCodeInfo;
 import com.oracle.svm.core.code.UntetheredCodeInfoAccess;
+import com.oracle.svm.core.deopt.PersistentSpeculations;
 import com.oracle.svm.core.deopt.SubstrateInstalledCode;
 import com.oracle.svm.core.deopt.SubstrateSpeculationLog;
 import com.oracle.svm.core.snippets.KnownIntrinsics;
 import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.SourceSection;
 
 import jdk.vm.ci.code.InstalledCode;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
@@ -61,7 +63,29 @@ public class SubstrateOptimizedCallTarget extends OptimizedCallTarget implements
 
     @Override
     public SpeculationLog getCompilationSpeculationLog() {
-        return getSpeculationLog();
+        SubstrateSpeculationLog speculationLog = getSpeculationLog();
+        if (PersistentSpeculations.isEnabled() && !speculationLog.hasPersistenceKey()) {
+            /*
+             * Not done in getSpeculationLog(), which is also called during deoptimization where the
+             * persistent speculations must not be loaded.
+             */
+            speculationLog.setPersistenceKey(getPersistenceKey());
+        }
+        return speculationLog;
+    }
+
+    /**
+     * Identifies the speculation log of this call target across process restarts. The key does not
+     * need to be unique, sharing a key only means that failed speculations are shared too.
+     */
+    private String getPersistenceKey() {
+        RootNode rootNode = getRootNode();
+        StringBuilder key = new StringBuilder(rootNode.getClass().getName()).append(' ').append(rootNode.getName());
+        SourceSection sourceSection = rootNode.getSourceSection();
+        if (sourceSection != null && sourceSection.isAvailable()) {
+            key.append(' ').append(sourceSection.getSource().getName()).append(':').append(sourceSection.getStartLine()).append(':').append(sourceSection.getStartColumn());
+        }
+        return key.toString();
     }
 
     @Override
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+/*
+ * Compares reading the elements of a polyglot array one by one with poly_value_get_array_element
+ * and poly_value_as_int32 against reading them in bulk with poly_value_get_array_elements and
+ * poly_value_read_array_int32. Run with `mx polyglot-array-benchmark`.
+ */
+#include <stdint.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <time.h>
+
+#include "polyglot_api.h"
+
+#define ARRAY_LENGTH 10000
+#define ITERATIONS 200
+#define WARMUP_ITERATIONS 20
+
+static void check(poly_thread thread, poly_status status, const char *what) {
+    if (status != poly_ok) {
+        const poly_extended_error_info *info;
+        poly_get_last_error_info(thread, &info);
+        fprintf(stderr, "%s failed: %s\n", what, info->error_message);
+        exit(1);
+    }
+}
+
+static double now_ns(void) {
+    struct timespec ts;
+    clock_gettime(CLOCK_MONOTONIC, &ts);
+    return ts.tv_sec * 1e9 + ts.tv_nsec;
+}
+
+static int64_t read_per_element(poly_thread thread, poly_value array, int32_t *buffer) {
+    int64_t sum = 0;
+    check(thread, poly_open_handle_scope(thread), "poly_open_handle_scope");
+    for (int64_t i = 0; i < ARRAY_LENGTH; i++) {
+        poly_value element;
+        check(thread, poly_value_get_array_element(thread, array, i, &element), "poly_value_get_array_element");
+        check(thread, poly_value_as_int32(thread, element, &buffer[i]), "poly_value_as_int32");
+        sum += buffer[i];
+    }
+    check(thread, poly_close_handle_scope(thread), "poly_close_handle_scope");
+    return sum;
+}
+
+static int64_t read_elements(poly_thread thread, poly_value array, int32_t *buffer) {
+    static poly_value elements[ARRAY_LENGTH];
+    int64_t sum = 0;
+    check(thread, poly_open_handle_scope(thread), "poly_open_handle_scope");
+    check(thread, poly_value_get_array_elements(thread, array, 0, ARRAY_LENGTH, elements), "poly_value_get_array_elements");
+    for (int64_t i = 0; i < ARRAY_LENGTH; i++) {
+        check(thread, poly_value_as_int32(thread, elements[i], &buffer[i]), "poly_value_as_int32");
+        sum += buffer[i];
+    }
+    check(thread, poly_close_handle_scope(thread), "poly_close_handle_scope");
+    return sum;
+}
+
+static int64_t read_bulk(poly_thread thread, poly_value array, int32_t *buffer) {
+    int64_t sum = 0;
+    check(thread, poly_value_read_array_int32(thread, array, 0, ARRAY_LENGTH, buffer), "poly_value_read_array_int32");
+    for (int64_t i = 0; i < ARRAY_LENGTH; i++) {
+        sum += buffer[i];
+    }
+    return sum;
+}
+
+static void run(const char *name, int64_t (*read)(poly_thread, poly_value, int32_t *), poly_thread thread, poly_value array, int64_t expected) {
+    static int32_t buffer[ARRAY_LENGTH];
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+        read(thread, array, buffer);
+    }
+    double start = now_ns();
+    for (int i = 0; i < ITERATIONS; i++) {
+        if (read(thread, array, buffer) != expected) {
+            fprintf(stderr, "%s: wrong sum\n", name);
+            exit(1);
+        }
+    }
+    double elapsed = now_ns() - start;
+    printf("%-30s %10.2f ns/element\n", name, elapsed / ITERATIONS / ARRAY_LENGTH);
+}
+
+int main(void) {
+    poly_isolate isolate = NULL;
+    poly_thread thread = NULL;
+    if (poly_create_isolate(NULL, &isolate, &thread) != poly_ok) {
+        fprintf(stderr, "poly_create_isolate failed\n");
+        return 1;
+    }
+    poly_context context;
+    check(thread, poly_create_context(thread, NULL, 0, &context), "poly_create_context");
+
+    static poly_value values[ARRAY_LENGTH];
+    int64_t expected = 0;
+    for (int32_t i = 0; i < ARRAY_LENGTH; i++) {
+        check(thread, poly_create_int32(thread, context, i, &values[i]), "poly_create_int32");
+        expected += i;
+    }
+    poly_value array;
+    check(thread, poly_create_array(thread, context, values, ARRAY_LENGTH, &array), "poly_create_array");
+
+    run("per element", read_per_element, thread, array, expected);
+    run("poly_value_get_array_elements", read_elements, thread, array, expected);
+    run("poly_value_read_array_int32", read_bulk, thread, array, expected);
+
+    check(thread, poly_context_close(thread, context, false), "poly_context_close");
+    poly_tear_down_isolate(thread);
+    return 0;
+}
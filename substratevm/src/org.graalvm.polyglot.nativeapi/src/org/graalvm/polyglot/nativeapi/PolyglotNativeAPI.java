@@ -43,6 +43,7 @@ import java.util.stream.Collectors;
 
 import org.graalvm.nativeimage.CurrentIsolate;
 import org.graalvm.nativeimage.ObjectHandle;
+import org.graalvm.nativeimage.PinnedObject;
 import org.graalvm.nativeimage.UnmanagedMemory;
 import org.graalvm.nativeimage.c.function.CEntryPoint;
 import org.graalvm.nativeimage.c.struct.SizeOf;
@@ -94,9 +95,12 @@ import org.graalvm.polyglot.nativeapi.types.PolyglotNativeAPITypes.SizeTPointer;
 import org.graalvm.polyglot.proxy.ProxyArray;
 import org.graalvm.polyglot.proxy.ProxyExecutable;
 import org.graalvm.polyglot.proxy.ProxyObject;
+import org.graalvm.word.Pointer;
+import org.graalvm.word.PointerBase;
 import org.graalvm.word.UnsignedWord;
 import org.graalvm.word.WordFactory;
 
+import com.oracle.svm.core.MemoryUtil;
 import com.oracle.svm.core.c.CConst;
 import com.oracle.svm.core.c.CHeader;
 import com.oracle.svm.core.c.CUnsigned;
@@ -986,6 +990,130 @@ public final class PolyglotNativeAPI {
         });
     }
 
+    @CEntryPoint(name = "poly_value_get_array_elements", documentation = {
+                    "Returns a range of array elements with a single transition into the isolate.",
+                    "",
+                    "Polyglot arrays start with index `0`, independent of the guest language. A handle is created for each ",
+                    "returned element in the current handle scope, see {@link poly_open_handle_scope}.",
+                    "",
+                    " @param value value that has array elements.",
+                    " @param offset index of the first element to return.",
+                    " @param length number of elements to return.",
+                    " @param result caller-allocated memory for at least `length` values.",
+                    " @return poly_ok if all works, poly_generic_failure if the range is out of bounds, if the underlying context was closed, ",
+                    "         if guest language error occurred during execution, poly_array_expected if the value has no array elements.",
+                    " @see org::graalvm::polyglot::Value::getArrayElement",
+                    " @since 20.1",
+    })
+    public static PolyglotStatus poly_value_get_array_elements(PolyglotIsolateThread thread, PolyglotValue value, long offset, long length, PolyglotValuePointer result) {
+        return withHandledErrors(() -> {
+            Value jValue = fetchArrayRange(value, offset, length);
+            for (long i = 0; i < length; i++) {
+                result.write(i, createHandle(jValue.getArrayElement(offset + i)));
+            }
+        });
+    }
+
+    @CEntryPoint(name = "poly_value_read_array_int8", documentation = {
+                    "Copies a range of array elements into caller-allocated memory as int8_t values.",
+                    "",
+                    "Polyglot arrays start with index `0`, independent of the guest language. Elements are read as if by ",
+                    "calling {@link poly_value_as_int8} on each of them, but without creating a handle for each element and ",
+                    "with a single transition into the isolate. Arrays of the host language are copied directly.",
+                    "",
+                    " @param value value that has array elements.",
+                    " @param offset index of the first element to read.",
+                    " @param length number of elements to read.",
+                    " @param buffer caller-allocated memory for at least `length` elements.",
+                    " @return poly_ok if all works, poly_generic_failure if the range is out of bounds, if an element could not be converted, ",
+                    "         if the underlying context was closed, if guest language error occurred during execution, poly_array_expected if ",
+                    "         the value has no array elements.",
+                    " @since 20.1",
+    })
+    public static PolyglotStatus poly_value_read_array_int8(PolyglotIsolateThread thread, PolyglotValue value, long offset, long length, CInt8Pointer buffer) {
+        return readArrayRange(value, offset, length, buffer, byte[].class, Byte.BYTES, (i, element) -> buffer.write(WordFactory.signed(i), element.asByte()));
+    }
+
+    @CEntryPoint(name = "poly_value_read_array_int32", documentation = {
+                    "Copies a range of array elements into caller-allocated memory as int32_t values.",
+                    "",
+                    "Polyglot arrays start with index `0`, independent of the guest language. Elements are read as if by ",
+                    "calling {@link poly_value_as_int32} on each of them, but without creating a handle for each element and ",
+                    "with a single transition into the isolate. Arrays of the host language are copied directly.",
+                    "",
+                    " @param value value that has array elements.",
+                    " @param offset index of the first element to read.",
+                    " @param length number of elements to read.",
+                    " @param buffer caller-allocated memory for at least `length` elements.",
+                    " @return poly_ok if all works, poly_generic_failure if the range is out of bounds, if an element could not be converted, ",
+                    "         if the underlying context was closed, if guest language error occurred during execution, poly_array_expected if ",
+                    "         the value has no array elements.",
+                    " @since 20.1",
+    })
+    public static PolyglotStatus poly_value_read_array_int32(PolyglotIsolateThread thread, PolyglotValue value, long offset, long length, CInt32Pointer buffer) {
+        return readArrayRange(value, offset, length, buffer, int[].class, Integer.BYTES, (i, element) -> buffer.write(WordFactory.signed(i), element.asInt()));
+    }
+
+    @CEntryPoint(name = "poly_value_read_array_int64", documentation = {
+                    "Copies a range of array elements into caller-allocated memory as int64_t values.",
+                    "",
+                    "Polyglot arrays start with index `0`, independent of the guest language. Elements are read as if by ",
+                    "calling {@link poly_value_as_int64} on each of them, but without creating a handle for each element and ",
+                    "with a single transition into the isolate. Arrays of the host language are copied directly.",
+                    "",
+                    " @param value value that has array elements.",
+                    " @param offset index of the first element to read.",
+                    " @param length number of elements to read.",
+                    " @param buffer caller-allocated memory for at least `length` elements.",
+                    " @return poly_ok if all works, poly_generic_failure if the range is out of bounds, if an element could not be converted, ",
+                    "         if the underlying context was closed, if guest language error occurred during execution, poly_array_expected if ",
+                    "         the value has no array elements.",
+                    " @since 20.1",
+    })
+    public static PolyglotStatus poly_value_read_array_int64(PolyglotIsolateThread thread, PolyglotValue value, long offset, long length, CInt64Pointer buffer) {
+        return readArrayRange(value, offset, length, buffer, long[].class, Long.BYTES, (i, element) -> buffer.write(WordFactory.signed(i), element.asLong()));
+    }
+
+    @CEntryPoint(name = "poly_value_read_array_float", documentation = {
+                    "Copies a range of array elements into caller-allocated memory as float values.",
+                    "",
+                    "Polyglot arrays start with index `0`, independent of the guest language. Elements are read as if by ",
+                    "calling {@link poly_value_as_float} on each of them, but without creating a handle for each element and ",
+                    "with a single transition into the isolate. Arrays of the host language are copied directly.",
+                    "",
+                    " @param value value that has array elements.",
+                    " @param offset index of the first element to read.",
+                    " @param length number of elements to read.",
+                    " @param buffer caller-allocated memory for at least `length` elements.",
+                    " @return poly_ok if all works, poly_generic_failure if the range is out of bounds, if an element could not be converted, ",
+                    "         if the underlying context was closed, if guest language error occurred during execution, poly_array_expected if ",
+                    "         the value has no array elements.",
+                    " @since 20.1",
+    })
+    public static PolyglotStatus poly_value_read_array_float(PolyglotIsolateThread thread, PolyglotValue value, long offset, long length, CFloatPointer buffer) {
+        return readArrayRange(value, offset, length, buffer, float[].class, Float.BYTES, (i, element) -> buffer.write(WordFactory.signed(i), element.asFloat()));
+    }
+
+    @CEntryPoint(name = "poly_value_read_array_double", documentation = {
+                    "Copies a range of array elements into caller-allocated memory as double values.",
+                    "",
+                    "Polyglot arrays start with index `0`, independent of the guest language. Elements are read as if by ",
+                    "calling {@link poly_value_as_double} on each of them, but without creating a handle for each element and ",
+                    "with a single transition into the isolate. Arrays of the host language are copied directly.",
+                    "",
+                    " @param value value that has array elements.",
+                    " @param offset index of the first element to read.",
+                    " @param length number of elements to read.",
+                    " @param buffer caller-allocated memory for at least `length` elements.",
+                    " @return poly_ok if all works, poly_generic_failure if the range is out of bounds, if an element could not be converted, ",
+                    "         if the underlying context was closed, if guest language error occurred during execution, poly_array_expected if ",
+                    "         the value has no array elements.",
+                    " @since 20.1",
+    })
+    public static PolyglotStatus poly_value_read_array_double(PolyglotIsolateThread thread, PolyglotValue value, long offset, long length, CDoublePointer buffer) {
+        return readArrayRange(value, offset, length, buffer, double[].class, Double.BYTES, (i, element) -> buffer.write(WordFactory.signed(i), element.asDouble()));
+    }
+
     @CEntryPoint(name = "poly_value_is_null", documentation = {
                     "Returns `true` if this value is `null` like.",
                     "",
@@ -1522,6 +1650,22 @@ public final class PolyglotNativeAPI {
         return withHandledErrors(() -> objectHandles.destroy(reference));
     }
 
+    @CEntryPoint(name = "poly_delete_references", documentation = {
+                    "Deletes multiple poly_references with a single transition into the isolate. After this point, the references ",
+                    "must not be used anymore.",
+                    "",
+                    " @param references array of references to delete.",
+                    " @param count number of references in the array.",
+                    " @since 20.1",
+    })
+    public static PolyglotStatus poly_delete_references(PolyglotIsolateThread thread, PolyglotNativeAPITypes.PolyglotReferencePointer references, UnsignedWord count) {
+        return withHandledErrors(() -> {
+            for (long i = 0; i < count.rawValue(); i++) {
+                objectHandles.destroy(references.read(i));
+            }
+        });
+    }
+
     @CEntryPoint(name = "poly_create_reference", documentation = {
                     "Creates a poly_reference from a poly_handle. After this point, the reference is alive until poly_delete_reference is called. ",
                     "",
@@ -1778,6 +1922,44 @@ public final class PolyglotNativeAPI {
         }
     }
 
+    private interface ElementWriter {
+        void write(long index, Value element) throws Exception;
+    }
+
+    /**
+     * Copies the array elements in the range {@code [offset, offset + length)} of the value to the
+     * buffer. A host array of type {@code hostArrayClass} is copied as a whole, other arrays are
+     * copied element by element with the {@code elementWriter}.
+     */
+    private static PolyglotStatus readArrayRange(PolyglotValue value, long offset, long length, PointerBase buffer, Class<?> hostArrayClass, int elementSize, ElementWriter elementWriter) {
+        return withHandledErrors(() -> {
+            Value jValue = fetchArrayRange(value, offset, length);
+            Object hostArray = jValue.isHostObject() ? jValue.asHostObject() : null;
+            if (hostArrayClass.isInstance(hostArray)) {
+                try (PinnedObject pinned = PinnedObject.create(hostArray)) {
+                    Pointer source = pinned.addressOfArrayElement((int) offset);
+                    MemoryUtil.copyConjointMemoryAtomic(source, WordFactory.pointer(buffer.rawValue()), WordFactory.unsigned(length).multiply(elementSize));
+                }
+            } else {
+                for (long i = 0; i < length; i++) {
+                    elementWriter.write(i, jValue.getArrayElement(offset + i));
+                }
+            }
+        });
+    }
+
+    private static Value fetchArrayRange(PolyglotValue value, long offset, long length) {
+        Value jValue = fetchHandle(value);
+        if (!jValue.hasArrayElements()) {
+            throw reportError("Array expected but got " + jValue.getMetaObject().toString(), poly_array_expected);
+        }
+        long size = jValue.getArraySize();
+        if (offset < 0 || length < 0 || offset > size - length) {
+            throw reportError("Array range [" + offset + ", " + offset + " + " + length + ") out of bounds for size " + size, poly_generic_failure);
+        }
+        return jValue;
+    }
+
     private static PolyglotNativeAPITypes.PolyglotHandle createHandle(Object result) {
         return getHandles().create(result);
     }
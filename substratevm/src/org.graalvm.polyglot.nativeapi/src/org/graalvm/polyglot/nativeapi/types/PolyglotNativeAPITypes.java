@@ -133,6 +133,8 @@ public class PolyglotNativeAPITypes {
 
     @CPointerTo(nameOfCType = "poly_reference")
     public interface PolyglotReferencePointer extends PointerBase, PolyglotHandle {
+        PolyglotReference read(long index);
+
         void write(PolyglotReference value);
     }
 
@@ -198,6 +200,8 @@ public class PolyglotNativeAPITypes {
         void write(ObjectHandle value);
 
         void write(int index, ObjectHandle value);
+
+        void write(long index, ObjectHandle value);
     }
 
     @CPointerTo(nameOfCType = "poly_callback_info")